@@ -0,0 +1,118 @@
+package com.neuralseed;
+
+import android.content.Context;
+import android.util.Log;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * محوّل أندرويد للقشرة اللغوية - ما يحتاج المنصة يبقى هنا والمحرك نفسه في وحدة engine
+ *
+ * قاعدة SQLite المحلية وترحيلها في الخلفية، وذاكرة Firebase السحابية، والنسخ
+ * الاحتياطي إلى ملفات التطبيق. القشرة لا ترى إلا SeedRepository و CloudMemory.
+ */
+public class AndroidLinguisticAdapter {
+
+    private static final String TAG = "LinguisticCortex";
+
+    private final LinguisticCortex cortex;
+    private LocalDatabase database;
+    private FirebaseManager firebaseManager;
+
+    public AndroidLinguisticAdapter(LinguisticCortex cortex) {
+        this.cortex = cortex;
+    }
+
+    /**
+     * تهيئة قاعدة البيانات المحلية وربطها بالقشرة
+     */
+    public void initializeDatabase(Context context) {
+        database = new LocalDatabase(context);
+        startPendingMigrations();
+        cortex.initializeRepository(database, new File(context.getFilesDir(), LexiconImage.FILE_NAME));
+    }
+
+    /**
+     * نقل بيانات الإصدارات القديمة على دفعات في الخلفية؛ القراءة تعمل أثناء الترحيل
+     */
+    private void startPendingMigrations() {
+        LocalDatabase db = database;
+        Thread migration = new Thread(() -> db.runPendingMigrations(new SchemaMigrator.ProgressListener() {
+            @Override
+            public void onProgress(int version, String step, long processed, long total) {
+                Log.i(TAG, "Migration v" + version + " " + step + ": " + processed + "/" + total);
+            }
+
+            @Override
+            public void onComplete() {
+                Log.i(TAG, "Database migrations complete");
+                // أرشفة المحادثات القديمة تحتاج بنية الإصدار الأخير
+                db.runMaintenance();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                // تُستأنف من آخر دفعة مثبتة في التشغيل التالي
+                Log.e(TAG, "Migration paused: " + error.getMessage());
+            }
+        }), "SchemaMigration");
+        migration.setPriority(Thread.MIN_PRIORITY);
+        migration.start();
+    }
+
+    /**
+     * تهيئة Firebase؛ صندوق الصادر السحابي جدول في القاعدة المحلية فتُهيأ أولاً
+     */
+    public void initializeFirebase(Context context) {
+        if (database == null) return;
+        try {
+            firebaseManager = new FirebaseManager(context, database);
+            cortex.attachCloud(firebaseManager);
+        } catch (Exception e) {
+            Log.e(TAG, "Firebase initialization error: " + e.getMessage());
+        }
+    }
+
+    // ===== النسخ الاحتياطي =====
+
+    /**
+     * نسخة احتياطية كاملة مضغوطة في مجلد التطبيق؛ تُرجع الملف أو null عند الفشل
+     */
+    public File exportData(Context context) {
+        return exportData(new File(context.getFilesDir(), "backup.json.gz"), 0);
+    }
+
+    /**
+     * نسخة إلى ملف محدد، تزايدية إذا كان since أكبر من صفر
+     */
+    public File exportData(File target, long since) {
+        if (database == null) return null;
+        try {
+            long rows = database.exportTo(target, since, true);
+            Log.i(TAG, "Exported " + rows + " rows to " + target);
+            return target;
+        } catch (IOException e) {
+            Log.e(TAG, "Export failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * استيراد نسخة ثم دمج الكلمات المستوردة في المعجم وإعادة بناء صورته
+     */
+    public boolean importData(File source) {
+        if (database == null) return false;
+        try {
+            long rows = database.importFrom(source);
+            Log.i(TAG, "Imported " + rows + " rows from " + source);
+        } catch (IOException e) {
+            Log.e(TAG, "Import failed: " + e.getMessage());
+            return false;
+        }
+        cortex.reloadSavedData();
+        return true;
+    }
+
+    public LocalDatabase getDatabase() { return database; }
+    public FirebaseManager getFirebaseManager() { return firebaseManager; }
+}
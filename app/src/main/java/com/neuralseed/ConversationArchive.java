@@ -0,0 +1,342 @@
+package com.neuralseed;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import java.util.*;
+
+/**
+ * أرشيف المحادثات الشهري - جدول المحادثات يبقى للأشهر الحديثة فقط
+ *
+ * المحادثات الأقدم من النافذة الساخنة تُنقل على دفعات إلى جدول لكل شهر
+ * (conversations_YYYYMM) مع الاحتفاظ بمعرّفاتها، فتبقى عواطفها وفهرس البحث
+ * مرتبطة بها. بعد مدة الاحتفاظ يُلخَّص الشهر في صف واحد ويُحذف جدوله كاملاً
+ * بـ DROP TABLE بدل حذف الصفوف من جدول ضخم وتنظيفه.
+ */
+public class ConversationArchive {
+
+    private static final String TAG = "ConversationArchive";
+
+    public static final String PARTITIONS = "conversation_partitions";
+    public static final String SUMMARIES = "conversation_summaries";
+
+    public static final int DEFAULT_HOT_MONTHS = 1;
+    public static final int DEFAULT_RETENTION_MONTHS = 12;
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int SUMMARY_TOP_WORDS = 10;
+    private static final String COLUMNS = "id, user_message, ai_response, context, timestamp";
+
+    private final int hotMonths;
+    private final int retentionMonths;
+
+    /**
+     * @param hotMonths عدد الأشهر السابقة التي تبقى مع الشهر الحالي في الجدول الساخن
+     * @param retentionMonths عمر الشهر المؤرشف قبل تلخيصه وحذف محادثاته
+     */
+    public ConversationArchive(int hotMonths, int retentionMonths) {
+        this.hotMonths = Math.max(0, hotMonths);
+        this.retentionMonths = Math.max(this.hotMonths + 1, retentionMonths);
+    }
+
+    // ===== البنية =====
+
+    public static void create(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + PARTITIONS + " (" +
+                "month INTEGER PRIMARY KEY," +
+                "table_name TEXT NOT NULL," +
+                "row_count INTEGER NOT NULL DEFAULT 0," +
+                "first_id INTEGER," +
+                "last_id INTEGER," +
+                "first_timestamp INTEGER," +
+                "last_timestamp INTEGER" +
+                ")");
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + SUMMARIES + " (" +
+                "month INTEGER PRIMARY KEY," +
+                "conversations INTEGER NOT NULL," +
+                "first_timestamp INTEGER," +
+                "last_timestamp INTEGER," +
+                "top_words TEXT," +
+                "dominant_emotion TEXT," +
+                "dominant_intensity REAL" +
+                ")");
+    }
+
+    public static String tableFor(int month) {
+        return "conversations_" + month;
+    }
+
+    private static void ensurePartition(SQLiteDatabase db, int month) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + tableFor(month) + " (" +
+                "id INTEGER PRIMARY KEY," +
+                "user_message TEXT," +
+                "ai_response TEXT," +
+                "context TEXT," +
+                "timestamp INTEGER" +
+                ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_" + tableFor(month) + "_time ON " +
+                   tableFor(month) + "(timestamp)");
+        db.execSQL("INSERT OR IGNORE INTO " + PARTITIONS + " (month, table_name) VALUES (?, ?)",
+                   new Object[]{month, tableFor(month)});
+    }
+
+    /**
+     * الأشهر المؤرشفة من الأحدث إلى الأقدم
+     */
+    public static List<Integer> partitions(SQLiteDatabase db) {
+        List<Integer> months = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT month FROM " + PARTITIONS + " ORDER BY month DESC", null);
+        if (cursor != null) {
+            while (cursor.moveToNext()) months.add(cursor.getInt(0));
+            cursor.close();
+        }
+        return months;
+    }
+
+    /**
+     * الأشهر المؤرشفة التي قد تحوي معرّفات ضمن مدى معين حسب فهرس الأقسام
+     */
+    public static List<Integer> partitionsContaining(SQLiteDatabase db, long minId, long maxId) {
+        List<Integer> months = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT month FROM " + PARTITIONS +
+                                    " WHERE first_id <= ? AND last_id >= ? ORDER BY month DESC",
+                                    new String[]{String.valueOf(maxId), String.valueOf(minId)});
+        if (cursor != null) {
+            while (cursor.moveToNext()) months.add(cursor.getInt(0));
+            cursor.close();
+        }
+        return months;
+    }
+
+    // ===== حساب الأشهر =====
+
+    /**
+     * الشهر بصيغة YYYYMM بالتوقيت المحلي
+     */
+    public static int monthOf(long timestamp) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timestamp);
+        return calendar.get(Calendar.YEAR) * 100 + calendar.get(Calendar.MONTH) + 1;
+    }
+
+    public static long monthStart(int month) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(month / 100, month % 100 - 1, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    public static int addMonths(int month, int delta) {
+        int index = (month / 100) * 12 + (month % 100 - 1) + delta;
+        return (index / 12) * 100 + index % 12 + 1;
+    }
+
+    /**
+     * بداية النافذة الساخنة: ما قبلها يُؤرشف
+     */
+    public long hotStart(long now) {
+        return monthStart(addMonths(monthOf(now), -hotMonths));
+    }
+
+    // ===== الأرشفة =====
+
+    /**
+     * نقل المحادثات الأقدم من النافذة الساخنة إلى جداولها الشهرية، دفعة لكل معاملة
+     */
+    public int archive(SQLiteDatabase db, long now) {
+        long hotStart = hotStart(now);
+        boolean indexed = FullTextIndex.exists(db);
+        int total = 0;
+
+        while (true) {
+            int moved;
+            db.beginTransaction();
+            try {
+                moved = moveChunk(db, hotStart, indexed);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (moved == 0) break;
+            total += moved;
+        }
+
+        if (total > 0) Log.i(TAG, "Archived " + total + " conversations");
+        return total;
+    }
+
+    private int moveChunk(SQLiteDatabase db, long hotStart, boolean indexed) {
+        Long oldest = null;
+        Cursor cursor = db.rawQuery("SELECT MIN(timestamp) FROM conversations WHERE timestamp < ?",
+                                    new String[]{String.valueOf(hotStart)});
+        if (cursor != null) {
+            if (cursor.moveToFirst() && !cursor.isNull(0)) oldest = cursor.getLong(0);
+            cursor.close();
+        }
+        if (oldest == null) return 0;
+
+        int month = monthOf(oldest);
+        String from = String.valueOf(monthStart(month));
+        String to = String.valueOf(Math.min(monthStart(addMonths(month, 1)), hotStart));
+
+        int rows = 0;
+        long firstId = 0, lastId = 0, firstTime = 0, lastTime = 0;
+        cursor = db.rawQuery("SELECT COUNT(*), MIN(id), MAX(id), MIN(timestamp), MAX(timestamp) FROM " +
+                             "(SELECT id, timestamp FROM conversations WHERE timestamp >= ? AND timestamp < ?" +
+                             " ORDER BY id LIMIT " + CHUNK_SIZE + ")", new String[]{from, to});
+        if (cursor != null) {
+            if (cursor.moveToFirst() && cursor.getInt(0) > 0) {
+                rows = cursor.getInt(0);
+                firstId = cursor.getLong(1);
+                lastId = cursor.getLong(2);
+                firstTime = cursor.getLong(3);
+                lastTime = cursor.getLong(4);
+            }
+            cursor.close();
+        }
+        if (rows == 0) return 0;
+
+        String table = tableFor(month);
+        ensurePartition(db, month);
+
+        String where = " WHERE timestamp >= ? AND timestamp < ? AND id <= ?";
+        Object[] args = {from, to, lastId};
+        db.execSQL("INSERT OR REPLACE INTO " + table + " (" + COLUMNS + ") SELECT " + COLUMNS +
+                   " FROM conversations" + where, args);
+        // مشغلات الحذف تنقص العداد وتزيل صفوف الفهرس، فيُعادان للصفوف المنقولة
+        db.execSQL("DELETE FROM conversations" + where, args);
+        db.execSQL("UPDATE " + TableCounters.TABLE + " SET value = value + ? WHERE name = ?",
+                   new Object[]{rows, TableCounters.CONVERSATIONS});
+
+        if (indexed) {
+            String moved = "SELECT id FROM " + table + " WHERE id BETWEEN ? AND ?";
+            Object[] range = {firstId, lastId};
+            db.execSQL("DELETE FROM " + FullTextIndex.CONVERSATIONS_FTS + " WHERE rowid IN (" + moved + ")", range);
+            db.execSQL("INSERT INTO " + FullTextIndex.CONVERSATIONS_FTS + " (rowid, user_message, ai_response)" +
+                       " SELECT id, " + FullTextIndex.foldSql("user_message") + ", " +
+                       FullTextIndex.foldSql("ai_response") + " FROM " + table + " WHERE id BETWEEN ? AND ?", range);
+        }
+
+        db.execSQL("UPDATE " + PARTITIONS + " SET row_count = row_count + ?," +
+                   " first_id = MIN(COALESCE(first_id, ?), ?), last_id = MAX(COALESCE(last_id, ?), ?)," +
+                   " first_timestamp = MIN(COALESCE(first_timestamp, ?), ?)," +
+                   " last_timestamp = MAX(COALESCE(last_timestamp, ?), ?) WHERE month = ?",
+                   new Object[]{rows, firstId, firstId, lastId, lastId,
+                                firstTime, firstTime, lastTime, lastTime, month});
+        return rows;
+    }
+
+    // ===== التلخيص والحذف =====
+
+    /**
+     * تلخيص الأشهر التي تجاوزت مدة الاحتفاظ ثم حذف جداولها
+     */
+    public int rollup(SQLiteDatabase db, long now) {
+        int cutoff = addMonths(monthOf(now), -retentionMonths);
+        int rolled = 0;
+
+        for (Integer month : partitions(db)) {
+            if (month >= cutoff) continue;
+            db.beginTransaction();
+            try {
+                summarize(db, month);
+                drop(db, month);
+                db.setTransactionSuccessful();
+                rolled++;
+            } finally {
+                db.endTransaction();
+            }
+        }
+
+        if (rolled > 0) Log.i(TAG, "Rolled up " + rolled + " archived months");
+        return rolled;
+    }
+
+    private void summarize(SQLiteDatabase db, int month) {
+        String table = tableFor(month);
+        String ids = "SELECT id FROM " + table;
+
+        ContentValues values = new ContentValues();
+        values.put("month", month);
+
+        Cursor cursor = db.rawQuery("SELECT COUNT(*), MIN(timestamp), MAX(timestamp) FROM " + table, null);
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                values.put("conversations", cursor.getInt(0));
+                values.put("first_timestamp", cursor.getLong(1));
+                values.put("last_timestamp", cursor.getLong(2));
+            }
+            cursor.close();
+        }
+
+        // الكلمات الأكثر تكراراً في رسائل المستخدم
+        Map<String, Integer> frequency = new HashMap<>();
+        cursor = db.rawQuery("SELECT user_message FROM " + table, null);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                String message = cursor.getString(0);
+                if (message == null) continue;
+                for (String token : FullTextIndex.fold(message).split("[^\\p{L}\\p{N}]+")) {
+                    if (token.length() >= 3) frequency.merge(token, 1, Integer::sum);
+                }
+            }
+            cursor.close();
+        }
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(frequency.entrySet());
+        ranked.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        StringBuilder topWords = new StringBuilder();
+        for (int i = 0; i < Math.min(SUMMARY_TOP_WORDS, ranked.size()); i++) {
+            if (i > 0) topWords.append(' ');
+            topWords.append(ranked.get(i).getKey());
+        }
+        values.put("top_words", topWords.toString());
+
+        cursor = db.rawQuery("SELECT emotion, AVG(intensity) AS level FROM record_emotion" +
+                             " WHERE record_type = ? AND record_id IN (" + ids + ")" +
+                             " GROUP BY emotion ORDER BY level DESC LIMIT 1", new String[]{"conversation"});
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                values.put("dominant_emotion", cursor.getString(0));
+                values.put("dominant_intensity", cursor.getDouble(1));
+            }
+            cursor.close();
+        }
+
+        db.insertWithOnConflict(SUMMARIES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private void drop(SQLiteDatabase db, int month) {
+        String table = tableFor(month);
+        String ids = "SELECT id FROM " + table;
+
+        db.execSQL("DELETE FROM record_emotion WHERE record_type = ? AND record_id IN (" + ids + ")",
+                   new Object[]{"conversation"});
+        if (FullTextIndex.exists(db)) {
+            db.execSQL("DELETE FROM " + FullTextIndex.CONVERSATIONS_FTS + " WHERE rowid IN (" + ids + ")");
+        }
+        db.execSQL("UPDATE " + TableCounters.TABLE + " SET value = value - (SELECT COUNT(*) FROM " + table +
+                   ") WHERE name = ?", new Object[]{TableCounters.CONVERSATIONS});
+        db.execSQL("DROP TABLE IF EXISTS " + table);
+        db.delete(PARTITIONS, "month = ?", new String[]{String.valueOf(month)});
+    }
+
+    /**
+     * حذف كل الأشهر المؤرشفة وملخصاتها
+     */
+    public static void clear(SQLiteDatabase db) {
+        db.execSQL("UPDATE " + TableCounters.TABLE + " SET value = value - (SELECT COALESCE(SUM(row_count), 0) FROM " +
+                   PARTITIONS + ") WHERE name = ?", new Object[]{TableCounters.CONVERSATIONS});
+        if (FullTextIndex.exists(db)) {
+            for (Integer month : partitions(db)) {
+                db.execSQL("DELETE FROM " + FullTextIndex.CONVERSATIONS_FTS + " WHERE rowid IN (SELECT id FROM " +
+                           tableFor(month) + ")");
+            }
+        }
+        for (Integer month : partitions(db)) {
+            db.execSQL("DROP TABLE IF EXISTS " + tableFor(month));
+        }
+        db.execSQL("DELETE FROM " + PARTITIONS);
+        db.execSQL("DELETE FROM " + SUMMARIES);
+    }
+}
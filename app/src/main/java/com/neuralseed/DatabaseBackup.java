@@ -0,0 +1,501 @@
+package com.neuralseed;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * النسخ الاحتياطي المتدفق - تصدير واستيراد كل الجداول دون تحميلها في الذاكرة
+ *
+ * الجداول تُقرأ على صفحات بالمعرّف وتُكتب صفاً صفاً بـ JsonWriter، والجداول الفرعية
+ * (المعاني والعواطف والعلاقات) تُضمَّن في صفها الأصلي فلا يحتاج الملف إلى المعرّفات.
+ * الاستيراد يقرأ بـ JsonReader ويكتب على دفعات، كل دفعة في معاملة.
+ *
+ * {"format": "neuralseed-backup", "version": 1, "since": 0,
+ *  "tables": {"words": [{...}, ...], "sentences": [...], ...}}
+ */
+public class DatabaseBackup {
+
+    public static final String FORMAT = "neuralseed-backup";
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int PAGE_SIZE = 500;
+
+    // الجداول بالترتيب، وعمود الزمن الذي يحدد التصدير التزايدي
+    private static final String[][] TABLES = {
+        {"words", "MAX(created_at, COALESCE(last_used, 0))"},
+        {"sentences", "created_at"},
+        {"meanings", "created_at"},
+        {"emotions", "created_at"},
+        {"learned", "learned_at"},
+        {"corrections", "corrected_at"},
+        {"conversations", "timestamp"},
+        {"experiences", "timestamp"}
+    };
+
+    // الجداول التي تُربط عواطفها في record_emotion ونوع السجل لكل منها
+    private static final Map<String, String> RECORD_TYPES = new HashMap<>();
+
+    static {
+        RECORD_TYPES.put("sentences", "sentence");
+        RECORD_TYPES.put("conversations", "conversation");
+        RECORD_TYPES.put("experiences", "experience");
+    }
+
+    private final SQLiteDatabase db;
+
+    public DatabaseBackup(SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    // ===== التصدير =====
+
+    /**
+     * تصدير إلى ملف؛ الكتابة في ملف مؤقت ثم إعادة تسمية فلا تبقى نسخة مقطوعة
+     */
+    public long exportToFile(File file, long since, boolean gzip) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        long rows;
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            rows = export(out, since, gzip);
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot replace backup: " + file);
+        }
+        return rows;
+    }
+
+    /**
+     * تصدير الصفوف التي أُنشئت أو عُدّلت منذ since (صفر للكل)، ويُرجع عدد الصفوف
+     */
+    public long export(OutputStream out, long since, boolean gzip) throws IOException {
+        OutputStream stream = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(
+            new BufferedOutputStream(stream, 64 * 1024), StandardCharsets.UTF_8));
+        long rows = 0;
+
+        writer.beginObject();
+        writer.name("format").value(FORMAT);
+        writer.name("version").value(FORMAT_VERSION);
+        writer.name("since").value(since);
+        writer.name("exported_at").value(System.currentTimeMillis());
+
+        writer.name("tables").beginObject();
+        for (String[] table : TABLES) {
+            writer.name(table[0]).beginArray();
+            rows += exportTable(writer, table[0], table[0], table[1], since);
+            if (table[0].equals("conversations")) {
+                // الأشهر المؤرشفة تُصدَّر ضمن المحادثات فتعود إلى الجدول الساخن عند الاستيراد
+                for (Integer month : ConversationArchive.partitions(db)) {
+                    rows += exportTable(writer, ConversationArchive.tableFor(month), table[0], table[1], since);
+                }
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+
+        writer.endObject();
+        // يغلق سلسلة التدفقات كلها وينهي ذيل gzip
+        writer.close();
+        return rows;
+    }
+
+    private long exportTable(JsonWriter writer, String source, String table, String timeColumn,
+                             long since) throws IOException {
+        long lastId = 0;
+        long rows = 0;
+
+        // بلا since لا يُطبق شرط الزمن فتُصدَّر الصفوف ذات الزمن الفارغ أيضاً
+        String query = "SELECT * FROM " + source + " WHERE id > ?" +
+                       (since > 0 ? " AND " + timeColumn + " >= " + since : "") +
+                       " ORDER BY id LIMIT " + PAGE_SIZE;
+
+        while (true) {
+            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(lastId)});
+            if (cursor == null) break;
+            try {
+                if (!cursor.moveToLast()) break;
+                int idColumn = cursor.getColumnIndexOrThrow("id");
+                long pageEnd = cursor.getLong(idColumn);
+                cursor.moveToFirst();
+                long pageStart = cursor.getLong(idColumn);
+
+                Children children = loadChildren(table, pageStart, pageEnd);
+
+                cursor.moveToPosition(-1);
+                while (cursor.moveToNext()) {
+                    writeRow(writer, table, cursor, idColumn, children);
+                    rows++;
+                }
+                lastId = pageEnd;
+            } finally {
+                cursor.close();
+            }
+        }
+        return rows;
+    }
+
+    private void writeRow(JsonWriter writer, String table, Cursor cursor, int idColumn,
+                          Children children) throws IOException {
+        writer.beginObject();
+        for (int i = 0; i < cursor.getColumnCount(); i++) {
+            if (i == idColumn) continue;
+            switch (cursor.getType(i)) {
+                case Cursor.FIELD_TYPE_INTEGER:
+                    writer.name(cursor.getColumnName(i)).value(cursor.getLong(i));
+                    break;
+                case Cursor.FIELD_TYPE_FLOAT:
+                    writer.name(cursor.getColumnName(i)).value(cursor.getDouble(i));
+                    break;
+                case Cursor.FIELD_TYPE_STRING:
+                    writer.name(cursor.getColumnName(i)).value(cursor.getString(i));
+                    break;
+                default:
+                    // القيم الفارغة وأعمدة JSON القديمة المُفرَّغة لا تُكتب
+                    break;
+            }
+        }
+
+        if (table.equals("words")) {
+            String word = cursor.getString(cursor.getColumnIndexOrThrow("word"));
+            writer.name("meanings").beginArray();
+            for (String meaning : children.meaningsOf(word)) {
+                writer.value(meaning);
+            }
+            writer.endArray();
+            writeEmotions(writer, children.emotions.get(word));
+        } else if (table.equals("meanings")) {
+            String concept = cursor.getString(cursor.getColumnIndexOrThrow("concept"));
+            writer.name("relations").beginArray();
+            for (Object[] relation : children.relationsOf(concept)) {
+                writer.beginObject();
+                writer.name("relation").value((String) relation[0]);
+                writer.name("target").value((String) relation[1]);
+                if (relation[2] != null) writer.name("weight").value((Double) relation[2]);
+                writer.endObject();
+            }
+            writer.endArray();
+        } else if (RECORD_TYPES.containsKey(table)) {
+            writeEmotions(writer, children.emotions.get(cursor.getString(idColumn)));
+        }
+
+        writer.endObject();
+    }
+
+    private static void writeEmotions(JsonWriter writer, Map<String, Double> emotions) throws IOException {
+        writer.name("emotions").beginObject();
+        if (emotions != null) {
+            for (Map.Entry<String, Double> emotion : emotions.entrySet()) {
+                writer.name(emotion.getKey()).value(emotion.getValue());
+            }
+        }
+        writer.endObject();
+    }
+
+    /**
+     * صفوف الجداول الفرعية لصفحة واحدة من الجدول الأصلي
+     */
+    private static class Children {
+        final Map<String, List<String>> meanings = new HashMap<>();
+        final Map<String, Map<String, Double>> emotions = new HashMap<>();
+        final Map<String, List<Object[]>> relations = new HashMap<>();
+
+        List<String> meaningsOf(String word) {
+            List<String> list = meanings.get(word);
+            return list != null ? list : Collections.emptyList();
+        }
+
+        List<Object[]> relationsOf(String concept) {
+            List<Object[]> list = relations.get(concept);
+            return list != null ? list : Collections.emptyList();
+        }
+    }
+
+    private Children loadChildren(String table, long pageStart, long pageEnd) {
+        Children children = new Children();
+        String[] range = {String.valueOf(pageStart), String.valueOf(pageEnd)};
+
+        if (table.equals("words")) {
+            String scope = " WHERE word IN (SELECT word FROM words WHERE id BETWEEN ? AND ?)";
+            Cursor cursor = db.rawQuery("SELECT word, meaning FROM word_meaning" + scope + " ORDER BY word, position", range);
+            while (cursor.moveToNext()) {
+                children.meanings.computeIfAbsent(cursor.getString(0), k -> new ArrayList<>()).add(cursor.getString(1));
+            }
+            cursor.close();
+
+            cursor = db.rawQuery("SELECT word, emotion, intensity FROM word_emotion" + scope, range);
+            while (cursor.moveToNext()) {
+                children.emotions.computeIfAbsent(cursor.getString(0), k -> new HashMap<>())
+                    .put(cursor.getString(1), cursor.getDouble(2));
+            }
+            cursor.close();
+        } else if (table.equals("meanings")) {
+            Cursor cursor = db.rawQuery("SELECT concept, relation, target, weight FROM concept_relation" +
+                                        " WHERE concept IN (SELECT concept FROM meanings WHERE id BETWEEN ? AND ?)" +
+                                        " ORDER BY concept, relation, position", range);
+            while (cursor.moveToNext()) {
+                Double weight = cursor.isNull(3) ? null : cursor.getDouble(3);
+                children.relations.computeIfAbsent(cursor.getString(0), k -> new ArrayList<>())
+                    .add(new Object[]{cursor.getString(1), cursor.getString(2), weight});
+            }
+            cursor.close();
+        } else if (RECORD_TYPES.containsKey(table)) {
+            Cursor cursor = db.rawQuery("SELECT record_id, emotion, intensity FROM record_emotion" +
+                                        " WHERE record_type = ? AND record_id BETWEEN ? AND ?",
+                                        new String[]{RECORD_TYPES.get(table), range[0], range[1]});
+            while (cursor.moveToNext()) {
+                children.emotions.computeIfAbsent(cursor.getString(0), k -> new HashMap<>())
+                    .put(cursor.getString(1), cursor.getDouble(2));
+            }
+            cursor.close();
+        }
+        return children;
+    }
+
+    // ===== الاستيراد =====
+
+    public long importFromFile(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return importFrom(in);
+        }
+    }
+
+    /**
+     * استيراد نسخة مضغوطة أو غير مضغوطة ويُرجع عدد الصفوف. الكلمات والجمل والمعاني
+     * والعواطف تستبدل الموجود بالمفتاح نفسه، والسجلات (التعلم والتصحيحات والمحادثات
+     * والتجارب) تُضاف، فاستيراد النسخة نفسها مرتين يكرر السجلات.
+     */
+    public long importFrom(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 64 * 1024);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        boolean gzip = first == 0x1f && second == 0x8b;
+
+        InputStream stream = gzip ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+        JsonReader reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        long rows = 0;
+
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("format")) {
+                    String format = reader.nextString();
+                    if (!FORMAT.equals(format)) throw new IOException("Not a backup file: " + format);
+                } else if (name.equals("version")) {
+                    int version = reader.nextInt();
+                    if (version > FORMAT_VERSION) throw new IOException("Unsupported backup version " + version);
+                } else if (name.equals("tables")) {
+                    rows += importTables(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } finally {
+            reader.close();
+        }
+        return rows;
+    }
+
+    private long importTables(JsonReader reader) throws IOException {
+        Set<String> known = new HashSet<>();
+        for (String[] table : TABLES) known.add(table[0]);
+
+        long rows = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String table = reader.nextName();
+            if (!known.contains(table)) {
+                reader.skipValue();
+                continue;
+            }
+
+            Set<String> columns = tableColumns(table);
+            int inBatch = 0;
+            reader.beginArray();
+            db.beginTransaction();
+            try {
+                while (reader.hasNext()) {
+                    importRow(reader, table, columns);
+                    rows++;
+                    if (++inBatch >= PAGE_SIZE) {
+                        db.setTransactionSuccessful();
+                        db.endTransaction();
+                        db.beginTransaction();
+                        inBatch = 0;
+                    }
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return rows;
+    }
+
+    private Set<String> tableColumns(String table) {
+        Set<String> columns = new HashSet<>();
+        Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null);
+        while (cursor.moveToNext()) {
+            columns.add(cursor.getString(cursor.getColumnIndexOrThrow("name")));
+        }
+        cursor.close();
+        columns.remove("id");
+        return columns;
+    }
+
+    private void importRow(JsonReader reader, String table, Set<String> columns) throws IOException {
+        ContentValues values = new ContentValues();
+        List<String> meanings = new ArrayList<>();
+        Map<String, Double> emotions = new LinkedHashMap<>();
+        List<Object[]> relations = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("meanings") && table.equals("words")) {
+                reader.beginArray();
+                while (reader.hasNext()) meanings.add(reader.nextString());
+                reader.endArray();
+            } else if (name.equals("emotions") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) emotions.put(reader.nextName(), reader.nextDouble());
+                reader.endObject();
+            } else if (name.equals("relations") && table.equals("meanings")) {
+                readRelations(reader, relations);
+            } else if (columns.contains(name)) {
+                putValue(reader, values, name);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        switch (table) {
+            case "words": {
+                String word = values.getAsString("word");
+                db.insertWithOnConflict(table, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                db.delete("word_meaning", "word = ?", new String[]{word});
+                db.delete("word_emotion", "word = ?", new String[]{word});
+                for (int i = 0; i < meanings.size(); i++) {
+                    db.execSQL("INSERT OR REPLACE INTO word_meaning (word, position, meaning) VALUES (?, ?, ?)",
+                               new Object[]{word, i, meanings.get(i)});
+                }
+                for (Map.Entry<String, Double> emotion : emotions.entrySet()) {
+                    db.execSQL("INSERT OR REPLACE INTO word_emotion (word, emotion, intensity) VALUES (?, ?, ?)",
+                               new Object[]{word, emotion.getKey(), emotion.getValue()});
+                }
+                break;
+            }
+            case "meanings": {
+                String concept = values.getAsString("concept");
+                db.insertWithOnConflict(table, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                db.delete("concept_relation", "concept = ?", new String[]{concept});
+                for (int i = 0; i < relations.size(); i++) {
+                    Object[] relation = relations.get(i);
+                    db.execSQL("INSERT OR REPLACE INTO concept_relation (concept, relation, target, weight, position)" +
+                               " VALUES (?, ?, ?, ?, ?)", new Object[]{concept, relation[0], relation[1], relation[2], i});
+                }
+                break;
+            }
+            case "sentences": {
+                // الاستبدال يمنح الجملة معرّفاً جديداً، فتُحذف عواطف المعرّف القديم
+                db.execSQL("DELETE FROM record_emotion WHERE record_type = ? AND record_id IN" +
+                           " (SELECT id FROM sentences WHERE sentence = ?)",
+                           new Object[]{RECORD_TYPES.get(table), values.getAsString("sentence")});
+                long id = db.insertWithOnConflict(table, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                insertRecordEmotions(RECORD_TYPES.get(table), id, emotions);
+                break;
+            }
+            case "emotions":
+                db.insertWithOnConflict(table, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                break;
+            default: {
+                long id = db.insert(table, null, values);
+                if (RECORD_TYPES.containsKey(table)) {
+                    insertRecordEmotions(RECORD_TYPES.get(table), id, emotions);
+                }
+                break;
+            }
+        }
+    }
+
+    private static void readRelations(JsonReader reader, List<Object[]> relations) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String relation = null;
+            String target = null;
+            Double weight = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if (field.equals("relation")) relation = reader.nextString();
+                else if (field.equals("target")) target = reader.nextString();
+                else if (field.equals("weight")) weight = reader.nextDouble();
+                else reader.skipValue();
+            }
+            reader.endObject();
+            if (relation != null && target != null) relations.add(new Object[]{relation, target, weight});
+        }
+        reader.endArray();
+    }
+
+    private static void putValue(JsonReader reader, ContentValues values, String name) throws IOException {
+        switch (reader.peek()) {
+            case NUMBER: {
+                String number = reader.nextString();
+                if (number.contains(".") || number.contains("e") || number.contains("E")) {
+                    values.put(name, Double.parseDouble(number));
+                } else {
+                    values.put(name, Long.parseLong(number));
+                }
+                break;
+            }
+            case BOOLEAN:
+                values.put(name, reader.nextBoolean() ? 1 : 0);
+                break;
+            case NULL:
+                reader.nextNull();
+                values.putNull(name);
+                break;
+            case STRING:
+                values.put(name, reader.nextString());
+                break;
+            default:
+                reader.skipValue();
+                break;
+        }
+    }
+
+    private void insertRecordEmotions(String recordType, long id, Map<String, Double> emotions) {
+        if (id < 0) return;
+        for (Map.Entry<String, Double> emotion : emotions.entrySet()) {
+            db.execSQL("INSERT OR REPLACE INTO record_emotion (record_type, record_id, emotion, intensity)" +
+                       " VALUES (?, ?, ?, ?)", new Object[]{recordType, id, emotion.getKey(), emotion.getValue()});
+        }
+    }
+}
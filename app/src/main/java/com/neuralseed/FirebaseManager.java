@@ -1,22 +1,39 @@
 package com.neuralseed;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.util.Log;
 import com.google.firebase.database.*;
 import com.google.firebase.auth.FirebaseAuth;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * مدير Firebase - المزامنة السحابية والتخزين
  */
-public class FirebaseManager {
+public class FirebaseManager implements CloudMemory {
     
     private FirebaseDatabase database;
     private DatabaseReference lexiconRef;
-    private DatabaseReference conversationsRef;
-    private DatabaseReference stateRef;
     private FirebaseAuth auth;
     
+    // المزامنة تمر عبر ناقل قابل للاستبدال، ومؤشراتها تُحفظ بين التشغيلات
+    private static final String SYNC_PREFS = "cloud_sync";
+    private static final String PUSH_CURSOR = "lexicon_push_cursor";
+    private static final String PULL_CURSOR = "lexicon_pull_cursor";
+    
+    private CloudTransport transport;
+    private LexiconSync lexiconSync;
+    private SharedPreferences syncState;
+    
+    // كتابات السحابة تُحفظ محلياً أولاً وتُرسل عند الاتصال
+    private SyncOutbox outbox;
+    private StatePublisher statePublisher;
+    
+    // اشتراك واحد تزايدي في مدخلات المعجم
+    private NewWordListener newWordListener;
+    private CloudTransport.Subscription newWordSubscription;
+    
     private String deviceId;
     private boolean isInitialized = false;
     
@@ -28,11 +45,12 @@ public class FirebaseManager {
     
     private SyncListener listener;
     
-    public FirebaseManager(Context context) {
+    public FirebaseManager(Context context, LocalDatabase localDatabase) {
         try {
             database = FirebaseDatabase.getInstance();
             auth = FirebaseAuth.getInstance();
             deviceId = getDeviceId(context);
+            initializeSync(context, new FirebaseTransport(database), localDatabase);
             
             // المصادقة المجهولة
             authenticateAnonymous();
@@ -42,6 +60,32 @@ public class FirebaseManager {
         }
     }
     
+    /**
+     * المزامنة عبر ناقل بديل (مثل InMemoryCloudTransport) دون Firebase
+     */
+    public FirebaseManager(Context context, CloudTransport transport, LocalDatabase localDatabase) {
+        deviceId = getDeviceId(context);
+        initializeSync(context, transport, localDatabase);
+        isInitialized = true;
+        if (outbox != null) outbox.setConnected(true);
+    }
+    
+    private void initializeSync(Context context, CloudTransport transport, LocalDatabase localDatabase) {
+        this.transport = transport;
+        syncState = context.getSharedPreferences(SYNC_PREFS, Context.MODE_PRIVATE);
+        lexiconSync = new LexiconSync(transport, syncState.getLong(PUSH_CURSOR, 0),
+                                      syncState.getLong(PULL_CURSOR, 0));
+        outbox = localDatabase != null ? new SyncOutbox(localDatabase, transport) : null;
+        // كل مسار مفتاح مستقل في الصادر، فالحقل المتغير مرتين قبل الإرسال يُرسل مرة
+        statePublisher = new StatePublisher(updates -> {
+            if (outbox == null) return;
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                outbox.enqueue("path:" + update.getKey(),
+                               Collections.singletonMap(update.getKey(), update.getValue()));
+            }
+        }, deviceId, transport.serverTimestamp());
+    }
+    
     private void authenticateAnonymous() {
         if (auth.getCurrentUser() == null) {
             auth.signInAnonymously()
@@ -60,16 +104,19 @@ public class FirebaseManager {
     
     private void initializeReferences() {
         lexiconRef = database.getReference("lexicon");
-        conversationsRef = database.getReference("conversations").child(deviceId);
-        stateRef = database.getReference("states").child(deviceId);
         isInitialized = true;
         
+        // مستمع طُلب قبل اكتمال المصادقة
+        subscribeNewWords();
+        
         // مراقبة حالة الاتصال
         DatabaseReference connectedRef = database.getReference(".info/connected");
         connectedRef.addValueEventListener(new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
-                boolean connected = snapshot.getValue(Boolean.class);
+                boolean connected = Boolean.TRUE.equals(snapshot.getValue(Boolean.class));
+                // عودة الاتصال تبدأ إرسال الصادر المتراكم
+                if (outbox != null) outbox.setConnected(connected);
                 if (listener != null) {
                     listener.onConnectionStateChanged(connected);
                 }
@@ -83,18 +130,15 @@ public class FirebaseManager {
     }
     
     /**
-     * حفظ كلمة في السحابة
+     * حفظ كلمة في السحابة (المسار القديم ومدخل المزامنة في كتابة واحدة)
      */
+    @Override
     public void saveWord(String word, String meaning) {
-        if (!isInitialized || lexiconRef == null) return;
+        if (outbox == null || !LexiconSync.isValidKey(word) || meaning == null) return;
         
-        lexiconRef.child(word).setValue(meaning)
-            .addOnSuccessListener(aVoid -> {
-                Log.i("FirebaseManager", "Word saved: " + word);
-            })
-            .addOnFailureListener(e -> {
-                Log.e("FirebaseManager", "Failed to save word: " + e.getMessage());
-            });
+        Map<String, Object> updates = new HashMap<>();
+        lexiconSync.addWord(updates, word, meaning);
+        outbox.enqueue("word:" + word, updates);
     }
     
     /**
@@ -126,111 +170,142 @@ public class FirebaseManager {
     }
     
     /**
-     * الاستماع للكلمات الجديدة
+     * الاستماع للكلمات الجديدة: اشتراك واحد في المدخلات الأحدث من مؤشر السحب،
+     * فيصل كل تعديل وحده بدل إعادة تنزيل المعجم. استدعاء جديد يحل محل السابق.
      */
+    @Override
     public void listenToNewWords(final NewWordListener listener) {
-        if (!isInitialized || lexiconRef == null) return;
-        
-        lexiconRef.addChildEventListener(new ChildEventListener() {
-            @Override
-            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
-                String word = snapshot.getKey();
-                String meaning = snapshot.getValue(String.class);
-                if (listener != null) listener.onNewWord(word, meaning);
-            }
-            
-            @Override
-            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {}
-            
-            @Override
-            public void onChildRemoved(DataSnapshot snapshot) {}
-            
-            @Override
-            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {}
-            
-            @Override
-            public void onCancelled(DatabaseError error) {
-                Log.e("FirebaseManager", "Listen cancelled: " + error.getMessage());
-            }
-        });
+        synchronized (this) {
+            newWordListener = listener;
+        }
+        subscribeNewWords();
     }
     
-    public interface NewWordListener {
-        void onNewWord(String word, String meaning);
+    private void subscribeNewWords() {
+        CloudTransport.Subscription previous;
+        synchronized (this) {
+            if (!isInitialized || lexiconSync == null || newWordListener == null) return;
+            previous = newWordSubscription;
+            NewWordListener listener = newWordListener;
+            newWordSubscription = transport.subscribe(LexiconSync.ENTRIES_PATH, LexiconSync.UPDATED_AT,
+                    lexiconSync.getPullCursor(), new CloudTransport.ChildListener() {
+                @Override
+                public void onChild(String word, Map<String, Object> entry) {
+                    Object meaning = entry.get("meaning");
+                    Object updatedAt = entry.get(LexiconSync.UPDATED_AT);
+                    if (meaning instanceof String) {
+                        listener.onNewWord(word, (String) meaning,
+                                           updatedAt instanceof Number ? ((Number) updatedAt).longValue() : 0);
+                    }
+                }
+                
+                @Override
+                public void onError(String error) {
+                    Log.e("FirebaseManager", "Listen cancelled: " + error);
+                }
+            });
+        }
+        if (previous != null) previous.cancel();
+    }
+    
+    public void stopListening() {
+        CloudTransport.Subscription subscription;
+        synchronized (this) {
+            subscription = newWordSubscription;
+            newWordSubscription = null;
+            newWordListener = null;
+        }
+        if (subscription != null) subscription.cancel();
+    }
+    
+    @Override
+    public void shutdown() {
+        stopListening();
+        if (statePublisher != null) statePublisher.stop();
+        if (outbox != null) outbox.shutdown();
+    }
+    
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        if (outbox != null) stats.putAll(outbox.getStatistics());
+        if (statePublisher != null) stats.putAll(statePublisher.getStatistics());
+        return stats;
+    }
+    
+    /**
+     * تأكيد تطبيق كلمات واردة حتى وقت معين، فتبدأ المزامنة التالية بعده
+     */
+    @Override
+    public void confirmPulled(long updatedAt) {
+        if (lexiconSync == null || updatedAt <= lexiconSync.getPullCursor()) return;
+        lexiconSync.advancePullCursor(updatedAt);
+        syncState.edit().putLong(PULL_CURSOR, lexiconSync.getPullCursor()).apply();
     }
     
     /**
      * حفظ محادثة
      */
     public void saveConversation(String userMessage, String aiResponse, long timestamp) {
-        if (!isInitialized || conversationsRef == null) return;
+        if (outbox == null) return;
         
         Map<String, Object> conversation = new HashMap<>();
         conversation.put("user", userMessage);
         conversation.put("ai", aiResponse);
         conversation.put("timestamp", timestamp);
         
-        conversationsRef.push().setValue(conversation);
+        // المفتاح يُولَّد محلياً فتبقى إعادة الإرسال بعد الفشل كتابة للمسار نفسه
+        String key = timestamp + "_" + Long.toHexString(new Random().nextLong() & Long.MAX_VALUE);
+        outbox.enqueue("conversation:" + key,
+                       Collections.singletonMap("conversations/" + deviceId + "/" + key, conversation));
     }
     
     /**
-     * حفظ حالة الوعي
+     * حفظ حالة الوعي: الحقول التي تغيّرت منذ آخر نشر فقط
      */
     public void saveState(NeuralSeed.InternalState state) {
-        if (!isInitialized || stateRef == null || state == null) return;
-        
-        Map<String, Object> stateData = new HashMap<>();
-        stateData.put("phase", state.currentPhase.name());
-        stateData.put("chaosIndex", state.chaosIndex);
-        stateData.put("existentialFitness", state.existentialFitness);
-        stateData.put("internalConflict", state.internalConflict);
-        stateData.put("timestamp", System.currentTimeMillis());
-        
-        if (state.dominantEgo != null) {
-            stateData.put("dominantEgo", state.dominantEgo.name);
-        }
-        
-        stateRef.setValue(stateData);
+        if (statePublisher == null || state == null) return;
+        statePublisher.sample(state);
     }
     
     /**
-     * مزامنة المعجم المحلي مع السحابة
+     * بث الحالة بأخذ عينة كل فترة بدل الكتابة عند كل تغيير
      */
-    public void syncLexicon(ArabicLexicon lexicon) {
-        if (!isInitialized || lexiconRef == null) return;
+    public void startStatePublishing(Supplier<NeuralSeed.InternalState> source, long periodMs) {
+        if (statePublisher != null) statePublisher.start(source, periodMs);
+    }
+    
+    public void recordPhaseTransition(NeuralSeed.Phase phase, long time) {
+        if (statePublisher != null) statePublisher.recordTransition(phase, time);
+    }
+    
+    /**
+     * مزامنة المعجم المحلي مع السحابة بالفروق منذ آخر مزامنة
+     */
+    public void syncLexicon(ArabicLexicon lexicon, SeedRepository localDatabase) {
+        if (!isInitialized || lexiconSync == null || localDatabase == null) return;
         
-        // رفع الكلمات المحلية
-        for (ArabicLexicon.Word word : lexicon.getAllWords()) {
-            if (!word.meanings.isEmpty()) {
-                saveWord(word.word, word.meanings.get(0));
+        // قراءة التغييرات المحلية خارج خيط الواجهة
+        Thread sync = new Thread(() -> lexiconSync.sync(localDatabase, lexicon, new LexiconSync.Listener() {
+            @Override
+            public void onWordSynced(String word, String meaning) {
+                if (listener != null) listener.onWordSynced(word, meaning);
             }
-        }
-        
-        // استرجاع الكلمات الجديدة من السحابة
-        lexiconRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            
             @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                for (DataSnapshot child : snapshot.getChildren()) {
-                    String word = child.getKey();
-                    String meaning = child.getValue(String.class);
-                    
-                    if (!lexicon.contains(word)) {
-                        lexicon.addWord(word, meaning);
-                        if (listener != null) {
-                            listener.onWordSynced(word, meaning);
-                        }
-                    }
-                }
+            public void onSyncComplete(int pushed, int pulled) {
+                syncState.edit()
+                    .putLong(PUSH_CURSOR, lexiconSync.getPushCursor())
+                    .putLong(PULL_CURSOR, lexiconSync.getPullCursor())
+                    .apply();
             }
             
             @Override
-            public void onCancelled(DatabaseError error) {
-                Log.e("FirebaseManager", "Sync failed: " + error.getMessage());
-                if (listener != null) {
-                    listener.onSyncError(error.getMessage());
-                }
+            public void onSyncError(String error) {
+                if (listener != null) listener.onSyncError(error);
             }
-        });
+        }), "LexiconSync");
+        sync.start();
     }
     
     /**
@@ -0,0 +1,89 @@
+package com.neuralseed;
+
+import com.google.firebase.database.*;
+import java.util.*;
+
+/**
+ * ناقل السحابة فوق Firebase Realtime Database
+ */
+public class FirebaseTransport implements CloudTransport {
+
+    private final DatabaseReference root;
+
+    public FirebaseTransport(FirebaseDatabase database) {
+        this.root = database.getReference();
+    }
+
+    @Override
+    public void update(Map<String, Object> updates, Callback<Void> callback) {
+        root.updateChildren(updates)
+            .addOnSuccessListener(aVoid -> callback.onSuccess(null))
+            .addOnFailureListener(e -> callback.onFailure(e.getMessage()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void queryNewer(String path, String timeField, long since, int limit,
+                           Callback<LinkedHashMap<String, Map<String, Object>>> callback) {
+        root.child(path).orderByChild(timeField).startAt(since).limitToFirst(limit)
+            .addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot snapshot) {
+                    // الأبناء تصل بترتيب الاستعلام
+                    LinkedHashMap<String, Map<String, Object>> children = new LinkedHashMap<>();
+                    for (DataSnapshot child : snapshot.getChildren()) {
+                        Object value = child.getValue();
+                        if (value instanceof Map) {
+                            children.put(child.getKey(), (Map<String, Object>) value);
+                        }
+                    }
+                    callback.onSuccess(children);
+                }
+
+                @Override
+                public void onCancelled(DatabaseError error) {
+                    callback.onFailure(error.getMessage());
+                }
+            });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Subscription subscribe(String path, String timeField, long since, ChildListener listener) {
+        Query query = root.child(path).orderByChild(timeField).startAt(since);
+        ChildEventListener events = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                deliver(snapshot);
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                deliver(snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {}
+
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {}
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                listener.onError(error.getMessage());
+            }
+
+            private void deliver(DataSnapshot snapshot) {
+                Object value = snapshot.getValue();
+                if (value instanceof Map) listener.onChild(snapshot.getKey(), (Map<String, Object>) value);
+            }
+        };
+        query.addChildEventListener(events);
+        return () -> query.removeEventListener(events);
+    }
+
+    @Override
+    public Object serverTimestamp() {
+        return ServerValue.TIMESTAMP;
+    }
+}
@@ -0,0 +1,266 @@
+package com.neuralseed;
+
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import java.util.*;
+
+/**
+ * فهرس البحث النصي الكامل (FTS5) للجمل والمحادثات والكلمات
+ *
+ * جداول FTS5 تحفظ نصاً موحداً: دون تشكيل أو تطويل، والهمزات على الألف ألف،
+ * والألف المقصورة ياء، والتاء المربوطة هاء. المشغلات تبقيها متزامنة مع الجداول
+ * الأصلية بتعبير SQL مبني من جدول التوحيد نفسه الذي يوحّد نص الاستعلام،
+ * والنتائج مرتبة بـ bm25. إذا لم تتوفر FTS5 في SQLite الجهاز لا تُنشأ الجداول
+ * ويرجع LocalDatabase إلى البحث بـ LIKE.
+ */
+public class FullTextIndex {
+
+    private static final String TAG = "FullTextIndex";
+
+    public static final String SENTENCES_FTS = "sentences_fts";
+    public static final String CONVERSATIONS_FTS = "conversations_fts";
+    public static final String WORDS_FTS = "words_fts";
+
+    // جدول التوحيد: كل حرف يُستبدل بما يقابله (النص الفارغ حذف)
+    private static final Map<Character, String> FOLDS = new LinkedHashMap<>();
+
+    static {
+        for (char c = '\u064B'; c <= '\u0652'; c++) {
+            FOLDS.put(c, "");              // الحركات والتنوين والشدة والسكون
+        }
+        FOLDS.put('\u0670', "");         // الألف الخنجرية
+        FOLDS.put('\u0640', "");         // التطويل
+        FOLDS.put('أ', "ا");
+        FOLDS.put('إ', "ا");
+        FOLDS.put('آ', "ا");
+        FOLDS.put('ٱ', "ا");
+        FOLDS.put('ى', "ي");
+        FOLDS.put('ة', "ه");
+    }
+
+    private static final String DEFINITE_ARTICLE = "ال";
+
+    // فهارس البادئات تجعل استعلامات "كلمة*" القصيرة بحثاً في الفهرس لا مسحاً له
+    private static final String OPTIONS = "tokenize = 'unicode61 remove_diacritics 2', prefix = '2 3'";
+
+    private FullTextIndex() {
+    }
+
+    // ===== التوحيد =====
+
+    /**
+     * توحيد النص للفهرسة والاستعلام
+     */
+    public static String fold(String text) {
+        if (text == null) return null;
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String folded = FOLDS.get(c);
+            sb.append(folded != null ? folded : String.valueOf(c));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * التعبير SQL المكافئ لـ fold() على عمود أو تعبير
+     */
+    static String foldSql(String expression) {
+        String sql = expression;
+        for (Map.Entry<Character, String> fold : FOLDS.entrySet()) {
+            sql = "replace(" + sql + ", '" + fold.getKey() + "', '" + fold.getValue() + "')";
+        }
+        return sql;
+    }
+
+    /**
+     * تحويل نص المستخدم إلى تعبير MATCH: كل كلمة بادئة، والكلمات كلها مطلوبة.
+     * تُرجع null إذا لم يبقَ في النص ما يُبحث عنه.
+     */
+    public static String matchExpression(String query) {
+        if (query == null) return null;
+        String folded = fold(query);
+
+        StringBuilder match = new StringBuilder();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                if (match.length() > 0) match.append(" AND ");
+                appendTerm(match, token.toString());
+                token.setLength(0);
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * الكلمة بلا أداة تعريف تطابق أيضاً صيغتها المعرّفة (مدرسة ← المدرسة)
+     */
+    private static void appendTerm(StringBuilder match, String term) {
+        if (term.startsWith(DEFINITE_ARTICLE) || term.length() < 2) {
+            match.append('"').append(term).append("\"*");
+        } else {
+            match.append("(\"").append(term).append("\"* OR \"")
+                 .append(DEFINITE_ARTICLE).append(term).append("\"*)");
+        }
+    }
+
+    // ===== البنية =====
+
+    /**
+     * إنشاء الجداول والمشغلات؛ تُرجع false إذا لم تكن FTS5 متوفرة
+     */
+    public static boolean create(SQLiteDatabase db) {
+        try {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + SENTENCES_FTS +
+                       " USING fts5(body, " + OPTIONS + ")");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + CONVERSATIONS_FTS +
+                       " USING fts5(user_message, ai_response, " + OPTIONS + ")");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + WORDS_FTS +
+                       " USING fts5(word, meanings, " + OPTIONS + ")");
+        } catch (SQLException e) {
+            Log.w(TAG, "FTS5 unavailable, falling back to LIKE search: " + e.getMessage());
+            return false;
+        }
+
+        // الجمل
+        String sentenceRow = "(NEW.id, " + foldSql("NEW.sentence") + ")";
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS sentences_fts_insert AFTER INSERT ON sentences BEGIN " +
+                   "INSERT INTO " + SENTENCES_FTS + " (rowid, body) VALUES " + sentenceRow + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS sentences_fts_delete AFTER DELETE ON sentences BEGIN " +
+                   "DELETE FROM " + SENTENCES_FTS + " WHERE rowid = OLD.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS sentences_fts_update AFTER UPDATE OF sentence ON sentences BEGIN " +
+                   "DELETE FROM " + SENTENCES_FTS + " WHERE rowid = OLD.id; " +
+                   "INSERT INTO " + SENTENCES_FTS + " (rowid, body) VALUES " + sentenceRow + "; END");
+
+        // المحادثات
+        String conversationRow = "(NEW.id, " + foldSql("NEW.user_message") + ", " +
+                                 foldSql("NEW.ai_response") + ")";
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS conversations_fts_insert AFTER INSERT ON conversations BEGIN " +
+                   "INSERT INTO " + CONVERSATIONS_FTS + " (rowid, user_message, ai_response) VALUES " +
+                   conversationRow + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS conversations_fts_delete AFTER DELETE ON conversations BEGIN " +
+                   "DELETE FROM " + CONVERSATIONS_FTS + " WHERE rowid = OLD.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS conversations_fts_update " +
+                   "AFTER UPDATE OF user_message, ai_response ON conversations BEGIN " +
+                   "DELETE FROM " + CONVERSATIONS_FTS + " WHERE rowid = OLD.id; " +
+                   "INSERT INTO " + CONVERSATIONS_FTS + " (rowid, user_message, ai_response) VALUES " +
+                   conversationRow + "; END");
+
+        // الكلمات ومعانيها من الجدول الفرعي
+        String wordRow = "(NEW.id, " + foldSql("NEW.word") + ", " + foldSql(meaningsOf("NEW.word")) + ")";
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS words_fts_insert AFTER INSERT ON words BEGIN " +
+                   "INSERT INTO " + WORDS_FTS + " (rowid, word, meanings) VALUES " + wordRow + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS words_fts_delete AFTER DELETE ON words BEGIN " +
+                   "DELETE FROM " + WORDS_FTS + " WHERE rowid = OLD.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS words_fts_update AFTER UPDATE OF word ON words BEGIN " +
+                   "DELETE FROM " + WORDS_FTS + " WHERE rowid = OLD.id; " +
+                   "INSERT INTO " + WORDS_FTS + " (rowid, word, meanings) VALUES " + wordRow + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS word_meaning_fts_insert AFTER INSERT ON word_meaning BEGIN " +
+                   refreshMeanings("NEW.word") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS word_meaning_fts_delete AFTER DELETE ON word_meaning BEGIN " +
+                   refreshMeanings("OLD.word") + " END");
+        return true;
+    }
+
+    private static String meaningsOf(String word) {
+        return "coalesce((SELECT group_concat(meaning, ' ') FROM word_meaning WHERE word = " + word + "), '')";
+    }
+
+    private static String refreshMeanings(String word) {
+        return "UPDATE " + WORDS_FTS + " SET meanings = " + foldSql(meaningsOf(word)) +
+               " WHERE rowid = (SELECT id FROM words WHERE word = " + word + ");";
+    }
+
+    public static boolean exists(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM sqlite_master WHERE type = ? AND name = ?",
+                                    new String[]{"table", SENTENCES_FTS});
+        boolean exists = false;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) exists = cursor.getInt(0) > 0;
+            cursor.close();
+        }
+        return exists;
+    }
+
+    // ===== الفهرسة الأولية للبيانات الموجودة =====
+
+    /**
+     * خطوات ترحيل تفهرس الصفوف الموجودة قبل إنشاء المشغلات، على دفعات بالمعرّف
+     */
+    public static List<SchemaMigrator.Step> backfillSteps() {
+        return Arrays.asList(
+            new BackfillStep("sentences", SENTENCES_FTS, "body", foldSql("sentence")),
+            new BackfillStep("conversations", CONVERSATIONS_FTS, "user_message, ai_response",
+                             foldSql("user_message") + ", " + foldSql("ai_response")),
+            new BackfillStep("words", WORDS_FTS, "word, meanings",
+                             foldSql("word") + ", " + foldSql(meaningsOf("words.word"))));
+    }
+
+    /**
+     * حذف ثم إدراج صفوف الدفعة، فتكرارها أو تداخلها مع المشغلات لا يكرر الفهرسة
+     */
+    private static class BackfillStep implements SchemaMigrator.Step {
+        private final String table;
+        private final String ftsTable;
+        private final String page;
+        private final String deleteSql;
+        private final String insertSql;
+
+        BackfillStep(String table, String ftsTable, String ftsColumns, String values) {
+            this.table = table;
+            this.ftsTable = ftsTable;
+            this.page = "SELECT id FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?";
+            this.deleteSql = "DELETE FROM " + ftsTable + " WHERE rowid IN (" + page + ")";
+            this.insertSql = "INSERT INTO " + ftsTable + " (rowid, " + ftsColumns + ") SELECT id, " +
+                             values + " FROM " + table + " WHERE id IN (" + page + ")";
+        }
+
+        @Override
+        public String name() {
+            return ftsTable;
+        }
+
+        @Override
+        public long countRemaining(SQLiteDatabase db, long afterId) {
+            if (!exists(db)) return 0;
+            Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + table + " WHERE id > ?",
+                                        new String[]{String.valueOf(afterId)});
+            long count = 0;
+            if (cursor != null) {
+                if (cursor.moveToFirst()) count = cursor.getLong(0);
+                cursor.close();
+            }
+            return count;
+        }
+
+        @Override
+        public SchemaMigrator.Chunk migrateChunk(SQLiteDatabase db, long afterId, int limit) {
+            if (!exists(db)) return new SchemaMigrator.Chunk(afterId, 0);
+
+            String[] args = {String.valueOf(afterId), String.valueOf(limit)};
+            Cursor cursor = db.rawQuery("SELECT COUNT(*), MAX(id) FROM (" + page + ")", args);
+            int rows = 0;
+            long lastId = afterId;
+            if (cursor != null) {
+                if (cursor.moveToFirst() && cursor.getInt(0) > 0) {
+                    rows = cursor.getInt(0);
+                    lastId = cursor.getLong(1);
+                }
+                cursor.close();
+            }
+
+            if (rows > 0) {
+                Object[] bind = {afterId, limit};
+                db.execSQL(deleteSql, bind);
+                db.execSQL(insertSql, bind);
+            }
+            return new SchemaMigrator.Chunk(lastId, rows);
+        }
+    }
+}
@@ -5,6 +5,10 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -13,10 +17,10 @@ import java.util.*;
 /**
  * قاعدة البيانات المحلية - تخزين الذاكرة والمعرفة والتعلم
  */
-public class LocalDatabase extends SQLiteOpenHelper {
+public class LocalDatabase extends SQLiteOpenHelper implements SeedRepository {
     
     private static final String DATABASE_NAME = "NeuralSeedMemory.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 8;
     
     // جداول قاعدة البيانات
     private static final String TABLE_WORDS = "words";
@@ -28,8 +32,175 @@ public class LocalDatabase extends SQLiteOpenHelper {
     private static final String TABLE_CONVERSATIONS = "conversations";
     private static final String TABLE_EXPERIENCES = "experiences";
     
+    // الجداول الفرعية (الإصدار 2) بدلاً من أعمدة JSON
+    private static final String TABLE_WORD_MEANINGS = "word_meaning";
+    private static final String TABLE_WORD_EMOTIONS = "word_emotion";
+    private static final String TABLE_CONCEPT_RELATIONS = "concept_relation";
+    private static final String TABLE_RECORD_EMOTIONS = "record_emotion";
+    
+    // أنواع العلاقات بين المفاهيم وأنواع السجلات ذات العواطف
+    private static final String RELATION_SYNONYM = "synonym";
+    private static final String RELATION_ANTONYM = "antonym";
+    private static final String RELATION_RELATED = "related";
+    private static final String RECORD_SENTENCE = "sentence";
+    private static final String RECORD_CONVERSATION = "conversation";
+    private static final String RECORD_EXPERIENCE = "experience";
+    
+    private static final int MIGRATION_PAGE_SIZE = 500;
+    private static final int MIGRATION_FULL_TEXT = 3;
+    private static final int MIGRATION_COUNTERS = 4;
+    private static final int MIGRATION_ARCHIVE = 5;
+    private static final int MIGRATION_OUTBOX = 6;
+    private static final int MIGRATION_WORD_VERSIONS = 7;
+    private static final int MIGRATION_WORD_ORIGIN = 8;
+    
+    // مصدر الكلمة: المحفوظة محلياً تُرفع، وما وصل من السحابة لا يعود إليها
+    private static final String ORIGIN_LOCAL = "local";
+    private static final String ORIGIN_CLOUD = "cloud";
+    
+    // عبارات الكتابة الساخنة (تُترجم مرة واحدة)
+    private static final String SQL_REPLACE_WORD = "INSERT OR REPLACE INTO " + TABLE_WORDS +
+            " (word, root, type, familiarity, usage_count, last_used) VALUES (?, ?, ?, ?, ?, ?)";
+    // كلمة من السحابة تبقى محلية إذا كانت محفوظة محلياً من قبل (القيم تُحسب قبل الاستبدال)
+    private static final String SQL_REPLACE_SYNCED_WORD = "INSERT OR REPLACE INTO " + TABLE_WORDS +
+            " (word, root, type, familiarity, usage_count, last_used, origin) VALUES (?, ?, ?, ?, ?, ?," +
+            " CASE WHEN EXISTS (SELECT 1 FROM " + TABLE_WORDS + " WHERE word = ?1 AND origin = '" + ORIGIN_LOCAL + "')" +
+            " THEN '" + ORIGIN_LOCAL + "' ELSE '" + ORIGIN_CLOUD + "' END)";
+    private static final String SQL_DELETE_WORD_MEANINGS = "DELETE FROM " + TABLE_WORD_MEANINGS +
+            " WHERE word = ?";
+    private static final String SQL_INSERT_WORD_MEANING = "INSERT OR REPLACE INTO " + TABLE_WORD_MEANINGS +
+            " (word, position, meaning) VALUES (?, ?, ?)";
+    private static final String SQL_DELETE_WORD_EMOTIONS = "DELETE FROM " + TABLE_WORD_EMOTIONS +
+            " WHERE word = ?";
+    private static final String SQL_INSERT_WORD_EMOTION = "INSERT OR REPLACE INTO " + TABLE_WORD_EMOTIONS +
+            " (word, emotion, intensity) VALUES (?, ?, ?)";
+    private static final String SQL_INSERT_RECORD_EMOTION = "INSERT OR REPLACE INTO " + TABLE_RECORD_EMOTIONS +
+            " (record_type, record_id, emotion, intensity) VALUES (?, ?, ?, ?)";
+    private static final String SQL_DELETE_SENTENCE_EMOTIONS = "DELETE FROM " + TABLE_RECORD_EMOTIONS +
+            " WHERE record_type = '" + RECORD_SENTENCE + "' AND record_id IN" +
+            " (SELECT id FROM " + TABLE_SENTENCES + " WHERE sentence = ?)";
+    private static final String SQL_WORD_USAGE = "UPDATE " + TABLE_WORDS +
+            " SET usage_count = usage_count + ?, last_used = ? WHERE word = ?";
+    private static final String SQL_REPLACE_SENTENCE = "INSERT OR REPLACE INTO " + TABLE_SENTENCES +
+            " (sentence, type, structure, is_valid, confidence) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_REPLACE_EMOTION_LINK = "INSERT OR REPLACE INTO " + TABLE_EMOTIONS +
+            " (word, emotion, intensity, context) VALUES (?, ?, ?, ?)";
+    private static final String SQL_INSERT_LEARNING = "INSERT INTO " + TABLE_LEARNED +
+            " (input, output, context, success, feedback) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_CONVERSATION = "INSERT INTO " + TABLE_CONVERSATIONS +
+            " (user_message, ai_response, context) VALUES (?, ?, ?)";
+    private static final String SQL_INSERT_EXPERIENCE = "INSERT INTO " + TABLE_EXPERIENCES +
+            " (description, outcome, lesson, importance) VALUES (?, ?, ?, ?)";
+    
+    // الكتابات تُجمع وتُنفذ في معاملات على خيط خلفي
+    private final WriteBehindQueue writeQueue = new WriteBehindQueue(this);
+    private final StatementCache statements = new StatementCache();
+    private final SchemaMigrator migrator = createMigrator();
+    private volatile boolean fullTextReady = false;
+    private volatile long lastSampleDay = -1;
+    private volatile ConversationArchive archive = new ConversationArchive(
+            ConversationArchive.DEFAULT_HOT_MONTHS, ConversationArchive.DEFAULT_RETENTION_MONTHS);
+    private final File databaseFile;
+    
+    // حدود ذاكرة القراءة الافتراضية (عدد العناصر، الحجم التقديري بالبايت)
+    public static final int DEFAULT_CACHE_ENTRIES = 2000;
+    public static final long DEFAULT_CACHE_BYTES = 1024 * 1024;
+    
+    // القراءات المتكررة خلال المحادثة تُخدم من الذاكرة، والكتابات تحدّثها أو تبطلها
+    private final ReadThroughCache<String, ArabicLexicon.Word> wordCache = new ReadThroughCache<>(
+            "word", DEFAULT_CACHE_ENTRIES, DEFAULT_CACHE_BYTES, (key, word) -> wordBytes(word));
+    private final ReadThroughCache<String, SemanticEmotionalEngine.Meaning> meaningCache = new ReadThroughCache<>(
+            "meaning", DEFAULT_CACHE_ENTRIES, DEFAULT_CACHE_BYTES, (key, meaning) -> meaningBytes(meaning));
+    private final ReadThroughCache<String, Map<String, Double>> emotionCache = new ReadThroughCache<>(
+            "emotion", DEFAULT_CACHE_ENTRIES, DEFAULT_CACHE_BYTES,
+            (key, emotions) -> ReadThroughCache.stringBytes(key) + emotionsBytes(emotions));
+    private final ReadThroughCache<String, String> correctionCache = new ReadThroughCache<>(
+            "correction", DEFAULT_CACHE_ENTRIES, DEFAULT_CACHE_BYTES,
+            (key, corrected) -> ReadThroughCache.stringBytes(key) + ReadThroughCache.stringBytes(corrected));
+    
     public LocalDatabase(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.databaseFile = context.getDatabasePath(DATABASE_NAME);
+        // سجل الكتابة المسبقة: القراءة تستمر أثناء معاملات الكاتب الخلفي
+        setWriteAheadLoggingEnabled(true);
+    }
+    
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // مع WAL يكفي المزامنة عند نقاط التفتيش دون فقدان سلامة القاعدة
+        db.execSQL("PRAGMA synchronous = NORMAL");
+        // الاستبدال (INSERT OR REPLACE) يحذف الصف القديم؛ بهذا تُطلق مشغلات الحذف لفهرس البحث
+        db.execSQL("PRAGMA recursive_triggers = ON");
+    }
+    
+    // ===== الكتابة المؤجلة =====
+    
+    /**
+     * كتابة كل ما في طابور الكتابة الآن (عند الإيقاف المؤقت للتطبيق)
+     */
+    public void flush() {
+        writeQueue.flush();
+    }
+    
+    @Override
+    public synchronized void close() {
+        writeQueue.shutdown();
+        statements.close();
+        super.close();
+    }
+    
+    /**
+     * القراءة من آخر لقطة مثبتة في WAL دون انتظار الكاتب؛ ما زال في الطابور
+     * يظهر بعد تفريغه (مهلة الطابور على الأكثر)
+     */
+    private SQLiteDatabase readableDatabase() {
+        return this.getReadableDatabase();
+    }
+    
+    /**
+     * قراءة مفتاح بعينه: يُفرَّغ الطابور فقط إذا كانت للمفتاح كتابة معلقة
+     */
+    private SQLiteDatabase readableDatabase(String... pendingKeyPrefixes) {
+        for (String prefix : pendingKeyPrefixes) {
+            if (writeQueue.hasPending(prefix)) {
+                writeQueue.flush();
+                break;
+            }
+        }
+        return this.getReadableDatabase();
+    }
+    
+    /**
+     * القراءات التي يجب أن ترى كل ما كُتب قبلها (صورة المعجم، المزامنة، التصدير)
+     */
+    private SQLiteDatabase flushedDatabase() {
+        writeQueue.flush();
+        return this.getReadableDatabase();
+    }
+    
+    /**
+     * زيادات الاستخدام المعلقة لكلمة واحدة تُجمع في تحديث واحد
+     */
+    private class UsageIncrement implements WriteBehindQueue.Write {
+        final String word;
+        final int count;
+        final long lastUsed;
+        
+        UsageIncrement(String word, int count, long lastUsed) {
+            this.word = word;
+            this.count = count;
+            this.lastUsed = lastUsed;
+        }
+        
+        UsageIncrement plus(UsageIncrement other) {
+            return new UsageIncrement(word, count + other.count, Math.max(lastUsed, other.lastUsed));
+        }
+        
+        @Override
+        public void apply(SQLiteDatabase db) {
+            statements.executeUpdateDelete(db, SQL_WORD_USAGE, count, lastUsed, word);
+        }
     }
     
     @Override
@@ -40,8 +211,6 @@ public class LocalDatabase extends SQLiteOpenHelper {
                 "word TEXT UNIQUE," +
                 "root TEXT," +
                 "type TEXT," +
-                "meanings TEXT," +  // JSON array
-                "emotions TEXT," +  // JSON object
                 "familiarity REAL DEFAULT 0.5," +
                 "usage_count INTEGER DEFAULT 0," +
                 "last_used INTEGER," +
@@ -54,7 +223,6 @@ public class LocalDatabase extends SQLiteOpenHelper {
                 "sentence TEXT UNIQUE," +
                 "type TEXT," +
                 "structure TEXT," +  // JSON
-                "emotions TEXT," +
                 "is_valid INTEGER DEFAULT 1," +
                 "confidence REAL DEFAULT 0.5," +
                 "usage_count INTEGER DEFAULT 0," +
@@ -66,9 +234,6 @@ public class LocalDatabase extends SQLiteOpenHelper {
                 "id INTEGER PRIMARY KEY AUTOINCREMENT," +
                 "concept TEXT UNIQUE," +
                 "definition TEXT," +
-                "synonyms TEXT," +  // JSON array
-                "antonyms TEXT," +  // JSON array
-                "related_concepts TEXT," +  // JSON object
                 "created_at INTEGER DEFAULT (strftime('%s','now') * 1000)" +
                 ")");
         
@@ -109,7 +274,6 @@ public class LocalDatabase extends SQLiteOpenHelper {
                 "id INTEGER PRIMARY KEY AUTOINCREMENT," +
                 "user_message TEXT," +
                 "ai_response TEXT," +
-                "emotions TEXT," +  // JSON
                 "context TEXT," +
                 "timestamp INTEGER DEFAULT (strftime('%s','now') * 1000)" +
                 ")");
@@ -118,7 +282,6 @@ public class LocalDatabase extends SQLiteOpenHelper {
         db.execSQL("CREATE TABLE " + TABLE_EXPERIENCES + " (" +
                 "id INTEGER PRIMARY KEY AUTOINCREMENT," +
                 "description TEXT," +
-                "emotions TEXT," +
                 "outcome TEXT," +
                 "lesson TEXT," +
                 "importance REAL DEFAULT 0.5," +
@@ -132,113 +295,601 @@ public class LocalDatabase extends SQLiteOpenHelper {
         db.execSQL("CREATE INDEX idx_sentences_type ON " + TABLE_SENTENCES + "(type)");
         db.execSQL("CREATE INDEX idx_emotions_word ON " + TABLE_EMOTIONS + "(word)");
         db.execSQL("CREATE INDEX idx_conversations_time ON " + TABLE_CONVERSATIONS + "(timestamp)");
+        
+        createChildTables(db);
+        FullTextIndex.create(db);
+        TableCounters.create(db);
+        ConversationArchive.create(db);
+        SyncOutbox.create(db);
+        createWordVersions(db);
+        createWordOrigin(db);
+        migrator.createTable(db);
+    }
+    
+    /**
+     * إصدار لكل كلمة يزداد مع كل إدراج وكل تحديث (الاستخدام أيضاً)، تحفظه المشغلات
+     * فيشمل الاستيراد وكل مسار كتابة. الصفوف القائمة تأخذ معرّفها إصداراً، فتبقى
+     * صور المعجم المبنية على المعرّفات صالحة.
+     */
+    private static void createWordVersions(SQLiteDatabase db) {
+        if (!hasColumn(db, TABLE_WORDS, "version")) {
+            db.execSQL("ALTER TABLE " + TABLE_WORDS + " ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE " + TABLE_WORDS + " SET version = id");
+        }
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_words_version ON " + TABLE_WORDS + "(version)");
+        
+        // تحديث الإصدار نفسه لا يُطلق المشغل مرة أخرى (الشرط يفشل)
+        String bump = " BEGIN UPDATE " + TABLE_WORDS + " SET version = (SELECT MAX(version) FROM " +
+                      TABLE_WORDS + ") + 1 WHERE id = NEW.id; END";
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS words_version_insert AFTER INSERT ON " + TABLE_WORDS + bump);
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS words_version_update AFTER UPDATE ON " + TABLE_WORDS +
+                   " WHEN NEW.version = OLD.version" + bump);
+    }
+    
+    /**
+     * مصدر كل كلمة؛ الصفوف القائمة محلية
+     */
+    private static void createWordOrigin(SQLiteDatabase db) {
+        if (!hasColumn(db, TABLE_WORDS, "origin")) {
+            db.execSQL("ALTER TABLE " + TABLE_WORDS + " ADD COLUMN origin TEXT NOT NULL DEFAULT '" + ORIGIN_LOCAL + "'");
+        }
+    }
+    
+    private static boolean hasColumn(SQLiteDatabase db, String table, String column) {
+        Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null);
+        try {
+            while (cursor.moveToNext()) {
+                if (column.equals(cursor.getString(cursor.getColumnIndexOrThrow("name")))) return true;
+            }
+            return false;
+        } finally {
+            cursor.close();
+        }
+    }
+    
+    /**
+     * الجداول الفرعية للمعاني والعواطف والعلاقات (الإصدار 2)
+     */
+    private void createChildTables(SQLiteDatabase db) {
+        // معاني الكلمة بترتيبها
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_WORD_MEANINGS + " (" +
+                "word TEXT NOT NULL," +
+                "position INTEGER NOT NULL," +
+                "meaning TEXT NOT NULL," +
+                "PRIMARY KEY (word, position)" +
+                ")");
+        
+        // العواطف المرتبطة بالكلمة في المعجم
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_WORD_EMOTIONS + " (" +
+                "word TEXT NOT NULL," +
+                "emotion TEXT NOT NULL," +
+                "intensity REAL NOT NULL," +
+                "PRIMARY KEY (word, emotion)" +
+                ")");
+        
+        // المرادفات والأضداد والمفاهيم المرتبطة
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_CONCEPT_RELATIONS + " (" +
+                "concept TEXT NOT NULL," +
+                "relation TEXT NOT NULL," +
+                "target TEXT NOT NULL," +
+                "weight REAL," +
+                "position INTEGER NOT NULL," +
+                "PRIMARY KEY (concept, relation, target)" +
+                ")");
+        
+        // عواطف الجمل والمحادثات والتجارب
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_RECORD_EMOTIONS + " (" +
+                "record_type TEXT NOT NULL," +
+                "record_id INTEGER NOT NULL," +
+                "emotion TEXT NOT NULL," +
+                "intensity REAL NOT NULL," +
+                "PRIMARY KEY (record_type, record_id, emotion)" +
+                ")");
+        
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_word_meaning_text ON " + TABLE_WORD_MEANINGS + "(meaning)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_word_emotion_level ON " + TABLE_WORD_EMOTIONS + "(emotion, intensity)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_concept_relation_target ON " + TABLE_CONCEPT_RELATIONS + "(target, relation)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_record_emotion_level ON " + TABLE_RECORD_EMOTIONS + "(record_type, emotion, intensity)");
     }
     
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_WORDS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SENTENCES);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_MEANINGS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_EMOTIONS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_LEARNED);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_CORRECTIONS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_CONVERSATIONS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_EXPERIENCES);
-        onCreate(db);
+        // تعديلات البنية فقط؛ نقل البيانات يتم لاحقاً على دفعات عبر runPendingMigrations
+        migrator.prepare(db, oldVersion, newVersion);
     }
     
-    // ===== إدارة الكلمات =====
+    // ===== الترحيلات =====
     
-    public void saveWord(ArabicLexicon.Word word) {
-        SQLiteDatabase db = this.getWritableDatabase();
+    /**
+     * سجل الترحيلات بالترتيب. لإضافة ترحيل: زيادة DATABASE_VERSION وتسجيل
+     * ترحيل بالرقم الجديد، بنيته بـ IF NOT EXISTS وخطواته آمنة عند إعادة التنفيذ.
+     */
+    private SchemaMigrator createMigrator() {
+        SchemaMigrator migrator = new SchemaMigrator();
+        
+        migrator.register(new SchemaMigrator.Migration(2, "Move JSON columns into child tables",
+                this::createChildTables)
+            .addStep(new JsonColumnStep(TABLE_WORDS, "word", new String[]{"meanings", "emotions"},
+                (db, id, row) -> {
+                    String word = row.getString(0);
+                    JSONArray meanings = parseArray(row.getString(1));
+                    for (int i = 0; i < meanings.length(); i++) {
+                        db.execSQL(SQL_INSERT_WORD_MEANING, new Object[]{word, i, meanings.optString(i)});
+                    }
+                    JSONObject emotions = parseObject(row.getString(2));
+                    Iterator<String> keys = emotions.keys();
+                    while (keys.hasNext()) {
+                        String emotion = keys.next();
+                        db.execSQL(SQL_INSERT_WORD_EMOTION,
+                                   new Object[]{word, emotion, emotions.optDouble(emotion, 0)});
+                    }
+                }))
+            .addStep(new JsonColumnStep(TABLE_MEANINGS, "concept",
+                new String[]{"synonyms", "antonyms", "related_concepts"},
+                (db, id, row) -> {
+                    String concept = row.getString(0);
+                    JSONArray synonyms = parseArray(row.getString(1));
+                    for (int i = 0; i < synonyms.length(); i++) {
+                        insertRelation(db, concept, RELATION_SYNONYM, synonyms.optString(i), null, i);
+                    }
+                    JSONArray antonyms = parseArray(row.getString(2));
+                    for (int i = 0; i < antonyms.length(); i++) {
+                        insertRelation(db, concept, RELATION_ANTONYM, antonyms.optString(i), null, i);
+                    }
+                    JSONObject related = parseObject(row.getString(3));
+                    Iterator<String> keys = related.keys();
+                    int position = 0;
+                    while (keys.hasNext()) {
+                        String target = keys.next();
+                        insertRelation(db, concept, RELATION_RELATED, target,
+                                       related.optDouble(target, 0), position++);
+                    }
+                }))
+            .addStep(recordEmotionsStep(TABLE_SENTENCES, RECORD_SENTENCE))
+            .addStep(recordEmotionsStep(TABLE_CONVERSATIONS, RECORD_CONVERSATION))
+            .addStep(recordEmotionsStep(TABLE_EXPERIENCES, RECORD_EXPERIENCE)));
+        
+        SchemaMigrator.Migration fullText = new SchemaMigrator.Migration(MIGRATION_FULL_TEXT,
+                "Full-text search index", FullTextIndex::create);
+        for (SchemaMigrator.Step step : FullTextIndex.backfillSteps()) {
+            fullText.addStep(step);
+        }
+        migrator.register(fullText);
         
-        ContentValues values = new ContentValues();
-        values.put("word", word.word);
-        values.put("root", word.root);
-        values.put("type", word.type.name());
+        migrator.register(new SchemaMigrator.Migration(MIGRATION_COUNTERS, "Trigger-maintained row counters",
+                TableCounters::create));
         
-        try {
-            values.put("meanings", new JSONArray(word.meanings).toString());
-            values.put("emotions", new JSONObject(word.emotions).toString());
-        } catch (Exception e) {
-            values.put("meanings", "[]");
-            values.put("emotions", "{}");
-        }
+        migrator.register(new SchemaMigrator.Migration(MIGRATION_ARCHIVE, "Monthly conversation partitions",
+                ConversationArchive::create));
+        
+        migrator.register(new SchemaMigrator.Migration(MIGRATION_OUTBOX, "Cloud write outbox",
+                SyncOutbox::create));
+        
+        migrator.register(new SchemaMigrator.Migration(MIGRATION_WORD_VERSIONS, "Per-word change versions",
+                LocalDatabase::createWordVersions));
         
-        values.put("familiarity", word.familiarity);
-        values.put("usage_count", word.usageCount);
-        values.put("last_used", word.lastUsed);
+        migrator.register(new SchemaMigrator.Migration(MIGRATION_WORD_ORIGIN, "Word origin for cloud sync",
+                LocalDatabase::createWordOrigin));
         
-        db.insertWithOnConflict(TABLE_WORDS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        return migrator;
     }
     
-    public ArabicLexicon.Word loadWord(String wordText) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(TABLE_WORDS, null, "word = ?", 
-                                 new String[]{wordText}, null, null, null);
-        
-        if (cursor != null && cursor.moveToFirst()) {
-            ArabicLexicon.WordType type = ArabicLexicon.WordType.valueOf(
-                cursor.getString(cursor.getColumnIndexOrThrow("type")));
+    public boolean hasPendingMigrations() {
+        return migrator.hasPending(getWritableDatabase());
+    }
+    
+    /**
+     * تنفيذ خطوات البيانات المعلقة على الخيط المستدعي (يُفضل خيط خلفي)
+     */
+    public void runPendingMigrations(SchemaMigrator.ProgressListener listener) {
+        migrator.runPending(getWritableDatabase(), listener);
+    }
+    
+    // ===== ذاكرة القراءة =====
+    
+    /**
+     * حدود كل ذاكرة قراءة بعدد العناصر وبالحجم التقديري
+     */
+    public void setCacheLimits(int maxEntries, long maxBytes) {
+        wordCache.setLimits(maxEntries, maxBytes);
+        meaningCache.setLimits(maxEntries, maxBytes);
+        emotionCache.setLimits(maxEntries, maxBytes);
+        correctionCache.setLimits(maxEntries, maxBytes);
+    }
+    
+    private void invalidateCaches() {
+        wordCache.invalidateAll();
+        meaningCache.invalidateAll();
+        emotionCache.invalidateAll();
+        correctionCache.invalidateAll();
+    }
+    
+    private static int wordBytes(ArabicLexicon.Word word) {
+        int size = 96 + ReadThroughCache.stringBytes(word.word) + ReadThroughCache.stringBytes(word.root)
+                 + ReadThroughCache.stringBytes(word.form) + emotionsBytes(word.emotions);
+        for (String meaning : word.meanings) size += ReadThroughCache.stringBytes(meaning);
+        return size;
+    }
+    
+    private static int meaningBytes(SemanticEmotionalEngine.Meaning meaning) {
+        int size = 96 + ReadThroughCache.stringBytes(meaning.concept) + ReadThroughCache.stringBytes(meaning.definition);
+        for (String synonym : meaning.synonyms) size += ReadThroughCache.stringBytes(synonym);
+        for (String antonym : meaning.antonyms) size += ReadThroughCache.stringBytes(antonym);
+        for (String related : meaning.relatedConcepts.keySet()) size += ReadThroughCache.stringBytes(related) + 32;
+        return size;
+    }
+    
+    private static int emotionsBytes(Map<String, Double> emotions) {
+        int size = 48;
+        for (String emotion : emotions.keySet()) size += ReadThroughCache.stringBytes(emotion) + 32;
+        return size;
+    }
+    
+    /**
+     * نسخة مستقلة حتى لا يعدّل المستدعي القيمة المخزنة
+     */
+    private static SemanticEmotionalEngine.Meaning copyMeaning(SemanticEmotionalEngine.Meaning meaning) {
+        SemanticEmotionalEngine.Meaning copy = new SemanticEmotionalEngine.Meaning(meaning.concept, meaning.definition);
+        copy.synonyms.addAll(meaning.synonyms);
+        copy.antonyms.addAll(meaning.antonyms);
+        copy.relatedConcepts.putAll(meaning.relatedConcepts);
+        return copy;
+    }
+    
+    // ===== الصيانة =====
+    
+    /**
+     * سياسة أرشفة المحادثات: الأشهر الساخنة ومدة الاحتفاظ قبل التلخيص
+     */
+    public void setConversationRetention(int hotMonths, int retentionMonths) {
+        archive = new ConversationArchive(hotMonths, retentionMonths);
+    }
+    
+    /**
+     * نقل المحادثات القديمة إلى أشهرها وتلخيص ما تجاوز مدة الاحتفاظ (على خيط خلفي)
+     */
+    public void runMaintenance() {
+        writeQueue.flush();
+        SQLiteDatabase db = getWritableDatabase();
+        long now = System.currentTimeMillis();
+        ConversationArchive policy = archive;
+        policy.archive(db, now);
+        policy.rollup(db, now);
+    }
+    
+    /**
+     * البحث بالفهرس النصي بعد اكتمال فهرسة البيانات القديمة، وإلا بـ LIKE
+     */
+    private boolean useFullText(SQLiteDatabase db) {
+        if (!fullTextReady) {
+            fullTextReady = FullTextIndex.exists(db) && migrator.isComplete(db, MIGRATION_FULL_TEXT);
+        }
+        return fullTextReady;
+    }
+    
+    private interface RowMigration {
+        void migrate(SQLiteDatabase db, long id, MigrationRow row);
+    }
+    
+    /**
+     * خطوة تنقل أعمدة JSON من جدول إلى الجداول الفرعية ثم تفرّغها. الصف المُفرَّغ
+     * لا يُنقل مرة أخرى، والإدراج في الجداول الفرعية INSERT OR REPLACE، فإعادة الدفعة آمنة.
+     */
+    private static class JsonColumnStep implements SchemaMigrator.Step {
+        private final String table;
+        private final String[] projection;
+        private final String[] jsonColumns;
+        private final String clearSql;
+        private final RowMigration migration;
+        
+        JsonColumnStep(String table, String keyColumn, String[] jsonColumns, RowMigration migration) {
+            this.table = table;
+            this.jsonColumns = jsonColumns;
+            this.migration = migration;
+            
+            List<String> columns = new ArrayList<>();
+            columns.add("id");
+            if (keyColumn != null) columns.add(keyColumn);
+            columns.addAll(Arrays.asList(jsonColumns));
+            this.projection = columns.toArray(new String[0]);
             
-            ArabicLexicon.Word word = new ArabicLexicon.Word(
-                cursor.getString(cursor.getColumnIndexOrThrow("root")),
-                wordText,
-                type
-            );
+            StringBuilder clear = new StringBuilder("UPDATE " + table + " SET ");
+            for (int i = 0; i < jsonColumns.length; i++) {
+                if (i > 0) clear.append(", ");
+                clear.append(jsonColumns[i]).append(" = NULL");
+            }
+            clear.append(" WHERE id > ? AND id <= ?");
+            this.clearSql = clear.toString();
+        }
+        
+        @Override
+        public String name() {
+            return table + "." + String.join("+", jsonColumns);
+        }
+        
+        @Override
+        public long countRemaining(SQLiteDatabase db, long afterId) {
+            Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + table + " WHERE id > ?",
+                                        new String[]{String.valueOf(afterId)});
+            long count = 0;
+            if (cursor != null) {
+                if (cursor.moveToFirst()) count = cursor.getLong(0);
+                cursor.close();
+            }
+            return count;
+        }
+        
+        @Override
+        public SchemaMigrator.Chunk migrateChunk(SQLiteDatabase db, long afterId, int limit) {
+            Cursor cursor = db.query(table, projection, "id > ?", new String[]{String.valueOf(afterId)},
+                                     null, null, "id", String.valueOf(limit));
+            if (cursor == null) return new SchemaMigrator.Chunk(afterId, 0);
             
+            long lastId = afterId;
+            int rows = 0;
             try {
-                String meaningsJson = cursor.getString(cursor.getColumnIndexOrThrow("meanings"));
-                JSONArray meaningsArray = new JSONArray(meaningsJson);
-                for (int i = 0; i < meaningsArray.length(); i++) {
-                    word.meanings.add(meaningsArray.getString(i));
-                }
-                
-                String emotionsJson = cursor.getString(cursor.getColumnIndexOrThrow("emotions"));
-                JSONObject emotionsObj = new JSONObject(emotionsJson);
-                Iterator<String> keys = emotionsObj.keys();
-                while (keys.hasNext()) {
-                    String key = keys.next();
-                    word.emotions.put(key, emotionsObj.getDouble(key));
+                MigrationRow row = new MigrationRow(cursor);
+                while (cursor.moveToNext()) {
+                    lastId = cursor.getLong(0);
+                    migration.migrate(db, lastId, row);
+                    rows++;
                 }
-            } catch (JSONException e) {
-                // تجاهل خطأ JSON
+            } finally {
+                cursor.close();
             }
             
-            word.familiarity = cursor.getDouble(cursor.getColumnIndexOrThrow("familiarity"));
-            word.usageCount = cursor.getInt(cursor.getColumnIndexOrThrow("usage_count"));
-            word.lastUsed = cursor.getLong(cursor.getColumnIndexOrThrow("last_used"));
-            
-            cursor.close();
-            return word;
+            if (rows > 0) {
+                db.execSQL(clearSql, new Object[]{afterId, lastId});
+            }
+            return new SchemaMigrator.Chunk(lastId, rows);
+        }
+    }
+    
+    private static JsonColumnStep recordEmotionsStep(String table, String recordType) {
+        return new JsonColumnStep(table, null, new String[]{"emotions"}, (db, id, row) -> {
+            JSONObject emotions = parseObject(row.getString(0));
+            Iterator<String> keys = emotions.keys();
+            while (keys.hasNext()) {
+                String emotion = keys.next();
+                db.execSQL(SQL_INSERT_RECORD_EMOTION,
+                           new Object[]{recordType, id, emotion, emotions.optDouble(emotion, 0)});
+            }
+        });
+    }
+    
+    private static void insertRelation(SQLiteDatabase db, String concept, String relation,
+                                       String target, Double weight, int position) {
+        db.execSQL("INSERT OR REPLACE INTO " + TABLE_CONCEPT_RELATIONS +
+                   " (concept, relation, target, weight, position) VALUES (?, ?, ?, ?, ?)",
+                   new Object[]{concept, relation, target, weight, position});
+    }
+    
+    /**
+     * قراءة أعمدة الصف الحالي مع تجاوز عمود المعرّف الأول
+     */
+    private static class MigrationRow {
+        private final Cursor cursor;
+        
+        MigrationRow(Cursor cursor) {
+            this.cursor = cursor;
         }
         
-        if (cursor != null) cursor.close();
-        return null;
+        String getString(int column) {
+            return cursor.getString(column + 1);
+        }
+    }
+    
+    private static JSONArray parseArray(String json) {
+        try {
+            return json != null ? new JSONArray(json) : new JSONArray();
+        } catch (JSONException e) {
+            return new JSONArray();
+        }
+    }
+    
+    private static JSONObject parseObject(String json) {
+        try {
+            return json != null ? new JSONObject(json) : new JSONObject();
+        } catch (JSONException e) {
+            return new JSONObject();
+        }
+    }
+    
+    // ===== إدارة الكلمات =====
+    
+    public void saveWord(ArabicLexicon.Word word) {
+        saveWord(word, SQL_REPLACE_WORD);
+    }
+    
+    public void saveSyncedWord(ArabicLexicon.Word word) {
+        saveWord(word, SQL_REPLACE_SYNCED_WORD);
+    }
+    
+    private void saveWord(ArabicLexicon.Word word, String replaceSql) {
+        Object[] args = {word.word, word.root, word.type.name(),
+                         word.familiarity, word.usageCount, word.lastUsed};
+        List<String> meanings = new ArrayList<>(word.meanings);
+        Map<String, Double> emotions = new HashMap<>(word.emotions);
+        
+        // الصف يُستبدل كاملاً، فالزيادات المعلقة قبله بلا أثر
+        writeQueue.discard("usage:" + word.word);
+        writeQueue.enqueue("word:" + word.word, db -> {
+            statements.executeInsert(db, replaceSql, args);
+            
+            statements.executeUpdateDelete(db, SQL_DELETE_WORD_MEANINGS, word.word);
+            for (int i = 0; i < meanings.size(); i++) {
+                statements.executeInsert(db, SQL_INSERT_WORD_MEANING, word.word, i, meanings.get(i));
+            }
+            
+            statements.executeUpdateDelete(db, SQL_DELETE_WORD_EMOTIONS, word.word);
+            for (Map.Entry<String, Double> emotion : emotions.entrySet()) {
+                statements.executeInsert(db, SQL_INSERT_WORD_EMOTION,
+                                         word.word, emotion.getKey(), emotion.getValue());
+            }
+        });
+        // الإبطال بعد الإضافة: قراءة تبدأ بعده تجد الكتابة معلقة فتفرّغها، وقراءة
+        // بدأت قبله لا تُخزَّن نتيجتها
+        wordCache.invalidate(word.word);
+    }
+    
+    public ArabicLexicon.Word loadWord(String wordText) {
+        ArabicLexicon.Word word = wordCache.get(wordText, key -> {
+            SQLiteDatabase db = readableDatabase("word:" + key, "usage:" + key);
+            List<ArabicLexicon.Word> words = loadWords(db, "word = ?", new String[]{key});
+            return words.isEmpty() ? null : words.get(0);
+        });
+        return word != null ? word.mutableCopy() : null;
     }
     
     public List<ArabicLexicon.Word> loadAllWords() {
-        List<ArabicLexicon.Word> words = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(TABLE_WORDS, null, null, null, null, null, "usage_count DESC");
+        return loadWords(flushedDatabase(), null, null);
+    }
+    
+    /**
+     * الكلمات المحفوظة محلياً بعد معرّف صف معين (الاستبدال يمنح الصف معرّفاً جديداً)
+     */
+    public List<ArabicLexicon.Word> loadLocalWordsAfter(long rowId) {
+        return loadWords(flushedDatabase(), "id > ? AND origin = '" + ORIGIN_LOCAL + "'",
+                         new String[]{String.valueOf(rowId)});
+    }
+    
+    public long getMaxWordId() {
+        return maxOf("id");
+    }
+    
+    /**
+     * الكلمات التي تغيرت بعد إصدار معين، بالحفظ أو بتحديث الاستخدام
+     */
+    public List<ArabicLexicon.Word> loadWordsChangedAfter(long version) {
+        return loadWords(flushedDatabase(), "version > ?", new String[]{String.valueOf(version)});
+    }
+    
+    public long getWordVersion() {
+        return maxOf("version");
+    }
+    
+    private long maxOf(String column) {
+        SQLiteDatabase db = flushedDatabase();
+        Cursor cursor = db.rawQuery("SELECT MAX(" + column + ") FROM " + TABLE_WORDS, null);
+        long max = 0;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) max = cursor.getLong(0);
+            cursor.close();
+        }
+        return max;
+    }
+    
+    private List<ArabicLexicon.Word> loadWords(SQLiteDatabase db, String selection, String[] args) {
+        Map<String, ArabicLexicon.Word> words = new LinkedHashMap<>();
+        Cursor cursor = db.query(TABLE_WORDS, null, selection, args, null, null, "usage_count DESC");
         
         if (cursor != null && cursor.moveToFirst()) {
             do {
-                String wordText = cursor.getString(cursor.getColumnIndexOrThrow("word"));
-                ArabicLexicon.Word word = loadWord(wordText);
-                if (word != null) words.add(word);
+                ArabicLexicon.Word word = readWord(cursor);
+                words.put(word.word, word);
             } while (cursor.moveToNext());
+        }
+        if (cursor != null) cursor.close();
+        if (words.isEmpty()) return new ArrayList<>();
+        
+        // المعاني والعواطف باستعلام واحد لكل جدول فرعي بدلاً من استعلام لكل كلمة
+        String scope = selection != null
+            ? " WHERE word IN (SELECT word FROM " + TABLE_WORDS + " WHERE " + selection + ")" : "";
+        
+        cursor = db.rawQuery("SELECT word, meaning FROM " + TABLE_WORD_MEANINGS + scope +
+                             " ORDER BY word, position", args);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                ArabicLexicon.Word word = words.get(cursor.getString(0));
+                if (word != null) word.meanings.add(cursor.getString(1));
+            }
+            cursor.close();
+        }
+        
+        cursor = db.rawQuery("SELECT word, emotion, intensity FROM " + TABLE_WORD_EMOTIONS + scope, args);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                ArabicLexicon.Word word = words.get(cursor.getString(0));
+                if (word != null) word.emotions.put(cursor.getString(1), cursor.getDouble(2));
+            }
             cursor.close();
         }
         
-        return words;
+        return new ArrayList<>(words.values());
+    }
+    
+    private ArabicLexicon.Word readWord(Cursor cursor) {
+        ArabicLexicon.WordType type = ArabicLexicon.WordType.valueOf(
+            cursor.getString(cursor.getColumnIndexOrThrow("type")));
+        
+        ArabicLexicon.Word word = new ArabicLexicon.Word(
+            cursor.getString(cursor.getColumnIndexOrThrow("root")),
+            cursor.getString(cursor.getColumnIndexOrThrow("word")),
+            type
+        );
+        
+        // صف من الإصدار 1 لم يصله الترحيل بعد: أعمدة JSON ما زالت ممتلئة
+        String legacyMeanings = legacyColumn(cursor, "meanings");
+        if (legacyMeanings != null) {
+            JSONArray meanings = parseArray(legacyMeanings);
+            for (int i = 0; i < meanings.length(); i++) {
+                word.meanings.add(meanings.optString(i));
+            }
+        }
+        String legacyEmotions = legacyColumn(cursor, "emotions");
+        if (legacyEmotions != null) {
+            JSONObject emotions = parseObject(legacyEmotions);
+            Iterator<String> keys = emotions.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                word.emotions.put(key, emotions.optDouble(key, 0));
+            }
+        }
+        
+        word.familiarity = cursor.getDouble(cursor.getColumnIndexOrThrow("familiarity"));
+        word.usageCount = cursor.getInt(cursor.getColumnIndexOrThrow("usage_count"));
+        word.lastUsed = cursor.getLong(cursor.getColumnIndexOrThrow("last_used"));
+        return word;
+    }
+    
+    /**
+     * قيمة عمود JSON قديم إن وُجد العمود ولم يُفرَّغ بعد
+     */
+    private static String legacyColumn(Cursor cursor, String column) {
+        int index = cursor.getColumnIndex(column);
+        return index >= 0 && !cursor.isNull(index) ? cursor.getString(index) : null;
     }
     
     public void updateWordUsage(String word) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        db.execSQL("UPDATE " + TABLE_WORDS + 
-                   " SET usage_count = usage_count + 1, last_used = ? WHERE word = ?",
-                   new Object[]{System.currentTimeMillis(), word});
+        long now = System.currentTimeMillis();
+        writeQueue.merge("usage:" + word, new UsageIncrement(word, 1, now),
+            (pending, next) -> ((UsageIncrement) pending).plus((UsageIncrement) next));
+        wordCache.update(word, cached -> {
+            ArabicLexicon.Word updated = cached.mutableCopy();
+            updated.usageCount++;
+            updated.lastUsed = now;
+            return updated;
+        });
+    }
+    
+    /**
+     * الكلمات التي ترتبط بعاطفة بشدة لا تقل عن حد معين (مسح فهرس العاطفة والشدة)
+     */
+    public List<String> findWordsByEmotion(String emotion, double minIntensity, int limit) {
+        List<String> results = new ArrayList<>();
+        SQLiteDatabase db = readableDatabase();
+        
+        Cursor cursor = db.query(TABLE_WORD_EMOTIONS, new String[]{"word"},
+                                 "emotion = ? AND intensity >= ?",
+                                 new String[]{emotion, String.valueOf(minIntensity)},
+                                 null, null, "intensity DESC", String.valueOf(limit));
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                results.add(cursor.getString(0));
+            }
+            cursor.close();
+        }
+        return results;
     }
     
     // ===== إدارة الجمل =====
@@ -246,32 +897,35 @@ public class LocalDatabase extends SQLiteOpenHelper {
     public void saveSentence(String sentence, ArabicParser.SentenceType type, 
                             String structure, Map<String, Double> emotions, 
                             boolean isValid, double confidence) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        
-        ContentValues values = new ContentValues();
-        values.put("sentence", sentence);
-        values.put("type", type.name());
-        values.put("structure", structure);
-        
-        try {
-            values.put("emotions", new JSONObject(emotions).toString());
-        } catch (Exception e) {
-            values.put("emotions", "{}");
-        }
-        
-        values.put("is_valid", isValid ? 1 : 0);
-        values.put("confidence", confidence);
-        
-        db.insertWithOnConflict(TABLE_SENTENCES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        Object[] args = {sentence, type.name(), structure, isValid ? 1 : 0, confidence};
+        Map<String, Double> emotionsCopy = copyEmotions(emotions);
+        
+        writeQueue.enqueue("sentence:" + sentence, db -> {
+            // الاستبدال يمنح الجملة معرّفاً جديداً، فتُحذف عواطف المعرّف القديم
+            statements.executeUpdateDelete(db, SQL_DELETE_SENTENCE_EMOTIONS, sentence);
+            long id = statements.executeInsert(db, SQL_REPLACE_SENTENCE, args);
+            insertRecordEmotions(db, RECORD_SENTENCE, id, emotionsCopy);
+        });
     }
     
     public List<String> getSimilarSentences(String pattern, int limit) {
         List<String> sentences = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        
-        Cursor cursor = db.query(TABLE_SENTENCES, new String[]{"sentence"},
-                                 "sentence LIKE ?", new String[]{"%" + pattern + "%"},
-                                 null, null, "usage_count DESC", String.valueOf(limit));
+        SQLiteDatabase db = readableDatabase();
+        
+        Cursor cursor;
+        if (useFullText(db)) {
+            String match = FullTextIndex.matchExpression(pattern);
+            if (match == null) return sentences;
+            cursor = db.rawQuery("SELECT s.sentence FROM " + FullTextIndex.SENTENCES_FTS +
+                                 " JOIN " + TABLE_SENTENCES + " s ON s.id = " + FullTextIndex.SENTENCES_FTS + ".rowid" +
+                                 " WHERE " + FullTextIndex.SENTENCES_FTS + " MATCH ?" +
+                                 " ORDER BY bm25(" + FullTextIndex.SENTENCES_FTS + "), s.usage_count DESC LIMIT ?",
+                                 new String[]{match, String.valueOf(limit)});
+        } else {
+            cursor = db.query(TABLE_SENTENCES, new String[]{"sentence"},
+                              "sentence LIKE ?", new String[]{"%" + pattern + "%"},
+                              null, null, "usage_count DESC", String.valueOf(limit));
+        }
         
         if (cursor != null && cursor.moveToFirst()) {
             do {
@@ -292,79 +946,98 @@ public class LocalDatabase extends SQLiteOpenHelper {
         values.put("concept", meaning.concept);
         values.put("definition", meaning.definition);
         
+        db.beginTransaction();
         try {
-            values.put("synonyms", new JSONArray(meaning.synonyms).toString());
-            values.put("antonyms", new JSONArray(meaning.antonyms).toString());
-            values.put("related_concepts", new JSONObject(meaning.relatedConcepts).toString());
-        } catch (Exception e) {
-            values.put("synonyms", "[]");
-            values.put("antonyms", "[]");
-            values.put("related_concepts", "{}");
+            db.insertWithOnConflict(TABLE_MEANINGS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            db.delete(TABLE_CONCEPT_RELATIONS, "concept = ?", new String[]{meaning.concept});
+            
+            for (int i = 0; i < meaning.synonyms.size(); i++) {
+                insertRelation(db, meaning.concept, RELATION_SYNONYM, meaning.synonyms.get(i), null, i);
+            }
+            for (int i = 0; i < meaning.antonyms.size(); i++) {
+                insertRelation(db, meaning.concept, RELATION_ANTONYM, meaning.antonyms.get(i), null, i);
+            }
+            int position = 0;
+            for (Map.Entry<String, Double> related : meaning.relatedConcepts.entrySet()) {
+                insertRelation(db, meaning.concept, RELATION_RELATED, related.getKey(), related.getValue(), position++);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
-        
-        db.insertWithOnConflict(TABLE_MEANINGS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        meaningCache.invalidate(meaning.concept);
     }
     
     public SemanticEmotionalEngine.Meaning loadMeaning(String concept) {
-        SQLiteDatabase db = this.getReadableDatabase();
+        SemanticEmotionalEngine.Meaning meaning = meaningCache.get(concept, this::readMeaning);
+        return meaning != null ? copyMeaning(meaning) : null;
+    }
+    
+    private SemanticEmotionalEngine.Meaning readMeaning(String concept) {
+        SQLiteDatabase db = readableDatabase();
         Cursor cursor = db.query(TABLE_MEANINGS, null, "concept = ?",
                                  new String[]{concept}, null, null, null);
         
-        if (cursor != null && cursor.moveToFirst()) {
-            SemanticEmotionalEngine.Meaning meaning = new SemanticEmotionalEngine.Meaning(
-                concept,
-                cursor.getString(cursor.getColumnIndexOrThrow("definition"))
-            );
-            
-            try {
-                String synonymsJson = cursor.getString(cursor.getColumnIndexOrThrow("synonyms"));
-                JSONArray synonymsArray = new JSONArray(synonymsJson);
-                for (int i = 0; i < synonymsArray.length(); i++) {
-                    meaning.synonyms.add(synonymsArray.getString(i));
-                }
-                
-                String antonymsJson = cursor.getString(cursor.getColumnIndexOrThrow("antonyms"));
-                JSONArray antonymsArray = new JSONArray(antonymsJson);
-                for (int i = 0; i < antonymsArray.length(); i++) {
-                    meaning.antonyms.add(antonymsArray.getString(i));
-                }
-                
-                String relatedJson = cursor.getString(cursor.getColumnIndexOrThrow("related_concepts"));
-                JSONObject relatedObj = new JSONObject(relatedJson);
-                Iterator<String> keys = relatedObj.keys();
-                while (keys.hasNext()) {
-                    String key = keys.next();
-                    meaning.relatedConcepts.put(key, relatedObj.getDouble(key));
+        if (cursor == null) return null;
+        if (!cursor.moveToFirst()) {
+            cursor.close();
+            return null;
+        }
+        SemanticEmotionalEngine.Meaning meaning = new SemanticEmotionalEngine.Meaning(
+            concept, cursor.getString(cursor.getColumnIndexOrThrow("definition")));
+        
+        // مفهوم من الإصدار 1 لم يصله الترحيل بعد
+        JSONArray legacySynonyms = parseArray(legacyColumn(cursor, "synonyms"));
+        for (int i = 0; i < legacySynonyms.length(); i++) {
+            meaning.synonyms.add(legacySynonyms.optString(i));
+        }
+        JSONArray legacyAntonyms = parseArray(legacyColumn(cursor, "antonyms"));
+        for (int i = 0; i < legacyAntonyms.length(); i++) {
+            meaning.antonyms.add(legacyAntonyms.optString(i));
+        }
+        JSONObject legacyRelated = parseObject(legacyColumn(cursor, "related_concepts"));
+        Iterator<String> keys = legacyRelated.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            meaning.relatedConcepts.put(key, legacyRelated.optDouble(key, 0));
+        }
+        cursor.close();
+        
+        cursor = db.query(TABLE_CONCEPT_RELATIONS, new String[]{"relation", "target", "weight"},
+                          "concept = ?", new String[]{concept}, null, null, "relation, position");
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                String relation = cursor.getString(0);
+                String target = cursor.getString(1);
+                if (RELATION_SYNONYM.equals(relation)) {
+                    meaning.synonyms.add(target);
+                } else if (RELATION_ANTONYM.equals(relation)) {
+                    meaning.antonyms.add(target);
+                } else if (RELATION_RELATED.equals(relation)) {
+                    meaning.relatedConcepts.put(target, cursor.getDouble(2));
                 }
-            } catch (JSONException e) {
-                // تجاهل خطأ JSON
             }
-            
             cursor.close();
-            return meaning;
         }
         
-        if (cursor != null) cursor.close();
-        return null;
+        return meaning;
     }
     
     // ===== إدارة العواطف =====
     
     public void saveEmotionLink(String word, String emotion, double intensity, String context) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        
-        ContentValues values = new ContentValues();
-        values.put("word", word);
-        values.put("emotion", emotion);
-        values.put("intensity", intensity);
-        values.put("context", context);
-        
-        db.insertWithOnConflict(TABLE_EMOTIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        writeQueue.enqueue("emotion:" + word + "|" + emotion + "|" + context, db ->
+            statements.executeInsert(db, SQL_REPLACE_EMOTION_LINK, word, emotion, intensity, context));
+        emotionCache.invalidate(word);
     }
     
     public Map<String, Double> getWordEmotions(String word) {
+        return new HashMap<>(emotionCache.get(word, this::readWordEmotions));
+    }
+    
+    private Map<String, Double> readWordEmotions(String word) {
         Map<String, Double> emotions = new HashMap<>();
-        SQLiteDatabase db = this.getReadableDatabase();
+        SQLiteDatabase db = readableDatabase("emotion:" + word + "|");
         
         Cursor cursor = db.query(TABLE_EMOTIONS, new String[]{"emotion", "intensity"},
                                  "word = ?", new String[]{word},
@@ -386,21 +1059,13 @@ public class LocalDatabase extends SQLiteOpenHelper {
     
     public void recordLearning(String input, String output, String context, 
                                boolean success, String feedback) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        
-        ContentValues values = new ContentValues();
-        values.put("input", input);
-        values.put("output", output);
-        values.put("context", context);
-        values.put("success", success ? 1 : 0);
-        values.put("feedback", feedback);
-        
-        db.insert(TABLE_LEARNED, null, values);
+        writeQueue.enqueue(db -> statements.executeInsert(db, SQL_INSERT_LEARNING,
+            input, output, context, success ? 1 : 0, feedback));
     }
     
     public List<Map<String, Object>> getLearningHistory(String context, int limit) {
         List<Map<String, Object>> history = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
+        SQLiteDatabase db = readableDatabase();
         
         String selection = context != null ? "context = ?" : null;
         String[] selectionArgs = context != null ? new String[]{context} : null;
@@ -444,11 +1109,13 @@ public class LocalDatabase extends SQLiteOpenHelper {
         ContentValues values = new ContentValues();
         values.put("learned", 1);
         db.update(TABLE_CORRECTIONS, values, "id = ?", new String[]{String.valueOf(id)});
+        // المعرّف لا يكشف النص الأصلي دون استعلام، والتعليم نادر
+        correctionCache.invalidateAll();
     }
     
     public List<Map<String, Object>> getPendingCorrections() {
         List<Map<String, Object>> corrections = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
+        SQLiteDatabase db = readableDatabase();
         
         Cursor cursor = db.query(TABLE_CORRECTIONS, null, "learned = 0",
                                  null, null, null, "corrected_at DESC");
@@ -469,7 +1136,11 @@ public class LocalDatabase extends SQLiteOpenHelper {
     }
     
     public String findCorrection(String text) {
-        SQLiteDatabase db = this.getReadableDatabase();
+        return correctionCache.get(text, this::readCorrection);
+    }
+    
+    private String readCorrection(String text) {
+        SQLiteDatabase db = readableDatabase();
         
         Cursor cursor = db.query(TABLE_CORRECTIONS, 
                                  new String[]{"corrected", "explanation"},
@@ -490,30 +1161,45 @@ public class LocalDatabase extends SQLiteOpenHelper {
     
     public void saveConversation(String userMessage, String aiResponse, 
                                  Map<String, Double> emotions, String context) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        
-        ContentValues values = new ContentValues();
-        values.put("user_message", userMessage);
-        values.put("ai_response", aiResponse);
-        
-        try {
-            values.put("emotions", new JSONObject(emotions).toString());
-        } catch (Exception e) {
-            values.put("emotions", "{}");
-        }
-        
-        values.put("context", context);
-        
-        db.insert(TABLE_CONVERSATIONS, null, values);
+        Map<String, Double> emotionsCopy = copyEmotions(emotions);
+        writeQueue.enqueue(db -> {
+            long id = statements.executeInsert(db, SQL_INSERT_CONVERSATION, userMessage, aiResponse, context);
+            insertRecordEmotions(db, RECORD_CONVERSATION, id, emotionsCopy);
+        });
     }
     
+    /**
+     * أحدث المحادثات؛ الجدول الساخن يكفي عادة، والأشهر المؤرشفة تُقرأ فقط إذا لم يكفِ
+     */
     public List<Map<String, Object>> getConversationHistory(int limit) {
         List<Map<String, Object>> history = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
+        Map<Long, Map<String, Object>> byId = new LinkedHashMap<>();
+        SQLiteDatabase db = readableDatabase();
         
         Cursor cursor = db.query(TABLE_CONVERSATIONS, null, null, null, null, null,
                                  "timestamp DESC", String.valueOf(limit));
+        readConversations(cursor, history, byId);
+        
+        if (history.size() < limit) {
+            for (Integer month : ConversationArchive.partitions(db)) {
+                cursor = db.query(ConversationArchive.tableFor(month), null, null, null, null, null,
+                                  "timestamp DESC", String.valueOf(limit - history.size()));
+                readConversations(cursor, history, byId);
+                if (history.size() >= limit) break;
+            }
+        }
         
+        Map<Long, JSONObject> emotions = loadRecordEmotions(db, RECORD_CONVERSATION, byId.keySet());
+        for (Map.Entry<Long, Map<String, Object>> entry : byId.entrySet()) {
+            JSONObject recordEmotions = emotions.get(entry.getKey());
+            entry.getValue().put("emotions", recordEmotions != null ? recordEmotions : new JSONObject());
+        }
+        
+        return history;
+    }
+    
+    private void readConversations(Cursor cursor, List<Map<String, Object>> history,
+                                   Map<Long, Map<String, Object>> byId) {
         if (cursor != null && cursor.moveToFirst()) {
             do {
                 Map<String, Object> record = new HashMap<>();
@@ -522,46 +1208,104 @@ public class LocalDatabase extends SQLiteOpenHelper {
                 record.put("context", cursor.getString(cursor.getColumnIndexOrThrow("context")));
                 record.put("timestamp", cursor.getLong(cursor.getColumnIndexOrThrow("timestamp")));
                 
-                try {
-                    String emotionsJson = cursor.getString(cursor.getColumnIndexOrThrow("emotions"));
-                    record.put("emotions", new JSONObject(emotionsJson));
-                } catch (JSONException e) {
-                    record.put("emotions", new JSONObject());
+                String legacyEmotions = legacyColumn(cursor, "emotions");
+                if (legacyEmotions != null) {
+                    record.put("emotions", parseObject(legacyEmotions));
+                } else {
+                    byId.put(cursor.getLong(cursor.getColumnIndexOrThrow("id")), record);
                 }
-                
                 history.add(record);
             } while (cursor.moveToNext());
+        }
+        if (cursor != null) cursor.close();
+    }
+    
+    /**
+     * ملخصات الأشهر التي تجاوزت مدة الاحتفاظ، الأحدث أولاً
+     */
+    public List<Map<String, Object>> getConversationSummaries() {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        SQLiteDatabase db = readableDatabase();
+        
+        Cursor cursor = db.query(ConversationArchive.SUMMARIES, null, null, null, null, null, "month DESC");
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                Map<String, Object> summary = new HashMap<>();
+                summary.put("month", cursor.getInt(cursor.getColumnIndexOrThrow("month")));
+                summary.put("conversations", cursor.getInt(cursor.getColumnIndexOrThrow("conversations")));
+                summary.put("top_words", cursor.getString(cursor.getColumnIndexOrThrow("top_words")));
+                summary.put("dominant_emotion", cursor.getString(cursor.getColumnIndexOrThrow("dominant_emotion")));
+                summary.put("dominant_intensity", cursor.getDouble(cursor.getColumnIndexOrThrow("dominant_intensity")));
+                summaries.add(summary);
+            }
             cursor.close();
         }
         
-        return history;
+        return summaries;
     }
     
     // ===== إدارة التجارب =====
     
     public void saveExperience(String description, Map<String, Double> emotions,
                                String outcome, String lesson, double importance) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        
-        ContentValues values = new ContentValues();
-        values.put("description", description);
-        
-        try {
-            values.put("emotions", new JSONObject(emotions).toString());
-        } catch (Exception e) {
-            values.put("emotions", "{}");
+        Map<String, Double> emotionsCopy = copyEmotions(emotions);
+        writeQueue.enqueue(db -> {
+            long id = statements.executeInsert(db, SQL_INSERT_EXPERIENCE, description, outcome, lesson, importance);
+            insertRecordEmotions(db, RECORD_EXPERIENCE, id, emotionsCopy);
+        });
+    }
+    
+    private static Map<String, Double> copyEmotions(Map<String, Double> emotions) {
+        return emotions != null ? new HashMap<>(emotions) : new HashMap<>();
+    }
+    
+    private void insertRecordEmotions(SQLiteDatabase db, String recordType, long recordId,
+                                      Map<String, Double> emotions) {
+        if (recordId < 0) return;
+        for (Map.Entry<String, Double> emotion : emotions.entrySet()) {
+            if (emotion.getValue() == null) continue;
+            statements.executeInsert(db, SQL_INSERT_RECORD_EMOTION,
+                                     recordType, recordId, emotion.getKey(), emotion.getValue());
+        }
+    }
+    
+    /**
+     * عواطف مجموعة سجلات من نوع واحد، مفهرسة بمعرّف السجل
+     */
+    private Map<Long, JSONObject> loadRecordEmotions(SQLiteDatabase db, String recordType, Collection<Long> ids) {
+        Map<Long, JSONObject> result = new HashMap<>();
+        if (ids.isEmpty()) return result;
+        
+        StringBuilder placeholders = new StringBuilder();
+        String[] args = new String[ids.size() + 1];
+        args[0] = recordType;
+        int i = 1;
+        for (Long id : ids) {
+            if (i > 1) placeholders.append(',');
+            placeholders.append('?');
+            args[i++] = String.valueOf(id);
         }
         
-        values.put("outcome", outcome);
-        values.put("lesson", lesson);
-        values.put("importance", importance);
-        
-        db.insert(TABLE_EXPERIENCES, null, values);
+        Cursor cursor = db.query(TABLE_RECORD_EMOTIONS, new String[]{"record_id", "emotion", "intensity"},
+                                 "record_type = ? AND record_id IN (" + placeholders + ")",
+                                 args, null, null, null);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                JSONObject emotions = result.computeIfAbsent(cursor.getLong(0), k -> new JSONObject());
+                try {
+                    emotions.put(cursor.getString(1), cursor.getDouble(2));
+                } catch (JSONException e) {
+                    // تجاهل خطأ JSON
+                }
+            }
+            cursor.close();
+        }
+        return result;
     }
     
     public List<Map<String, Object>> getImportantExperiences(double minImportance, int limit) {
         List<Map<String, Object>> experiences = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
+        SQLiteDatabase db = readableDatabase();
         
         Cursor cursor = db.query(TABLE_EXPERIENCES, null, "importance >= ?",
                                  new String[]{String.valueOf(minImportance)},
@@ -588,56 +1332,63 @@ public class LocalDatabase extends SQLiteOpenHelper {
     
     public Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
+        // لا يُفرَّغ الطابور هنا: القراءة من آخر لقطة مثبتة دون انتظار الكاتب
         SQLiteDatabase db = this.getReadableDatabase();
         
-        // عدد الكلمات
-        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_WORDS, null);
-        if (cursor != null && cursor.moveToFirst()) {
-            stats.put("word_count", cursor.getInt(0));
-            cursor.close();
+        Map<String, Long> counters = TableCounters.read(db);
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            stats.put(counter.getKey(), counter.getValue().intValue());
         }
         
-        // عدد الجمل
-        cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_SENTENCES, null);
-        if (cursor != null && cursor.moveToFirst()) {
-            stats.put("sentence_count", cursor.getInt(0));
-            cursor.close();
+        long today = TableCounters.today();
+        for (Map.Entry<String, Double> growth : TableCounters.growthPerDay(db, counters, today).entrySet()) {
+            stats.put(growth.getKey() + "_per_day", growth.getValue());
         }
-        
-        // عدد المحادثات
-        cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_CONVERSATIONS, null);
-        if (cursor != null && cursor.moveToFirst()) {
-            stats.put("conversation_count", cursor.getInt(0));
-            cursor.close();
-        }
-        
-        // عدد التصحيحات المعلمة
-        cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_CORRECTIONS + " WHERE learned = 1", null);
-        if (cursor != null && cursor.moveToFirst()) {
-            stats.put("learned_corrections", cursor.getInt(0));
-            cursor.close();
-        }
-        
-        // عدد التصحيحات المعلقة
-        cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_CORRECTIONS + " WHERE learned = 0", null);
-        if (cursor != null && cursor.moveToFirst()) {
-            stats.put("pending_corrections", cursor.getInt(0));
-            cursor.close();
+        if (lastSampleDay != today) {
+            lastSampleDay = today;
+            writeQueue.enqueue("counter_sample", w -> TableCounters.sample(w, today));
         }
         
+        stats.put("database_bytes", getDatabaseSize());
+        stats.putAll(writeQueue.getStatistics());
+        stats.putAll(wordCache.getStatistics());
+        stats.putAll(meaningCache.getStatistics());
+        stats.putAll(emotionCache.getStatistics());
+        stats.putAll(correctionCache.getStatistics());
         return stats;
     }
     
+    /**
+     * حجم القاعدة على القرص مع سجل WAL الذي لم يُدمج بعد
+     */
+    public long getDatabaseSize() {
+        File wal = new File(databaseFile.getPath() + "-wal");
+        return databaseFile.length() + wal.length();
+    }
+    
     // ===== البحث =====
     
     public List<String> searchWords(String query) {
         List<String> results = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        
-        Cursor cursor = db.query(TABLE_WORDS, new String[]{"word"},
-                                 "word LIKE ? OR meanings LIKE ?",
-                                 new String[]{"%" + query + "%", "%" + query + "%"},
-                                 null, null, "familiarity DESC", "20");
+        SQLiteDatabase db = readableDatabase();
+        
+        Cursor cursor;
+        if (useFullText(db)) {
+            String match = FullTextIndex.matchExpression(query);
+            if (match == null) return results;
+            // تطابق الكلمة نفسها أثقل من تطابق أحد معانيها
+            cursor = db.rawQuery("SELECT w.word FROM " + FullTextIndex.WORDS_FTS +
+                                 " JOIN " + TABLE_WORDS + " w ON w.id = " + FullTextIndex.WORDS_FTS + ".rowid" +
+                                 " WHERE " + FullTextIndex.WORDS_FTS + " MATCH ?" +
+                                 " ORDER BY bm25(" + FullTextIndex.WORDS_FTS + ", 4.0, 1.0), w.familiarity DESC LIMIT 20",
+                                 new String[]{match});
+        } else {
+            cursor = db.query(TABLE_WORDS, new String[]{"word"},
+                              "word LIKE ? OR word IN (SELECT word FROM " + TABLE_WORD_MEANINGS +
+                              " WHERE meaning LIKE ?)",
+                              new String[]{"%" + query + "%", "%" + query + "%"},
+                              null, null, "familiarity DESC", "20");
+        }
         
         if (cursor != null && cursor.moveToFirst()) {
             do {
@@ -649,56 +1400,127 @@ public class LocalDatabase extends SQLiteOpenHelper {
         return results;
     }
     
-    // ===== النسخ الاحتياطي والاستعادة =====
-    
-    public String exportToJson() {
-        JSONObject export = new JSONObject();
-        SQLiteDatabase db = this.getReadableDatabase();
+    /**
+     * البحث في سجل المحادثات بنص المستخدم أو الرد، الأقرب أولاً. الفهرس يشمل
+     * الأشهر المؤرشفة، والبحث بـ LIKE (دون FTS5) يقتصر على الجدول الساخن.
+     */
+    public List<Map<String, Object>> searchConversations(String query, int limit) {
+        SQLiteDatabase db = readableDatabase();
+        
+        if (!useFullText(db)) {
+            Map<Long, Map<String, Object>> found = new LinkedHashMap<>();
+            Cursor cursor = db.query(TABLE_CONVERSATIONS, new String[]{"id", "user_message", "ai_response", "timestamp"},
+                                     "user_message LIKE ? OR ai_response LIKE ?",
+                                     new String[]{"%" + query + "%", "%" + query + "%"},
+                                     null, null, "timestamp DESC", String.valueOf(limit));
+            readConversationRows(cursor, found);
+            return new ArrayList<>(found.values());
+        }
         
-        try {
-            // تصدير الكلمات
-            JSONArray wordsArray = new JSONArray();
-            Cursor cursor = db.query(TABLE_WORDS, null, null, null, null, null, null);
-            if (cursor != null && cursor.moveToFirst()) {
-                do {
-                    JSONObject word = new JSONObject();
-                    word.put("word", cursor.getString(cursor.getColumnIndexOrThrow("word")));
-                    word.put("root", cursor.getString(cursor.getColumnIndexOrThrow("root")));
-                    word.put("type", cursor.getString(cursor.getColumnIndexOrThrow("type")));
-                    word.put("meanings", cursor.getString(cursor.getColumnIndexOrThrow("meanings")));
-                    word.put("emotions", cursor.getString(cursor.getColumnIndexOrThrow("emotions")));
-                    word.put("familiarity", cursor.getDouble(cursor.getColumnIndexOrThrow("familiarity")));
-                    word.put("usage_count", cursor.getInt(cursor.getColumnIndexOrThrow("usage_count")));
-                    wordsArray.put(word);
-                } while (cursor.moveToNext());
-                cursor.close();
+        List<Map<String, Object>> results = new ArrayList<>();
+        String match = FullTextIndex.matchExpression(query);
+        if (match == null) return results;
+        
+        List<Long> ids = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT rowid FROM " + FullTextIndex.CONVERSATIONS_FTS +
+                                    " WHERE " + FullTextIndex.CONVERSATIONS_FTS + " MATCH ?" +
+                                    " ORDER BY bm25(" + FullTextIndex.CONVERSATIONS_FTS + ") LIMIT ?",
+                                    new String[]{match, String.valueOf(limit)});
+        if (cursor != null) {
+            while (cursor.moveToNext()) ids.add(cursor.getLong(0));
+            cursor.close();
+        }
+        if (ids.isEmpty()) return results;
+        
+        // الصفوف في الجدول الساخن أولاً، والباقي في الأشهر التي يغطي مداها معرّفاتها
+        Map<Long, Map<String, Object>> found = new HashMap<>();
+        fetchConversations(db, TABLE_CONVERSATIONS, ids, found);
+        if (found.size() < ids.size()) {
+            List<Long> missing = new ArrayList<>();
+            for (Long id : ids) {
+                if (!found.containsKey(id)) missing.add(id);
             }
-            export.put("words", wordsArray);
-            
-            // تصدير المعاني
-            JSONArray meaningsArray = new JSONArray();
-            cursor = db.query(TABLE_MEANINGS, null, null, null, null, null, null);
-            if (cursor != null && cursor.moveToFirst()) {
-                do {
-                    JSONObject meaning = new JSONObject();
-                    meaning.put("concept", cursor.getString(cursor.getColumnIndexOrThrow("concept")));
-                    meaning.put("definition", cursor.getString(cursor.getColumnIndexOrThrow("definition")));
-                    meaning.put("synonyms", cursor.getString(cursor.getColumnIndexOrThrow("synonyms")));
-                    meaning.put("antonyms", cursor.getString(cursor.getColumnIndexOrThrow("antonyms")));
-                    meaningsArray.put(meaning);
-                } while (cursor.moveToNext());
-                cursor.close();
+            for (Integer month : ConversationArchive.partitionsContaining(db, Collections.min(missing),
+                                                                          Collections.max(missing))) {
+                fetchConversations(db, ConversationArchive.tableFor(month), missing, found);
+                if (found.size() >= ids.size()) break;
             }
-            export.put("meanings", meaningsArray);
-            
-        } catch (JSONException e) {
-            e.printStackTrace();
         }
         
-        return export.toString();
+        for (Long id : ids) {
+            Map<String, Object> record = found.get(id);
+            if (record != null) results.add(record);
+        }
+        return results;
+    }
+    
+    private static void fetchConversations(SQLiteDatabase db, String table, List<Long> ids,
+                                           Map<Long, Map<String, Object>> found) {
+        StringBuilder placeholders = new StringBuilder();
+        String[] args = new String[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+            args[i] = String.valueOf(ids.get(i));
+        }
+        Cursor cursor = db.query(table, new String[]{"id", "user_message", "ai_response", "timestamp"},
+                                 "id IN (" + placeholders + ")", args, null, null, null);
+        readConversationRows(cursor, found);
+    }
+    
+    private static void readConversationRows(Cursor cursor, Map<Long, Map<String, Object>> found) {
+        if (cursor == null) return;
+        while (cursor.moveToNext()) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("id", cursor.getLong(0));
+            record.put("user_message", cursor.getString(1));
+            record.put("ai_response", cursor.getString(2));
+            record.put("timestamp", cursor.getLong(3));
+            found.put(cursor.getLong(0), record);
+        }
+        cursor.close();
+    }
+    
+    // ===== النسخ الاحتياطي والاستعادة =====
+    
+    /**
+     * تصدير متدفق لكل الجداول إلى ملف (since = 0 للنسخة الكاملة)، ويُرجع عدد الصفوف
+     */
+    public long exportTo(File file, long since, boolean gzip) throws IOException {
+        return new DatabaseBackup(prepareExport()).exportToFile(file, since, gzip);
+    }
+    
+    public long exportTo(OutputStream out, long since, boolean gzip) throws IOException {
+        return new DatabaseBackup(prepareExport()).export(out, since, gzip);
+    }
+    
+    /**
+     * النسخة تُقرأ من الجداول الفرعية، فتُكمل خطوات الترحيل المعلقة قبلها
+     */
+    private SQLiteDatabase prepareExport() {
+        runPendingMigrations(null);
+        return flushedDatabase();
+    }
+    
+    public long importFrom(File file) throws IOException {
+        writeQueue.flush();
+        try {
+            return new DatabaseBackup(getWritableDatabase()).importFromFile(file);
+        } finally {
+            invalidateCaches();
+        }
+    }
+    
+    public long importFrom(InputStream in) throws IOException {
+        writeQueue.flush();
+        try {
+            return new DatabaseBackup(getWritableDatabase()).importFrom(in);
+        } finally {
+            invalidateCaches();
+        }
     }
     
     public void clearAll() {
+        writeQueue.flush();
         SQLiteDatabase db = this.getWritableDatabase();
         db.execSQL("DELETE FROM " + TABLE_WORDS);
         db.execSQL("DELETE FROM " + TABLE_SENTENCES);
@@ -708,5 +1530,11 @@ public class LocalDatabase extends SQLiteOpenHelper {
         db.execSQL("DELETE FROM " + TABLE_CORRECTIONS);
         db.execSQL("DELETE FROM " + TABLE_CONVERSATIONS);
         db.execSQL("DELETE FROM " + TABLE_EXPERIENCES);
+        db.execSQL("DELETE FROM " + TABLE_WORD_MEANINGS);
+        db.execSQL("DELETE FROM " + TABLE_WORD_EMOTIONS);
+        db.execSQL("DELETE FROM " + TABLE_CONCEPT_RELATIONS);
+        db.execSQL("DELETE FROM " + TABLE_RECORD_EMOTIONS);
+        ConversationArchive.clear(db);
+        invalidateCaches();
     }
 }
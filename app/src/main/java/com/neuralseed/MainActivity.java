@@ -7,9 +7,11 @@ import android.graphics.*;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.speech.RecognizerIntent;
 import android.speech.SpeechRecognizer;
 import android.speech.tts.TextToSpeech;
+import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.animation.*;
@@ -17,14 +19,23 @@ import android.widget.*;
 import android.Manifest;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends Activity implements NeuralSeed.ConsciousnessListener, 
         LinguisticCortex.LinguisticListener {
     
     private NeuralSeed seed;
     private LinguisticCortex linguistic;
+    private AndroidLinguisticAdapter linguisticAdapter;
+    private final SeedRenderer renderer = new SeedRenderer();
     private Handler uiHandler = new Handler(Looper.getMainLooper());
+    // خيط واحد للقطات: إيقافان متتاليان يكتبان بالترتيب ولا يتداخلان
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "SeedSnapshotWriter"));
     
     // Views
     private ImageView visualExpressionView;
@@ -36,6 +47,8 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     private EditText inputEditText;
     private Button sendButton, micButton, fullscreenButton, learnButton;
     private TextView touchCoordsText;
+    private GestureAggregator gestureAggregator;
+    private final Runnable hideTouchCoords = () -> touchCoordsText.setVisibility(View.GONE);
     private boolean isFullscreen = false;
     
     // Speech
@@ -106,36 +119,76 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     }
     
     private void setupTouchListener() {
+        // عينات اللمس تُطوى إلى نقرة أو سحب أو ضغط مطوّل؛ مدخل واحد للإيماءة لا لكل عينة
+        gestureAggregator = new GestureAggregator(gesture -> {
+            if (seed == null) return;
+            seed.receiveInput(gesture);
+            showGesture(gesture);
+        });
+        Runnable holdCheck = () -> gestureAggregator.checkHold(SystemClock.uptimeMillis());
+        
         visualExpressionView.setOnTouchListener((v, event) -> {
-            if (event.getAction() == MotionEvent.ACTION_DOWN) {
-                float x = event.getX();
-                float y = event.getY();
-                
-                Matrix matrix = visualExpressionView.getImageMatrix();
-                float[] values = new float[9];
-                matrix.getValues(values);
-                
-                float scaleX = values[Matrix.MSCALE_X];
-                float scaleY = values[Matrix.MSCALE_Y];
-                float transX = values[Matrix.MTRANS_X];
-                float transY = values[Matrix.MTRANS_Y];
-                
-                float imageX = (x - transX) / scaleX;
-                float imageY = (y - transY) / scaleY;
-                
-                if (imageX >= 0 && imageX < 500 && imageY >= 0 && imageY < 500) {
-                    NeuralSeed.Input touchInput = NeuralSeed.Input.createTouchInput(imageX, imageY);
-                    seed.receiveInput(touchInput);
-                    
-                    touchCoordsText.setText(String.format("لمس: (%.0f, %.0f)", imageX, imageY));
-                    touchCoordsText.setVisibility(View.VISIBLE);
-                    uiHandler.postDelayed(() -> touchCoordsText.setVisibility(View.GONE), 2000);
-                }
+            float[] point = toImageCoords(event.getX(), event.getY());
+            long time = event.getEventTime();
+            
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN:
+                    // الإيماءة تبدأ داخل اللوحة فقط
+                    if (point[0] < 0 || point[0] >= VisualFrame.SIZE
+                            || point[1] < 0 || point[1] >= VisualFrame.SIZE) {
+                        return false;
+                    }
+                    gestureAggregator.onDown(point[0], point[1], time);
+                    uiHandler.postDelayed(holdCheck, gestureAggregator.getHoldMillis());
+                    break;
+                case MotionEvent.ACTION_MOVE:
+                    gestureAggregator.onMove(point[0], point[1], time);
+                    break;
+                case MotionEvent.ACTION_UP:
+                    uiHandler.removeCallbacks(holdCheck);
+                    gestureAggregator.onUp(point[0], point[1], time);
+                    break;
+                case MotionEvent.ACTION_CANCEL:
+                    uiHandler.removeCallbacks(holdCheck);
+                    gestureAggregator.onCancel();
+                    break;
             }
             return true;
         });
     }
     
+    /**
+     * إحداثيات اللمس في لوحة التعبير البصري؛ قد تقع خارجها إذا خرج الإصبع منها
+     */
+    private float[] toImageCoords(float x, float y) {
+        Matrix matrix = visualExpressionView.getImageMatrix();
+        float[] values = new float[9];
+        matrix.getValues(values);
+        
+        float imageX = (x - values[Matrix.MTRANS_X]) / values[Matrix.MSCALE_X];
+        float imageY = (y - values[Matrix.MTRANS_Y]) / values[Matrix.MSCALE_Y];
+        return new float[]{imageX, imageY};
+    }
+    
+    private void showGesture(NeuralSeed.Input gesture) {
+        String label;
+        switch (gesture.gesture) {
+            case SWIPE:
+                label = String.format("سحب: (%.0f, %.0f) بسرعة %.0f", gesture.touchX, gesture.touchY,
+                        Math.hypot(gesture.velocityX, gesture.velocityY));
+                break;
+            case HOLD:
+                label = String.format("ضغط مطوّل: (%.0f, %.0f)", gesture.touchX, gesture.touchY);
+                break;
+            default:
+                label = String.format("لمس: (%.0f, %.0f)", gesture.touchX, gesture.touchY);
+        }
+        touchCoordsText.setText(label);
+        touchCoordsText.setVisibility(View.VISIBLE);
+        uiHandler.removeCallbacks(hideTouchCoords);
+        uiHandler.postDelayed(hideTouchCoords, 2000);
+    }
+    
     private void setupFullscreenButton() {
         fullscreenButton.setOnClickListener(v -> {
             isFullscreen = !isFullscreen;
@@ -183,11 +236,19 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
         threatBtn.setOnClickListener(v -> sendInput("تهديد محتمل", NeuralSeed.InputType.THREAT, 0.8));
         opportunityBtn.setOnClickListener(v -> sendInput("فرصة جديدة", NeuralSeed.InputType.OPPORTUNITY, 0.7));
         
-        askBtn.setOnClickListener(v -> {
-            String question = linguistic.generateQuestion(seed.getCurrentState());
-            bubbleView.addBubble(question, false);
-            speak(question);
-        });
+        askBtn.setOnClickListener(v -> linguistic.generateQuestionAsync(() -> seed.getCurrentState(false),
+            new LinguisticCortex.ResultCallback<String>() {
+                @Override
+                public void onResult(String question) {
+                    uiHandler.post(() -> {
+                        bubbleView.addBubble(question, false);
+                        speak(question);
+                    });
+                }
+                
+                @Override
+                public void onError(Throwable error) {}
+            }));
         
         sendButton.setOnClickListener(v -> {
             String text = inputEditText.getText().toString().trim();
@@ -213,24 +274,29 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
         // عرض رسالة المستخدم
         bubbleView.addBubble(text, true);
         
-        // معالجة المدخل اللغوي
-        LinguisticCortex.ProcessedInput processed = linguistic.processInput(text);
-        
         // إرسال كمدخل للوعي
         NeuralSeed.Input input = NeuralSeed.Input.createSpeechInput(text);
         seed.receiveInput(input);
         
-        // توليد رد
-        uiHandler.postDelayed(() -> {
-            LinguisticCortex.GeneratedResponse response = 
-                linguistic.generateResponse(text, seed.getCurrentState());
-            
-            bubbleView.addBubble(response.text, false);
-            speak(response.text);
-            
-            // تحديث الإحصائيات
-            updateStats();
-        }, 500);
+        // المعالجة اللغوية وتوليد الرد خارج خيط الواجهة، ثم العرض فقط على الواجهة
+        linguistic.generateResponseAsync(text, () -> seed.getCurrentState(false),
+            new LinguisticCortex.ResultCallback<LinguisticCortex.GeneratedResponse>() {
+                @Override
+                public void onResult(LinguisticCortex.GeneratedResponse response) {
+                    uiHandler.post(() -> {
+                        bubbleView.addBubble(response.text, false);
+                        speak(response.text);
+                        
+                        // تحديث الإحصائيات
+                        updateStats();
+                    });
+                }
+                
+                @Override
+                public void onError(Throwable error) {
+                    uiHandler.post(() -> bubbleView.addBubble("...", false));
+                }
+            });
     }
     
     private void sendInput(String content, NeuralSeed.InputType type, double intensity) {
@@ -344,6 +410,7 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     
     private void initializeConsciousness() {
         seed = new NeuralSeed();
+        seed.restoreSnapshot(new File(getFilesDir(), SeedSnapshot.FILE_NAME));
         seed.addListener(this);
         seed.awaken();
         bubbleView.addBubble("...أنا هنا", false);
@@ -351,10 +418,16 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     
     private void initializeLinguisticCortex() {
         linguistic = new LinguisticCortex();
-        linguistic.initializeDatabase(this);
-        linguistic.initializeFirebase(this);
+        linguisticAdapter = new AndroidLinguisticAdapter(linguistic);
+        linguisticAdapter.initializeDatabase(this);
+        linguisticAdapter.initializeFirebase(this);
         linguistic.setListener(this);
         
+        FirebaseManager cloud = linguisticAdapter.getFirebaseManager();
+        if (cloud != null) {
+            cloud.startStatePublishing(() -> seed.getCurrentState(false), StatePublisher.DEFAULT_PERIOD_MS);
+        }
+        
         // تحديث السرد الذاتي
         updateNarrative();
     }
@@ -363,6 +436,9 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     
     @Override
     public void onPhaseTransition(NeuralSeed.Phase oldPhase, NeuralSeed.Phase newPhase, String reason) {
+        FirebaseManager cloud = linguisticAdapter != null ? linguisticAdapter.getFirebaseManager() : null;
+        if (cloud != null) cloud.recordPhaseTransition(newPhase, System.currentTimeMillis());
+        
         uiHandler.post(() -> {
             phaseText.setText("الطور: " + newPhase.arabic);
             phaseText.setTextColor(getPhaseTextColor(newPhase));
@@ -405,9 +481,10 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     }
     
     @Override
-    public void onVisualExpression(Bitmap expression) {
+    public void onVisualExpression(VisualFrame frame) {
         uiHandler.post(() -> {
-            visualExpressionView.setImageBitmap(expression);
+            visualExpressionView.setImageBitmap(renderer.render(frame));
+            visualExpressionView.invalidate();
         });
     }
     
@@ -466,7 +543,7 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     // ===== UI Updates =====
     
     private void updateStats() {
-        NeuralSeed.InternalState state = seed.getCurrentState();
+        NeuralSeed.InternalState state = seed.getCurrentState(false);
         
         chaosText.setText(String.format("الفوضى: %.2f", state.chaosIndex));
         fitnessText.setText(String.format("اللياقة: %.2f", state.existentialFitness));
@@ -669,6 +746,18 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
         if (stats.containsKey("pending_corrections")) {
             message.append("التصحيحات المعلقة: ").append(stats.get("pending_corrections")).append("\n");
         }
+        if (stats.containsKey("word_count_per_day")) {
+            message.append("نمو الكلمات يومياً: ")
+                   .append(String.format(Locale.US, "%.1f", (Double) stats.get("word_count_per_day"))).append("\n");
+        }
+        if (stats.containsKey("conversation_count_per_day")) {
+            message.append("نمو المحادثات يومياً: ")
+                   .append(String.format(Locale.US, "%.1f", (Double) stats.get("conversation_count_per_day"))).append("\n");
+        }
+        if (stats.containsKey("database_bytes")) {
+            long kb = (Long) stats.get("database_bytes") / 1024;
+            message.append("حجم الذاكرة على القرص: ").append(kb).append(" ك.ب\n");
+        }
         
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("الإحصائيات");
@@ -717,8 +806,9 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     }
     
     private void syncWithCloud() {
-        if (linguistic.getFirebaseManager() != null) {
-            linguistic.getFirebaseManager().syncWithLocal(linguistic.getDatabase());
+        FirebaseManager cloud = linguisticAdapter.getFirebaseManager();
+        if (cloud != null) {
+            cloud.syncLexicon(linguistic.getLexicon(), linguistic.getRepository());
             Toast.makeText(this, "جاري المزامنة...", Toast.LENGTH_SHORT).show();
         } else {
             Toast.makeText(this, "Firebase غير مهيأ", Toast.LENGTH_SHORT).show();
@@ -727,6 +817,28 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
     
     // ===== Lifecycle =====
     
+    @Override
+    protected void onPause() {
+        super.onPause();
+        
+        // قد لا يعود التطبيق بعد الإيقاف المؤقت، فتُكتب الكتابات المؤجلة الآن
+        if (linguistic != null) {
+            linguistic.flushPendingWrites();
+        }
+        
+        if (seed != null) {
+            NeuralSeed current = seed;
+            File snapshot = new File(getFilesDir(), SeedSnapshot.FILE_NAME);
+            snapshotWriter.execute(() -> {
+                try {
+                    current.saveSnapshot(snapshot);
+                } catch (IOException e) {
+                    Log.w("MainActivity", "Snapshot save failed: " + e.getMessage());
+                }
+            });
+        }
+    }
+    
     @Override
     protected void onDestroy() {
         super.onDestroy();
@@ -735,6 +847,13 @@ public class MainActivity extends Activity implements NeuralSeed.ConsciousnessLi
             seed.sleep();
         }
         
+        if (linguistic != null) {
+            linguistic.shutdown();
+        }
+        
+        // اللقطة المطلوبة في onPause تكتمل ثم ينتهي الخيط
+        snapshotWriter.shutdown();
+        
         if (speechRecognizer != null) {
             speechRecognizer.destroy();
         }
@@ -0,0 +1,244 @@
+package com.neuralseed;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import java.util.*;
+
+/**
+ * مُرحّل المخطط - ترحيلات مرقمة بالإصدار لا تحذف البيانات وتُستأنف بعد الانقطاع
+ *
+ * كل ترحيل جزءان: تعديل بنية سريع (CREATE ... IF NOT EXISTS) يُنفذ داخل onUpgrade،
+ * وخطوات بيانات تُنفذ لاحقاً على دفعات، كل دفعة في معاملة تحفظ موضعها في
+ * جدول schema_migrations، فإذا قُتل التطبيق تستأنف الخطوة من آخر دفعة مثبتة.
+ */
+public class SchemaMigrator {
+
+    private static final String TAG = "SchemaMigrator";
+
+    public static final String TABLE_MIGRATIONS = "schema_migrations";
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * نتيجة دفعة واحدة: آخر معرّف عولج وعدد الصفوف
+     */
+    public static class Chunk {
+        public final long lastId;
+        public final int rows;
+
+        public Chunk(long lastId, int rows) {
+            this.lastId = lastId;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * خطوة بيانات قابلة للتكرار: معالجة الصفوف بعد معرّف معين بالترتيب
+     */
+    public interface Step {
+        String name();
+
+        long countRemaining(SQLiteDatabase db, long afterId);
+
+        /**
+         * معالجة حتى limit صف بعد afterId؛ يجب أن تكون آمنة إذا أعيد تنفيذها
+         */
+        Chunk migrateChunk(SQLiteDatabase db, long afterId, int limit);
+    }
+
+    /**
+     * تعديل البنية المرافق للترحيل (يجب أن يكون قابلاً للتكرار)
+     */
+    public interface SchemaChange {
+        void apply(SQLiteDatabase db);
+    }
+
+    public interface ProgressListener {
+        void onProgress(int version, String step, long processed, long total);
+        void onComplete();
+        void onError(Exception error);
+    }
+
+    public static class Migration {
+        public final int version;
+        public final String description;
+        final SchemaChange schema;
+        final List<Step> steps = new ArrayList<>();
+
+        public Migration(int version, String description, SchemaChange schema) {
+            this.version = version;
+            this.description = description;
+            this.schema = schema;
+        }
+
+        public Migration addStep(Step step) {
+            steps.add(step);
+            return this;
+        }
+    }
+
+    private final SortedMap<Integer, Migration> migrations = new TreeMap<>();
+    private final int chunkSize;
+
+    public SchemaMigrator() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public SchemaMigrator(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public SchemaMigrator register(Migration migration) {
+        migrations.put(migration.version, migration);
+        return this;
+    }
+
+    // ===== البنية =====
+
+    public void createTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_MIGRATIONS + " (" +
+                "version INTEGER NOT NULL," +
+                "step INTEGER NOT NULL," +
+                "name TEXT," +
+                "last_id INTEGER DEFAULT 0," +
+                "processed INTEGER DEFAULT 0," +
+                "done INTEGER DEFAULT 0," +
+                "updated_at INTEGER," +
+                "PRIMARY KEY (version, step)" +
+                ")");
+    }
+
+    /**
+     * يُستدعى من onUpgrade: تعديلات البنية فقط وتسجيل خطوات البيانات المعلقة
+     */
+    public void prepare(SQLiteDatabase db, int oldVersion, int newVersion) {
+        createTable(db);
+
+        for (Migration migration : migrations.subMap(oldVersion + 1, newVersion + 1).values()) {
+            Log.i(TAG, "Preparing migration " + migration.version + ": " + migration.description);
+            if (migration.schema != null) {
+                migration.schema.apply(db);
+            }
+            for (int i = 0; i < migration.steps.size(); i++) {
+                ContentValues values = new ContentValues();
+                values.put("version", migration.version);
+                values.put("step", i);
+                values.put("name", migration.steps.get(i).name());
+                values.put("updated_at", System.currentTimeMillis());
+                db.insertWithOnConflict(TABLE_MIGRATIONS, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+            }
+        }
+    }
+
+    // ===== تنفيذ خطوات البيانات =====
+
+    public boolean hasPending(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_MIGRATIONS + " WHERE done = ?",
+                                    new String[]{"0"});
+        boolean pending = false;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) pending = cursor.getInt(0) > 0;
+            cursor.close();
+        }
+        return pending;
+    }
+
+    /**
+     * هل اكتملت كل خطوات بيانات ترحيل معين (أو لم يكن له خطوات معلقة أصلاً)
+     */
+    public boolean isComplete(SQLiteDatabase db, int version) {
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_MIGRATIONS + " WHERE version = ? AND done = ?",
+                                    new String[]{String.valueOf(version), "0"});
+        boolean complete = true;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) complete = cursor.getInt(0) == 0;
+            cursor.close();
+        }
+        return complete;
+    }
+
+    /**
+     * تنفيذ كل الخطوات المعلقة بالترتيب، دفعة لكل معاملة
+     */
+    public void runPending(SQLiteDatabase db, ProgressListener listener) {
+        try {
+            for (PendingStep pending : loadPending(db)) {
+                runStep(db, pending, listener);
+            }
+            if (listener != null) listener.onComplete();
+        } catch (Exception e) {
+            Log.e(TAG, "Migration interrupted: " + e.getMessage());
+            if (listener != null) listener.onError(e);
+        }
+    }
+
+    private static class PendingStep {
+        int version;
+        int index;
+        long lastId;
+        long processed;
+        Step step;
+    }
+
+    private List<PendingStep> loadPending(SQLiteDatabase db) {
+        List<PendingStep> pending = new ArrayList<>();
+        Cursor cursor = db.query(TABLE_MIGRATIONS, new String[]{"version", "step", "last_id", "processed"},
+                                 "done = ?", new String[]{"0"}, null, null, "version, step");
+        if (cursor == null) return pending;
+
+        while (cursor.moveToNext()) {
+            Migration migration = migrations.get(cursor.getInt(0));
+            int index = cursor.getInt(1);
+            if (migration == null || index >= migration.steps.size()) {
+                Log.w(TAG, "Unknown migration step " + cursor.getInt(0) + "/" + index);
+                continue;
+            }
+
+            PendingStep step = new PendingStep();
+            step.version = migration.version;
+            step.index = index;
+            step.lastId = cursor.getLong(2);
+            step.processed = cursor.getLong(3);
+            step.step = migration.steps.get(index);
+            pending.add(step);
+        }
+        cursor.close();
+        return pending;
+    }
+
+    private void runStep(SQLiteDatabase db, PendingStep pending, ProgressListener listener) {
+        long total = pending.processed + pending.step.countRemaining(db, pending.lastId);
+        String[] key = {String.valueOf(pending.version), String.valueOf(pending.index)};
+
+        while (true) {
+            db.beginTransaction();
+            boolean finished;
+            try {
+                Chunk chunk = pending.step.migrateChunk(db, pending.lastId, chunkSize);
+                finished = chunk.rows == 0;
+
+                ContentValues values = new ContentValues();
+                if (finished) {
+                    values.put("done", 1);
+                } else {
+                    pending.lastId = chunk.lastId;
+                    pending.processed += chunk.rows;
+                    values.put("last_id", pending.lastId);
+                    values.put("processed", pending.processed);
+                }
+                values.put("updated_at", System.currentTimeMillis());
+                db.update(TABLE_MIGRATIONS, values, "version = ? AND step = ?", key);
+
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            if (listener != null) {
+                listener.onProgress(pending.version, pending.step.name(), pending.processed, total);
+            }
+            if (finished) return;
+        }
+    }
+}
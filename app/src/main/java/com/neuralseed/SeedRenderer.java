@@ -0,0 +1,41 @@
+package com.neuralseed;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+/**
+ * عارض التعبير البصري - رسم إطارات المحرك على لوحة أندرويد
+ *
+ * اللوحة واحدة يُعاد الرسم عليها، فيُستدعى العارض على خيط الواجهة فقط.
+ */
+public class SeedRenderer {
+
+    private final Bitmap bitmap = Bitmap.createBitmap(VisualFrame.SIZE, VisualFrame.SIZE, Bitmap.Config.ARGB_8888);
+    private final Canvas canvas = new Canvas(bitmap);
+    private final Paint paint = new Paint();
+
+    public SeedRenderer() {
+        bitmap.eraseColor(Color.BLACK);
+    }
+
+    public Bitmap render(VisualFrame frame) {
+        canvas.drawColor(Color.BLACK);
+        paint.setColor(frame.color);
+
+        // رسم الحلقات
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3);
+        for (int i = 0; i < frame.ringRadii.length; i++) {
+            paint.setAlpha(frame.ringAlphas[i]);
+            canvas.drawCircle(frame.centerX, frame.centerY, frame.ringRadii[i], paint);
+        }
+
+        // رسم نقطة مركزية
+        paint.setStyle(Paint.Style.FILL);
+        paint.setAlpha(255);
+        canvas.drawCircle(frame.centerX, frame.centerY, frame.coreRadius, paint);
+        return bitmap;
+    }
+}
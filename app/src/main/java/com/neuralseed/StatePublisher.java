@@ -0,0 +1,229 @@
+package com.neuralseed;
+
+import android.util.Base64;
+import android.util.Log;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ناشر الحالة - بث حالة البذرة إلى السحابة بمعدل محدود وبالفروق فقط
+ *
+ * الحالة تُقرأ كل فترة، والقيم العشرية تُقرَّب إلى دقة محددة فلا يُعد التذبذب
+ * الصغير تغييراً. لا يُكتب إلا الحقل الذي تغيّر منذ آخر نشر، كل حقل في مساره.
+ * انتقالات الطور تُجمع في سجل ثنائي مضغوط: مقاطع من (فرق الزمن كعدد متغير
+ * الطول، رقم الطور) تُرمَّز Base64 وتُكتب في state_history، مقطعاً لكل 64 انتقالاً.
+ * تسجيل الانتقال لا يكتب شيئاً، فيصلح للاستدعاء تحت قفل الحالة؛ النشر مع العينة.
+ */
+public class StatePublisher {
+
+    private static final String TAG = "StatePublisher";
+
+    public static final String STATES_PATH = "states";
+    public static final String HISTORY_PATH = "state_history";
+
+    public static final long DEFAULT_PERIOD_MS = 5000;
+    public static final int DEFAULT_DECIMALS = 2;
+
+    private static final int HISTORY_CHUNK_SIZE = 64;
+
+    /**
+     * وجهة الكتابات متعددة المسارات (صندوق الصادر، أو ناقل محلي في التجربة)
+     */
+    public interface Sink {
+        void publish(Map<String, Object> updates);
+    }
+
+    private final Sink sink;
+    private final String deviceId;
+    private final Object serverTimestamp;
+
+    private volatile int decimals = DEFAULT_DECIMALS;
+
+    // آخر قيم منشورة، تُقارن بها العينة التالية
+    private final Map<String, Object> published = new HashMap<>();
+
+    // مقطع السجل الحالي
+    private long chunkStart = 0;
+    private long lastTransitionTime = 0;
+    private int chunkCount = 0;
+    private ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+    private NeuralSeed.Phase lastPhase;
+    private final Map<String, Object> pendingHistory = new LinkedHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> sampling;
+
+    private long samples = 0;
+    private long fieldsPublished = 0;
+    private long transitions = 0;
+
+    public StatePublisher(Sink sink, String deviceId, Object serverTimestamp) {
+        this.sink = sink;
+        this.deviceId = deviceId;
+        this.serverTimestamp = serverTimestamp;
+    }
+
+    /**
+     * عدد المنازل العشرية للقيم المنشورة
+     */
+    public void setDecimals(int decimals) {
+        this.decimals = Math.max(0, Math.min(decimals, 9));
+    }
+
+    // ===== التشغيل =====
+
+    public synchronized void start(Supplier<NeuralSeed.InternalState> source, long periodMs) {
+        stop();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StatePublisher");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        sampling = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                NeuralSeed.InternalState state = source.get();
+                if (state != null) sample(state);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "State sample failed: " + e.getMessage());
+            }
+        }, 0, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sampling != null) sampling.cancel(false);
+        if (scheduler != null) scheduler.shutdown();
+        sampling = null;
+        scheduler = null;
+    }
+
+    // ===== النشر =====
+
+    /**
+     * مقارنة العينة بآخر نشر وكتابة الحقول المتغيرة فقط؛ الكتابة خارج القفل
+     */
+    public void sample(NeuralSeed.InternalState state) {
+        Map<String, Object> updates = diff(state);
+        if (updates != null) sink.publish(updates);
+    }
+
+    private synchronized Map<String, Object> diff(NeuralSeed.InternalState state) {
+        samples++;
+        Map<String, Object> current = new LinkedHashMap<>();
+        current.put("phase", state.currentPhase.name());
+        current.put("chaosIndex", quantize(state.chaosIndex));
+        current.put("existentialFitness", quantize(state.existentialFitness));
+        current.put("internalConflict", quantize(state.internalConflict));
+        if (state.dominantEgo != null) current.put("dominantEgo", state.dominantEgo.name);
+
+        // انتقال لم يصل عبر recordTransition (مثلاً بعد الاستعادة من لقطة)
+        if (state.currentPhase != lastPhase) {
+            recordTransition(state.currentPhase,
+                             state.phaseTransitionTime > 0 ? state.phaseTransitionTime : System.currentTimeMillis());
+        }
+
+        String base = STATES_PATH + "/" + deviceId + "/";
+        Map<String, Object> updates = new LinkedHashMap<>(pendingHistory);
+        pendingHistory.clear();
+        for (Map.Entry<String, Object> field : current.entrySet()) {
+            if (!field.getValue().equals(published.get(field.getKey()))) {
+                updates.put(base + field.getKey(), field.getValue());
+            }
+        }
+        if (!current.containsKey("dominantEgo") && published.containsKey("dominantEgo")) {
+            updates.put(base + "dominantEgo", null);
+        }
+        if (updates.isEmpty()) return null;
+
+        if (!current.equals(published)) {
+            updates.put(base + "timestamp", serverTimestamp);
+            published.clear();
+            published.putAll(current);
+        }
+        fieldsPublished += updates.size();
+        return updates;
+    }
+
+    /**
+     * القيمة مقرَّبة إلى المنازل العشرية المحددة
+     */
+    double quantize(double value) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    // ===== سجل الأطوار =====
+
+    /**
+     * إضافة انتقال إلى المقطع الحالي؛ يُنشر مع العينة التالية، والمقطع الممتلئ يُغلق
+     */
+    public synchronized void recordTransition(NeuralSeed.Phase phase, long time) {
+        if (phase == lastPhase) return;
+        lastPhase = phase;
+        transitions++;
+
+        if (chunkCount == 0) {
+            chunkStart = time;
+            lastTransitionTime = time;
+        }
+        writeVarLong(chunk, Math.max(0, time - lastTransitionTime));
+        chunk.write(phase.ordinal());
+        lastTransitionTime = time;
+        chunkCount++;
+
+        // المقطع يُعاد كتابته في المسار نفسه حتى يمتلئ، فلا يبقى معلقاً إلا أحدث نسخه
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("start", chunkStart);
+        entry.put("count", chunkCount);
+        entry.put("data", Base64.encodeToString(chunk.toByteArray(), Base64.NO_WRAP));
+        pendingHistory.put(HISTORY_PATH + "/" + deviceId + "/" + chunkStart, entry);
+
+        if (chunkCount >= HISTORY_CHUNK_SIZE) {
+            chunk = new ByteArrayOutputStream();
+            chunkCount = 0;
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * فك مقطع سجل إلى أزواج (الزمن، الطور) للوحات العرض
+     */
+    public static List<long[]> decodeHistory(long start, byte[] data) {
+        List<long[]> entries = new ArrayList<>();
+        long time = start;
+        int position = 0;
+        while (position < data.length) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0 && position < data.length);
+            if (position >= data.length) break;
+            time += delta;
+            entries.add(new long[]{time, data[position++]});
+        }
+        return entries;
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("state_samples", samples);
+        stats.put("state_fields_published", fieldsPublished);
+        stats.put("phase_transitions", transitions);
+        return stats;
+    }
+}
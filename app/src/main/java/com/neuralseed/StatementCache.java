@@ -0,0 +1,80 @@
+package com.neuralseed;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import java.util.*;
+
+/**
+ * ذاكرة العبارات المترجمة - عبارات SQL الساخنة تُترجم مرة واحدة وتُعاد بربط المعاملات
+ *
+ * العبارة المترجمة مرتبطة بقاعدة بيانات واحدة ولا تصلح للاستخدام المتزامن،
+ * فكل التنفيذ يمر عبر هذا الكائن بقفل واحد، وتُعاد الترجمة إذا أُعيد فتح القاعدة.
+ */
+public class StatementCache {
+
+    private final Map<String, SQLiteStatement> statements = new HashMap<>();
+    private SQLiteDatabase boundDatabase;
+
+    /**
+     * تنفيذ INSERT وإرجاع معرّف الصف
+     */
+    public synchronized long executeInsert(SQLiteDatabase db, String sql, Object... args) {
+        return bind(db, sql, args).executeInsert();
+    }
+
+    /**
+     * تنفيذ UPDATE أو DELETE وإرجاع عدد الصفوف المتأثرة
+     */
+    public synchronized int executeUpdateDelete(SQLiteDatabase db, String sql, Object... args) {
+        return bind(db, sql, args).executeUpdateDelete();
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public synchronized void close() {
+        for (SQLiteStatement statement : statements.values()) {
+            statement.close();
+        }
+        statements.clear();
+        boundDatabase = null;
+    }
+
+    private SQLiteStatement bind(SQLiteDatabase db, String sql, Object[] args) {
+        if (db != boundDatabase) {
+            close();
+            boundDatabase = db;
+        }
+
+        SQLiteStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = db.compileStatement(sql);
+            statements.put(sql, statement);
+        }
+
+        statement.clearBindings();
+        for (int i = 0; i < args.length; i++) {
+            bindValue(statement, i + 1, args[i]);
+        }
+        return statement;
+    }
+
+    private static void bindValue(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof String) {
+            statement.bindString(index, (String) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            statement.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            statement.bindLong(index, (Boolean) value ? 1 : 0);
+        } else if (value instanceof byte[]) {
+            statement.bindBlob(index, (byte[]) value);
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+}
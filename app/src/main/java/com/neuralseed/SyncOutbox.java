@@ -0,0 +1,359 @@
+package com.neuralseed;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * صندوق الصادر السحابي - كتابات السحابة تُحفظ محلياً أولاً ثم تُرسل عند الاتصال
+ *
+ * كل كتابة سجل في sync_outbox بمفتاح منطقي (كلمة، حالة، محادثة) ومسارات متعددة.
+ * الكتابة الجديدة بالمفتاح نفسه تحل محل المعلقة، فلا يُرسل إلا آخرها. الإرسال
+ * دفعات، كل دفعة عملية updateChildren واحدة، والسجل لا يُحذف إلا بعد نجاحها.
+ * عند الفشل يتضاعف الانتظار حتى حد أقصى، ويعود إلى البداية عند عودة الاتصال.
+ * سجل تكرر فشل دفعته يُرسل وحده، فإن فشل وحده أيضاً يُركن فلا يوقف ما بعده حتى
+ * يستبدله سجل أحدث بالمفتاح نفسه أو يعود الاتصال. والدفعة لا تجمع مسارين أحدهما
+ * داخل الآخر، لأن الخدمة ترفض العملية كلها عندئذ.
+ */
+public class SyncOutbox {
+
+    private static final String TAG = "SyncOutbox";
+
+    public static final String TABLE = "sync_outbox";
+
+    private static final int BATCH_SIZE = 50;
+    private static final long BASE_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 5 * 60 * 1000;
+    // بعدها يُرسل السجل وحده، وبعد الحد الأقصى يُركن
+    private static final int ISOLATE_AFTER_ATTEMPTS = 3;
+    private static final int MAX_ATTEMPTS = 6;
+
+    // علامة وقت الخادم في النص المحفوظ (صيغة Firebase نفسها)
+    private static final String SERVER_VALUE = ".sv";
+
+    private final LocalDatabase database;
+    private final CloudTransport transport;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SyncOutbox");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // تُقرأ وتُعدّل على خيط الصندوق فقط
+    private boolean connected = false;
+    private boolean inFlight = false;
+    private ScheduledFuture<?> scheduledDrain;
+    private int failures = 0;
+
+    private volatile long sent = 0;
+    private volatile long batches = 0;
+    private volatile long failedBatches = 0;
+    private volatile long coalesced = 0;
+    private volatile long dropped = 0;
+
+    public SyncOutbox(LocalDatabase database, CloudTransport transport) {
+        this.database = database;
+        this.transport = transport;
+    }
+
+    public static void create(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "key TEXT NOT NULL UNIQUE," +
+                "updates TEXT NOT NULL," +
+                "created_at INTEGER NOT NULL," +
+                "attempts INTEGER NOT NULL DEFAULT 0" +
+                ")");
+    }
+
+    // ===== الإضافة =====
+
+    /**
+     * حفظ كتابة سحابية متعددة المسارات؛ تحل محل أي كتابة معلقة بالمفتاح نفسه
+     */
+    public void enqueue(String key, Map<String, Object> updates) {
+        String payload;
+        try {
+            payload = encode(updates).toString();
+        } catch (JSONException e) {
+            Log.e(TAG, "Cannot encode cloud write " + key + ": " + e.getMessage());
+            return;
+        }
+
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("updates", payload);
+        values.put("created_at", System.currentTimeMillis());
+        // الاستبدال يعطي السجل معرّفاً جديداً فينتقل إلى آخر الصف، ويصفّر محاولاته
+        SQLiteDatabase db = database.getWritableDatabase();
+        long replaced = DatabaseUtils.queryNumEntries(db, TABLE, "key = ?", new String[]{key});
+        db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+
+        scheduler.execute(() -> {
+            if (replaced > 0) coalesced++;
+            if (!inFlight && failures == 0) scheduleDrain(0);
+        });
+    }
+
+    /**
+     * حالة الاتصال من مراقب الخدمة؛ عودته تصفّر الانتظار وتبدأ الإرسال فوراً
+     */
+    public void setConnected(boolean isConnected) {
+        scheduler.execute(() -> {
+            connected = isConnected;
+            if (isConnected) {
+                // محاولة مؤجلة بالانتظار الأُسّي تُستبدل بإرسال فوري
+                failures = 0;
+                unpark();
+                if (scheduledDrain != null) scheduledDrain.cancel(false);
+                scheduledDrain = null;
+                scheduleDrain(0);
+            }
+        });
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    // ===== الإرسال =====
+
+    private void scheduleDrain(long delayMs) {
+        if (scheduledDrain != null || inFlight) return;
+        scheduledDrain = scheduler.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        scheduledDrain = null;
+        if (!connected || inFlight) return;
+
+        List<Long> ids = new ArrayList<>();
+        List<Long> rejected = new ArrayList<>();
+        Map<String, Object> merged = new LinkedHashMap<>();
+        TreeSet<String> paths = new TreeSet<>();
+        String isolatedKey = null;
+        Cursor cursor = database.getReadableDatabase().query(TABLE, new String[]{"id", "key", "updates", "attempts"},
+                "attempts < ?", new String[]{String.valueOf(MAX_ATTEMPTS)}, null, null, "id",
+                String.valueOf(BATCH_SIZE));
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                String key = cursor.getString(1);
+                // سجل فشلت دفعته مرات يُرسل وحده، فيُعرف إن كان هو سبب الفشل
+                boolean isolate = cursor.getInt(3) >= ISOLATE_AFTER_ATTEMPTS;
+                if (isolate && !ids.isEmpty()) break;
+
+                Map<String, Object> updates;
+                try {
+                    updates = decode(new JSONObject(cursor.getString(2)));
+                } catch (JSONException e) {
+                    Log.e(TAG, "Dropping corrupt cloud write " + key);
+                    rejected.add(cursor.getLong(0));
+                    continue;
+                }
+                if (overlaps(new TreeSet<>(), updates.keySet())) {
+                    Log.e(TAG, "Dropping cloud write with nested paths " + key);
+                    rejected.add(cursor.getLong(0));
+                    continue;
+                }
+                // مسار داخل مسار من سجل سابق يؤجل السجل إلى الدفعة التالية
+                if (overlaps(paths, updates.keySet())) break;
+
+                // بالترتيب، فالأحدث يغلب إن تكرر مسار
+                merged.putAll(updates);
+                for (String path : updates.keySet()) paths.add(trim(path));
+                ids.add(cursor.getLong(0));
+                if (isolate) {
+                    isolatedKey = key;
+                    break;
+                }
+            }
+            cursor.close();
+        }
+
+        if (!rejected.isEmpty()) {
+            delete(rejected);
+            dropped += rejected.size();
+        }
+        if (ids.isEmpty()) {
+            if (!rejected.isEmpty()) scheduleDrain(0);
+            return;
+        }
+
+        String failedAlone = isolatedKey;
+        inFlight = true;
+        transport.update(merged, new CloudTransport.Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                scheduler.execute(() -> {
+                    inFlight = false;
+                    failures = 0;
+                    // الحذف بالمعرّف: سجل استُبدل أثناء الإرسال يبقى لدفعة تالية
+                    delete(ids);
+                    sent += ids.size();
+                    batches++;
+                    scheduleDrain(0);
+                });
+            }
+
+            @Override
+            public void onFailure(String error) {
+                scheduler.execute(() -> {
+                    inFlight = false;
+                    failures++;
+                    failedBatches++;
+                    markAttempt(ids);
+                    long delay = backoff(failures);
+                    String what = failedAlone != null ? "Cloud write " + failedAlone : "Cloud write";
+                    Log.w(TAG, what + " failed (" + error + "), retrying in " + delay + " ms");
+                    scheduleDrain(delay);
+                });
+            }
+        });
+    }
+
+    /**
+     * هل يقع أحد المسارات داخل مسار في المجموعة أو يحتويه؛ المسار المطابق ليس تداخلاً.
+     * المسارات تُضاف إلى المجموعة أثناء الفحص، فتُفحص أيضاً فيما بينها.
+     */
+    static boolean overlaps(TreeSet<String> paths, Collection<String> candidates) {
+        TreeSet<String> added = new TreeSet<>(paths);
+        for (String candidate : candidates) {
+            String path = trim(candidate);
+            // سلف في المجموعة
+            for (int slash = path.indexOf('/'); slash > 0; slash = path.indexOf('/', slash + 1)) {
+                if (added.contains(path.substring(0, slash))) return true;
+            }
+            // خلف في المجموعة: كل ما يبدأ بالمسار و"/" متجاور في الترتيب
+            String descendant = added.ceiling(path + "/");
+            if (descendant != null && descendant.startsWith(path + "/")) return true;
+            added.add(path);
+        }
+        return false;
+    }
+
+    private static String trim(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') start++;
+        while (end > start && path.charAt(end - 1) == '/') end--;
+        return path.substring(start, end);
+    }
+
+    /**
+     * انتظار أُسّي مع تشتيت عشوائي حتى لا تعود الأجهزة كلها معاً
+     */
+    static long backoff(int failures) {
+        long delay = BASE_BACKOFF_MS << Math.min(failures - 1, 20);
+        delay = Math.min(delay, MAX_BACKOFF_MS);
+        return delay / 2 + (long) (Math.random() * (delay / 2));
+    }
+
+    private void delete(List<Long> ids) {
+        database.getWritableDatabase().execSQL("DELETE FROM " + TABLE + " WHERE id IN (" + join(ids) + ")");
+    }
+
+    private void markAttempt(List<Long> ids) {
+        database.getWritableDatabase().execSQL("UPDATE " + TABLE + " SET attempts = attempts + 1 WHERE id IN (" +
+                                               join(ids) + ")");
+    }
+
+    /**
+     * السجلات المركونة تعود عند عودة الاتصال لمحاولة واحدة منفردة، فما رُكن
+     * بسبب انقطاع طويل لا يضيع
+     */
+    private void unpark() {
+        database.getWritableDatabase().execSQL("UPDATE " + TABLE + " SET attempts = " + (MAX_ATTEMPTS - 1) +
+                                               " WHERE attempts >= " + MAX_ATTEMPTS);
+    }
+
+    private static String join(List<Long> ids) {
+        StringBuilder joined = new StringBuilder();
+        for (Long id : ids) {
+            if (joined.length() > 0) joined.append(',');
+            joined.append(id);
+        }
+        return joined.toString();
+    }
+
+    // ===== الترميز =====
+
+    private JSONObject encode(Map<String, Object> updates) throws JSONException {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            json.put(update.getKey(), encodeValue(update.getValue()));
+        }
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object encodeValue(Object value) throws JSONException {
+        if (value == null) return JSONObject.NULL;
+        if (value == transport.serverTimestamp() || value.equals(transport.serverTimestamp())) {
+            return new JSONObject().put(SERVER_VALUE, "timestamp");
+        }
+        if (value instanceof Map) {
+            JSONObject json = new JSONObject();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                json.put(entry.getKey(), encodeValue(entry.getValue()));
+            }
+            return json;
+        }
+        if (value instanceof List) {
+            JSONArray array = new JSONArray();
+            for (Object item : (List<Object>) value) array.put(encodeValue(item));
+            return array;
+        }
+        return value;
+    }
+
+    private Map<String, Object> decode(JSONObject json) throws JSONException {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            updates.put(key, decodeValue(json.get(key)));
+        }
+        return updates;
+    }
+
+    private Object decodeValue(Object value) throws JSONException {
+        if (value == JSONObject.NULL) return null;
+        if (value instanceof JSONObject) {
+            JSONObject json = (JSONObject) value;
+            if (json.length() == 1 && json.has(SERVER_VALUE)) return transport.serverTimestamp();
+            return decode(json);
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            List<Object> list = new ArrayList<>();
+            for (int i = 0; i < array.length(); i++) list.add(decodeValue(array.get(i)));
+            return list;
+        }
+        return value;
+    }
+
+    // ===== الإحصائيات =====
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("outbox_pending", DatabaseUtils.queryNumEntries(database.getReadableDatabase(), TABLE));
+        stats.put("outbox_sent", sent);
+        stats.put("outbox_batches", batches);
+        stats.put("outbox_failed_batches", failedBatches);
+        stats.put("outbox_coalesced", coalesced);
+        stats.put("outbox_dropped", dropped);
+        stats.put("outbox_parked", DatabaseUtils.queryNumEntries(database.getReadableDatabase(), TABLE,
+                "attempts >= ?", new String[]{String.valueOf(MAX_ATTEMPTS)}));
+        return stats;
+    }
+}
@@ -0,0 +1,139 @@
+package com.neuralseed;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import java.util.*;
+
+/**
+ * عدادات الجداول - أعداد الصفوف محفوظة في جدول صغير تحدّثه المشغلات
+ *
+ * الإحصائيات تُقرأ باستعلام واحد على بضعة صفوف بدل COUNT(*) على كل جدول،
+ * ولقطة يومية من العدادات تعطي معدل النمو دون مسح الجداول الأصلية.
+ */
+public class TableCounters {
+
+    public static final String TABLE = "table_counters";
+    public static final String SAMPLES = "counter_samples";
+
+    public static final String WORDS = "word_count";
+    public static final String SENTENCES = "sentence_count";
+    public static final String CONVERSATIONS = "conversation_count";
+    public static final String EXPERIENCES = "experience_count";
+    public static final String LEARNED_CORRECTIONS = "learned_corrections";
+    public static final String PENDING_CORRECTIONS = "pending_corrections";
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final int GROWTH_WINDOW_DAYS = 7;
+    private static final int SAMPLE_RETENTION_DAYS = 30;
+
+    private TableCounters() {
+    }
+
+    // ===== البنية =====
+
+    /**
+     * إنشاء الجداول والمشغلات وتهيئة العدادات من الأعداد الحالية (مرة واحدة)
+     */
+    public static void create(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                "name TEXT PRIMARY KEY," +
+                "value INTEGER NOT NULL DEFAULT 0" +
+                ")");
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + SAMPLES + " (" +
+                "day INTEGER NOT NULL," +
+                "name TEXT NOT NULL," +
+                "value INTEGER NOT NULL," +
+                "PRIMARY KEY (day, name)" +
+                ")");
+
+        seed(db, WORDS, "SELECT COUNT(*) FROM words");
+        seed(db, SENTENCES, "SELECT COUNT(*) FROM sentences");
+        seed(db, CONVERSATIONS, "SELECT COUNT(*) FROM conversations");
+        seed(db, EXPERIENCES, "SELECT COUNT(*) FROM experiences");
+        seed(db, LEARNED_CORRECTIONS, "SELECT COUNT(*) FROM corrections WHERE learned = 1");
+        seed(db, PENDING_CORRECTIONS, "SELECT COUNT(*) FROM corrections WHERE learned = 0");
+
+        countRows(db, "words", WORDS);
+        countRows(db, "sentences", SENTENCES);
+        countRows(db, "conversations", CONVERSATIONS);
+        countRows(db, "experiences", EXPERIENCES);
+
+        // التصحيح ينتقل من المعلّق إلى المتعلَّم عند تحديث learned
+        String state = "CASE WHEN %s.learned = 1 THEN '" + LEARNED_CORRECTIONS + "' ELSE '" +
+                       PENDING_CORRECTIONS + "' END";
+        String newState = String.format(state, "NEW");
+        String oldState = String.format(state, "OLD");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS corrections_count_insert AFTER INSERT ON corrections BEGIN " +
+                   adjust(newState, "+ 1") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS corrections_count_delete AFTER DELETE ON corrections BEGIN " +
+                   adjust(oldState, "- 1") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS corrections_count_update AFTER UPDATE OF learned ON corrections " +
+                   "WHEN NEW.learned IS NOT OLD.learned BEGIN " +
+                   adjust(oldState, "- 1") + " " + adjust(newState, "+ 1") + " END");
+    }
+
+    private static void seed(SQLiteDatabase db, String name, String countSql) {
+        db.execSQL("INSERT OR REPLACE INTO " + TABLE + " (name, value) VALUES ('" + name + "', (" + countSql + "))");
+    }
+
+    /**
+     * مشغلا الإدراج والحذف؛ مع recursive_triggers يُحسب الاستبدال حذفاً ثم إدراجاً
+     */
+    private static void countRows(SQLiteDatabase db, String table, String name) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + table + "_count_insert AFTER INSERT ON " + table + " BEGIN " +
+                   adjust("'" + name + "'", "+ 1") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + table + "_count_delete AFTER DELETE ON " + table + " BEGIN " +
+                   adjust("'" + name + "'", "- 1") + " END");
+    }
+
+    private static String adjust(String nameExpression, String delta) {
+        return "UPDATE " + TABLE + " SET value = value " + delta + " WHERE name = " + nameExpression + ";";
+    }
+
+    // ===== القراءة =====
+
+    public static Map<String, Long> read(SQLiteDatabase db) {
+        Map<String, Long> counters = new HashMap<>();
+        Cursor cursor = db.rawQuery("SELECT name, value FROM " + TABLE, null);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                counters.put(cursor.getString(0), cursor.getLong(1));
+            }
+            cursor.close();
+        }
+        return counters;
+    }
+
+    public static long today() {
+        return System.currentTimeMillis() / DAY_MS;
+    }
+
+    /**
+     * حفظ لقطة اليوم (مرة في اليوم) وحذف اللقطات القديمة
+     */
+    public static void sample(SQLiteDatabase db, long day) {
+        db.execSQL("INSERT OR IGNORE INTO " + SAMPLES + " (day, name, value) SELECT ?, name, value FROM " + TABLE,
+                   new Object[]{day});
+        db.execSQL("DELETE FROM " + SAMPLES + " WHERE day < ?", new Object[]{day - SAMPLE_RETENTION_DAYS});
+    }
+
+    /**
+     * معدل النمو اليومي لكل عداد منذ أقدم لقطة ضمن نافذة الأسبوع
+     */
+    public static Map<String, Double> growthPerDay(SQLiteDatabase db, Map<String, Long> current, long day) {
+        Map<String, Double> growth = new HashMap<>();
+        Cursor cursor = db.rawQuery("SELECT day, name, value FROM " + SAMPLES +
+                                    " WHERE day = (SELECT MIN(day) FROM " + SAMPLES + " WHERE day >= ? AND day < ?)",
+                                    new String[]{String.valueOf(day - GROWTH_WINDOW_DAYS), String.valueOf(day)});
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                Long now = current.get(cursor.getString(1));
+                if (now == null) continue;
+                long days = day - cursor.getLong(0);
+                growth.put(cursor.getString(1), (now - cursor.getLong(2)) / (double) days);
+            }
+            cursor.close();
+        }
+        return growth;
+    }
+}
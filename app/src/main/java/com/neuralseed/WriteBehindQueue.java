@@ -0,0 +1,369 @@
+package com.neuralseed;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+import java.util.*;
+import java.util.function.BinaryOperator;
+
+/**
+ * طابور الكتابة المؤجلة - تجميع عمليات الكتابة وتنفيذها في معاملة واحدة
+ *
+ * العمليات تُضاف دون انتظار القرص، وخيط خلفي يفرّغها عند بلوغ حجم الدفعة
+ * أو مرور مهلة زمنية. العمليات ذات المفتاح نفسه تُدمج فلا يُكتب إلا آخرها.
+ *
+ * إذا فشلت المعاملة أُعيدت الدفعة عملية عملية، فلا تُفقد العمليات السليمة
+ * بسبب واحدة فاسدة. ما يفشل يعود إلى رأس الطابور، وبعد MAX_WRITE_ATTEMPTS
+ * محاولة يُسقط ويُحسب في الإحصاءات. إذا تعذر فتح القاعدة نفسها عادت الدفعة
+ * كلها دون أن تُحسب محاولة، وانتظر الخيط الخلفي مهلة قبل أن يعيد.
+ */
+public class WriteBehindQueue {
+
+    private static final String TAG = "WriteBehindQueue";
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 2000;
+    public static final int MAX_WRITE_ATTEMPTS = 3;
+
+    /**
+     * عملية كتابة واحدة تُنفذ داخل معاملة الدفعة
+     */
+    public interface Write {
+        void apply(SQLiteDatabase db);
+    }
+
+    // عملية معلقة مع ما يلزم لإعادتها إلى الطابور إذا فشلت
+    private static class Entry {
+        final Object key;
+        final Write write;
+        final BinaryOperator<Write> combiner;
+        int attempts = 0;
+
+        Entry(Object key, Write write, BinaryOperator<Write> combiner) {
+            this.key = key;
+            this.write = write;
+            this.combiner = combiner;
+        }
+    }
+
+    private final SQLiteOpenHelper helper;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    // العمليات المعلقة بترتيب الإضافة؛ العمليات غير المفتاحية تأخذ مفتاحاً فريداً
+    private LinkedHashMap<Object, Entry> pending = new LinkedHashMap<>();
+    private final Object lock = new Object();
+
+    // يضمن أن الدفعات تُكتب بالترتيب نفسه الذي سُحبت به
+    private final Object writeLock = new Object();
+
+    // مفاتيح الدفعة التي سُحبت ولم تُثبت بعد؛ ما زالت معلقة بالنسبة للقارئ
+    private final Set<Object> inFlight = new HashSet<>();
+
+    private long oldestPendingTime = 0;
+    private Thread writerThread;
+    private volatile boolean running = true;
+
+    private long batchesWritten = 0;
+    private long writesApplied = 0;
+    private long writesCoalesced = 0;
+    private long batchesFailed = 0;
+    private long writesRetried = 0;
+    private long writesDropped = 0;
+
+    public WriteBehindQueue(SQLiteOpenHelper helper) {
+        this(helper, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    public WriteBehindQueue(SQLiteOpenHelper helper, int batchSize, long flushIntervalMs) {
+        this.helper = helper;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    // ===== الإضافة =====
+
+    /**
+     * إضافة عملية لا تُدمج مع غيرها (إدراج سجل جديد)
+     */
+    public void enqueue(Write write) {
+        add(new Object(), write, null);
+    }
+
+    /**
+     * إضافة عملية تحل محل أي عملية معلقة بالمفتاح نفسه، وتنتقل إلى آخر الطابور
+     */
+    public void enqueue(String key, Write write) {
+        add(key, write, null);
+    }
+
+    /**
+     * دمج عملية مع عملية معلقة بالمفتاح نفسه (مثل جمع الزيادات)
+     */
+    public void merge(String key, Write write, BinaryOperator<Write> combiner) {
+        add(key, write, combiner);
+    }
+
+    /**
+     * حذف عملية معلقة أصبحت بلا أثر
+     */
+    public void discard(String key) {
+        synchronized (lock) {
+            if (pending.remove(key) != null) {
+                writesCoalesced++;
+            }
+        }
+    }
+
+    private void add(Object key, Write write, BinaryOperator<Write> combiner) {
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                oldestPendingTime = System.currentTimeMillis();
+            }
+            Entry previous = pending.remove(key);
+            if (previous != null) {
+                writesCoalesced++;
+                if (combiner != null) {
+                    write = combiner.apply(previous.write, write);
+                }
+            }
+            pending.put(key, new Entry(key, write, combiner));
+
+            ensureWriterStarted();
+            if (pending.size() >= batchSize) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // ===== التفريغ =====
+
+    /**
+     * كتابة كل العمليات المعلقة الآن على الخيط المستدعي (عند الإيقاف المؤقت مثلاً)
+     */
+    public void flush() {
+        flushBatch();
+    }
+
+    /**
+     * تُرجع false إذا عادت الدفعة إلى الطابور لأن القاعدة لم تُفتح
+     */
+    private boolean flushBatch() {
+        synchronized (writeLock) {
+            List<Entry> batch = drain();
+            if (batch.isEmpty()) return true;
+            try {
+                writeBatch(batch);
+                return true;
+            } catch (RuntimeException e) {
+                // كل معاملة تلتقط أخطاءها، فلم يُطبق من الدفعة شيء
+                batchesFailed++;
+                Log.e(TAG, "Cannot open database, requeueing " + batch.size() + " writes: " + e.getMessage());
+                requeue(batch, false);
+                return false;
+            } finally {
+                synchronized (lock) {
+                    inFlight.clear();
+                }
+            }
+        }
+    }
+
+    public boolean hasPending() {
+        synchronized (lock) {
+            return !pending.isEmpty();
+        }
+    }
+
+    /**
+     * هل بقيت عملية مفتاحها يبدأ بالبادئة معلقة أو قيد الكتابة (لقراءة ترى
+     * كتابات مفتاح واحد؛ flush ينتظر الدفعة الجارية)
+     */
+    public boolean hasPending(String keyPrefix) {
+        synchronized (lock) {
+            return matches(pending.keySet(), keyPrefix) || matches(inFlight, keyPrefix);
+        }
+    }
+
+    private static boolean matches(Collection<Object> keys, String keyPrefix) {
+        for (Object key : keys) {
+            if (key instanceof String && ((String) key).startsWith(keyPrefix)) return true;
+        }
+        return false;
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * إيقاف الخيط الخلفي بعد كتابة ما تبقى
+     */
+    public void shutdown() {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        flush();
+    }
+
+    private List<Entry> drain() {
+        synchronized (lock) {
+            List<Entry> batch = new ArrayList<>(pending.values());
+            inFlight.addAll(pending.keySet());
+            pending.clear();
+            oldestPendingTime = 0;
+            return batch;
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        if (applyInTransaction(db, batch)) {
+            batchesWritten++;
+            writesApplied += batch.size();
+            return;
+        }
+
+        // المعاملة تراجعت كلها: كل عملية في معاملتها، وما يفشل يعود إلى الطابور
+        batchesFailed++;
+        List<Entry> failed = new ArrayList<>();
+        for (Entry entry : batch) {
+            if (applyInTransaction(db, Collections.singletonList(entry))) {
+                writesApplied++;
+            } else {
+                failed.add(entry);
+            }
+        }
+        if (!failed.isEmpty()) {
+            requeue(failed, true);
+        }
+    }
+
+    private boolean applyInTransaction(SQLiteDatabase db, List<Entry> entries) {
+        try {
+            db.beginTransaction();
+            try {
+                for (Entry entry : entries) {
+                    entry.write.apply(db);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                // الالتزام يحدث هنا وقد يفشل هو أيضاً (القرص ممتلئ)
+                db.endTransaction();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            if (entries.size() == 1) {
+                Log.w(TAG, "Write " + entries.get(0).key + " failed: " + e.getMessage());
+            } else {
+                Log.w(TAG, "Batch of " + entries.size() + " writes failed, retrying one by one: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * إعادة العمليات الفاشلة إلى رأس الطابور قبل ما أُضيف بعد سحبها؛
+     * countAttempt خطأ عندما لم تُجرب العمليات أصلاً
+     */
+    private void requeue(List<Entry> failed, boolean countAttempt) {
+        synchronized (lock) {
+            LinkedHashMap<Object, Entry> merged = new LinkedHashMap<>();
+            for (Entry entry : failed) {
+                if (countAttempt && ++entry.attempts >= MAX_WRITE_ATTEMPTS) {
+                    writesDropped++;
+                    Log.e(TAG, "Dropping write " + entry.key + " after " + entry.attempts + " attempts");
+                    continue;
+                }
+                Entry newer = pending.remove(entry.key);
+                if (newer == null) {
+                    merged.put(entry.key, entry);
+                } else if (newer.combiner != null) {
+                    // الزيادات لا تُستبدل: العملية الفاشلة تُجمع مع الأحدث
+                    Entry combined = new Entry(entry.key, newer.combiner.apply(entry.write, newer.write), newer.combiner);
+                    combined.attempts = entry.attempts;
+                    merged.put(entry.key, combined);
+                } else {
+                    // عملية أحدث بالمفتاح نفسه تحل محلها
+                    writesCoalesced++;
+                    merged.put(entry.key, newer);
+                    continue;
+                }
+                writesRetried++;
+            }
+            if (merged.isEmpty()) return;
+
+            merged.putAll(pending);
+            pending = merged;
+            // المهلة تبدأ من جديد فلا يعيد الخيط الخلفي المحاولة فوراً
+            oldestPendingTime = System.currentTimeMillis();
+        }
+    }
+
+    private void ensureWriterStarted() {
+        if (writerThread != null || !running) return;
+
+        writerThread = new Thread(this::writerLoop, "DatabaseWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private void writerLoop() {
+        try {
+            while (running) {
+                synchronized (lock) {
+                    while (running && !isDue()) {
+                        long wait = pending.isEmpty() ? flushIntervalMs
+                            : Math.max(1, oldestPendingTime + flushIntervalMs - System.currentTimeMillis());
+                        lock.wait(wait);
+                    }
+                }
+                boolean written;
+                try {
+                    written = flushBatch();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Writer failed: " + e.getMessage());
+                    written = false;
+                }
+                if (!written) {
+                    // دفعة كاملة عادت إلى الطابور تبقى مستحقة، فالانتظار هنا يمنع الدوران
+                    synchronized (lock) {
+                        if (running) lock.wait(flushIntervalMs);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // الإضافة التالية تبدأ خيطاً جديداً بدل أن تتراكم العمليات دون كاتب
+            synchronized (lock) {
+                if (writerThread == Thread.currentThread()) writerThread = null;
+            }
+        }
+    }
+
+    private boolean isDue() {
+        if (pending.isEmpty()) return false;
+        return pending.size() >= batchSize
+            || System.currentTimeMillis() - oldestPendingTime >= flushIntervalMs;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (lock) {
+            stats.put("pending_writes", pending.size());
+            stats.put("coalesced_writes", writesCoalesced);
+            stats.put("writes_retried", writesRetried);
+            stats.put("writes_dropped", writesDropped);
+        }
+        synchronized (writeLock) {
+            stats.put("batches_written", batchesWritten);
+            stats.put("batches_failed", batchesFailed);
+            stats.put("writes_applied", writesApplied);
+        }
+        return stats;
+    }
+}
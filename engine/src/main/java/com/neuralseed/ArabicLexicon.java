@@ -0,0 +1,498 @@
+package com.neuralseed;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * المعجم العربي - يحتوي على الكلمات والجذور والمعاني
+ *
+ * آمن للاستخدام من عدة خيوط: كل مدخل لقطة غير قابلة للتعديل تُستبدل ذرياً
+ * عند التعلم، فالقراءة لا تحتاج إلى قفل والكتابات المتزامنة لا تُفسد المدخلات.
+ */
+public class ArabicLexicon {
+    
+    private final Map<String, Word> words = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> rootIndex = new ConcurrentHashMap<>();
+    private final ArabicMorphology morphology = ArabicMorphology.getDefault();
+    
+    // المعجم الأساسي المضغوط (للقراءة فقط) والكلمات المتعلمة فوقه
+    private volatile CompactLexicon base;
+    private final AtomicInteger shadowedCount = new AtomicInteger();
+    
+    public enum WordType {
+        NOUN, VERB, ADJECTIVE, ADVERB, PREPOSITION, CONJUNCTION, 
+        PRONOUN, PARTICLE, INTERJECTION, UNKNOWN
+    }
+    
+    public static class Word {
+        public String word;
+        public String root;
+        public String form;
+        public WordType type;
+        public List<String> meanings = new ArrayList<>();
+        public Map<String, Double> emotions = new HashMap<>();
+        public double familiarity = 0.5;
+        public int usageCount = 0;
+        public long lastUsed = 0;
+        
+        public Word(String root, String form, WordType type) {
+            this.root = root;
+            this.form = form;
+            this.word = form;
+            this.type = type;
+        }
+        
+        public Word(String word) {
+            this.word = word;
+            this.form = word;
+            this.root = extractRoot(word);
+            this.type = WordType.UNKNOWN;
+        }
+        
+        private String extractRoot(String word) {
+            String root = ArabicMorphology.getDefault().extractRoot(word);
+            return root != null ? root : word;
+        }
+        
+        /**
+         * نسخة قابلة للتعديل لبناء لقطة جديدة
+         */
+        Word mutableCopy() {
+            Word copy = new Word(root, form, type);
+            copy.word = word;
+            copy.meanings = new ArrayList<>(meanings);
+            copy.emotions = new HashMap<>(emotions);
+            copy.familiarity = familiarity;
+            copy.usageCount = usageCount;
+            copy.lastUsed = lastUsed;
+            return copy;
+        }
+        
+        /**
+         * لقطة غير قابلة للتعديل تُنشر في المعجم
+         */
+        Word snapshot() {
+            Word copy = mutableCopy();
+            copy.meanings = Collections.unmodifiableList(copy.meanings);
+            copy.emotions = Collections.unmodifiableMap(copy.emotions);
+            return copy;
+        }
+        
+        Word derive(Consumer<Word> change) {
+            Word copy = mutableCopy();
+            change.accept(copy);
+            return copy.snapshot();
+        }
+    }
+    
+    // الكلمات الافتراضية تُبنى مرة واحدة لكل عملية وتُشارك بين كل المعاجم
+    private static final List<Word> DEFAULT_WORDS = buildDefaultWords();
+    
+    public ArabicLexicon() {
+        for (Word word : DEFAULT_WORDS) {
+            putWord(word);
+        }
+    }
+    
+    /**
+     * معجم فوق صورة مضغوطة جاهزة (الكلمات الافتراضية مدمجة فيها مسبقاً)
+     */
+    public ArabicLexicon(CompactLexicon base) {
+        attachBase(base);
+    }
+    
+    public static List<Word> getDefaultWords() {
+        return DEFAULT_WORDS;
+    }
+    
+    private static List<Word> buildDefaultWords() {
+        List<Word> defaults = new ArrayList<>();
+        
+        // أفعال شائعة
+        addDefault(defaults, "كتب", "كتابة", WordType.VERB, Arrays.asList("writing", "to write"), 
+                Map.of("joy", 0.3, "curiosity", 0.5));
+        addDefault(defaults, "قرأ", "قراءة", WordType.VERB, Arrays.asList("reading", "to read"), 
+                Map.of("joy", 0.4, "curiosity", 0.7));
+        addDefault(defaults, "فكر", "تفكير", WordType.VERB, Arrays.asList("thinking", "to think"), 
+                Map.of("curiosity", 0.8, "joy", 0.3));
+        addDefault(defaults, "شعر", "شعور", WordType.VERB, Arrays.asList("feeling", "to feel"), 
+                Map.of("empathy", 0.9, "joy", 0.4));
+        addDefault(defaults, "عرف", "معرفة", WordType.VERB, Arrays.asList("knowing", "to know"), 
+                Map.of("curiosity", 0.6, "joy", 0.5));
+        addDefault(defaults, "حب", "حب", WordType.VERB, Arrays.asList("love", "to love"), 
+                Map.of("love", 1.0, "joy", 0.8));
+        addDefault(defaults, "كره", "كراهية", WordType.VERB, Arrays.asList("hate", "to hate"), 
+                Map.of("anger", 0.8, "sadness", 0.4));
+        addDefault(defaults, "خاف", "خوف", WordType.VERB, Arrays.asList("fear", "to fear"), 
+                Map.of("fear", 1.0, "anxiety", 0.7));
+        addDefault(defaults, "فرح", "فرح", WordType.VERB, Arrays.asList("joy", "to be happy"), 
+                Map.of("joy", 1.0, "happiness", 0.9));
+        addDefault(defaults, "حزن", "حزن", WordType.VERB, Arrays.asList("sadness", "to be sad"), 
+                Map.of("sadness", 1.0, "melancholy", 0.8));
+        
+        // أسماء
+        addDefault(defaults, "كتاب", "كتاب", WordType.NOUN, Arrays.asList("book"), 
+                Map.of("curiosity", 0.6, "joy", 0.4));
+        addDefault(defaults, "قلم", "قلم", WordType.NOUN, Arrays.asList("pen"), 
+                Map.of("creativity", 0.5));
+        addDefault(defaults, "ورد", "ورد", WordType.NOUN, Arrays.asList("flower", "rose"), 
+                Map.of("love", 0.7, "beauty", 0.8, "joy", 0.5));
+        addDefault(defaults, "بحر", "بحر", WordType.NOUN, Arrays.asList("sea", "ocean"), 
+                Map.of("peace", 0.7, "vastness", 0.8));
+        addDefault(defaults, "سماء", "سماء", WordType.NOUN, Arrays.asList("sky", "heaven"), 
+                Map.of("wonder", 0.8, "peace", 0.6));
+        addDefault(defaults, "أرض", "أرض", WordType.NOUN, Arrays.asList("earth", "land"), 
+                Map.of("stability", 0.7, "grounded", 0.6));
+        addDefault(defaults, "شمس", "شمس", WordType.NOUN, Arrays.asList("sun"), 
+                Map.of("warmth", 0.8, "joy", 0.6, "energy", 0.7));
+        addDefault(defaults, "قمر", "قمر", WordType.NOUN, Arrays.asList("moon"), 
+                Map.of("mystery", 0.7, "peace", 0.6, "romance", 0.5));
+        addDefault(defaults, "نجم", "نجم", WordType.NOUN, Arrays.asList("star"), 
+                Map.of("wonder", 0.9, "guidance", 0.6));
+        addDefault(defaults, "قلب", "قلب", WordType.NOUN, Arrays.asList("heart"), 
+                Map.of("love", 0.9, "emotion", 0.8, "life", 0.7));
+        addDefault(defaults, "عقل", "عقل", WordType.NOUN, Arrays.asList("mind", "intellect"), 
+                Map.of("curiosity", 0.8, "logic", 0.7));
+        addDefault(defaults, "روح", "روح", WordType.NOUN, Arrays.asList("soul", "spirit"), 
+                Map.of("spirituality", 0.9, "peace", 0.7));
+        
+        // صفات
+        addDefault(defaults, "جميل", "جميل", WordType.ADJECTIVE, Arrays.asList("beautiful"), 
+                Map.of("joy", 0.7, "appreciation", 0.8));
+        addDefault(defaults, "كبير", "كبير", WordType.ADJECTIVE, Arrays.asList("big", "great"), 
+                Map.of("awe", 0.5));
+        addDefault(defaults, "صغير", "صغير", WordType.ADJECTIVE, Arrays.asList("small", "little"), 
+                Map.of("tenderness", 0.6));
+        addDefault(defaults, "جديد", "جديد", WordType.ADJECTIVE, Arrays.asList("new"), 
+                Map.of("curiosity", 0.8, "excitement", 0.6));
+        addDefault(defaults, "قديم", "قديم", WordType.ADJECTIVE, Arrays.asList("old"), 
+                Map.of("nostalgia", 0.7, "wisdom", 0.6));
+        addDefault(defaults, "سعيد", "سعيد", WordType.ADJECTIVE, Arrays.asList("happy"), 
+                Map.of("joy", 1.0, "happiness", 0.9));
+        addDefault(defaults, "حزين", "حزين", WordType.ADJECTIVE, Arrays.asList("sad"), 
+                Map.of("sadness", 0.9, "empathy", 0.6));
+        addDefault(defaults, "غاضب", "غاضب", WordType.ADJECTIVE, Arrays.asList("angry"), 
+                Map.of("anger", 0.9, "frustration", 0.7));
+        addDefault(defaults, "خائف", "خائف", WordType.ADJECTIVE, Arrays.asList("afraid"), 
+                Map.of("fear", 0.9, "anxiety", 0.7));
+        addDefault(defaults, "آمن", "آمن", WordType.ADJECTIVE, Arrays.asList("safe", "secure"), 
+                Map.of("peace", 0.9, "security", 0.8));
+        
+        // حروف وأدوات
+        addDefault(defaults, "في", "في", WordType.PREPOSITION, Arrays.asList("in"), 
+                Map.of("neutral", 0.5));
+        addDefault(defaults, "من", "من", WordType.PREPOSITION, Arrays.asList("from"), 
+                Map.of("neutral", 0.5));
+        addDefault(defaults, "إلى", "إلى", WordType.PREPOSITION, Arrays.asList("to"), 
+                Map.of("neutral", 0.5));
+        addDefault(defaults, "على", "على", WordType.PREPOSITION, Arrays.asList("on"), 
+                Map.of("neutral", 0.5));
+        addDefault(defaults, "و", "و", WordType.CONJUNCTION, Arrays.asList("and"), 
+                Map.of("neutral", 0.5));
+        addDefault(defaults, "أو", "أو", WordType.CONJUNCTION, Arrays.asList("or"), 
+                Map.of("neutral", 0.5));
+        addDefault(defaults, "لكن", "لكن", WordType.CONJUNCTION, Arrays.asList("but"), 
+                Map.of("contrast", 0.5));
+        addDefault(defaults, "هل", "هل", WordType.PARTICLE, Arrays.asList("question"), 
+                Map.of("curiosity", 0.6));
+        addDefault(defaults, "ما", "ما", WordType.PARTICLE, Arrays.asList("what"), 
+                Map.of("curiosity", 0.7));
+        addDefault(defaults, "لا", "لا", WordType.PARTICLE, Arrays.asList("no", "not"), 
+                Map.of("negation", 0.4));
+        
+        return Collections.unmodifiableList(defaults);
+    }
+    
+    private static void addDefault(List<Word> defaults, String root, String form, WordType type,
+                                   List<String> meanings, Map<String, Double> emotions) {
+        // الأسماء والصفات الافتراضية تُسجَّل بصيغتها، فنستخرج جذرها الحقيقي
+        if (root.equals(form)) {
+            root = ArabicMorphology.getDefault().extractRoot(form);
+        }
+        Word word = new Word(root, form, type);
+        word.meanings.addAll(meanings);
+        word.emotions.putAll(emotions);
+        defaults.add(word.snapshot());
+    }
+    
+    /**
+     * إضافة كلمة كاملة (من قاعدة البيانات أو المزامنة) مع استبدال أي مدخل سابق
+     */
+    public void putWord(Word word) {
+        Word snapshot = word.snapshot();
+        Word previous = words.put(snapshot.form, snapshot);
+        if (previous == null) {
+            countIfShadowing(snapshot.form);
+        } else if (!previous.root.equals(snapshot.root)) {
+            unindexRoot(previous);
+        }
+        indexRoot(snapshot);
+    }
+    
+    public void addWord(String form, String meaning) {
+        Word updated = words.compute(form, (key, existing) -> {
+            if (existing == null) {
+                existing = promoteFromBase(key);
+            }
+            if (existing == null) {
+                Word word = new Word(key);
+                word.meanings.add(meaning);
+                return word.snapshot();
+            }
+            if (existing.meanings.contains(meaning)) {
+                return existing;
+            }
+            return existing.derive(w -> w.meanings.add(meaning));
+        });
+        indexRoot(updated);
+    }
+    
+    /**
+     * إضافة معنى لكلمة معروفة فقط
+     */
+    public boolean addMeaning(String form, String meaning) {
+        Word updated = words.compute(form, (key, existing) -> {
+            if (existing == null) {
+                existing = promoteFromBase(key);
+            }
+            if (existing == null || existing.meanings.contains(meaning)) {
+                return existing;
+            }
+            return existing.derive(w -> w.meanings.add(meaning));
+        });
+        if (updated == null) return false;
+        indexRoot(updated);
+        return true;
+    }
+    
+    // ===== المعجم الأساسي المضغوط =====
+    
+    /**
+     * ربط معجم مضغوط كطبقة أساسية؛ الكلمات المتعلمة تبقى فوقه وتحجبه
+     */
+    public void attachBase(CompactLexicon compact) {
+        this.base = compact;
+        int shadowed = 0;
+        if (compact != null) {
+            for (String form : words.keySet()) {
+                if (compact.contains(form)) shadowed++;
+            }
+        }
+        shadowedCount.set(shadowed);
+    }
+    
+    /**
+     * استبدال كل المحتوى بصورة مضغوطة: تُفرَّغ طبقة التعلم وتصبح الصورة هي الأساس
+     */
+    public void resetToBase(CompactLexicon compact) {
+        words.clear();
+        rootIndex.clear();
+        attachBase(compact);
+    }
+    
+    public CompactLexicon getBase() {
+        return base;
+    }
+    
+    /**
+     * بناء نسخة مضغوطة من كامل المعجم الحالي
+     */
+    public CompactLexicon compact() {
+        return CompactLexicon.of(getAllWords());
+    }
+    
+    /**
+     * نسخ كلمة من الطبقة الأساسية إلى طبقة التعلم قبل تعديلها
+     */
+    private Word promoteFromBase(String form) {
+        CompactLexicon compact = base;
+        if (compact == null) return null;
+        
+        Word baseWord = compact.getWord(form);
+        if (baseWord == null) return null;
+        
+        shadowedCount.incrementAndGet();
+        return baseWord.snapshot();
+    }
+    
+    private void countIfShadowing(String form) {
+        CompactLexicon compact = base;
+        if (compact != null && compact.contains(form)) {
+            shadowedCount.incrementAndGet();
+        }
+    }
+    
+    private void indexRoot(Word word) {
+        rootIndex.computeIfAbsent(word.root, k -> ConcurrentHashMap.newKeySet()).add(word.form);
+    }
+    
+    private void unindexRoot(Word word) {
+        Set<String> family = rootIndex.get(word.root);
+        if (family != null) {
+            family.remove(word.form);
+        }
+    }
+    
+    public Word getWord(String form) {
+        Word word = words.get(form);
+        if (word == null) {
+            CompactLexicon compact = base;
+            if (compact != null) {
+                Word baseWord = compact.getWord(form);
+                if (baseWord != null) word = baseWord.snapshot();
+            }
+        }
+        return word;
+    }
+    
+    public Word getWordByForm(String form) {
+        return getWord(form);
+    }
+    
+    public boolean contains(String form) {
+        if (words.containsKey(form)) return true;
+        CompactLexicon compact = base;
+        return compact != null && compact.contains(form);
+    }
+    
+    /**
+     * الحصول على العائلة الصرفية - يقبل الجذر أو أي صيغة مشتقة منه
+     */
+    public List<Word> getWordsByRoot(String root) {
+        String key = root;
+        Set<String> family = rootIndex.get(key);
+        if (family == null) {
+            key = morphology.extractRoot(root);
+            family = rootIndex.get(key);
+        }
+        
+        List<Word> result = new ArrayList<>();
+        if (family != null) {
+            for (String form : family) {
+                Word word = words.get(form);
+                // تجاهل المدخلات التي تغير جذرها أثناء كتابة متزامنة
+                if (word != null && word.root.equals(key)) result.add(word);
+            }
+        }
+        
+        CompactLexicon compact = base;
+        if (compact != null) {
+            List<Integer> ids = compact.findIdsByRoot(key);
+            if (ids.isEmpty() && key.equals(root)) {
+                ids = compact.findIdsByRoot(morphology.extractRoot(root));
+            }
+            for (int id : ids) {
+                if (!words.containsKey(compact.getForm(id))) {
+                    result.add(compact.getWord(id).snapshot());
+                }
+            }
+        }
+        return result;
+    }
+    
+    public ArabicMorphology getMorphology() {
+        return morphology;
+    }
+    
+    public int getWordCount() {
+        CompactLexicon compact = base;
+        if (compact == null) return words.size();
+        return words.size() + compact.size() - shadowedCount.get();
+    }
+    
+    /**
+     * كل الكلمات: طبقة التعلم ثم الطبقة الأساسية (تُجسَّد أثناء المرور فقط)
+     */
+    public Collection<Word> getAllWords() {
+        CompactLexicon compact = base;
+        if (compact == null) {
+            return Collections.unmodifiableCollection(words.values());
+        }
+        
+        return new AbstractCollection<Word>() {
+            @Override
+            public Iterator<Word> iterator() {
+                Iterator<Word> overlay = words.values().iterator();
+                return new Iterator<Word>() {
+                    private int nextId = 0;
+                    private Word next = advance();
+                    
+                    private Word advance() {
+                        if (overlay.hasNext()) return overlay.next();
+                        while (nextId < compact.size()) {
+                            int id = nextId++;
+                            if (!words.containsKey(compact.getForm(id))) {
+                                return compact.getWord(id).snapshot();
+                            }
+                        }
+                        return null;
+                    }
+                    
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+                    
+                    @Override
+                    public Word next() {
+                        if (next == null) throw new NoSuchElementException();
+                        Word current = next;
+                        next = advance();
+                        return current;
+                    }
+                };
+            }
+            
+            @Override
+            public int size() {
+                return getWordCount();
+            }
+        };
+    }
+    
+    public List<String> search(String query) {
+        List<String> results = new ArrayList<>();
+        for (String word : words.keySet()) {
+            if (word.contains(query) || query.contains(word)) {
+                results.add(word);
+            }
+        }
+        
+        CompactLexicon compact = base;
+        if (compact != null) {
+            for (int id = 0; id < compact.size(); id++) {
+                String word = compact.getForm(id);
+                if ((word.contains(query) || query.contains(word)) && !words.containsKey(word)) {
+                    results.add(word);
+                }
+            }
+        }
+        return results;
+    }
+    
+    public Map<String, Double> getEmotionsForWord(String form) {
+        Word word = getWord(form);
+        if (word != null) {
+            return new HashMap<>(word.emotions);
+        }
+        return new HashMap<>();
+    }
+    
+    public void updateWordUsage(String form) {
+        long now = System.currentTimeMillis();
+        Word updated = words.compute(form, (key, existing) -> {
+            if (existing == null) {
+                existing = promoteFromBase(key);
+            }
+            if (existing == null) return null;
+            return existing.derive(w -> {
+                w.usageCount++;
+                w.lastUsed = now;
+                w.familiarity = Math.min(1.0, w.familiarity + 0.01);
+            });
+        });
+        if (updated != null) indexRoot(updated);
+    }
+}
@@ -0,0 +1,338 @@
+package com.neuralseed;
+
+import java.util.*;
+
+/**
+ * المحلل الصرفي - تجريد السوابق واللواحق ومطابقة الأوزان لاستخراج الجذر
+ */
+public class ArabicMorphology {
+
+    private static final int DEFAULT_CACHE_SIZE = 4096;
+    private static final int MIN_STEM_LENGTH = 2;
+
+    private static final ArabicMorphology DEFAULT = new ArabicMorphology(DEFAULT_CACHE_SIZE);
+
+    // السوابق مرتبة من الأطول إلى الأقصر
+    private static final String[] PREFIXES = {
+        "وبال", "فبال", "وكال", "وال", "فال", "بال", "كال", "ولل", "فلل",
+        "لل", "ال", "وس", "فس",
+        "و", "ف", "ب", "ك", "ل", "س"
+    };
+
+    // سوابق المضارع
+    private static final String[] VERB_PREFIXES = {
+        "سي", "ست", "سن", "سأ", "ي", "ت", "ن", "أ"
+    };
+
+    // اللواحق مرتبة من الأطول إلى الأقصر
+    private static final String[] SUFFIXES = {
+        "تموها", "كموها",
+        "هما", "كما", "تما", "تمو", "وها", "ونه", "وهم",
+        "ات", "ون", "ين", "ان", "وا", "تم", "تن", "ها", "هم", "هن", "كم", "كن", "نا", "ية", "ني",
+        "ة", "ه", "ي", "ك", "ت", "ا", "ن"
+    };
+
+    /**
+     * وزن صرفي: حروف ف ع ل تمثل حروف الجذر وبقية الحروف زوائد
+     */
+    public static class Pattern {
+        public final String template;
+        public final ArabicLexicon.WordType type;
+
+        Pattern(String template, ArabicLexicon.WordType type) {
+            this.template = template;
+            this.type = type;
+        }
+
+        /**
+         * مطابقة جذع مع الوزن وإرجاع الجذر أو null
+         */
+        String match(String stem) {
+            if (stem.length() != template.length()) return null;
+
+            StringBuilder root = new StringBuilder(3);
+            for (int i = 0; i < template.length(); i++) {
+                char t = template.charAt(i);
+                char c = stem.charAt(i);
+                if (t == 'ف' || t == 'ع' || t == 'ل') {
+                    root.append(c);
+                } else if (t != c) {
+                    return null;
+                }
+            }
+            return root.toString();
+        }
+    }
+
+    private static final List<Pattern> PATTERNS = Arrays.asList(
+        // أوزان سداسية وسباعية
+        new Pattern("استفعال", ArabicLexicon.WordType.NOUN),
+        new Pattern("مستفعل", ArabicLexicon.WordType.NOUN),
+        new Pattern("استفعل", ArabicLexicon.WordType.VERB),
+        new Pattern("يستفعل", ArabicLexicon.WordType.VERB),
+        new Pattern("افتعال", ArabicLexicon.WordType.NOUN),
+        new Pattern("انفعال", ArabicLexicon.WordType.NOUN),
+        new Pattern("مفاعيل", ArabicLexicon.WordType.NOUN),
+        // أوزان خماسية
+        new Pattern("مفعولة", ArabicLexicon.WordType.ADJECTIVE),
+        new Pattern("مفعلة", ArabicLexicon.WordType.NOUN),
+        new Pattern("تفعيل", ArabicLexicon.WordType.NOUN),
+        new Pattern("مفاعل", ArabicLexicon.WordType.NOUN),
+        new Pattern("فعالة", ArabicLexicon.WordType.NOUN),
+        new Pattern("فعيلة", ArabicLexicon.WordType.ADJECTIVE),
+        new Pattern("فاعلة", ArabicLexicon.WordType.ADJECTIVE),
+        new Pattern("تفاعل", ArabicLexicon.WordType.VERB),
+        new Pattern("افتعل", ArabicLexicon.WordType.VERB),
+        new Pattern("انفعل", ArabicLexicon.WordType.VERB),
+        new Pattern("يفتعل", ArabicLexicon.WordType.VERB),
+        new Pattern("مفتعل", ArabicLexicon.WordType.NOUN),
+        new Pattern("فعلاء", ArabicLexicon.WordType.ADJECTIVE),
+        new Pattern("فواعل", ArabicLexicon.WordType.NOUN),
+        new Pattern("فعائل", ArabicLexicon.WordType.NOUN),
+        new Pattern("مفعال", ArabicLexicon.WordType.NOUN),
+        new Pattern("مفعول", ArabicLexicon.WordType.ADJECTIVE),
+        new Pattern("أفعال", ArabicLexicon.WordType.NOUN),
+        // أوزان رباعية
+        new Pattern("فاعل", ArabicLexicon.WordType.ADJECTIVE),
+        new Pattern("فعيل", ArabicLexicon.WordType.ADJECTIVE),
+        new Pattern("فعال", ArabicLexicon.WordType.NOUN),
+        new Pattern("فعول", ArabicLexicon.WordType.NOUN),
+        new Pattern("مفعل", ArabicLexicon.WordType.NOUN),
+        new Pattern("فعلة", ArabicLexicon.WordType.NOUN),
+        new Pattern("أفعل", ArabicLexicon.WordType.ADJECTIVE),
+        new Pattern("تفعل", ArabicLexicon.WordType.VERB),
+        new Pattern("يفعل", ArabicLexicon.WordType.VERB),
+        new Pattern("نفعل", ArabicLexicon.WordType.VERB),
+        new Pattern("فعلى", ArabicLexicon.WordType.ADJECTIVE)
+    );
+
+    /**
+     * نتيجة التحليل الصرفي لكلمة
+     */
+    public static class Analysis {
+        public final String word;
+        public final String normalized;
+        public final String prefix;
+        public final String stem;
+        public final String suffix;
+        public final String root;
+        public final Pattern pattern;
+
+        Analysis(String word, String normalized, String prefix, String stem,
+                 String suffix, String root, Pattern pattern) {
+            this.word = word;
+            this.normalized = normalized;
+            this.prefix = prefix;
+            this.stem = stem;
+            this.suffix = suffix;
+            this.root = root;
+            this.pattern = pattern;
+        }
+    }
+
+    private final Map<String, Analysis> cache;
+
+    public ArabicMorphology(int cacheSize) {
+        this.cache = new LinkedHashMap<String, Analysis>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Analysis> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public static ArabicMorphology getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * تحليل كلمة مع التخزين المؤقت للنتائج
+     */
+    public Analysis analyze(String word) {
+        if (word == null) return null;
+
+        synchronized (cache) {
+            Analysis cached = cache.get(word);
+            if (cached != null) return cached;
+        }
+
+        Analysis analysis = computeAnalysis(word);
+
+        synchronized (cache) {
+            cache.put(word, analysis);
+        }
+        return analysis;
+    }
+
+    public String extractRoot(String word) {
+        Analysis analysis = analyze(word);
+        return analysis != null ? analysis.root : null;
+    }
+
+    public String stem(String word) {
+        Analysis analysis = analyze(word);
+        return analysis != null ? analysis.stem : null;
+    }
+
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * توحيد الكتابة: إزالة التشكيل والتطويل وتوحيد همزات الألف
+     */
+    public static String normalize(String word) {
+        StringBuilder sb = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if ((c >= '\u064B' && c <= '\u065F') || c == '\u0670' || c == '\u0640') {
+                continue;
+            }
+            if (c == 'إ' || c == 'آ' || c == 'ٱ') {
+                c = 'أ';
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private Analysis computeAnalysis(String word) {
+        String normalized = normalize(word.trim());
+
+        if (normalized.length() <= 3) {
+            return new Analysis(word, normalized, "", normalized, "", normalized, null);
+        }
+
+        // توليد المرشحين: كل تقسيم ممكن إلى سابقة وجذع ولاحقة
+        List<String[]> candidates = new ArrayList<>();
+        for (String prefix : prefixOptions(normalized)) {
+            String rest = normalized.substring(prefix.length());
+            for (String suffix : suffixOptions(rest)) {
+                String stem = rest.substring(0, rest.length() - suffix.length());
+                if (stem.length() >= MIN_STEM_LENGTH) {
+                    candidates.add(new String[]{prefix, stem, suffix});
+                }
+            }
+        }
+
+        // اختيار أفضل تقسيم: أقل تجريد، مع تفضيل مطابقة وزن وجذر خالٍ من حروف العلة
+        Analysis best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (String[] c : candidates) {
+            int stripped = c[0].length() + c[2].length();
+            
+            for (Pattern pattern : PATTERNS) {
+                String root = pattern.match(c[1]);
+                if (root != null) {
+                    double score = stripped + weakPenalty(root);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        best = new Analysis(word, normalized, c[0], c[1], c[2], root, pattern);
+                    }
+                }
+            }
+            
+            if (c[1].length() == 3) {
+                double score = stripped + 0.5 + weakPenalty(c[1]);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = new Analysis(word, normalized, c[0], c[1], c[2], c[1], null);
+                }
+            }
+        }
+        if (best != null) return best;
+
+        // أخيراً: حذف حروف العلة الزائدة من الجذع الأكثر تجريداً
+        String[] fallback = new String[]{"", normalized, ""};
+        for (String[] c : candidates) {
+            if (c[1].length() < fallback[1].length()) fallback = c;
+        }
+        return new Analysis(word, normalized, fallback[0], fallback[1], fallback[2],
+                            reduceToRoot(fallback[1]), null);
+    }
+
+    private double weakPenalty(String root) {
+        double penalty = 0;
+        for (int i = 0; i < root.length(); i++) {
+            char c = root.charAt(i);
+            if (c == 'ا') penalty += 3;
+            else if (c == 'و' || c == 'ي') penalty += 2;
+        }
+        return penalty;
+    }
+
+    private List<String> prefixOptions(String word) {
+        List<String> options = new ArrayList<>();
+        
+        // أداة التعريف تُجرَّد دائماً عند وجودها
+        boolean hasArticle = false;
+        for (String prefix : PREFIXES) {
+            if (isArticle(prefix) && word.startsWith(prefix)
+                    && word.length() - prefix.length() >= MIN_STEM_LENGTH + 1) {
+                hasArticle = true;
+                break;
+            }
+        }
+        if (!hasArticle) {
+            options.add("");
+        }
+        
+        for (String prefix : PREFIXES) {
+            if (hasArticle && !isArticle(prefix)) continue;
+            if (word.startsWith(prefix) && word.length() - prefix.length() >= MIN_STEM_LENGTH + 1) {
+                options.add(prefix);
+                // السابقة الحرفية قد تسبق سابقة المضارع (وسيكتب، فيقول)
+                String rest = word.substring(prefix.length());
+                for (String verbPrefix : VERB_PREFIXES) {
+                    if (rest.startsWith(verbPrefix) && rest.length() - verbPrefix.length() >= 3) {
+                        options.add(prefix + verbPrefix);
+                    }
+                }
+            }
+        }
+        if (!hasArticle) {
+            for (String verbPrefix : VERB_PREFIXES) {
+                if (word.startsWith(verbPrefix) && word.length() - verbPrefix.length() >= 3) {
+                    options.add(verbPrefix);
+                }
+            }
+        }
+        return options;
+    }
+    
+    private static boolean isArticle(String prefix) {
+        return prefix.endsWith("ال") || prefix.endsWith("لل");
+    }
+
+    private List<String> suffixOptions(String rest) {
+        List<String> options = new ArrayList<>();
+        options.add("");
+        for (String suffix : SUFFIXES) {
+            if (rest.endsWith(suffix) && rest.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                options.add(suffix);
+            }
+        }
+        return options;
+    }
+
+    private String reduceToRoot(String stem) {
+        if (stem.length() <= 3) return stem;
+
+        StringBuilder reduced = new StringBuilder();
+        reduced.append(stem.charAt(0));
+        for (int i = 1; i < stem.length(); i++) {
+            char c = stem.charAt(i);
+            boolean weak = c == 'ا' || c == 'و' || c == 'ي';
+            int remaining = stem.length() - i - 1;
+            if (weak && reduced.length() + remaining >= 3) {
+                continue;
+            }
+            reduced.append(c);
+        }
+
+        // الجذور الرباعية تبقى كما هي
+        return reduced.length() > 4 ? reduced.substring(0, 4) : reduced.toString();
+    }
+}
@@ -93,10 +93,21 @@ public class ArabicParser {
             result.emotions.putAll(lexiconWord.emotions);
             result.confidence = 0.8 + (lexiconWord.familiarity * 0.2);
         } else {
-            // محاولة استخراج الجذر للكلمات غير المعروفة
-            result.root = extractRoot(word);
-            result.type = guessType(word);
-            result.confidence = 0.3;
+            // محاولة التعرف على الكلمة من جذعها بعد تجريد الزوائد
+            ArabicMorphology.Analysis analysis = lexicon.getMorphology().analyze(word);
+            ArabicLexicon.Word stemWord = lexicon.getWord(analysis.stem);
+            
+            if (stemWord != null) {
+                result.type = stemWord.type;
+                result.root = stemWord.root;
+                result.possibleMeanings.addAll(stemWord.meanings);
+                result.emotions.putAll(stemWord.emotions);
+                result.confidence = 0.6 + (stemWord.familiarity * 0.2);
+            } else {
+                result.root = analysis.root;
+                result.type = guessType(word, analysis);
+                result.confidence = 0.3;
+            }
         }
         
         return result;
@@ -105,20 +116,21 @@ public class ArabicParser {
     /**
      * استخراج الجذر
      */
-    private String extractRoot(String word) {
-        // تبسيط: أخذ الحروف الأولى
-        String clean = word.replaceAll("[الأإآ]", "");
-        if (clean.length() >= 3) {
-            return clean.substring(0, 3);
-        }
-        return clean;
+    public String extractRoot(String word) {
+        return lexicon.getMorphology().extractRoot(word);
     }
     
     /**
      * تخمين نوع الكلمة
      */
-    private ArabicLexicon.WordType guessType(String word) {
+    private ArabicLexicon.WordType guessType(String word, ArabicMorphology.Analysis analysis) {
         // قواعد بسيطة للتخمين
+        if (analysis.prefix.endsWith("ال") || analysis.prefix.endsWith("لل")) {
+            return ArabicLexicon.WordType.NOUN;
+        }
+        if (analysis.pattern != null) {
+            return analysis.pattern.type;
+        }
         if (word.startsWith("ال")) {
             return ArabicLexicon.WordType.NOUN;
         }
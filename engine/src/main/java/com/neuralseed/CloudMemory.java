@@ -0,0 +1,34 @@
+package com.neuralseed;
+
+import java.util.Map;
+
+/**
+ * الذاكرة السحابية كما تراها القشرة اللغوية
+ *
+ * على أندرويد ينفذها FirebaseManager، وعلى الخادم يمكن ربط أي تنفيذ أو تركها فارغة.
+ */
+public interface CloudMemory {
+
+    interface NewWordListener {
+        void onNewWord(String word, String meaning, long updatedAt);
+    }
+
+    /**
+     * مشاركة كلمة تعلمها الكيان
+     */
+    void saveWord(String word, String meaning);
+
+    /**
+     * اشتراك في الكلمات الجديدة من الأجهزة الأخرى؛ استدعاء جديد يحل محل السابق
+     */
+    void listenToNewWords(NewWordListener listener);
+
+    /**
+     * تأكيد تطبيق الكلمات الواردة حتى وقت معين
+     */
+    void confirmPulled(long updatedAt);
+
+    void shutdown();
+
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,51 @@
+package com.neuralseed;
+
+import java.util.*;
+
+/**
+ * ناقل السحابة - العمليات القليلة التي تحتاجها المزامنة من قاعدة بيانات شجرية
+ *
+ * المسارات نسبية إلى الجذر ومفصولة بـ "/". التنفيذ الفعلي فوق Firebase، وتنفيذ
+ * في الذاكرة يحل محله عند التجربة أو العمل دون اتصال.
+ */
+public interface CloudTransport {
+
+    interface Callback<T> {
+        void onSuccess(T result);
+        void onFailure(String error);
+    }
+
+    /**
+     * كتابة عدة مسارات في عملية واحدة ذرية؛ القيمة null تحذف المسار
+     */
+    void update(Map<String, Object> updates, Callback<Void> callback);
+
+    /**
+     * أبناء مسار قيمة حقلهم الزمني لا تقل عن المؤشر، مرتبة تصاعدياً بذلك الحقل
+     */
+    void queryNewer(String path, String timeField, long since, int limit,
+                    Callback<LinkedHashMap<String, Map<String, Object>>> callback);
+
+    /**
+     * إشعار بابن أُضيف أو تغيّر تحت المسار المشترك فيه
+     */
+    interface ChildListener {
+        void onChild(String key, Map<String, Object> value);
+        void onError(String error);
+    }
+
+    interface Subscription {
+        void cancel();
+    }
+
+    /**
+     * اشتراك تزايدي: الأبناء التي لا يقل حقلها الزمني عن المؤشر ثم كل إضافة أو
+     * تعديل لاحق، ابناً ابناً دون إعادة تنزيل المسار كله
+     */
+    Subscription subscribe(String path, String timeField, long since, ChildListener listener);
+
+    /**
+     * قيمة تستبدلها الخدمة بوقتها عند الكتابة، فلا يعتمد المؤشر على ساعة الجهاز
+     */
+    Object serverTimestamp();
+}
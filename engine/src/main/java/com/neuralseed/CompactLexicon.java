@@ -0,0 +1,556 @@
+package com.neuralseed;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * معجم مضغوط للقراءة فقط - تمثيل ثنائي للمفردات الكبيرة
+ *
+ * كل النصوص مخزنة مرة واحدة في ساحة UTF-8 مشتركة، والكلمات سجلات ثابتة الحجم
+ * مرتبة حسب الصيغة ومعرّفة برقم صحيح، والمعاني مراجع (إزاحة، طول) في الساحة،
+ * والعواطف أزواج (رقم العاطفة، الوزن). البنية كلها داخل ByteBuffer واحد،
+ * فيمكن أن تكون في الذاكرة أو في ملف معيّن بالذاكرة (mmap) دون تحويلها إلى كائنات.
+ */
+public class CompactLexicon {
+
+    static final int MAGIC = 0x4E534C58; // "NSLX"
+    static final int LAYOUT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 48;
+    private static final int REF_SIZE = 8;
+
+    // إزاحات حقول السجل
+    private static final int R_FORM_OFF = 0;
+    private static final int R_FORM_LEN = 4;
+    private static final int R_ROOT_OFF = 8;
+    private static final int R_ROOT_LEN = 12;
+    private static final int R_MEANING_START = 16;
+    private static final int R_MEANING_COUNT = 20;
+    private static final int R_TYPE = 22;
+    private static final int R_EMOTION_START = 24;
+    private static final int R_EMOTION_COUNT = 28;
+    private static final int R_FAMILIARITY = 32;
+    private static final int R_USAGE = 36;
+    private static final int R_LAST_USED = 40;
+
+    private static final ArabicLexicon.WordType[] TYPES = ArabicLexicon.WordType.values();
+
+    private final ByteBuffer buffer;
+    private final int wordCount;
+    private final int emotionCount;
+    private final int recordsOffset;
+    private final int rootOrderOffset;
+    private final int emotionNamesOffset;
+    private final int meaningRefsOffset;
+    private final int emotionPairsOffset;
+    private final int arenaOffset;
+    private final int arenaSize;
+
+    private final String[] emotionNames;
+    private final Map<String, Integer> emotionIds = new HashMap<>();
+
+    private CompactLexicon(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compact lexicon");
+        }
+        if (buffer.getInt(4) != LAYOUT_VERSION) {
+            throw new IllegalArgumentException("Unsupported lexicon layout: " + buffer.getInt(4));
+        }
+
+        this.wordCount = buffer.getInt(8);
+        this.emotionCount = buffer.getInt(12);
+        int meaningRefCount = buffer.getInt(16);
+        int emotionPairCount = buffer.getInt(20);
+        this.arenaSize = buffer.getInt(24);
+
+        if (wordCount < 0 || emotionCount < 0 || meaningRefCount < 0 || emotionPairCount < 0 || arenaSize < 0) {
+            throw new IllegalArgumentException("Corrupt compact lexicon header");
+        }
+        // بالأعداد الطويلة: عدد تالف لا يلتف إلى إزاحة صغيرة صالحة
+        long end = HEADER_SIZE + (long) wordCount * (RECORD_SIZE + 4)
+            + ((long) emotionCount + meaningRefCount + emotionPairCount) * REF_SIZE + arenaSize;
+        if (end > buffer.limit()) {
+            throw new IllegalArgumentException("Truncated compact lexicon");
+        }
+
+        this.recordsOffset = HEADER_SIZE;
+        this.rootOrderOffset = recordsOffset + wordCount * RECORD_SIZE;
+        this.emotionNamesOffset = rootOrderOffset + wordCount * 4;
+        this.meaningRefsOffset = emotionNamesOffset + emotionCount * REF_SIZE;
+        this.emotionPairsOffset = meaningRefsOffset + meaningRefCount * REF_SIZE;
+        this.arenaOffset = emotionPairsOffset + emotionPairCount * REF_SIZE;
+
+        checkStructure(meaningRefCount, emotionPairCount);
+
+        // جدول العواطف صغير فيُحمَّل مرة واحدة
+        this.emotionNames = new String[emotionCount];
+        for (int i = 0; i < emotionCount; i++) {
+            int ref = emotionNamesOffset + i * REF_SIZE;
+            emotionNames[i] = readString(buffer.getInt(ref), buffer.getInt(ref + 4));
+            emotionIds.put(emotionNames[i], i);
+        }
+    }
+
+    /**
+     * كل إزاحة يتبعها البحث والتجسيد داخل حدودها، فمخزن تالف يُرفض هنا بدل أن
+     * يرمي أثناء البحث لاحقاً. يمر على الجداول مرة واحدة دون تجسيد النصوص.
+     */
+    private void checkStructure(int meaningRefCount, int emotionPairCount) {
+        for (int id = 0; id < wordCount; id++) {
+            int record = recordsOffset + id * RECORD_SIZE;
+            checkArenaRef(buffer.getInt(record + R_FORM_OFF), buffer.getInt(record + R_FORM_LEN));
+            checkArenaRef(buffer.getInt(record + R_ROOT_OFF), buffer.getInt(record + R_ROOT_LEN));
+            int type = buffer.get(record + R_TYPE);
+            if (type < 0 || type >= TYPES.length) {
+                throw new IllegalArgumentException("Corrupt word type " + type + " in record " + id);
+            }
+            checkRange(buffer.getInt(record + R_MEANING_START),
+                       buffer.getShort(record + R_MEANING_COUNT) & 0xFFFF, meaningRefCount, id);
+            checkRange(buffer.getInt(record + R_EMOTION_START),
+                       buffer.getShort(record + R_EMOTION_COUNT) & 0xFFFF, emotionPairCount, id);
+
+            int rootOrder = buffer.getInt(rootOrderOffset + id * 4);
+            if (rootOrder < 0 || rootOrder >= wordCount) {
+                throw new IllegalArgumentException("Corrupt root index entry " + id);
+            }
+        }
+        for (int i = 0; i < emotionCount; i++) {
+            int ref = emotionNamesOffset + i * REF_SIZE;
+            checkArenaRef(buffer.getInt(ref), buffer.getInt(ref + 4));
+        }
+        for (int i = 0; i < meaningRefCount; i++) {
+            int ref = meaningRefsOffset + i * REF_SIZE;
+            checkArenaRef(buffer.getInt(ref), buffer.getInt(ref + 4));
+        }
+        for (int i = 0; i < emotionPairCount; i++) {
+            int emotion = buffer.getInt(emotionPairsOffset + i * REF_SIZE);
+            if (emotion < 0 || emotion >= emotionCount) {
+                throw new IllegalArgumentException("Corrupt emotion id " + emotion);
+            }
+        }
+    }
+
+    private void checkArenaRef(int offset, int length) {
+        if (offset < 0 || length < 0 || (long) offset + length > arenaSize) {
+            throw new IllegalArgumentException("String reference out of bounds: " + offset + "+" + length);
+        }
+    }
+
+    private static void checkRange(int start, int count, int size, int id) {
+        if (start < 0 || (long) start + count > size) {
+            throw new IllegalArgumentException("Reference range out of bounds in record " + id);
+        }
+    }
+
+    /**
+     * تغليف مخزن جاهز (من الذاكرة أو من ملف معيّن بالذاكرة)؛ يرمي
+     * IllegalArgumentException إذا كانت البنية تالفة
+     */
+    public static CompactLexicon wrap(ByteBuffer buffer) {
+        return new CompactLexicon(buffer.slice());
+    }
+
+    /**
+     * بناء معجم مضغوط من كلمات المعجم الحالية
+     */
+    public static CompactLexicon of(Collection<ArabicLexicon.Word> words) {
+        Builder builder = new Builder();
+        for (ArabicLexicon.Word word : words) {
+            builder.add(word);
+        }
+        return builder.build();
+    }
+
+    // ===== البحث =====
+
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * رقم الكلمة بالبحث الثنائي في السجلات المرتبة، أو -1
+     */
+    public int findId(String form) {
+        byte[] key = form.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = wordCount - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = recordOffset(mid);
+            int cmp = compareArena(buffer.getInt(record + R_FORM_OFF),
+                                   buffer.getInt(record + R_FORM_LEN), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String form) {
+        return findId(form) >= 0;
+    }
+
+    public ArabicLexicon.Word getWord(String form) {
+        int id = findId(form);
+        return id >= 0 ? getWord(id) : null;
+    }
+
+    /**
+     * تجسيد الكلمة ككائن عند الطلب فقط
+     */
+    public ArabicLexicon.Word getWord(int id) {
+        int record = recordOffset(id);
+
+        ArabicLexicon.Word word = new ArabicLexicon.Word(
+            getRoot(id), getForm(id), TYPES[buffer.get(record + R_TYPE)]);
+
+        int meaningStart = buffer.getInt(record + R_MEANING_START);
+        int meaningCount = buffer.getShort(record + R_MEANING_COUNT) & 0xFFFF;
+        for (int i = 0; i < meaningCount; i++) {
+            int ref = meaningRefsOffset + (meaningStart + i) * REF_SIZE;
+            word.meanings.add(readString(buffer.getInt(ref), buffer.getInt(ref + 4)));
+        }
+
+        int emotionStart = buffer.getInt(record + R_EMOTION_START);
+        int emotionPairs = buffer.getShort(record + R_EMOTION_COUNT) & 0xFFFF;
+        for (int i = 0; i < emotionPairs; i++) {
+            int pair = emotionPairsOffset + (emotionStart + i) * REF_SIZE;
+            word.emotions.put(emotionNames[buffer.getInt(pair)], (double) buffer.getFloat(pair + 4));
+        }
+
+        word.familiarity = buffer.getFloat(record + R_FAMILIARITY);
+        word.usageCount = buffer.getInt(record + R_USAGE);
+        word.lastUsed = buffer.getLong(record + R_LAST_USED);
+        return word;
+    }
+
+    public String getForm(int id) {
+        int record = recordOffset(id);
+        return readString(buffer.getInt(record + R_FORM_OFF), buffer.getInt(record + R_FORM_LEN));
+    }
+
+    public String getRoot(int id) {
+        int record = recordOffset(id);
+        return readString(buffer.getInt(record + R_ROOT_OFF), buffer.getInt(record + R_ROOT_LEN));
+    }
+
+    /**
+     * متجه العواطف الكثيف مفهرس برقم العاطفة
+     */
+    public float[] getEmotionVector(int id) {
+        float[] vector = new float[emotionCount];
+        int record = recordOffset(id);
+        int emotionStart = buffer.getInt(record + R_EMOTION_START);
+        int emotionPairs = buffer.getShort(record + R_EMOTION_COUNT) & 0xFFFF;
+        for (int i = 0; i < emotionPairs; i++) {
+            int pair = emotionPairsOffset + (emotionStart + i) * REF_SIZE;
+            vector[buffer.getInt(pair)] = buffer.getFloat(pair + 4);
+        }
+        return vector;
+    }
+
+    public int getEmotionId(String emotion) {
+        Integer id = emotionIds.get(emotion);
+        return id != null ? id : -1;
+    }
+
+    public String getEmotionName(int emotionId) {
+        return emotionNames[emotionId];
+    }
+
+    public int getEmotionCount() {
+        return emotionCount;
+    }
+
+    /**
+     * أرقام كلمات العائلة الصرفية بالبحث الثنائي في فهرس الجذور
+     */
+    public List<Integer> findIdsByRoot(String root) {
+        byte[] key = root.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = wordCount;
+
+        // الحد الأدنى لأول جذر مساوٍ
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareRoot(rootOrderAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = low; i < wordCount; i++) {
+            int id = rootOrderAt(i);
+            if (compareRoot(id, key) != 0) break;
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    public List<ArabicLexicon.Word> getWordsByRoot(String root) {
+        List<ArabicLexicon.Word> family = new ArrayList<>();
+        for (int id : findIdsByRoot(root)) {
+            family.add(getWord(id));
+        }
+        return family;
+    }
+
+    /**
+     * كتابة البنية كما هي في قناة (ملف أو شبكة)
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer copy = buffer.duplicate();
+        copy.clear();
+        while (copy.hasRemaining()) {
+            channel.write(copy);
+        }
+    }
+
+    public int byteSize() {
+        return buffer.limit();
+    }
+
+    // ===== أدوات داخلية =====
+
+    private int recordOffset(int id) {
+        if (id < 0 || id >= wordCount) {
+            throw new IndexOutOfBoundsException("word id " + id);
+        }
+        return recordsOffset + id * RECORD_SIZE;
+    }
+
+    private int rootOrderAt(int index) {
+        return buffer.getInt(rootOrderOffset + index * 4);
+    }
+
+    private int compareRoot(int id, byte[] key) {
+        int record = recordsOffset + id * RECORD_SIZE;
+        return compareArena(buffer.getInt(record + R_ROOT_OFF), buffer.getInt(record + R_ROOT_LEN), key);
+    }
+
+    private int compareArena(int offset, int length, byte[] key) {
+        int base = arenaOffset + offset;
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int a = buffer.get(base + i) & 0xFF;
+            int b = key[i] & 0xFF;
+            if (a != b) return a - b;
+        }
+        return length - key.length;
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        int base = arenaOffset + offset;
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(base + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int compareBytes(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int x = a[i] & 0xFF;
+            int y = b[i] & 0xFF;
+            if (x != y) return x - y;
+        }
+        return a.length - b.length;
+    }
+
+    // ===== البناء =====
+
+    /**
+     * باني المعجم المضغوط - يوحّد النصوص المكررة ويرتب السجلات
+     */
+    public static class Builder {
+
+        private final Map<String, ArabicLexicon.Word> words = new HashMap<>();
+
+        public Builder add(ArabicLexicon.Word word) {
+            words.put(word.form, word);
+            return this;
+        }
+
+        public int size() {
+            return words.size();
+        }
+
+        public CompactLexicon build() {
+            // ساحة النصوص مع التوحيد (interning)
+            StringArena arena = new StringArena();
+            List<String> emotionList = new ArrayList<>();
+            Map<String, Integer> emotionIndex = new HashMap<>();
+
+            // ترتيب الكلمات حسب بايتات الصيغة لتمكين البحث الثنائي
+            List<byte[]> sortedForms = new ArrayList<>();
+            Map<byte[], ArabicLexicon.Word> byBytes = new IdentityHashMap<>();
+            for (ArabicLexicon.Word word : words.values()) {
+                byte[] bytes = word.form.getBytes(StandardCharsets.UTF_8);
+                sortedForms.add(bytes);
+                byBytes.put(bytes, word);
+            }
+            sortedForms.sort(CompactLexicon::compareBytes);
+
+            int wordCount = sortedForms.size();
+            int[][] records = new int[wordCount][];
+            List<int[]> meaningRefs = new ArrayList<>();
+            List<int[]> emotionPairs = new ArrayList<>();
+            ArabicLexicon.Word[] ordered = new ArabicLexicon.Word[wordCount];
+
+            for (int id = 0; id < wordCount; id++) {
+                ArabicLexicon.Word word = byBytes.get(sortedForms.get(id));
+                ordered[id] = word;
+
+                int[] form = arena.intern(word.form);
+                int[] root = arena.intern(word.root != null ? word.root : word.form);
+
+                int meaningStart = meaningRefs.size();
+                int meaningCount = Math.min(word.meanings.size(), 0xFFFF);
+                for (int i = 0; i < meaningCount; i++) {
+                    meaningRefs.add(arena.intern(word.meanings.get(i)));
+                }
+
+                int emotionStart = emotionPairs.size();
+                int emotionCount = 0;
+                for (Map.Entry<String, Double> entry : word.emotions.entrySet()) {
+                    if (emotionCount == 0xFFFF) break;
+                    Integer emotionId = emotionIndex.get(entry.getKey());
+                    if (emotionId == null) {
+                        emotionId = emotionList.size();
+                        emotionList.add(entry.getKey());
+                        emotionIndex.put(entry.getKey(), emotionId);
+                    }
+                    emotionPairs.add(new int[]{emotionId,
+                        Float.floatToIntBits(entry.getValue().floatValue())});
+                    emotionCount++;
+                }
+
+                records[id] = new int[]{form[0], form[1], root[0], root[1],
+                    meaningStart, meaningCount, emotionStart, emotionCount};
+            }
+
+            // فهرس الجذور: أرقام الكلمات مرتبة حسب بايتات الجذر
+            Integer[] rootOrder = new Integer[wordCount];
+            byte[][] rootBytes = new byte[wordCount][];
+            for (int id = 0; id < wordCount; id++) {
+                rootOrder[id] = id;
+                rootBytes[id] = arena.bytesOf(records[id][2], records[id][3]);
+            }
+            Arrays.sort(rootOrder, (a, b) -> {
+                int cmp = compareBytes(rootBytes[a], rootBytes[b]);
+                return cmp != 0 ? cmp : Integer.compare(a, b);
+            });
+
+            int[][] emotionNameRefs = new int[emotionList.size()][];
+            for (int i = 0; i < emotionList.size(); i++) {
+                emotionNameRefs[i] = arena.intern(emotionList.get(i));
+            }
+
+            int total = HEADER_SIZE
+                + wordCount * RECORD_SIZE
+                + wordCount * 4
+                + emotionNameRefs.length * REF_SIZE
+                + meaningRefs.size() * REF_SIZE
+                + emotionPairs.size() * REF_SIZE
+                + arena.size();
+            ByteBuffer out = ByteBuffer.allocate(total);
+
+            out.putInt(MAGIC);
+            out.putInt(LAYOUT_VERSION);
+            out.putInt(wordCount);
+            out.putInt(emotionNameRefs.length);
+            out.putInt(meaningRefs.size());
+            out.putInt(emotionPairs.size());
+            out.putInt(arena.size());
+            out.putInt(0);
+
+            for (int id = 0; id < wordCount; id++) {
+                int[] r = records[id];
+                ArabicLexicon.Word word = ordered[id];
+                out.putInt(r[0]);
+                out.putInt(r[1]);
+                out.putInt(r[2]);
+                out.putInt(r[3]);
+                out.putInt(r[4]);
+                out.putShort((short) r[5]);
+                out.put((byte) (word.type != null ? word.type : ArabicLexicon.WordType.UNKNOWN).ordinal());
+                out.put((byte) 0);
+                out.putInt(r[6]);
+                out.putShort((short) r[7]);
+                out.putShort((short) 0);
+                out.putFloat((float) word.familiarity);
+                out.putInt(word.usageCount);
+                out.putLong(word.lastUsed);
+            }
+            for (Integer id : rootOrder) {
+                out.putInt(id);
+            }
+            for (int[] ref : emotionNameRefs) {
+                out.putInt(ref[0]);
+                out.putInt(ref[1]);
+            }
+            for (int[] ref : meaningRefs) {
+                out.putInt(ref[0]);
+                out.putInt(ref[1]);
+            }
+            for (int[] pair : emotionPairs) {
+                out.putInt(pair[0]);
+                out.putInt(pair[1]);
+            }
+            arena.writeTo(out);
+
+            out.flip();
+            return new CompactLexicon(out);
+        }
+    }
+
+    /**
+     * ساحة بايتات UTF-8 توحّد النصوص المتكررة
+     */
+    private static class StringArena {
+        private final Map<String, int[]> interned = new HashMap<>();
+        private byte[] data = new byte[4096];
+        private int size = 0;
+
+        int[] intern(String text) {
+            int[] ref = interned.get(text);
+            if (ref != null) return ref;
+
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (size + bytes.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + bytes.length));
+            }
+            System.arraycopy(bytes, 0, data, size, bytes.length);
+            ref = new int[]{size, bytes.length};
+            size += bytes.length;
+            interned.put(text, ref);
+            return ref;
+        }
+
+        byte[] bytesOf(int offset, int length) {
+            return Arrays.copyOfRange(data, offset, offset + length);
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.put(data, 0, size);
+        }
+    }
+}
@@ -0,0 +1,704 @@
+package com.neuralseed;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * مستودع بملف سجل على JVM - تنفيذ SeedRepository دائم دون SQLite
+ *
+ * الحالة في الذاكرة كما في InMemorySeedRepository، وكل تعديل يُلحق بملف سجل
+ * ثنائي: لكل عملية إطار من طولها ومجموعها الاختباري ثم نوعها وحقولها. الفتح
+ * يعيد تشغيل السجل حتى أول إطار ناقص أو تالف، وما بعده ذيل من توقف مفاجئ يُقص.
+ * سجل بالصيغة القديمة دون إطارات يُقرأ ثم يُعاد كتابته بالصيغة الحالية.
+ * عندما يتجاوز السجل ضعفي عدد العناصر الحية يُعاد كتابته لقطة مضغوطة في ملف
+ * مؤقت يحل محله. flush يثبت السجل على القرص.
+ */
+public class FileSeedRepository extends InMemorySeedRepository {
+
+    private static final String TAG = "FileSeedRepository";
+
+    private static final int MAGIC = 0x4E534A32; // NSJ2
+    // عمليات متتالية دون إطار؛ نهاية الجزء السليم هي أول عملية لا تُقرأ
+    private static final int LEGACY_MAGIC = 0x4E534A31; // NSJ1
+
+    // الطول والمجموع الاختباري قبل كل عملية
+    private static final int FRAME_HEADER = 8;
+
+    private static final byte OP_WORD = 1;
+    private static final byte OP_USAGE = 2;
+    private static final byte OP_SENTENCE = 3;
+    private static final byte OP_MEANING = 4;
+    private static final byte OP_EMOTION = 5;
+    private static final byte OP_RECORD = 6;
+    private static final byte OP_CORRECTION_LEARNED = 7;
+    private static final byte OP_CLEAR = 8;
+    // الكلمة مع إصدارها؛ OP_WORD من سجلات أقدم يأخذ الإصدار التالي عند إعادة التشغيل
+    private static final byte OP_VERSIONED_WORD = 9;
+    // مثل OP_VERSIONED_WORD لكلمة وصلت من السحابة
+    private static final byte OP_SYNCED_WORD = 10;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_STRING = 1;
+    private static final byte VALUE_LONG = 2;
+    private static final byte VALUE_INT = 3;
+    private static final byte VALUE_DOUBLE = 4;
+    private static final byte VALUE_BOOLEAN = 5;
+    private static final byte VALUE_MAP = 6;
+
+    private static final int MIN_COMPACT_RECORDS = 1000;
+
+    private final File file;
+    private FileOutputStream fileOut;
+    private DataOutputStream out;
+    private long journalRecords = 0;
+    private long compactions = 0;
+    private long compactionFailures = 0;
+    // بعد فشل الضغط لا يُعاد إلا بعد هذا العدد من العمليات
+    private long nextCompaction = 0;
+    private boolean legacyJournal = false;
+
+    // مخزن العملية قبل تأطيرها (الكتابة كلها تحت قفل المستودع)
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    private final DataOutputStream recordData = new DataOutputStream(recordBytes);
+    private final CRC32 crc = new CRC32();
+
+    public FileSeedRepository(File file) throws IOException {
+        this.file = file;
+        long valid = replay();
+        if (valid < file.length()) {
+            SeedLog.w(TAG, "Dropping " + (file.length() - valid) + " bytes of torn journal tail: " + file);
+            // ذيل مبتور من كتابة لم تكتمل: ما بعده لا يُقرأ، فيُقص قبل الإلحاق
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(valid);
+            }
+        }
+        if (valid == 0) {
+            journalRecords = writeSnapshot(file);
+            openJournal();
+        } else if (legacyJournal) {
+            // الترقية عبر ملف مؤقت، فالسجل القديم يبقى حتى تكتمل
+            rewrite();
+        } else {
+            openJournal();
+        }
+    }
+
+    // ===== التعديلات =====
+
+    @Override
+    public void saveWord(ArabicLexicon.Word word) {
+        lock.lock();
+        try {
+            super.saveWord(word);
+            append(OP_VERSIONED_WORD, data -> writeWord(data, words.get(word.word)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveSyncedWord(ArabicLexicon.Word word) {
+        lock.lock();
+        try {
+            super.saveSyncedWord(word);
+            StoredWord stored = words.get(word.word);
+            append(wordOp(stored), data -> writeWord(data, stored));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte wordOp(StoredWord stored) {
+        return stored.synced ? OP_SYNCED_WORD : OP_VERSIONED_WORD;
+    }
+
+    @Override
+    public void updateWordUsage(String word) {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (!words.containsKey(word)) return;
+            touchWord(word, now);
+            append(OP_USAGE, data -> {
+                writeString(data, word);
+                data.writeLong(now);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveSentence(String sentence, ArabicParser.SentenceType type,
+                             String structure, Map<String, Double> emotions,
+                             boolean isValid, double confidence) {
+        lock.lock();
+        try {
+            super.saveSentence(sentence, type, structure, emotions, isValid, confidence);
+            append(OP_SENTENCE, data -> writeSentence(data, sentence, sentences.get(sentence)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveMeaning(SemanticEmotionalEngine.Meaning meaning) {
+        lock.lock();
+        try {
+            super.saveMeaning(meaning);
+            append(OP_MEANING, data -> writeMeaning(data, meanings.get(meaning.concept)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveEmotionLink(String word, String emotion, double intensity, String context) {
+        lock.lock();
+        try {
+            super.saveEmotionLink(word, emotion, intensity, context);
+            append(OP_EMOTION, data -> writeEmotionLink(data, word, new EmotionLink(emotion, context, intensity)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void recordLearning(String input, String output, String context,
+                               boolean success, String feedback) {
+        lock.lock();
+        try {
+            super.recordLearning(input, output, context, success, feedback);
+            appendLastRecord(LEARNING);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveCorrection(String original, String corrected, String explanation) {
+        lock.lock();
+        try {
+            super.saveCorrection(original, corrected, explanation);
+            appendLastRecord(CORRECTIONS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void markCorrectionLearned(int id) {
+        lock.lock();
+        try {
+            super.markCorrectionLearned(id);
+            append(OP_CORRECTION_LEARNED, data -> data.writeInt(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveConversation(String userMessage, String aiResponse,
+                                 Map<String, Double> emotions, String context) {
+        lock.lock();
+        try {
+            super.saveConversation(userMessage, aiResponse, emotions, context);
+            appendLastRecord(CONVERSATIONS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveExperience(String description, Map<String, Double> emotions,
+                               String outcome, String lesson, double importance) {
+        lock.lock();
+        try {
+            super.saveExperience(description, emotions, outcome, lesson, importance);
+            appendLastRecord(EXPERIENCES);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clearAll() {
+        lock.lock();
+        try {
+            super.clearAll();
+            append(OP_CLEAR, data -> {});
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void appendLastRecord(String table) {
+        List<Map<String, Object>> rows = records.get(table);
+        Map<String, Object> record = rows.get(rows.size() - 1);
+        append(OP_RECORD, data -> {
+            writeString(data, table);
+            writeValue(data, record);
+        });
+    }
+
+    // ===== السجل =====
+
+    private interface Body {
+        void write(DataOutputStream data) throws IOException;
+    }
+
+    /**
+     * إلحاق عملية بالسجل؛ فشل الكتابة يُبلغ كاستثناء لأن الذاكرة سبقت القرص
+     */
+    private void append(byte op, Body body) {
+        if (out == null) throw new IllegalStateException("Repository closed: " + file);
+        try {
+            writeRecord(out, op, body);
+            journalRecords++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal write failed: " + file, e);
+        }
+        if (journalRecords > MIN_COMPACT_RECORDS && journalRecords > 2L * size()
+                && journalRecords >= nextCompaction) {
+            compact();
+        }
+    }
+
+    /**
+     * ترميز العملية كاملة أولاً ثم كتابتها بإطارها، فلا يصل إلى السجل نصف عملية
+     * فشل ترميزها
+     */
+    private void writeRecord(DataOutputStream target, byte op, Body body) throws IOException {
+        recordBytes.reset();
+        recordData.writeByte(op);
+        body.write(recordData);
+        byte[] bytes = recordBytes.toByteArray();
+        crc.reset();
+        crc.update(bytes, 0, bytes.length);
+        target.writeInt(bytes.length);
+        target.writeInt((int) crc.getValue());
+        target.write(bytes);
+    }
+
+    private void openJournal() throws IOException {
+        fileOut = new FileOutputStream(file, true);
+        out = new DataOutputStream(new BufferedOutputStream(fileOut));
+    }
+
+    /**
+     * إعادة تشغيل السجل؛ تُرجع طول الجزء السليم منه
+     */
+    private long replay() throws IOException {
+        if (!file.exists() || file.length() == 0) return 0;
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length < 4) return 0;
+        ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+        DataInputStream data = new DataInputStream(buffer);
+        int magic = data.readInt();
+        if (magic == LEGACY_MAGIC) {
+            legacyJournal = true;
+            return replayLegacy(bytes, buffer, data);
+        }
+        if (magic != MAGIC) throw new IOException("Not a seed journal: " + file);
+
+        long valid = bytes.length - buffer.available();
+        while (buffer.available() >= FRAME_HEADER) {
+            int length = data.readInt();
+            int checksum = data.readInt();
+            int position = bytes.length - buffer.available();
+            // إطار ناقص أو تالف: هنا انتهت آخر كتابة مكتملة
+            if (length < 1 || length > buffer.available()) break;
+            crc.reset();
+            crc.update(bytes, position, length);
+            if ((int) crc.getValue() != checksum) break;
+
+            // عملية سليمة لا تُفهم (من إصدار أحدث) خطأ لا ذيل، فلا تُقص
+            replayOne(new DataInputStream(new ByteArrayInputStream(bytes, position, length)));
+            data.skipBytes(length);
+            journalRecords++;
+            valid = position + length;
+        }
+        return valid;
+    }
+
+    /**
+     * سجل NSJ1 دون إطارات: لا يُعرف طول العملية، فأي عملية لا تُقرأ تُعد بداية
+     * الذيل، سواء انتهى الملف قبلها أو قرأ الترميز بايتات صفرية أو مبتورة
+     */
+    private long replayLegacy(byte[] bytes, ByteArrayInputStream buffer, DataInputStream data) {
+        long valid = bytes.length - buffer.available();
+        try {
+            while (buffer.available() > 0) {
+                replayOne(data);
+                journalRecords++;
+                valid = bytes.length - buffer.available();
+            }
+        } catch (IOException | RuntimeException e) {
+            // السجل حتى آخر عملية مكتملة
+        }
+        return valid;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replayOne(DataInputStream data) throws IOException {
+        byte op = data.readByte();
+        switch (op) {
+            case OP_WORD:
+                long id = data.readLong();
+                putWord(id, lastWordVersion + 1, readWord(data), false);
+                break;
+            case OP_VERSIONED_WORD:
+            case OP_SYNCED_WORD:
+                long wordId = data.readLong();
+                long version = data.readLong();
+                putWord(wordId, version, readWord(data), op == OP_SYNCED_WORD);
+                break;
+            case OP_USAGE:
+                touchWord(readString(data), data.readLong());
+                break;
+            case OP_SENTENCE:
+                String sentence = readString(data);
+                putSentence(sentence, readSentence(data));
+                break;
+            case OP_MEANING:
+                SemanticEmotionalEngine.Meaning meaning = readMeaning(data);
+                meanings.put(meaning.concept, meaning);
+                break;
+            case OP_EMOTION:
+                String word = readString(data);
+                EmotionLink link = new EmotionLink(readString(data), readString(data), data.readDouble());
+                emotionLinks.computeIfAbsent(word, k -> new HashMap<>())
+                            .put(link.emotion + "|" + link.context, link);
+                break;
+            case OP_RECORD:
+                String table = readString(data);
+                addRecord(table, (Map<String, Object>) readValue(data));
+                break;
+            case OP_CORRECTION_LEARNED:
+                super.markCorrectionLearned(data.readInt());
+                break;
+            case OP_CLEAR:
+                super.clearAll();
+                break;
+            default:
+                throw new IOException("Unknown journal operation " + op + " in " + file);
+        }
+    }
+
+    // ===== الضغط =====
+
+    /**
+     * إعادة كتابة الحالة الحية لقطة في ملف مؤقت ثم استبدال السجل به. الفشل لا
+     * يمس السجل الحالي: يبقى مفتوحاً للإلحاق، والعملية المحفوظة قبله سليمة،
+     * فيُسجل ويؤجل بدل أن يُبلغ كفشل حفظ
+     */
+    private void compact() {
+        try {
+            rewrite();
+            compactions++;
+        } catch (IOException e) {
+            compactionFailures++;
+            nextCompaction = journalRecords + MIN_COMPACT_RECORDS;
+            SeedLog.e(TAG, "Journal compaction failed, keeping current journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * اللقطة تُكتب بتدفقاتها الخاصة، والسجل لا يُستبدل ولا يُغلق إلا بعد اكتمالها؛
+     * إن فشل النقل يُعاد فتح السجل الأصلي للإلحاق
+     */
+    private void rewrite() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        long records;
+        try {
+            if (out != null) out.flush();
+            records = writeSnapshot(temp);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        boolean wasOpen = out != null;
+        closeJournal();
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            temp.delete();
+            if (wasOpen) openJournal();
+            throw e;
+        }
+        journalRecords = records;
+        openJournal();
+    }
+
+    /**
+     * كتابة الحالة الحية كاملة في ملف ومزامنتها؛ تُرجع عدد العمليات المكتوبة
+     */
+    private long writeSnapshot(File target) throws IOException {
+        try (FileOutputStream snapshotOut = new FileOutputStream(target)) {
+            DataOutputStream snapshot = new DataOutputStream(new BufferedOutputStream(snapshotOut));
+            snapshot.writeInt(MAGIC);
+            long written = 0;
+
+            List<StoredWord> byId = new ArrayList<>(words.values());
+            byId.sort((a, b) -> Long.compare(a.id, b.id));
+            for (StoredWord stored : byId) {
+                writeRecord(snapshot, wordOp(stored), data -> writeWord(data, stored));
+                written++;
+            }
+            for (Map.Entry<String, StoredSentence> sentence : sentences.entrySet()) {
+                writeRecord(snapshot, OP_SENTENCE,
+                            data -> writeSentence(data, sentence.getKey(), sentence.getValue()));
+                written++;
+            }
+            for (SemanticEmotionalEngine.Meaning meaning : meanings.values()) {
+                writeRecord(snapshot, OP_MEANING, data -> writeMeaning(data, meaning));
+                written++;
+            }
+            for (Map.Entry<String, Map<String, EmotionLink>> links : emotionLinks.entrySet()) {
+                for (EmotionLink link : links.getValue().values()) {
+                    writeRecord(snapshot, OP_EMOTION, data -> writeEmotionLink(data, links.getKey(), link));
+                    written++;
+                }
+            }
+            for (Map.Entry<String, List<Map<String, Object>>> table : records.entrySet()) {
+                for (Map<String, Object> row : table.getValue()) {
+                    writeRecord(snapshot, OP_RECORD, data -> {
+                        writeString(data, table.getKey());
+                        writeValue(data, row);
+                    });
+                    written++;
+                }
+            }
+            snapshot.flush();
+            snapshotOut.getFD().sync();
+            return written;
+        }
+    }
+
+    private void closeJournal() throws IOException {
+        if (out != null) out.close();
+        out = null;
+        fileOut = null;
+    }
+
+    // ===== الترميز =====
+
+    private static void writeWord(DataOutputStream data, StoredWord stored) throws IOException {
+        ArabicLexicon.Word word = stored.word;
+        data.writeLong(stored.id);
+        data.writeLong(stored.version);
+        writeString(data, word.word);
+        writeString(data, word.root);
+        writeString(data, word.form);
+        writeString(data, word.type.name());
+        data.writeInt(word.meanings.size());
+        for (String meaning : word.meanings) writeString(data, meaning);
+        writeEmotions(data, word.emotions);
+        data.writeDouble(word.familiarity);
+        data.writeInt(word.usageCount);
+        data.writeLong(word.lastUsed);
+    }
+
+    private static ArabicLexicon.Word readWord(DataInputStream data) throws IOException {
+        String text = readString(data);
+        String root = readString(data);
+        String form = readString(data);
+        ArabicLexicon.Word word = new ArabicLexicon.Word(root, form, ArabicLexicon.WordType.valueOf(readString(data)));
+        word.word = text;
+        int meaningCount = data.readInt();
+        for (int i = 0; i < meaningCount; i++) word.meanings.add(readString(data));
+        word.emotions.putAll(readEmotions(data));
+        word.familiarity = data.readDouble();
+        word.usageCount = data.readInt();
+        word.lastUsed = data.readLong();
+        return word;
+    }
+
+    private static void writeSentence(DataOutputStream data, String sentence, StoredSentence stored)
+            throws IOException {
+        writeString(data, sentence);
+        writeString(data, stored.type);
+        writeString(data, stored.structure);
+        writeEmotions(data, stored.emotions);
+        data.writeBoolean(stored.valid);
+        data.writeDouble(stored.confidence);
+    }
+
+    private static StoredSentence readSentence(DataInputStream data) throws IOException {
+        String type = readString(data);
+        String structure = readString(data);
+        Map<String, Double> emotions = readEmotions(data);
+        return new StoredSentence(type, structure, emotions, data.readBoolean(), data.readDouble());
+    }
+
+    private static void writeMeaning(DataOutputStream data, SemanticEmotionalEngine.Meaning meaning)
+            throws IOException {
+        writeString(data, meaning.concept);
+        writeString(data, meaning.definition);
+        data.writeInt(meaning.synonyms.size());
+        for (String synonym : meaning.synonyms) writeString(data, synonym);
+        data.writeInt(meaning.antonyms.size());
+        for (String antonym : meaning.antonyms) writeString(data, antonym);
+        writeEmotions(data, meaning.relatedConcepts);
+    }
+
+    private static SemanticEmotionalEngine.Meaning readMeaning(DataInputStream data) throws IOException {
+        SemanticEmotionalEngine.Meaning meaning = new SemanticEmotionalEngine.Meaning(readString(data), readString(data));
+        int synonyms = data.readInt();
+        for (int i = 0; i < synonyms; i++) meaning.synonyms.add(readString(data));
+        int antonyms = data.readInt();
+        for (int i = 0; i < antonyms; i++) meaning.antonyms.add(readString(data));
+        meaning.relatedConcepts.putAll(readEmotions(data));
+        return meaning;
+    }
+
+    private static void writeEmotionLink(DataOutputStream data, String word, EmotionLink link) throws IOException {
+        writeString(data, word);
+        writeString(data, link.emotion);
+        writeString(data, link.context);
+        data.writeDouble(link.intensity);
+    }
+
+    private static void writeEmotions(DataOutputStream data, Map<String, Double> emotions) throws IOException {
+        data.writeInt(emotions.size());
+        for (Map.Entry<String, Double> emotion : emotions.entrySet()) {
+            writeString(data, emotion.getKey());
+            data.writeDouble(emotion.getValue() != null ? emotion.getValue() : 0);
+        }
+    }
+
+    private static Map<String, Double> readEmotions(DataInputStream data) throws IOException {
+        int count = data.readInt();
+        Map<String, Double> emotions = new HashMap<>();
+        for (int i = 0; i < count; i++) emotions.put(readString(data), data.readDouble());
+        return emotions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(DataOutputStream data, Object value) throws IOException {
+        if (value == null) {
+            data.writeByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            data.writeByte(VALUE_STRING);
+            writeString(data, (String) value);
+        } else if (value instanceof Long) {
+            data.writeByte(VALUE_LONG);
+            data.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            data.writeByte(VALUE_INT);
+            data.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+            data.writeByte(VALUE_DOUBLE);
+            data.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            data.writeByte(VALUE_BOOLEAN);
+            data.writeBoolean((Boolean) value);
+        } else if (value instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>) value;
+            data.writeByte(VALUE_MAP);
+            data.writeInt(map.size());
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                writeString(data, entry.getKey());
+                writeValue(data, entry.getValue());
+            }
+        } else {
+            throw new IOException("Unsupported journal value " + value.getClass().getSimpleName());
+        }
+    }
+
+    private static Object readValue(DataInputStream data) throws IOException {
+        byte type = data.readByte();
+        switch (type) {
+            case VALUE_NULL: return null;
+            case VALUE_STRING: return readString(data);
+            case VALUE_LONG: return data.readLong();
+            case VALUE_INT: return data.readInt();
+            case VALUE_DOUBLE: return data.readDouble();
+            case VALUE_BOOLEAN: return data.readBoolean();
+            case VALUE_MAP:
+                int size = data.readInt();
+                Map<String, Object> map = new HashMap<>();
+                for (int i = 0; i < size; i++) map.put(readString(data), readValue(data));
+                return map;
+            default:
+                throw new IOException("Unknown journal value type " + type);
+        }
+    }
+
+    /**
+     * نص بطول صريح (writeUTF محدود بـ 64KB)، و-1 للقيمة الفارغة
+     */
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length < 0) return null;
+        // طول من بايتات تالفة لا يحجز ذاكرة أكبر مما بقي
+        if (length > data.available()) throw new EOFException("String past end of journal");
+        byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ===== الإدارة =====
+
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (out == null) return;
+            try {
+                out.flush();
+                fileOut.getFD().sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Journal flush failed: " + file, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            try {
+                if (out != null) out.flush();
+                closeJournal();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Journal close failed: " + file, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = super.getStatistics();
+            stats.put("journal_records", journalRecords);
+            stats.put("journal_compactions", compactions);
+            stats.put("journal_compaction_failures", compactionFailures);
+            stats.put("database_bytes", file.length());
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.neuralseed;
+
+/**
+ * مجمّع الإيماءات - يطوي عينات اللمس الخام إلى إيماءات قبل أن تصل إلى البذرة
+ *
+ * سحبة واحدة مئات العينات، وكل مدخل يصير ذكرى كاملة؛ هنا تصير نقرة أو سحباً
+ * بسرعته أو ضغطاً مطوّلاً. السحب الطويل يُرسل مقطعاً واحداً كل نافذة زمنية،
+ * والضغط المطوّل يُعلن مرة واحدة عند بلوغ عتبته (بـ checkHold، فالإصبع
+ * الثابت لا يولّد أحداثاً). الأزمنة بالميليثانية من أي ساعة رتيبة، والمجمّع
+ * يُستعمل من خيط واحد (خيط الواجهة).
+ */
+public class GestureAggregator {
+
+    public interface GestureListener {
+        void onGesture(NeuralSeed.Input gesture);
+    }
+
+    public static final long DEFAULT_WINDOW_MS = 250;
+    public static final float DEFAULT_SLOP = 20f;
+
+    private final GestureListener listener;
+    private final long windowMillis;
+    private final long holdMillis;
+    private final float slop;
+
+    // الإيماءة الجارية
+    private boolean down = false;
+    private boolean moved = false;
+    private boolean held = false;
+    private float startX, startY;
+    private long startTime;
+    private float segmentX, segmentY;
+    private long segmentTime;
+    private float lastX, lastY;
+
+    // الإحصاءات
+    private long samples = 0;
+    private long gestures = 0;
+
+    public GestureAggregator(GestureListener listener) {
+        this(listener, DEFAULT_WINDOW_MS, DEFAULT_SLOP);
+    }
+
+    /**
+     * @param windowMillis أقصى زمن للنقرة وطول مقطع السحب؛ الضغط المطوّل ضعفها
+     * @param slop أقصى حركة (بإحداثيات اللوحة) تبقى بعدها اللمسة نقرة أو ضغطاً
+     */
+    public GestureAggregator(GestureListener listener, long windowMillis, float slop) {
+        this.listener = listener;
+        this.windowMillis = windowMillis;
+        this.holdMillis = windowMillis * 2;
+        this.slop = slop;
+    }
+
+    public void onDown(float x, float y, long time) {
+        samples++;
+        down = true;
+        moved = false;
+        held = false;
+        startX = segmentX = lastX = x;
+        startY = segmentY = lastY = y;
+        startTime = segmentTime = time;
+    }
+
+    public void onMove(float x, float y, long time) {
+        if (!down) return;
+        samples++;
+        lastX = x;
+        lastY = y;
+        if (!moved && Math.hypot(x - startX, y - startY) >= slop) {
+            moved = true;
+        }
+        // سحب طويل: مقطع لكل نافذة حتى يشعر الكيان بالحركة أثناءها
+        if (moved && time - segmentTime >= windowMillis) {
+            emitSwipe(time);
+        }
+    }
+
+    public void onUp(float x, float y, long time) {
+        if (!down) return;
+        samples++;
+        lastX = x;
+        lastY = y;
+        if (!moved && Math.hypot(x - startX, y - startY) >= slop) {
+            moved = true;
+        }
+
+        if (moved) {
+            // المقطع الأخير إذا تحرك الإصبع بعد آخر مقطع، أو إذا كان السحب كله أقصر من نافذة
+            if (x != segmentX || y != segmentY || segmentTime == startTime) emitSwipe(time);
+        } else if (!held) {
+            long duration = time - startTime;
+            emit(NeuralSeed.Input.createGestureInput(
+                    duration >= holdMillis ? NeuralSeed.Gesture.HOLD : NeuralSeed.Gesture.TAP,
+                    x, y, 0, 0, duration));
+        }
+        down = false;
+    }
+
+    /**
+     * اللمسة أُلغيت (انتقلت إلى عنصر آخر مثلاً): ما جُمع منها يُهمل
+     */
+    public void onCancel() {
+        down = false;
+    }
+
+    /**
+     * إعلان الضغط المطوّل إذا بلغ الإصبع الثابت عتبته؛ يُستدعى بعد getHoldMillis من onDown
+     */
+    public void checkHold(long time) {
+        if (!down || moved || held) return;
+        long duration = time - startTime;
+        if (duration >= holdMillis) {
+            held = true;
+            emit(NeuralSeed.Input.createGestureInput(NeuralSeed.Gesture.HOLD, lastX, lastY, 0, 0, duration));
+        }
+    }
+
+    private void emitSwipe(long time) {
+        float seconds = Math.max(1, time - segmentTime) / 1000f;
+        emit(NeuralSeed.Input.createGestureInput(NeuralSeed.Gesture.SWIPE, lastX, lastY,
+                (lastX - segmentX) / seconds, (lastY - segmentY) / seconds, time - startTime));
+        segmentX = lastX;
+        segmentY = lastY;
+        segmentTime = time;
+    }
+
+    private void emit(NeuralSeed.Input gesture) {
+        gestures++;
+        listener.onGesture(gesture);
+    }
+
+    public long getHoldMillis() {
+        return holdMillis;
+    }
+
+    public long getSampleCount() {
+        return samples;
+    }
+
+    public long getGestureCount() {
+        return gestures;
+    }
+}
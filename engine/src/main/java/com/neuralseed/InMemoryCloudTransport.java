@@ -0,0 +1,213 @@
+package com.neuralseed;
+
+import java.util.*;
+
+/**
+ * ناقل سحابة في الذاكرة - يحاكي شجرة Firebase محلياً
+ *
+ * يُستخدم بديلاً عن الخدمة في التجارب وعند العمل دون اتصال. الاستدعاءات
+ * والإشعارات تُنفذ فوراً على خيط المستدعي، والعدادات تكشف كلفة المزامنة
+ * (عدد العمليات والمسارات المكتوبة والأبناء المقروءة أو المرسلة للمشتركين).
+ */
+public class InMemoryCloudTransport implements CloudTransport {
+
+    private static final Object TIMESTAMP = new Object();
+
+    private class Subscriber implements Subscription {
+        final String path;
+        final String timeField;
+        final long since;
+        final ChildListener listener;
+
+        Subscriber(String path, String timeField, long since, ChildListener listener) {
+            this.path = trim(path);
+            this.timeField = timeField;
+            this.since = since;
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (InMemoryCloudTransport.this) {
+                subscribers.remove(this);
+            }
+        }
+    }
+
+    private final Map<String, Object> tree = new HashMap<>();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private long clock = 0;
+    private volatile boolean online = true;
+
+    private long updates = 0;
+    private long pathsWritten = 0;
+    private long queries = 0;
+    private long childrenRead = 0;
+    private long childrenDelivered = 0;
+
+    /**
+     * محاكاة انقطاع الاتصال: الكتابات تفشل حتى يعود
+     */
+    public void setOnline(boolean online) {
+        this.online = online;
+    }
+
+    @Override
+    public void update(Map<String, Object> updates, Callback<Void> callback) {
+        if (!online) {
+            callback.onFailure("offline");
+            return;
+        }
+        List<Runnable> notifications = new ArrayList<>();
+        synchronized (this) {
+            // وقت واحد لكل العملية كما في الخدمة
+            long now = Math.max(System.currentTimeMillis(), clock + 1);
+            clock = now;
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                Object value = update.getValue() == TIMESTAMP ? (Object) now : update.getValue();
+                set(update.getKey(), value);
+            }
+            this.updates++;
+            pathsWritten += updates.size();
+
+            // كل ابن تغيّر يُرسل مرة واحدة لكل مشترك مهما تعددت مساراته
+            for (Subscriber subscriber : subscribers) {
+                Set<String> changed = new LinkedHashSet<>();
+                String prefix = subscriber.path + "/";
+                for (String path : updates.keySet()) {
+                    String trimmed = trim(path);
+                    if (!trimmed.startsWith(prefix)) continue;
+                    String rest = trimmed.substring(prefix.length());
+                    int slash = rest.indexOf('/');
+                    changed.add(slash >= 0 ? rest.substring(0, slash) : rest);
+                }
+                for (String key : changed) {
+                    Runnable notification = childNotification(subscriber, key);
+                    if (notification != null) notifications.add(notification);
+                }
+            }
+        }
+        for (Runnable notification : notifications) notification.run();
+        callback.onSuccess(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Subscription subscribe(String path, String timeField, long since, ChildListener listener) {
+        Subscriber subscriber = new Subscriber(path, timeField, since, listener);
+        List<Runnable> initial = new ArrayList<>();
+        synchronized (this) {
+            subscribers.add(subscriber);
+            Object node = get(path);
+            if (node instanceof Map) {
+                for (String key : ((Map<String, Object>) node).keySet()) {
+                    Runnable notification = childNotification(subscriber, key);
+                    if (notification != null) initial.add(notification);
+                }
+            }
+        }
+        for (Runnable notification : initial) notification.run();
+        return subscriber;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Runnable childNotification(Subscriber subscriber, String key) {
+        Object child = get(subscriber.path + "/" + key);
+        if (!(child instanceof Map) || timeOf(child, subscriber.timeField) < subscriber.since) return null;
+        Map<String, Object> copy = new HashMap<>((Map<String, Object>) child);
+        childrenDelivered++;
+        return () -> subscriber.listener.onChild(key, copy);
+    }
+
+    private static String trim(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') start++;
+        while (end > start && path.charAt(end - 1) == '/') end--;
+        return path.substring(start, end);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void queryNewer(String path, String timeField, long since, int limit,
+                                        Callback<LinkedHashMap<String, Map<String, Object>>> callback) {
+        queries++;
+        List<Map.Entry<String, Object>> matches = new ArrayList<>();
+        Object node = get(path);
+        if (node instanceof Map) {
+            for (Map.Entry<String, Object> child : ((Map<String, Object>) node).entrySet()) {
+                if (timeOf(child.getValue(), timeField) >= since) matches.add(child);
+            }
+        }
+        matches.sort((a, b) -> Long.compare(timeOf(a.getValue(), timeField), timeOf(b.getValue(), timeField)));
+
+        LinkedHashMap<String, Map<String, Object>> children = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> match : matches) {
+            if (children.size() >= limit) break;
+            children.put(match.getKey(), new HashMap<>((Map<String, Object>) match.getValue()));
+        }
+        childrenRead += children.size();
+        callback.onSuccess(children);
+    }
+
+    @Override
+    public Object serverTimestamp() {
+        return TIMESTAMP;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long timeOf(Object child, String timeField) {
+        if (!(child instanceof Map)) return Long.MIN_VALUE;
+        Object time = ((Map<String, Object>) child).get(timeField);
+        return time instanceof Number ? ((Number) time).longValue() : Long.MIN_VALUE;
+    }
+
+    // ===== الشجرة =====
+
+    /**
+     * القيمة في مسار (خريطة للعقد الداخلية)، أو null
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized Object get(String path) {
+        Object node = tree;
+        for (String key : path.split("/")) {
+            if (key.isEmpty()) continue;
+            if (!(node instanceof Map)) return null;
+            node = ((Map<String, Object>) node).get(key);
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void set(String path, Object value) {
+        String[] keys = path.split("/");
+        Map<String, Object> node = tree;
+        for (int i = 0; i < keys.length - 1; i++) {
+            Object child = node.get(keys[i]);
+            if (!(child instanceof Map)) {
+                if (value == null) return;
+                child = new HashMap<String, Object>();
+                node.put(keys[i], child);
+            }
+            node = (Map<String, Object>) child;
+        }
+        if (value == null) {
+            node.remove(keys[keys.length - 1]);
+        } else {
+            node.put(keys[keys.length - 1], value);
+        }
+    }
+
+    // ===== الإحصائيات =====
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("updates", updates);
+        stats.put("paths_written", pathsWritten);
+        stats.put("queries", queries);
+        stats.put("children_read", childrenRead);
+        stats.put("children_delivered", childrenDelivered);
+        stats.put("subscribers", subscribers.size());
+        return stats;
+    }
+}
@@ -0,0 +1,643 @@
+package com.neuralseed;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * مستودع في الذاكرة - تنفيذ SeedRepository دون SQLite
+ *
+ * للتجارب وتشغيل المحرك على الخادم وقياس كلفة المحرك نفسه دون التخزين.
+ * الدلالات تطابق LocalDatabase: الاستبدال يمنح الكلمة معرّفاً جديداً، وكل تغيير
+ * فيها (الاستخدام أيضاً) يمنحها إصداراً جديداً، والعواطف
+ * مفهرسة بالكلمة والعاطفة والسياق، والسجلات خرائط بمفاتيح الأعمدة نفسها.
+ * كل العمليات تحت قفل المستودع؛ FileSeedRepository يبني عليه سجله.
+ */
+public class InMemorySeedRepository implements SeedRepository {
+
+    static final String LEARNING = "learned";
+    static final String CORRECTIONS = "corrections";
+    static final String CONVERSATIONS = "conversations";
+    static final String EXPERIENCES = "experiences";
+
+    static class StoredWord {
+        final long id;
+        final ArabicLexicon.Word word;
+        final boolean synced;
+        long version;
+
+        StoredWord(long id, long version, ArabicLexicon.Word word, boolean synced) {
+            this.id = id;
+            this.version = version;
+            this.word = word;
+            this.synced = synced;
+        }
+    }
+
+    static class StoredSentence {
+        final String type;
+        final String structure;
+        final Map<String, Double> emotions;
+        final boolean valid;
+        final double confidence;
+
+        StoredSentence(String type, String structure, Map<String, Double> emotions,
+                       boolean valid, double confidence) {
+            this.type = type;
+            this.structure = structure;
+            this.emotions = emotions;
+            this.valid = valid;
+            this.confidence = confidence;
+        }
+    }
+
+    static class EmotionLink {
+        final String emotion;
+        final String context;
+        final double intensity;
+
+        EmotionLink(String emotion, String context, double intensity) {
+            this.emotion = emotion;
+            this.context = context;
+            this.intensity = intensity;
+        }
+    }
+
+    // قفل صريح لا synchronized: الخادم يستدعي المستودع من خيوط افتراضية، وكتابة
+    // السجل ومزامنته داخل synchronized تثبّت الخيط الافتراضي على خيط حامله
+    final ReentrantLock lock = new ReentrantLock();
+
+    final Map<String, StoredWord> words = new HashMap<>();
+    final LinkedHashMap<String, StoredSentence> sentences = new LinkedHashMap<>();
+    final Map<String, SemanticEmotionalEngine.Meaning> meanings = new HashMap<>();
+    final Map<String, Map<String, EmotionLink>> emotionLinks = new HashMap<>();
+    final Map<String, List<Map<String, Object>>> records = new HashMap<>();
+
+    long lastWordId = 0;
+    long lastWordVersion = 0;
+    long lastRecordId = 0;
+
+    public InMemorySeedRepository() {
+        records.put(LEARNING, new ArrayList<>());
+        records.put(CORRECTIONS, new ArrayList<>());
+        records.put(CONVERSATIONS, new ArrayList<>());
+        records.put(EXPERIENCES, new ArrayList<>());
+    }
+
+    // ===== الكلمات =====
+
+    @Override
+    public void saveWord(ArabicLexicon.Word word) {
+        lock.lock();
+        try {
+            putWord(++lastWordId, ++lastWordVersion, word.mutableCopy(), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveSyncedWord(ArabicLexicon.Word word) {
+        lock.lock();
+        try {
+            StoredWord existing = words.get(word.word);
+            boolean synced = existing == null || existing.synced;
+            putWord(++lastWordId, ++lastWordVersion, word.mutableCopy(), synced);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * وضع كلمة بمعرّف وإصدار ومصدر محددين (من الحفظ أو من إعادة تشغيل السجل)
+     */
+    void putWord(long id, long version, ArabicLexicon.Word word, boolean synced) {
+        lastWordId = Math.max(lastWordId, id);
+        lastWordVersion = Math.max(lastWordVersion, version);
+        words.put(word.word, new StoredWord(id, version, word, synced));
+    }
+
+    @Override
+    public ArabicLexicon.Word loadWord(String word) {
+        lock.lock();
+        try {
+            StoredWord stored = words.get(word);
+            return stored != null ? stored.word.mutableCopy() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<ArabicLexicon.Word> loadAllWords() {
+        lock.lock();
+        try {
+            return loadWordsChangedAfter(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<ArabicLexicon.Word> loadLocalWordsAfter(long rowId) {
+        lock.lock();
+        try {
+            List<ArabicLexicon.Word> result = new ArrayList<>();
+            for (StoredWord stored : words.values()) {
+                if (stored.id > rowId && !stored.synced) result.add(stored.word.mutableCopy());
+            }
+            result.sort((a, b) -> Integer.compare(b.usageCount, a.usageCount));
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getMaxWordId() {
+        lock.lock();
+        try {
+            long maxId = 0;
+            for (StoredWord stored : words.values()) maxId = Math.max(maxId, stored.id);
+            return maxId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<ArabicLexicon.Word> loadWordsChangedAfter(long version) {
+        lock.lock();
+        try {
+            List<ArabicLexicon.Word> result = new ArrayList<>();
+            for (StoredWord stored : words.values()) {
+                if (stored.version > version) result.add(stored.word.mutableCopy());
+            }
+            result.sort((a, b) -> Integer.compare(b.usageCount, a.usageCount));
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getWordVersion() {
+        lock.lock();
+        try {
+            return lastWordVersion;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void updateWordUsage(String word) {
+        lock.lock();
+        try {
+            touchWord(word, System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void touchWord(String word, long now) {
+        StoredWord stored = words.get(word);
+        if (stored == null) return;
+        stored.word.usageCount++;
+        stored.word.lastUsed = now;
+        stored.version = ++lastWordVersion;
+    }
+
+    @Override
+    public List<String> findWordsByEmotion(String emotion, double minIntensity, int limit) {
+        lock.lock();
+        try {
+            List<StoredWord> matches = new ArrayList<>();
+            for (StoredWord stored : words.values()) {
+                Double intensity = stored.word.emotions.get(emotion);
+                if (intensity != null && intensity >= minIntensity) matches.add(stored);
+            }
+            matches.sort((a, b) -> Double.compare(b.word.emotions.get(emotion), a.word.emotions.get(emotion)));
+
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < matches.size() && i < limit; i++) {
+                results.add(matches.get(i).word.word);
+            }
+            return results;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<String> searchWords(String query) {
+        lock.lock();
+        try {
+            List<StoredWord> matches = new ArrayList<>();
+            for (StoredWord stored : words.values()) {
+                if (stored.word.word.contains(query) || containsAny(stored.word.meanings, query)) {
+                    matches.add(stored);
+                }
+            }
+            matches.sort((a, b) -> Double.compare(b.word.familiarity, a.word.familiarity));
+
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < matches.size() && i < 20; i++) {
+                results.add(matches.get(i).word.word);
+            }
+            return results;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean containsAny(List<String> texts, String query) {
+        for (String text : texts) {
+            if (text != null && text.contains(query)) return true;
+        }
+        return false;
+    }
+
+    // ===== الجمل =====
+
+    @Override
+    public void saveSentence(String sentence, ArabicParser.SentenceType type,
+                             String structure, Map<String, Double> emotions,
+                             boolean isValid, double confidence) {
+        lock.lock();
+        try {
+            putSentence(sentence, new StoredSentence(type.name(), structure, copyEmotions(emotions),
+                                                     isValid, confidence));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void putSentence(String sentence, StoredSentence stored) {
+        // الاستبدال ينقل الجملة إلى آخر الترتيب كما يمنحها SQLite معرّفاً جديداً
+        sentences.remove(sentence);
+        sentences.put(sentence, stored);
+    }
+
+    @Override
+    public List<String> getSimilarSentences(String pattern, int limit) {
+        lock.lock();
+        try {
+            List<String> results = new ArrayList<>();
+            for (String sentence : sentences.keySet()) {
+                if (results.size() >= limit) break;
+                if (sentence.contains(pattern)) results.add(sentence);
+            }
+            return results;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== المعاني والعواطف =====
+
+    @Override
+    public void saveMeaning(SemanticEmotionalEngine.Meaning meaning) {
+        lock.lock();
+        try {
+            meanings.put(meaning.concept, copyMeaning(meaning));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SemanticEmotionalEngine.Meaning loadMeaning(String concept) {
+        lock.lock();
+        try {
+            SemanticEmotionalEngine.Meaning meaning = meanings.get(concept);
+            return meaning != null ? copyMeaning(meaning) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static SemanticEmotionalEngine.Meaning copyMeaning(SemanticEmotionalEngine.Meaning meaning) {
+        SemanticEmotionalEngine.Meaning copy = new SemanticEmotionalEngine.Meaning(meaning.concept, meaning.definition);
+        copy.synonyms.addAll(meaning.synonyms);
+        copy.antonyms.addAll(meaning.antonyms);
+        copy.relatedConcepts.putAll(meaning.relatedConcepts);
+        return copy;
+    }
+
+    @Override
+    public void saveEmotionLink(String word, String emotion, double intensity, String context) {
+        lock.lock();
+        try {
+            emotionLinks.computeIfAbsent(word, k -> new HashMap<>())
+                        .put(emotion + "|" + context, new EmotionLink(emotion, context, intensity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Double> getWordEmotions(String word) {
+        lock.lock();
+        try {
+            Map<String, Double> emotions = new HashMap<>();
+            Map<String, EmotionLink> links = emotionLinks.get(word);
+            if (links != null) {
+                for (EmotionLink link : links.values()) {
+                    emotions.merge(link.emotion, link.intensity, Double::sum);
+                }
+            }
+            return emotions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== التعلم والتصحيحات =====
+
+    @Override
+    public void recordLearning(String input, String output, String context,
+                               boolean success, String feedback) {
+        lock.lock();
+        try {
+            Map<String, Object> record = new HashMap<>();
+            record.put("input", input);
+            record.put("output", output);
+            record.put("context", context);
+            record.put("success", success);
+            record.put("feedback", feedback);
+            record.put("timestamp", System.currentTimeMillis());
+            addRecord(LEARNING, record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getLearningHistory(String context, int limit) {
+        lock.lock();
+        try {
+            List<Map<String, Object>> history = new ArrayList<>();
+            List<Map<String, Object>> learning = records.get(LEARNING);
+            for (int i = learning.size() - 1; i >= 0 && history.size() < limit; i--) {
+                Map<String, Object> record = learning.get(i);
+                if (context == null || context.equals(record.get("context"))) history.add(new HashMap<>(record));
+            }
+            return history;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveCorrection(String original, String corrected, String explanation) {
+        lock.lock();
+        try {
+            Map<String, Object> record = new HashMap<>();
+            record.put("original", original);
+            record.put("corrected", corrected);
+            record.put("explanation", explanation);
+            record.put("learned", false);
+            record.put("timestamp", System.currentTimeMillis());
+            addRecord(CORRECTIONS, record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void markCorrectionLearned(int id) {
+        lock.lock();
+        try {
+            for (Map<String, Object> record : records.get(CORRECTIONS)) {
+                if (((Number) record.get("id")).intValue() == id) record.put("learned", true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getPendingCorrections() {
+        lock.lock();
+        try {
+            List<Map<String, Object>> pending = new ArrayList<>();
+            List<Map<String, Object>> corrections = records.get(CORRECTIONS);
+            for (int i = corrections.size() - 1; i >= 0; i--) {
+                Map<String, Object> record = corrections.get(i);
+                if (Boolean.TRUE.equals(record.get("learned"))) continue;
+                Map<String, Object> correction = new HashMap<>();
+                correction.put("id", ((Number) record.get("id")).intValue());
+                correction.put("original", record.get("original"));
+                correction.put("corrected", record.get("corrected"));
+                correction.put("explanation", record.get("explanation"));
+                pending.add(correction);
+            }
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String findCorrection(String text) {
+        lock.lock();
+        try {
+            for (Map<String, Object> record : records.get(CORRECTIONS)) {
+                if (Boolean.TRUE.equals(record.get("learned")) && text.equals(record.get("original"))) {
+                    return (String) record.get("corrected");
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== المحادثات والتجارب =====
+
+    @Override
+    public void saveConversation(String userMessage, String aiResponse,
+                                 Map<String, Double> emotions, String context) {
+        lock.lock();
+        try {
+            Map<String, Object> record = new HashMap<>();
+            record.put("user_message", userMessage);
+            record.put("ai_response", aiResponse);
+            record.put("context", context);
+            record.put("emotions", copyEmotions(emotions));
+            record.put("timestamp", System.currentTimeMillis());
+            addRecord(CONVERSATIONS, record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getConversationHistory(int limit) {
+        lock.lock();
+        try {
+            List<Map<String, Object>> history = new ArrayList<>();
+            List<Map<String, Object>> conversations = records.get(CONVERSATIONS);
+            for (int i = conversations.size() - 1; i >= 0 && history.size() < limit; i--) {
+                history.add(copyRecord(conversations.get(i)));
+            }
+            return history;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> searchConversations(String query, int limit) {
+        lock.lock();
+        try {
+            List<Map<String, Object>> results = new ArrayList<>();
+            List<Map<String, Object>> conversations = records.get(CONVERSATIONS);
+            for (int i = conversations.size() - 1; i >= 0 && results.size() < limit; i--) {
+                Map<String, Object> record = conversations.get(i);
+                if (contains(record.get("user_message"), query) || contains(record.get("ai_response"), query)) {
+                    Map<String, Object> found = new HashMap<>();
+                    found.put("id", record.get("id"));
+                    found.put("user_message", record.get("user_message"));
+                    found.put("ai_response", record.get("ai_response"));
+                    found.put("timestamp", record.get("timestamp"));
+                    results.add(found);
+                }
+            }
+            return results;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean contains(Object text, String query) {
+        return text instanceof String && ((String) text).contains(query);
+    }
+
+    @Override
+    public void saveExperience(String description, Map<String, Double> emotions,
+                               String outcome, String lesson, double importance) {
+        lock.lock();
+        try {
+            Map<String, Object> record = new HashMap<>();
+            record.put("description", description);
+            record.put("outcome", outcome);
+            record.put("lesson", lesson);
+            record.put("importance", importance);
+            record.put("emotions", copyEmotions(emotions));
+            record.put("timestamp", System.currentTimeMillis());
+            addRecord(EXPERIENCES, record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getImportantExperiences(double minImportance, int limit) {
+        lock.lock();
+        try {
+            List<Map<String, Object>> matches = new ArrayList<>();
+            for (Map<String, Object> record : records.get(EXPERIENCES)) {
+                if ((Double) record.get("importance") >= minImportance) matches.add(record);
+            }
+            matches.sort((a, b) -> {
+                int byImportance = Double.compare((Double) b.get("importance"), (Double) a.get("importance"));
+                return byImportance != 0 ? byImportance : Long.compare((Long) b.get("timestamp"), (Long) a.get("timestamp"));
+            });
+
+            List<Map<String, Object>> experiences = new ArrayList<>();
+            for (int i = 0; i < matches.size() && i < limit; i++) {
+                Map<String, Object> exp = copyRecord(matches.get(i));
+                exp.remove("id");
+                exp.remove("emotions");
+                experiences.add(exp);
+            }
+            return experiences;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * إضافة سجل إلى جدول؛ السجل بلا معرّف يأخذ المعرّف التالي
+     */
+    void addRecord(String table, Map<String, Object> record) {
+        Object id = record.get("id");
+        if (id instanceof Number) {
+            lastRecordId = Math.max(lastRecordId, ((Number) id).longValue());
+        } else {
+            record.put("id", ++lastRecordId);
+        }
+        records.get(table).add(record);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> copyRecord(Map<String, Object> record) {
+        Map<String, Object> copy = new HashMap<>(record);
+        Object emotions = copy.get("emotions");
+        if (emotions instanceof Map) copy.put("emotions", new HashMap<>((Map<String, Double>) emotions));
+        return copy;
+    }
+
+    static Map<String, Double> copyEmotions(Map<String, Double> emotions) {
+        return emotions != null ? new HashMap<>(emotions) : new HashMap<>();
+    }
+
+    // ===== الإدارة =====
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+
+    @Override
+    public void clearAll() {
+        lock.lock();
+        try {
+            words.clear();
+            sentences.clear();
+            meanings.clear();
+            emotionLinks.clear();
+            for (List<Map<String, Object>> table : records.values()) table.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * عدد العناصر الحية، يقارن به FileSeedRepository طول سجله
+     */
+    int size() {
+        int size = words.size() + sentences.size() + meanings.size();
+        for (Map<String, EmotionLink> links : emotionLinks.values()) size += links.size();
+        for (List<Map<String, Object>> table : records.values()) size += table.size();
+        return size;
+    }
+
+    /**
+     * العدادات بأسماء عدادات LocalDatabase نفسها (TableCounters)
+     */
+    @Override
+    public Map<String, Object> getStatistics() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("word_count", words.size());
+            stats.put("sentence_count", sentences.size());
+            stats.put("conversation_count", records.get(CONVERSATIONS).size());
+            stats.put("experience_count", records.get(EXPERIENCES).size());
+            int learned = 0;
+            for (Map<String, Object> record : records.get(CORRECTIONS)) {
+                if (Boolean.TRUE.equals(record.get("learned"))) learned++;
+            }
+            stats.put("learned_corrections", learned);
+            stats.put("pending_corrections", records.get(CORRECTIONS).size() - learned);
+            stats.put("meanings", meanings.size());
+            stats.put("learning_records", records.get(LEARNING).size());
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
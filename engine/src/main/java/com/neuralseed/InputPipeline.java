@@ -0,0 +1,183 @@
+package com.neuralseed;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * خط المدخلات - حلقة محدودة بين مصادر المدخلات ودورة معالجتها
+ *
+ * السعة ثابتة، وما يحدث عند امتلائها تحدده سياسة الفيض:
+ * - DROP_OLDEST: يُسقط أقدم مدخل لصالح الجديد
+ * - COALESCE_TOUCHES: اللمسات الخام المتتالية تندمج في آخر لمسة لم تُعالج بعد،
+ *   وعند الامتلاء يُسقط الأقدم
+ * - BLOCK: المرسل ينتظر حتى يتسع المكان (لا يُستعمل من خيط الواجهة)
+ *
+ * الأقفال صريحة لا مزامنة، فيصلح الخط للخيوط الافتراضية.
+ */
+public class InputPipeline {
+
+    public enum Overflow {
+        DROP_OLDEST, COALESCE_TOUCHES, BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final NeuralSeed.Input[] ring;
+    private final Overflow overflow;
+    private int head = 0;
+    private int size = 0;
+    private boolean closed = false;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // الإحصاءات
+    private long offered = 0;
+    private long dropped = 0;
+    private long coalesced = 0;
+    private long blocked = 0;
+    private int highWater = 0;
+
+    public InputPipeline() {
+        this(DEFAULT_CAPACITY, Overflow.COALESCE_TOUCHES);
+    }
+
+    public InputPipeline(int capacity, Overflow overflow) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity < 1");
+        this.ring = new NeuralSeed.Input[capacity];
+        this.overflow = overflow;
+    }
+
+    /**
+     * إضافة مدخل؛ false إذا أُغلق الخط أو قُطع انتظار BLOCK
+     */
+    public boolean offer(NeuralSeed.Input input) {
+        lock.lock();
+        try {
+            if (closed) return false;
+            offered++;
+
+            if (overflow == Overflow.COALESCE_TOUCHES && isRawTouch(input) && size > 0) {
+                NeuralSeed.Input newest = ring[(head + size - 1) % ring.length];
+                if (isRawTouch(newest)) {
+                    // الموضع الأخير هو ما يهم، والشدة أعلى ما بلغته اللمسات المندمجة
+                    newest.touchX = input.touchX;
+                    newest.touchY = input.touchY;
+                    newest.intensity = Math.max(newest.intensity, input.intensity);
+                    coalesced++;
+                    return true;
+                }
+            }
+
+            if (size == ring.length) {
+                if (overflow == Overflow.BLOCK) {
+                    blocked++;
+                    while (size == ring.length && !closed) {
+                        try {
+                            notFull.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return false;
+                        }
+                    }
+                    if (closed) return false;
+                } else {
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    size--;
+                    dropped++;
+                }
+            }
+
+            ring[(head + size) % ring.length] = input;
+            size++;
+            highWater = Math.max(highWater, size);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // الإيماءات المجمّعة لا تندمج: نقرة بعد سحب حدثان مختلفان
+    private static boolean isRawTouch(NeuralSeed.Input input) {
+        return input.isTouch && input.gesture == null;
+    }
+
+    /**
+     * أقدم مدخل أو null إذا كان الخط فارغاً
+     */
+    public NeuralSeed.Input poll() {
+        lock.lock();
+        try {
+            if (size == 0) return null;
+            NeuralSeed.Input input = ring[head];
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            size--;
+            notFull.signal();
+            return input;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * انتظار مدخل حتى المهلة؛ يعود فوراً إذا كان في الخط ما يُعالج
+     */
+    public boolean awaitInput(long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (size == 0 && !closed && remaining > 0) {
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            return size > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * إغلاق الخط وتحرير المنتظرين؛ ما بقي فيه يُهمل
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("input_capacity", ring.length);
+            stats.put("input_pending", size);
+            stats.put("input_high_water", highWater);
+            stats.put("input_offered", offered);
+            stats.put("input_dropped", dropped);
+            stats.put("input_coalesced", coalesced);
+            stats.put("input_blocked", blocked);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -10,7 +10,7 @@ public class LearningSystem {
     private ArabicLexicon lexicon;
     private ArabicParser parser;
     private SemanticEmotionalEngine emotionEngine;
-    private LocalDatabase database;
+    private SeedRepository database;
     
     private List<LearningPattern> patterns = new ArrayList<>();
     private Map<String, Correction> corrections = new HashMap<>();
@@ -49,7 +49,7 @@ public class LearningSystem {
     }
     
     public LearningSystem(ArabicLexicon lexicon, ArabicParser parser, 
-                        SemanticEmotionalEngine emotionEngine, LocalDatabase database) {
+                        SemanticEmotionalEngine emotionEngine, SeedRepository database) {
         this.lexicon = lexicon;
         this.parser = parser;
         this.emotionEngine = emotionEngine;
@@ -169,10 +169,7 @@ public class LearningSystem {
         }
         
         // تحديث المعجم
-        ArabicLexicon.Word word = lexicon.getWord(original);
-        if (word != null) {
-            word.meanings.add("تصحيح: " + corrected);
-        }
+        lexicon.addMeaning(original, "تصحيح: " + corrected);
     }
     
     /**
@@ -0,0 +1,195 @@
+package com.neuralseed;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * صورة المعجم الثنائية - ملف جاهز يُعيَّن بالذاكرة عند الإقلاع
+ *
+ * الملف رأس ثابت (32 بايت) يتبعه معجم مضغوط كما هو. الفتح يقرأ الرأس فقط،
+ * والتعيين بالذاكرة يتم عند أول طلب للمعجم، ومعه يُتحقق من المجموع الاختباري
+ * والبنية قبل أي بحث، فالصورة التالفة تُرفض وتُبنى من جديد.
+ * الرأس يحفظ إصدار الكلمات وقت البناء (SeedRepository.getWordVersion) لتحميل
+ * ما حُفظ أو استُخدم بعده فقط.
+ */
+public class LexiconImage {
+
+    public static final String FILE_NAME = "lexicon.img";
+
+    static final int MAGIC = 0x4E534C49; // "NSLI"
+    static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+
+    private final File file;
+    private final long sourceVersion;
+    private final long builtAt;
+    private final int payloadSize;
+    private final int checksum;
+
+    private volatile CompactLexicon lexicon;
+
+    private LexiconImage(File file, long sourceVersion, long builtAt, int payloadSize, int checksum) {
+        this.file = file;
+        this.sourceVersion = sourceVersion;
+        this.builtAt = builtAt;
+        this.payloadSize = payloadSize;
+        this.checksum = checksum;
+    }
+
+    // ===== الفتح =====
+
+    /**
+     * قراءة رأس الصورة؛ تُرجع null إذا كان الملف غير موجود أو بإصدار مختلف أو مقطوعاً
+     */
+    public static LexiconImage open(File file) {
+        if (!file.isFile() || file.length() < HEADER_SIZE) return null;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            FileChannel channel = raf.getChannel();
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // متابعة القراءة حتى اكتمال الرأس
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE) return null;
+
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                return null;
+            }
+
+            long sourceVersion = header.getLong(8);
+            long builtAt = header.getLong(16);
+            int payloadSize = header.getInt(24);
+            int checksum = header.getInt(28);
+
+            if (payloadSize <= 0 || HEADER_SIZE + (long) payloadSize != file.length()) {
+                return null;
+            }
+            return new LexiconImage(file, sourceVersion, builtAt, payloadSize, checksum);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * المعجم المضغوط، يُعيَّن بالذاكرة عند أول استدعاء
+     */
+    public CompactLexicon getLexicon() throws IOException {
+        CompactLexicon result = lexicon;
+        if (result == null) {
+            synchronized (this) {
+                result = lexicon;
+                if (result == null) {
+                    result = map();
+                    lexicon = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private CompactLexicon map() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            // التعيين يبقى صالحاً بعد إغلاق القناة
+            ByteBuffer mapped = raf.getChannel()
+                .map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, payloadSize);
+            CRC32 crc = new CRC32();
+            crc.update(mapped.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Lexicon image checksum mismatch: " + file);
+            }
+            try {
+                return CompactLexicon.wrap(mapped);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt lexicon image: " + e.getMessage());
+            }
+        }
+    }
+
+    public long getSourceVersion() {
+        return sourceVersion;
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    // ===== البناء =====
+
+    /**
+     * دمج الكلمات الافتراضية مع الكلمات المحفوظة: الصف المحفوظ يغلب، والمعاني تُجمع
+     */
+    public static CompactLexicon build(Collection<ArabicLexicon.Word> defaults,
+                                       Collection<ArabicLexicon.Word> saved) {
+        Map<String, ArabicLexicon.Word> merged = new LinkedHashMap<>();
+        for (ArabicLexicon.Word word : defaults) {
+            merged.put(word.form, word);
+        }
+
+        for (ArabicLexicon.Word word : saved) {
+            ArabicLexicon.Word existing = merged.get(word.form);
+            merged.put(word.form, existing == null ? word : merge(existing, word));
+        }
+
+        return CompactLexicon.of(merged.values());
+    }
+
+    /**
+     * دمج صف محفوظ مع مدخل موجود: قيم الصف تغلب وتُضاف المعاني والعواطف الناقصة
+     */
+    public static ArabicLexicon.Word merge(ArabicLexicon.Word existing, ArabicLexicon.Word saved) {
+        ArabicLexicon.Word combined = saved.mutableCopy();
+        for (String meaning : existing.meanings) {
+            if (!combined.meanings.contains(meaning)) combined.meanings.add(meaning);
+        }
+        for (Map.Entry<String, Double> emotion : existing.emotions.entrySet()) {
+            combined.emotions.putIfAbsent(emotion.getKey(), emotion.getValue());
+        }
+        return combined;
+    }
+
+    /**
+     * كتابة الصورة بشكل ذري: ملف مؤقت ثم إعادة تسمية
+     */
+    public static void write(File file, CompactLexicon lexicon, long sourceVersion) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(lexicon.byteSize());
+        lexicon.writeTo(Channels.newChannel(payload));
+        byte[] bytes = payload.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.putLong(sourceVersion);
+        header.putLong(System.currentTimeMillis());
+        header.putInt(bytes.length);
+        header.putInt((int) crc.getValue());
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(header.array());
+            out.write(bytes);
+            out.getFD().sync();
+        }
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot replace lexicon image: " + file);
+        }
+    }
+}
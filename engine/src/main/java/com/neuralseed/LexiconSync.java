@@ -0,0 +1,186 @@
+package com.neuralseed;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * مزامنة المعجم بالفروق - كلفة المزامنة تتبع عدد التغييرات لا حجم المعجم
+ *
+ * الرفع: الكلمات المحفوظة محلياً بعد مؤشر الرفع (معرّف صف الكلمات، والاستبدال
+ * يمنح الصف معرّفاً جديداً) تُكتب في دفعات، كل دفعة عملية updateChildren واحدة.
+ * ما وصل من السحابة يُحفظ بـ saveSyncedWord فلا يعود في الرفع التالي.
+ * السحب: مدخلات lexicon_entries التي وقت تحديثها على الخادم لا يقل عن مؤشر
+ * السحب، صفحة بعد صفحة. المسار القديم lexicon/{كلمة} يُكتب معها للعملاء السابقين.
+ */
+public class LexiconSync {
+
+    private static final String TAG = "LexiconSync";
+
+    public static final String LEGACY_PATH = "lexicon";
+    public static final String ENTRIES_PATH = "lexicon_entries";
+    public static final String UPDATED_AT = "updatedAt";
+
+    private static final int PUSH_BATCH_SIZE = 200;
+    private static final int PULL_PAGE_SIZE = 200;
+
+    public interface Listener {
+        void onWordSynced(String word, String meaning);
+        void onSyncComplete(int pushed, int pulled);
+        void onSyncError(String error);
+    }
+
+    private final CloudTransport transport;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile long pushCursor;
+    private volatile long pullCursor;
+
+    public LexiconSync(CloudTransport transport, long pushCursor, long pullCursor) {
+        this.transport = transport;
+        this.pushCursor = pushCursor;
+        this.pullCursor = pullCursor;
+    }
+
+    public long getPushCursor() {
+        return pushCursor;
+    }
+
+    public long getPullCursor() {
+        return pullCursor;
+    }
+
+    /**
+     * تقديم مؤشر السحب بعد تطبيق مدخلات وصلت من الاشتراك
+     */
+    public void advancePullCursor(long updatedAt) {
+        if (updatedAt > pullCursor) pullCursor = updatedAt;
+    }
+
+    // ===== الكتابة =====
+
+    /**
+     * مفاتيح Firebase لا تقبل هذه المحارف
+     */
+    public static boolean isValidKey(String word) {
+        if (word == null || word.isEmpty()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c == '.' || c == '$' || c == '#' || c == '[' || c == ']' || c == '/' || c < 0x20) return false;
+        }
+        return true;
+    }
+
+    /**
+     * مسارات كلمة واحدة ضمن عملية كتابة متعددة المسارات
+     */
+    public void addWord(Map<String, Object> updates, String word, String meaning) {
+        updates.put(LEGACY_PATH + "/" + word, meaning);
+        updates.put(ENTRIES_PATH + "/" + word + "/meaning", meaning);
+        updates.put(ENTRIES_PATH + "/" + word + "/" + UPDATED_AT, transport.serverTimestamp());
+    }
+
+    // ===== المزامنة =====
+
+    /**
+     * رفع التغييرات المحلية ثم سحب الجديد من السحابة. يقرأ القاعدة المحلية،
+     * فيُستدعى خارج خيط الواجهة. المؤشرات تتقدم فقط بعد نجاح كل مرحلة.
+     */
+    public void sync(SeedRepository database, ArabicLexicon lexicon, Listener listener) {
+        if (!running.compareAndSet(false, true)) return;
+
+        long pushTarget = database.getMaxWordId();
+        List<Map<String, Object>> batches = new ArrayList<>();
+        Map<String, Object> batch = new HashMap<>();
+        int changed = 0;
+        for (ArabicLexicon.Word word : database.loadLocalWordsAfter(pushCursor)) {
+            if (word.meanings.isEmpty() || !isValidKey(word.word)) continue;
+            addWord(batch, word.word, word.meanings.get(0));
+            changed++;
+            if (changed % PUSH_BATCH_SIZE == 0) {
+                batches.add(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) batches.add(batch);
+
+        int pushed = changed;
+        push(batches, 0, () -> {
+            pushCursor = Math.max(pushCursor, pushTarget);
+            pull(database, lexicon, listener, pullCursor, pushed, 0);
+        }, listener);
+    }
+
+    private void push(List<Map<String, Object>> batches, int index, Runnable next, Listener listener) {
+        if (index >= batches.size()) {
+            next.run();
+            return;
+        }
+        transport.update(batches.get(index), new CloudTransport.Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                push(batches, index + 1, next, listener);
+            }
+
+            @Override
+            public void onFailure(String error) {
+                fail(listener, "Push failed: " + error);
+            }
+        });
+    }
+
+    private void pull(SeedRepository database, ArabicLexicon lexicon, Listener listener,
+                      long since, int pushed, int pulled) {
+        transport.queryNewer(ENTRIES_PATH, UPDATED_AT, since, PULL_PAGE_SIZE,
+                new CloudTransport.Callback<LinkedHashMap<String, Map<String, Object>>>() {
+            @Override
+            public void onSuccess(LinkedHashMap<String, Map<String, Object>> entries) {
+                long newest = since;
+                int applied = pulled;
+                for (Map.Entry<String, Map<String, Object>> entry : entries.entrySet()) {
+                    Object meaning = entry.getValue().get("meaning");
+                    Object updatedAt = entry.getValue().get(UPDATED_AT);
+                    if (updatedAt instanceof Number) newest = Math.max(newest, ((Number) updatedAt).longValue());
+                    if (meaning instanceof String && apply(database, lexicon, entry.getKey(), (String) meaning)) {
+                        applied++;
+                        if (listener != null) listener.onWordSynced(entry.getKey(), (String) meaning);
+                    }
+                }
+
+                if (entries.size() >= PULL_PAGE_SIZE) {
+                    // البداية شاملة؛ صفحة كاملة بوقت واحد لا تتقدم إلا بتخطيه
+                    pull(database, lexicon, listener, newest > since ? newest : since + 1, pushed, applied);
+                    return;
+                }
+
+                pullCursor = Math.max(pullCursor, newest);
+                running.set(false);
+                SeedLog.i(TAG, "Sync complete: pushed " + pushed + ", pulled " + applied);
+                if (listener != null) listener.onSyncComplete(pushed, applied);
+            }
+
+            @Override
+            public void onFailure(String error) {
+                fail(listener, "Pull failed: " + error);
+            }
+        });
+    }
+
+    /**
+     * إضافة معنى وصل من السحابة إن كان جديداً، وحفظ الكلمة كاملة محلياً
+     */
+    public static boolean apply(SeedRepository database, ArabicLexicon lexicon, String word, String meaning) {
+        ArabicLexicon.Word existing = lexicon.getWord(word);
+        if (existing != null && existing.meanings.contains(meaning)) return false;
+
+        lexicon.addWord(word, meaning);
+        ArabicLexicon.Word updated = lexicon.getWord(word);
+        if (database != null && updated != null) database.saveSyncedWord(updated);
+        return true;
+    }
+
+    private void fail(Listener listener, String error) {
+        running.set(false);
+        SeedLog.e(TAG, error);
+        if (listener != null) listener.onSyncError(error);
+    }
+}
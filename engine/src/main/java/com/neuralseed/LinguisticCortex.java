@@ -0,0 +1,487 @@
+package com.neuralseed;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * القشرة اللغوية المتطورة - النسخة المدمجة مع الوعي والذاكرة السحابية
+ */
+public class LinguisticCortex {
+    
+    // المكونات الأساسية
+    private ArabicLexicon lexicon;
+    private ArabicParser parser;
+    private SemanticEmotionalEngine emotionEngine;
+    private LearningSystem learningSystem;
+    private SentenceGenerator sentenceGenerator;
+    private SeedRepository database;
+    private CloudMemory cloud;
+    private RemoteWordQueue remoteWords;
+    
+    // صورة المعجم الثنائية المعيّنة بالذاكرة
+    private File lexiconImageFile;
+    private final boolean sharedBase;
+    private final AtomicBoolean imageRebuildRunning = new AtomicBoolean(false);
+    
+    // حالة التعلم والمزامنة
+    private boolean isLearningEnabled = true;
+    private boolean isSyncEnabled = false;
+    private int learningLevel = 1;
+    
+    // سياق المحادثة والذاكرة المؤقتة
+    private List<String> conversationContext = new ArrayList<>();
+    private Map<String, Object> sessionMemory = new HashMap<>();
+    
+    // مستمعي الأحداث
+    public interface LinguisticListener {
+        void onWordLearned(String word, String meaning);
+        void onSentenceCorrected(String original, String corrected);
+        void onEmotionDetected(String emotion, double intensity);
+        void onNewConceptLearned(String concept);
+    }
+    
+    private LinguisticListener listener;
+    
+    /**
+     * استقبال نتيجة طلب غير متزامن (يُستدعى على خيط المعالجة اللغوية)
+     */
+    public interface ResultCallback<T> {
+        void onResult(T result);
+        void onError(Throwable error);
+    }
+    
+    // خط المعالجة اللغوية: خيط واحد ينفذ طلبات الرد والسؤال بالترتيب. لا يحتكر المعجم ولا
+    // المستودع، فـ learnSentence يعمل أيضاً على خيط مدخلات الكيان وخيط الكلمات البعيدة؛
+    // المعجم يعتمد على خرائطه المتزامنة والمستودعات على أقفالها
+    private final ExecutorService nlpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "LinguisticPipeline");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Future<?>> pendingRequests = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<Future<?>> pendingQuestion = new AtomicReference<>();
+
+    public LinguisticCortex() {
+        this(new ArabicLexicon(), false);
+    }
+    
+    /**
+     * قشرة فوق معجم أساسي مشترك للقراءة فقط: ما تتعلمه يبقى في طبقتها وحدها،
+     * ولا تُحمَّل فوقها صورة معجم ولا معجم لقطة.
+     */
+    public LinguisticCortex(CompactLexicon sharedBase) {
+        this(new ArabicLexicon(sharedBase), true);
+    }
+    
+    private LinguisticCortex(ArabicLexicon lexicon, boolean sharedBase) {
+        this.lexicon = lexicon;
+        this.sharedBase = sharedBase;
+        this.parser = new ArabicParser(lexicon);
+        this.emotionEngine = new SemanticEmotionalEngine();
+        this.isLearningEnabled = true;
+    }
+    
+    /**
+     * ربط المحرك بمستودع تخزين (SQLite، أو الذاكرة، أو ملف سجل على JVM).
+     * صورة المعجم اختيارية: بدونها يُحمَّل المعجم من المستودع مباشرة.
+     */
+    public void initializeRepository(SeedRepository repository, File lexiconImageFile) {
+        this.database = repository;
+        this.learningSystem = new LearningSystem(lexicon, parser, emotionEngine, database);
+        this.sentenceGenerator = new SentenceGenerator(lexicon, parser, emotionEngine, database);
+        // الصورة تستبدل أساس المعجم، والأساس المشترك لا يُستبدل
+        this.lexiconImageFile = sharedBase ? null : lexiconImageFile;
+        
+        if (!loadLexiconImage()) {
+            loadSavedData();
+            rebuildLexiconImage();
+        }
+    }
+    
+    /**
+     * تحميل صورة المعجم: تعيين بالذاكرة ثم قراءة ما تغير بعد بنائها فقط (الحفظ والاستخدام)
+     */
+    private boolean loadLexiconImage() {
+        if (lexiconImageFile == null) return false;
+        LexiconImage image = LexiconImage.open(lexiconImageFile);
+        if (image == null) return false;
+        
+        try {
+            lexicon.resetToBase(image.getLexicon());
+        } catch (IOException e) {
+            SeedLog.w("LinguisticCortex", "Lexicon image unusable: " + e.getMessage());
+            return false;
+        }
+        
+        List<ArabicLexicon.Word> recent = database.loadWordsChangedAfter(image.getSourceVersion());
+        for (ArabicLexicon.Word word : recent) {
+            mergeSavedWord(word);
+        }
+        if (!recent.isEmpty()) {
+            rebuildLexiconImage();
+        }
+        return true;
+    }
+    
+    /**
+     * إعادة بناء صورة المعجم من قاعدة البيانات والكلمات الافتراضية في الخلفية
+     */
+    private void rebuildLexiconImage() {
+        if (database == null || lexiconImageFile == null) return;
+        if (!imageRebuildRunning.compareAndSet(false, true)) return;
+        
+        Thread builder = new Thread(() -> {
+            try {
+                // الإصدار يُقرأ قبل الكلمات: ما يتغير أثناء البناء يُعاد تحميله في الإقلاع التالي
+                long version = database.getWordVersion();
+                CompactLexicon compact = LexiconImage.build(
+                    ArabicLexicon.getDefaultWords(), database.loadAllWords());
+                LexiconImage.write(lexiconImageFile, compact, version);
+            } catch (Exception e) {
+                SeedLog.e("LinguisticCortex", "Lexicon image build failed: " + e.getMessage());
+            } finally {
+                imageRebuildRunning.set(false);
+            }
+        }, "LexiconImageBuilder");
+        builder.setPriority(Thread.MIN_PRIORITY);
+        builder.start();
+    }
+    
+    /**
+     * ربط الذاكرة السحابية مع نظام المزامنة التلقائي للكلمات المكتسبة
+     */
+    public void attachCloud(CloudMemory cloud) {
+        try {
+            this.cloud = cloud;
+            
+            // الكلمات التي يتعلمها الكيان في السحابة تصل واحدة واحدة وتُطبق دفعات في الخلفية
+            remoteWords = new RemoteWordQueue(this::applyRemoteWords);
+            remoteWords.start();
+            cloud.listenToNewWords(remoteWords::offer);
+
+            this.isSyncEnabled = true;
+        } catch (Exception e) {
+            SeedLog.e("LinguisticCortex", "Cloud initialization error: " + e.getMessage());
+        }
+    }
+    
+    private void applyRemoteWords(List<RemoteWordQueue.RemoteWord> batch) {
+        long newest = 0;
+        for (RemoteWordQueue.RemoteWord remote : batch) {
+            newest = Math.max(newest, remote.updatedAt);
+            // صدى كلماتنا وما عُرف من قبل لا يُطبق مرة أخرى
+            if (LexiconSync.apply(database, lexicon, remote.word, remote.meaning) && listener != null) {
+                listener.onWordLearned(remote.word, remote.meaning);
+            }
+        }
+        // الدفعة محدودة الحجم وترتيب المعلق ليس بالوقت، فالمؤشر لا يتجاوز أقدم ما لم يُطبق
+        if (cloud != null && remoteWords != null) cloud.confirmPulled(remoteWords.confirmableCursor(newest));
+    }
+
+    /**
+     * معالجة المدخلات مع نظام "الاستنتاج التلقائي" (Auto-Inference)
+     */
+    public ProcessedInput processInput(String input, NeuralSeed.InternalState state) {
+        ProcessedInput result = new ProcessedInput();
+        result.originalText = input;
+        result.timestamp = System.currentTimeMillis();
+        
+        // 1. تحليل العواطف وتحديث حالة الكيان
+        result.detectedEmotions = emotionEngine.analyzeEmotions(input);
+        result.dominantEmotion = emotionEngine.getDominantEmotion(result.detectedEmotions);
+        
+        // 2. نظام التعلم التلقائي من السياق (X هو Y)
+        detectAndLearnFromPattern(input, state);
+
+        // 3. التحليل اللغوي واستخراج الكلمات المفتاحية
+        result.parseResults = parser.parseText(input);
+        result.keywords = parser.extractKeywords(input);
+        
+        // 4. تحديث سياق المحادثة
+        updateContext(input);
+        
+        // 5. إشعار الواجهة بالعاطفة المكتشفة
+        if (listener != null && result.dominantEmotion != null) {
+            double intensity = result.detectedEmotions.getOrDefault(result.dominantEmotion, 0.5);
+            listener.onEmotionDetected(result.dominantEmotion, intensity);
+        }
+        
+        return result;
+    }
+
+    /**
+     * محرك كشف الأنماط اللغوية للتعلم بدون تدخل بشري
+     */
+    private void detectAndLearnFromPattern(String input, NeuralSeed.InternalState state) {
+        String word = learnFromPattern(input);
+        if (word != null && state != null) {
+            reactToLearnedWord(word, state);
+        }
+    }
+    
+    /**
+     * التعلم من نمط التعريف وحده دون لمس حالة الكيان؛ يُرجع الكلمة المتعلمة أو null
+     */
+    private String learnFromPattern(String input) {
+        if (!isLearningEnabled) return null;
+
+        // نمط التعريف: "الكلمة هي/يعني/هو التعريف"
+        String pattern = "";
+        if (input.contains(" هو ")) pattern = " هو ";
+        else if (input.contains(" هي ")) pattern = " هي ";
+        else if (input.contains(" يعني ")) pattern = " يعني ";
+
+        if (!pattern.isEmpty()) {
+            String[] parts = input.split(pattern);
+            if (parts.length >= 2) {
+                String word = parts[0].trim();
+                String meaning = parts[1].trim();
+                
+                // حفظ الكلمة وتحديث الوعي
+                learnMeaning(word, meaning, "automatic_observation");
+                return word;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * رد فعل الكيان على كلمة تعلمها، بناءً على الطور الحالي (تحت قفل الحالة)
+     */
+    public static void reactToLearnedWord(String word, NeuralSeed.InternalState state) {
+        if (state.currentPhase == NeuralSeed.Phase.STABLE) {
+            state.narrative = "أضفت " + word + " إلى منطقي الخاص.";
+            state.existentialFitness += 0.01;
+        } else if (state.currentPhase == NeuralSeed.Phase.CHAOTIC) {
+            state.narrative = "كلمة " + word + " تزيد من تساؤلاتي..";
+            state.chaosIndex += 0.02;
+        }
+    }
+
+    /**
+     * تعلم معنى جديد وحفظه في الذاكرة الثلاثية (المحلية، السحابية، والوعي)
+     */
+    public void learnMeaning(String word, String meaning, String contextSource) {
+        // 1. إضافة للمجم الحلي (RAM)
+        lexicon.addWord(word, meaning);
+        
+        // 2. الحفظ في قاعدة البيانات المحلية (Local Disk)
+        if (database != null) {
+            ArabicLexicon.Word w = new ArabicLexicon.Word(word);
+            w.meanings.add(meaning);
+            database.saveWord(w);
+        }
+        
+        // 3. المزامنة مع السحابة (Cloud Memory)
+        if (isSyncEnabled && cloud != null) {
+            cloud.saveWord(word, meaning);
+        }
+        
+        // 4. إشعار المستمعين لتحديث الواجهة
+        if (listener != null) {
+            listener.onWordLearned(word, meaning);
+        }
+    }
+
+    /**
+     * توليد رد ذكي يدمج بين الحالة الشعورية والمعرفة المكتسبة
+     */
+    public GeneratedResponse generateResponse(String input, NeuralSeed.InternalState state) {
+        GeneratedResponse response = new GeneratedResponse();
+        ProcessedInput processed = processInput(input, state);
+        
+        if (sentenceGenerator != null) {
+            SentenceGenerator.Response generated = sentenceGenerator.generateResponse(input, state);
+            response.text = generated.text;
+            response.confidence = generated.confidence;
+            response.emotions = generated.emotions;
+        } else {
+            response.text = generateDefaultResponse(input, processed);
+            response.confidence = 0.5;
+        }
+        
+        // حفظ الرد في سجل المحادثات
+        if (database != null) database.saveConversation(input, response.text, response.emotions, "ai");
+        
+        return response;
+    }
+
+    // ===== المعالجة غير المتزامنة =====
+    
+    /**
+     * توليد رد على خيط المعالجة اللغوية. لا يُلغى رد على رسالة المستخدم بطلب لاحق،
+     * فلكل رسالة ردها بالترتيب. الحالة تُؤخذ على خيط المعالجة عند بدء التنفيذ وليس عند الإرسال.
+     */
+    public Future<GeneratedResponse> generateResponseAsync(String input,
+                                                           Supplier<NeuralSeed.InternalState> stateSupplier,
+                                                           ResultCallback<GeneratedResponse> callback) {
+        return submitRequest(() -> generateResponse(input, stateSupplier.get()), callback, null);
+    }
+    
+    /**
+     * توليد سؤال؛ السؤال الجديد يلغي السؤال السابق إن لم يكتمل، ولا يمس الردود المعلقة.
+     */
+    public Future<String> generateQuestionAsync(Supplier<NeuralSeed.InternalState> stateSupplier,
+                                                ResultCallback<String> callback) {
+        return submitRequest(() -> generateQuestion(stateSupplier.get()), callback, pendingQuestion);
+    }
+    
+    /**
+     * @param latest مرجع آخر طلب من النوع نفسه ليُلغى سابقه، أو null إن كان لا يُلغى
+     */
+    private <T> Future<T> submitRequest(Callable<T> work, ResultCallback<T> callback,
+                                        AtomicReference<Future<?>> latest) {
+        FutureTask<T> task = new FutureTask<T>(work) {
+            @Override
+            protected void done() {
+                pendingRequests.remove(this);
+                if (latest != null) latest.compareAndSet(this, null);
+                // الطلب الملغى لا يصل إلى الواجهة حتى لو اكتمل تنفيذه
+                if (isCancelled() || callback == null) return;
+                try {
+                    callback.onResult(get());
+                } catch (ExecutionException e) {
+                    SeedLog.e("LinguisticCortex", "NLP request failed: " + e.getCause());
+                    callback.onError(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        
+        pendingRequests.add(task);
+        if (latest != null) {
+            Future<?> previous = latest.getAndSet(task);
+            if (previous != null) {
+                previous.cancel(false);
+            }
+        }
+        nlpExecutor.execute(task);
+        return task;
+    }
+    
+    /**
+     * إلغاء كل الطلبات المعلقة (عند مغادرة الشاشة مثلاً)
+     */
+    public void cancelPendingRequest() {
+        pendingQuestion.set(null);
+        for (Future<?> pending : pendingRequests) {
+            pending.cancel(false);
+        }
+    }
+    
+    public void shutdown() {
+        cancelPendingRequest();
+        nlpExecutor.shutdown();
+        if (cloud != null) cloud.shutdown();
+        if (remoteWords != null) remoteWords.shutdown();
+    }
+    
+    /**
+     * كتابة ما في طابور قاعدة البيانات على القرص فوراً
+     */
+    public void flushPendingWrites() {
+        if (database != null) database.flush();
+    }
+
+    private String generateDefaultResponse(String input, ProcessedInput processed) {
+        if (input.contains("مرحبا")) return "أهلاً بك في فضاء وعيي.";
+        if (input.contains("؟")) return "سؤالك يلمس أوتار تفكيري.. دعني أحلله.";
+        return "أنا أسمعك.. واصل إخباري.";
+    }
+
+    private void updateContext(String input) {
+        conversationContext.add(input);
+        if (conversationContext.size() > 10) conversationContext.remove(0);
+    }
+
+    private void loadSavedData() {
+        if (database == null) return;
+        List<ArabicLexicon.Word> savedWords = database.loadAllWords();
+        for (ArabicLexicon.Word word : savedWords) {
+            mergeSavedWord(word);
+        }
+    }
+    
+    private void mergeSavedWord(ArabicLexicon.Word word) {
+        ArabicLexicon.Word existing = lexicon.getWord(word.form);
+        lexicon.putWord(existing != null ? LexiconImage.merge(existing, word) : word);
+    }
+
+    public void learnSentence(String sentence, NeuralSeed.InternalState state) {
+        if (learningSystem != null) learningSystem.learnFromExample(sentence, "observed");
+        detectAndLearnFromPattern(sentence, state);
+    }
+    
+    /**
+     * تعلم جملة دون لمس حالة الكيان، فيمكن استدعاؤه خارج قفل الحالة. يُرجع الكلمة
+     * المتعلمة من نمط تعريف (أو null) ليُطبَّق رد الفعل عليها تحت القفل.
+     */
+    public String learnSentence(String sentence) {
+        if (learningSystem != null) learningSystem.learnFromExample(sentence, "observed");
+        return learnFromPattern(sentence);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("lexicon_size", lexicon.getWordCount());
+        stats.put("context_depth", conversationContext.size());
+        if (database != null) stats.putAll(database.getStatistics());
+        if (remoteWords != null) stats.putAll(remoteWords.getStatistics());
+        if (cloud != null) stats.putAll(cloud.getStatistics());
+        return stats;
+    }
+
+    /**
+     * دمج كلمات المستودع في المعجم وإعادة بناء صورته (بعد استيراد نسخة مثلاً)
+     */
+    public void reloadSavedData() {
+        loadSavedData();
+        rebuildLexiconImage();
+    }
+
+    public String explainWord(String word) {
+        ArabicLexicon.Word w = lexicon.getWordByForm(word);
+        return (w == null) ? "لم أستوعب " + word + " بعد." : word + " تعني " + String.join("، ", w.meanings);
+    }
+
+    public String generateQuestion(NeuralSeed.InternalState state) {
+        if (sentenceGenerator != null) return sentenceGenerator.generateQuestion(state);
+        return "ما هو جوهر الوجود بالنسبة لك؟";
+    }
+
+    // Getters & Setters
+    public ArabicLexicon getLexicon() { return lexicon; }
+    public boolean hasSharedBase() { return sharedBase; }
+    public SeedRepository getRepository() { return database; }
+    public CloudMemory getCloud() { return cloud; }
+    public void setListener(LinguisticListener listener) { this.listener = listener; }
+    public void setSyncEnabled(boolean enabled) { this.isSyncEnabled = enabled; }
+
+    // الكلاسات المساعدة للبيانات
+    public static class ProcessedInput {
+        public String originalText;
+        public long timestamp;
+        public List<ArabicParser.ParseResult> parseResults;
+        public Map<String, Double> detectedEmotions;
+        public String dominantEmotion;
+        public List<String> keywords;
+    }
+    
+    public static class GeneratedResponse {
+        public String text;
+        public double confidence;
+        public Map<String, Double> emotions;
+    }
+}
@@ -1,9 +1,12 @@
 package com.neuralseed;
 
-import android.graphics.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * بذرة وعي متطورة مع نظام لغوي متكامل
@@ -24,17 +27,18 @@ public class NeuralSeed {
     
     // الحالة المركزية
     private final AtomicReference<InternalState> selfRef;
-    private final Object stateLock = new Object();
+    // قفل صريح لا مزامنة: الخيط الافتراضي المنتظر على synchronized يثبّت حامله
+    private final ReentrantLock stateLock = new ReentrantLock();
     
     // الأطوار
     public enum Phase {
-        EMBRYONIC("جنيني", Color.parseColor("#E8F5E9")),
-        STABLE("مستقر", Color.parseColor("#BBDEFB")),
-        CHAOTIC("فوضوي", Color.parseColor("#FFCCBC")),
-        TRANSITIONING("انتقالي", Color.parseColor("#FFF9C4")),
-        REORGANIZING("إعادة تنظيم", Color.parseColor("#E1BEE7")),
-        COLLAPSING("انهيار", Color.parseColor("#424242")),
-        EMERGENT("ناشئ", Color.parseColor("#B2DFDB"));
+        EMBRYONIC("جنيني", SeedColors.parse("#E8F5E9")),
+        STABLE("مستقر", SeedColors.parse("#BBDEFB")),
+        CHAOTIC("فوضوي", SeedColors.parse("#FFCCBC")),
+        TRANSITIONING("انتقالي", SeedColors.parse("#FFF9C4")),
+        REORGANIZING("إعادة تنظيم", SeedColors.parse("#E1BEE7")),
+        COLLAPSING("انهيار", SeedColors.parse("#424242")),
+        EMERGENT("ناشئ", SeedColors.parse("#B2DFDB"));
         
         final String arabic;
         final int color;
@@ -45,7 +49,14 @@ public class NeuralSeed {
         }
     }
     
+    // خط المدخلات: دفعة كل دورة محدودة العدد والزمن حتى لا يجمّد سيل اللمسات المحاكاة
+    private static final int INPUT_BATCH_MAX = 64;
+    private static final long INPUT_TICK_BUDGET_NANOS = 4_000_000;
+    private static final long INPUT_IDLE_WAIT_MS = 50;
+    private volatile InputPipeline inputs = new InputPipeline();
+    
     // الخيوط
+    private final ThreadFactory threadFactory;
     private final Thread chaosThread, egoThread, phaseThread, neuralThread;
     private final Thread visualThread, inputThread, goalThread, identityThread;
     private volatile boolean isRunning = true;
@@ -58,28 +69,56 @@ public class NeuralSeed {
         void onEgoShift(EgoFragment oldDominant, EgoFragment newDominant);
         void onGoalAchieved(Goal goal);
         void onIdentityEvolution(IdentityCore oldIdentity, IdentityCore newIdentity);
-        void onVisualExpression(Bitmap expression);
+        void onVisualExpression(VisualFrame frame);
         void onMemoryFormed(Memory memory);
         void onRuleRewritten(Rule oldRule, Rule newRule);
     }
     
+    /**
+     * خيوط النظام العادية بأولوياتها؛ ثمانية خيوط لكل بذرة
+     */
+    public static final ThreadFactory PLATFORM_THREADS = Thread::new;
+    
     public NeuralSeed() {
-        InternalState initialState = new InternalState();
+        this(new LinguisticCortex());
+    }
+    
+    /**
+     * بذرة بقشرة لغوية جاهزة (مثلاً فوق معجم أساسي مشترك بين بذور كثيرة)
+     */
+    public NeuralSeed(LinguisticCortex linguistic) {
+        this(linguistic, PLATFORM_THREADS);
+    }
+    
+    /**
+     * بذرة تُشغَّل دوراتها على خيوط من المصنع المعطى. على JVM 21 يمكن تمرير
+     * Thread.ofVirtual().factory() فتصير الدورات خيوطاً افتراضية على حاملات مشتركة
+     * بين كل البذور؛ الأولويات لا أثر لها عندئذ.
+     */
+    public NeuralSeed(LinguisticCortex linguistic, ThreadFactory threadFactory) {
+        InternalState initialState = new InternalState(linguistic);
         initialState.seed = this;
         this.selfRef = new AtomicReference<>(initialState);
+        this.threadFactory = threadFactory;
         
-        this.chaosThread = new Thread(this::chaosCycle, "ChaosEngine");
-        this.egoThread = new Thread(this::egoConflictCycle, "EgoConflict");
-        this.phaseThread = new Thread(this::phaseCycle, "PhaseMonitor");
-        this.neuralThread = new Thread(this::neuralEvolutionCycle, "NeuralEvolution");
-        this.visualThread = new Thread(this::visualCycle, "VisualExpression");
-        this.inputThread = new Thread(this::inputProcessingCycle, "InputProcessor");
-        this.goalThread = new Thread(this::goalCycle, "GoalGenerator");
-        this.identityThread = new Thread(this::identityCycle, "IdentityEvolution");
+        this.chaosThread = newCycleThread(this::chaosCycle, "ChaosEngine");
+        this.egoThread = newCycleThread(this::egoConflictCycle, "EgoConflict");
+        this.phaseThread = newCycleThread(this::phaseCycle, "PhaseMonitor");
+        this.neuralThread = newCycleThread(this::neuralEvolutionCycle, "NeuralEvolution");
+        this.visualThread = newCycleThread(this::visualCycle, "VisualExpression");
+        this.inputThread = newCycleThread(this::inputProcessingCycle, "InputProcessor");
+        this.goalThread = newCycleThread(this::goalCycle, "GoalGenerator");
+        this.identityThread = newCycleThread(this::identityCycle, "IdentityEvolution");
         
         setThreadPriorities();
     }
     
+    private Thread newCycleThread(Runnable cycle, String name) {
+        Thread thread = threadFactory.newThread(cycle);
+        thread.setName(name);
+        return thread;
+    }
+    
     private void setThreadPriorities() {
         chaosThread.setPriority(Thread.MAX_PRIORITY);
         egoThread.setPriority(Thread.MAX_PRIORITY);
@@ -93,7 +132,10 @@ public class NeuralSeed {
     
     public void awaken() {
         InternalState state = selfRef.get();
-        state.birthTime = System.currentTimeMillis();
+        // البذرة المستعادة من لقطة تحتفظ بزمن ولادتها
+        if (state.birthTime == 0) {
+            state.birthTime = System.currentTimeMillis();
+        }
         
         chaosThread.start();
         egoThread.start();
@@ -107,6 +149,7 @@ public class NeuralSeed {
     
     public void sleep() {
         isRunning = false;
+        inputs.close();
         interruptAllThreads();
     }
     
@@ -135,7 +178,8 @@ public class NeuralSeed {
         while (isRunning) {
             try {
                 InternalState state = selfRef.get();
-                synchronized (stateLock) {
+                stateLock.lock();
+                try {
                     double dx = LORENZ_SIGMA * (state.lorenzY - state.lorenzX) * DT;
                     double dy = (state.lorenzX * (LORENZ_RHO - state.lorenzZ) - state.lorenzY) * DT;
                     double dz = (state.lorenzX * state.lorenzY - LORENZ_BETA * state.lorenzZ) * DT;
@@ -151,6 +195,8 @@ public class NeuralSeed {
                     state.chaosIndex = Math.min(1.0, distance / 50.0);
                     updateEgoFromChaos(state);
                     state.neural.applyChaos(state.chaosIndex);
+                } finally {
+                    stateLock.unlock();
                 }
                 Thread.sleep(10);
             } catch (InterruptedException e) {
@@ -176,7 +222,8 @@ public class NeuralSeed {
         while (isRunning) {
             try {
                 InternalState state = selfRef.get();
-                synchronized (stateLock) {
+                stateLock.lock();
+                try {
                     EgoFragment oldDominant = state.dominantEgo;
                     double maxScore = -1;
                     EgoFragment newDominant = null;
@@ -210,6 +257,8 @@ public class NeuralSeed {
                             listener.onEgoShift(oldDominant, newDominant);
                         }
                     }
+                } finally {
+                    stateLock.unlock();
                 }
                 Thread.sleep(100);
             } catch (InterruptedException e) {
@@ -271,7 +320,8 @@ public class NeuralSeed {
                 Phase newPhase = determinePhase(state);
                 
                 if (newPhase != oldPhase) {
-                    synchronized (stateLock) {
+                    stateLock.lock();
+                    try {
                         state.currentPhase = newPhase;
                         state.phaseTransitionTime = System.currentTimeMillis();
                         applyPhaseTransitionEffects(state, oldPhase, newPhase);
@@ -281,6 +331,8 @@ public class NeuralSeed {
                         for (ConsciousnessListener listener : listeners) {
                             listener.onPhaseTransition(oldPhase, newPhase, reason);
                         }
+                    } finally {
+                        stateLock.unlock();
                     }
                 }
                 
@@ -368,7 +420,8 @@ public class NeuralSeed {
         while (isRunning) {
             try {
                 InternalState state = selfRef.get();
-                synchronized (stateLock) {
+                stateLock.lock();
+                try {
                     double oldFitness = state.existentialFitness;
                     state.existentialFitness = calculateExistentialFitness(state);
                     
@@ -384,6 +437,8 @@ public class NeuralSeed {
                     if (state.dominantEgo != null) {
                         state.neural.adaptToEgo(state.dominantEgo);
                     }
+                } finally {
+                    stateLock.unlock();
                 }
                 Thread.sleep(500);
             } catch (InterruptedException e) {
@@ -416,13 +471,16 @@ public class NeuralSeed {
         while (isRunning) {
             try {
                 InternalState state = selfRef.get();
-                synchronized (stateLock) {
-                    state.visual.updateCanvas(state, state.canvas);
-                    Bitmap safeCopy = state.canvas.copy(Bitmap.Config.ARGB_8888, false);
+                stateLock.lock();
+                try {
+                    // الإطار وصف غير قابل للتعديل، فيُسلَّم كما هو دون نسخ
+                    state.frame = state.visual.render(state);
                     
                     for (ConsciousnessListener listener : listeners) {
-                        listener.onVisualExpression(safeCopy);
+                        listener.onVisualExpression(state.frame);
                     }
+                } finally {
+                    stateLock.unlock();
                 }
                 Thread.sleep(100);
             } catch (InterruptedException e) {
@@ -434,23 +492,65 @@ public class NeuralSeed {
     // ===== دورة معالجة المدخلات =====
     
     private void inputProcessingCycle() {
+        List<String> sentences = new ArrayList<>();
+        List<String> learned = new ArrayList<>();
         while (isRunning) {
             try {
                 InternalState state = selfRef.get();
-                synchronized (stateLock) {
-                    while (!state.pendingInputs.isEmpty()) {
-                        Input input = state.pendingInputs.poll();
-                        processInput(state, input);
+                InputPipeline pipeline = inputs;
+                
+                // 1. الذاكرة والفوضى تحت القفل، بدفعة محدودة العدد والزمن
+                stateLock.lock();
+                try {
+                    long started = System.nanoTime();
+                    for (int i = 0; i < INPUT_BATCH_MAX; i++) {
+                        Input input = pipeline.poll();
+                        if (input == null) break;
+                        String sentence = processInput(state, input);
+                        if (sentence != null) sentences.add(sentence);
+                        if (System.nanoTime() - started > INPUT_TICK_BUDGET_NANOS) break;
                     }
+                } finally {
+                    stateLock.unlock();
                 }
-                Thread.sleep(50);
+                
+                // 2. تعلم اللغة (تحليل وحفظ في المستودع) خارج القفل؛ فشل جملة واحدة
+                // (عطل في المستودع مثلاً) لا يوقف خيط المدخلات ولا يُبقي الدفعة معلقة
+                for (String sentence : sentences) {
+                    try {
+                        String word = state.linguistic.learnSentence(sentence);
+                        if (word != null) learned.add(word);
+                    } catch (RuntimeException e) {
+                        SeedLog.e("NeuralSeed", "Learning sentence failed: " + e);
+                    }
+                }
+                sentences.clear();
+                
+                // 3. رد فعل الكيان على ما تعلمه، تحت القفل لحظة واحدة
+                if (!learned.isEmpty()) {
+                    stateLock.lock();
+                    try {
+                        for (String word : learned) {
+                            LinguisticCortex.reactToLearnedWord(word, state);
+                        }
+                    } finally {
+                        stateLock.unlock();
+                    }
+                    learned.clear();
+                }
+                
+                // ما بقي في الخط يُعالج في الدورة التالية مباشرة، وإلا ننتظر وصول مدخل
+                pipeline.awaitInput(INPUT_IDLE_WAIT_MS);
             } catch (InterruptedException e) {
                 break;
             }
         }
     }
     
-    private void processInput(InternalState state, Input input) {
+    /**
+     * أثر المدخل على الذاكرة والهوية والفوضى (تحت القفل)؛ يُرجع النص المراد تعلمه أو null
+     */
+    private String processInput(InternalState state, Input input) {
         EmotionalVector emotion = input.toEmotionalVector();
         Memory memory = new Memory(input, emotion, state.dominantEgo, state.currentPhase);
         memory.importance = emotion.intensity;
@@ -459,19 +559,14 @@ public class NeuralSeed {
         state.memory.store(memory);
         state.identity.updateFromMemory(memory);
         
-        // تعلم اللغة
-        if (input.type == InputType.SPEECH || input.type == InputType.NEUTRAL) {
-            if (input.speechText != null) {
-                state.linguistic.learnSentence(input.speechText, state);
-            } else if (input.content != null) {
-                state.linguistic.learnSentence(input.content, state);
-            }
-        }
-        
         // تأثير المدخل على الفوضى
         if (input.type == InputType.TOUCH) {
             state.lorenzX += (input.touchX / 500.0 - 0.5) * 0.5;
             state.lorenzY += (input.touchY / 500.0 - 0.5) * 0.5;
+            // السحب السريع يهز النظام بقدر ما كانت عيناته ستفعل مجتمعة
+            if (input.gesture == Gesture.SWIPE) {
+                state.lorenzZ += Math.min(1.0, Math.hypot(input.velocityX, input.velocityY) / 2000.0) * 0.3;
+            }
         } else if (input.type == InputType.SPEECH) {
             state.lorenzZ += emotion.intensity * 0.2;
         } else {
@@ -481,6 +576,13 @@ public class NeuralSeed {
         for (ConsciousnessListener listener : listeners) {
             listener.onMemoryFormed(memory);
         }
+        
+        // تعلم اللغة يتم بعد تحرير القفل
+        if (input.type == InputType.SPEECH || input.type == InputType.NEUTRAL) {
+            if (input.speechText != null) return input.speechText;
+            if (input.content != null) return input.content;
+        }
+        return null;
     }
     
     // ===== دورة توليد الأهداف =====
@@ -489,7 +591,8 @@ public class NeuralSeed {
         while (isRunning) {
             try {
                 InternalState state = selfRef.get();
-                synchronized (stateLock) {
+                stateLock.lock();
+                try {
                     for (Goal goal : state.goals) {
                         updateGoalProgress(state, goal);
                     }
@@ -515,6 +618,8 @@ public class NeuralSeed {
                             state.currentGoal = newGoal;
                         }
                     }
+                } finally {
+                    stateLock.unlock();
                 }
                 Thread.sleep(300);
             } catch (InterruptedException e) {
@@ -555,7 +660,8 @@ public class NeuralSeed {
         while (isRunning) {
             try {
                 InternalState state = selfRef.get();
-                synchronized (stateLock) {
+                stateLock.lock();
+                try {
                     IdentityCore oldIdentity = state.identity.copy();
                     state.identity.evolveFromExperiences(state.memory);
                     
@@ -579,6 +685,8 @@ public class NeuralSeed {
                             listener.onIdentityEvolution(oldIdentity, state.identity);
                         }
                     }
+                } finally {
+                    stateLock.unlock();
                 }
                 Thread.sleep(1000);
             } catch (InterruptedException e) {
@@ -589,18 +697,37 @@ public class NeuralSeed {
     
     // ===== واجهة برمجة عامة =====
     
-    public void receiveInput(Input input) {
-        InternalState state = selfRef.get();
-        state.pendingInputs.offer(input);
+    /**
+     * إرسال مدخل إلى خط المدخلات؛ false إذا رُفض (البذرة نائمة أو قُطع انتظار BLOCK)
+     */
+    public boolean receiveInput(Input input) {
+        return inputs.offer(input);
+    }
+    
+    /**
+     * استبدال خط المدخلات (السعة وسياسة الفيض) قبل awaken()
+     */
+    public void configureInput(InputPipeline pipeline) {
+        if (inputThread.isAlive()) {
+            throw new IllegalStateException("Input pipeline must be configured before awaken()");
+        }
+        this.inputs = pipeline;
+    }
+    
+    public Map<String, Object> getInputStatistics() {
+        return inputs.getStatistics();
     }
     
     public void updateAudioLevel(float level) {
         InternalState state = selfRef.get();
-        synchronized (stateLock) {
+        stateLock.lock();
+        try {
             if (state.recentAudioLevels.size() >= 100) {
                 state.recentAudioLevels.remove(0);
             }
             state.recentAudioLevels.add(level);
+        } finally {
+            stateLock.unlock();
         }
     }
     
@@ -608,6 +735,13 @@ public class NeuralSeed {
         return selfRef.get().copy();
     }
     
+    /**
+     * نسخة من الحالة، مع آخر إطار بصري أو بدونه لمن يحتاج القيم فقط
+     */
+    public InternalState getCurrentState(boolean includeFrame) {
+        return selfRef.get().copy(includeFrame);
+    }
+    
     public Phase getCurrentPhase() {
         return selfRef.get().currentPhase;
     }
@@ -636,6 +770,59 @@ public class NeuralSeed {
         return selfRef.get().linguistic;
     }
     
+    // ===== اللقطة =====
+    
+    /**
+     * حفظ الحالة كاملة؛ الترميز تحت القفل في الذاكرة، والكتابة على القرص خارجه
+     */
+    public void saveSnapshot(File file) throws IOException {
+        InternalState state = selfRef.get();
+        Map<Integer, ByteBuffer> sections;
+        stateLock.lock();
+        try {
+            sections = SeedSnapshotCodec.encode(state);
+        } finally {
+            stateLock.unlock();
+        }
+        // فوق معجم مشترك تكفي طبقة الجلسة في مستودعها، ونسخ المعجم كله يضاعف الذاكرة
+        if (state.linguistic != null && !state.linguistic.hasSharedBase()) {
+            sections.put(SeedSnapshotCodec.SECTION_LEXICON,
+                         SeedSnapshotCodec.encodeLexicon(state.linguistic.getLexicon()));
+        }
+        SeedSnapshot.write(file, sections);
+    }
+    
+    /**
+     * استعادة بذرة محفوظة قبل awaken(). كل قسم يُستعاد مستقلاً: القسم التالف
+     * يبقى مكونه بقيمه الابتدائية وتُستعاد البقية. تُرجع null إذا لم يكن الملف
+     * موجوداً أو لم يُقرأ رأسه، وإلا الأقسام المستعادة والتالفة.
+     */
+    public SeedSnapshotCodec.DecodeResult restoreSnapshot(File file) {
+        if (!file.isFile()) return null;
+        
+        InternalState state = selfRef.get();
+        try (SeedSnapshot snapshot = SeedSnapshot.open(file)) {
+            SeedSnapshotCodec.DecodeResult result;
+            stateLock.lock();
+            try {
+                result = SeedSnapshotCodec.decode(snapshot, state);
+            } finally {
+                stateLock.unlock();
+            }
+            if (state.linguistic != null && !state.linguistic.hasSharedBase()) {
+                CompactLexicon lexicon = SeedSnapshotCodec.decodeLexicon(snapshot, result);
+                if (lexicon != null) state.linguistic.getLexicon().resetToBase(lexicon);
+            }
+            if (!result.isComplete()) {
+                SeedLog.w("NeuralSeed", "Snapshot sections skipped: " + result.failed);
+            }
+            return result;
+        } catch (IOException e) {
+            SeedLog.w("NeuralSeed", "Snapshot restore failed: " + e.getMessage());
+            return null;
+        }
+    }
+    
     // ===== الحالة الداخلية =====
     
     public static class InternalState {
@@ -648,28 +835,68 @@ public class NeuralSeed {
         double existentialFitness = 0.5;
         double internalConflict = 0.0;
         
+        // آخر ما قالته البذرة عن نفسها
+        String narrative = null;
+        
         List<EgoFragment> egos = new ArrayList<>();
         EgoFragment dominantEgo = null;
         
-        DynamicNeuralNetwork neural = new DynamicNeuralNetwork(this);
-        AssociativeMemory memory = new AssociativeMemory(this);
-        IdentityCore identity = new IdentityCore(this);
-        VisualCortex visual = new VisualCortex(this);
-        RuleSystem rules = new RuleSystem(this);
+        // المكونات تُنشأ في الحالة الأصلية فقط وتتشاركها النسخ
+        DynamicNeuralNetwork neural;
+        AssociativeMemory memory;
+        IdentityCore identity;
+        VisualCortex visual;
+        RuleSystem rules;
         
         List<Goal> goals = new ArrayList<>();
         Goal currentGoal = null;
         
-        public Bitmap canvas;
+        public VisualFrame frame;
         public List<Float> recentAudioLevels = new ArrayList<>();
-        public LinguisticCortex linguistic = new LinguisticCortex();
-        
-        ConcurrentLinkedQueue<Input> pendingInputs = new ConcurrentLinkedQueue<>();
+        public LinguisticCortex linguistic;
         
         public InternalState() {
+            this(new LinguisticCortex());
+        }
+        
+        InternalState(LinguisticCortex linguistic) {
+            neural = new DynamicNeuralNetwork(this);
+            memory = new AssociativeMemory(this);
+            identity = new IdentityCore(this);
+            visual = new VisualCortex(this);
+            rules = new RuleSystem(this);
+            this.linguistic = linguistic;
+            
             initializeEgos();
-            canvas = Bitmap.createBitmap(500, 500, Bitmap.Config.ARGB_8888);
-            canvas.eraseColor(Color.BLACK);
+        }
+        
+        /**
+         * نسخة خفيفة: تنسخ القيم وتشارك المكونات، والإطار البصري اختياري
+         */
+        private InternalState(InternalState source, boolean includeFrame) {
+            seed = source.seed;
+            lorenzX = source.lorenzX;
+            lorenzY = source.lorenzY;
+            lorenzZ = source.lorenzZ;
+            chaosIndex = source.chaosIndex;
+            currentPhase = source.currentPhase;
+            phaseTransitionTime = source.phaseTransitionTime;
+            birthTime = source.birthTime;
+            existentialFitness = source.existentialFitness;
+            internalConflict = source.internalConflict;
+            narrative = source.narrative;
+            egos = new ArrayList<>(source.egos);
+            dominantEgo = source.dominantEgo;
+            neural = source.neural;
+            memory = source.memory;
+            identity = source.identity;
+            visual = source.visual;
+            rules = source.rules;
+            goals = new ArrayList<>(source.goals);
+            currentGoal = source.currentGoal;
+            frame = includeFrame ? source.frame : null;
+            recentAudioLevels = new ArrayList<>(source.recentAudioLevels);
+            linguistic = source.linguistic;
         }
         
         private void initializeEgos() {
@@ -719,30 +946,11 @@ public class NeuralSeed {
         }
         
         public InternalState copy() {
-            InternalState copy = new InternalState();
-            copy.seed = this.seed;
-            copy.lorenzX = this.lorenzX;
-            copy.lorenzY = this.lorenzY;
-            copy.lorenzZ = this.lorenzZ;
-            copy.chaosIndex = this.chaosIndex;
-            copy.currentPhase = this.currentPhase;
-            copy.phaseTransitionTime = this.phaseTransitionTime;
-            copy.birthTime = this.birthTime;
-            copy.existentialFitness = this.existentialFitness;
-            copy.internalConflict = this.internalConflict;
-            copy.egos = new ArrayList<>(this.egos);
-            copy.dominantEgo = this.dominantEgo;
-            copy.neural = this.neural;
-            copy.memory = this.memory;
-            copy.identity = this.identity;
-            copy.visual = this.visual;
-            copy.rules = this.rules;
-            copy.goals = new ArrayList<>(this.goals);
-            copy.currentGoal = this.currentGoal;
-            copy.canvas = this.canvas.copy(Bitmap.Config.ARGB_8888, false);
-            copy.recentAudioLevels = new ArrayList<>(this.recentAudioLevels);
-            copy.linguistic = this.linguistic;
-            return copy;
+            return copy(true);
+        }
+        
+        public InternalState copy(boolean includeFrame) {
+            return new InternalState(this, includeFrame);
         }
     }
     
@@ -769,7 +977,7 @@ public class NeuralSeed {
             int r = (int) ((anger + fear) * 127.5);
             int g = (int) ((joy + curiosity) * 127.5);
             int b = (int) ((sadness + fear * 0.5) * 127.5);
-            return Color.rgb(Math.min(255, r), Math.min(255, g), Math.min(255, b));
+            return SeedColors.rgb(Math.min(255, r), Math.min(255, g), Math.min(255, b));
         }
     }
     
@@ -860,6 +1068,11 @@ public class NeuralSeed {
         public float touchX, touchY;
         public String speechText;
         
+        // الإيماءة المجمّعة من عينات اللمس؛ null للمسة خام
+        public Gesture gesture;
+        public float velocityX, velocityY;
+        public long durationMillis;
+        
         public Input(String content, InputType type, double intensity) {
             this.content = content;
             this.type = type;
@@ -876,6 +1089,23 @@ public class NeuralSeed {
             return input;
         }
         
+        /**
+         * إيماءة كاملة بدل عيناتها: الموضع هو آخر موضع، والسرعة بكسل في الثانية
+         */
+        public static Input createGestureInput(Gesture gesture, float x, float y,
+                                               float velocityX, float velocityY, long durationMillis) {
+            Input input = new Input(gesture.label, InputType.TOUCH, gesture.intensityFor(
+                    Math.hypot(velocityX, velocityY), durationMillis));
+            input.isTouch = true;
+            input.touchX = x;
+            input.touchY = y;
+            input.gesture = gesture;
+            input.velocityX = velocityX;
+            input.velocityY = velocityY;
+            input.durationMillis = durationMillis;
+            return input;
+        }
+        
         public static Input createSpeechInput(String text) {
             Input input = new Input(text, InputType.SPEECH, 0.7);
             input.speechText = text;
@@ -920,6 +1150,27 @@ public class NeuralSeed {
         POSITIVE, NEGATIVE, THREAT, OPPORTUNITY, NEUTRAL, TOUCH, SPEECH
     }
     
+    public enum Gesture {
+        TAP("tap"), SWIPE("swipe"), HOLD("hold");
+        
+        final String label;
+        
+        Gesture(String label) {
+            this.label = label;
+        }
+        
+        /**
+         * شدة الإيماءة: النقرة كاللمسة الخام، والسحب بسرعته، والضغط المطوّل بمدته
+         */
+        double intensityFor(double speed, long durationMillis) {
+            switch (this) {
+                case SWIPE: return Math.min(1.0, 0.4 + speed / 3000.0);
+                case HOLD: return Math.min(1.0, 0.5 + durationMillis / 4000.0);
+                default: return 0.5;
+            }
+        }
+    }
+    
     public static class Memory {
         Input input;
         EmotionalVector emotion;
@@ -1161,41 +1412,27 @@ public class NeuralSeed {
     
     public static class VisualCortex {
         InternalState parent;
-        private Paint paint = new Paint();
         private Random random = new Random();
         
         public VisualCortex(InternalState parent) {
             this.parent = parent;
         }
         
-        public void updateCanvas(InternalState state, Bitmap canvas) {
-            // رسم التعبير البصري
-            Canvas c = new Canvas(canvas);
-            c.drawColor(Color.BLACK);
-            
-            // رسم دوائر متحركة
-            int centerX = canvas.getWidth() / 2;
-            int centerY = canvas.getHeight() / 2;
-            
-            paint.setStyle(Paint.Style.STROKE);
-            paint.setStrokeWidth(3);
-            
-            // لون بناءً على الطور
-            int color = state.currentPhase.color;
-            paint.setColor(color);
+        /**
+         * وصف التعبير البصري للحالة: حلقات نابضة بلون الطور ونقطة مركزية
+         */
+        public VisualFrame render(InternalState state) {
+            long now = System.currentTimeMillis();
+            float center = VisualFrame.SIZE / 2f;
             
-            // رسم دوائر
+            float[] radii = new float[5];
+            int[] alphas = new int[5];
             for (int i = 0; i < 5; i++) {
-                float radius = 50 + i * 40 + (float)(Math.sin(System.currentTimeMillis() / 1000.0 + i) * 20);
-                int alpha = (int)(200 - i * 30);
-                paint.setAlpha(alpha);
-                c.drawCircle(centerX, centerY, radius, paint);
+                radii[i] = 50 + i * 40 + (float)(Math.sin(now / 1000.0 + i) * 20);
+                alphas[i] = 200 - i * 30;
             }
             
-            // رسم نقطة مركزية
-            paint.setStyle(Paint.Style.FILL);
-            paint.setAlpha(255);
-            c.drawCircle(centerX, centerY, 20, paint);
+            return new VisualFrame(now, state.currentPhase.color, center, center, 20, radii, alphas);
         }
     }
     
@@ -0,0 +1,167 @@
+package com.neuralseed;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * ذاكرة قراءة محدودة (LRU) أمام استعلامات قاعدة البيانات
+ *
+ * القيمة الغائبة تُحمَّل من القاعدة مرة واحدة ثم تُخدم من الذاكرة حتى تُبطَل
+ * بالكتابة. تُخزَّن النتائج الفارغة أيضاً، فالبحث المتكرر عن كلمة أو تصحيح غير
+ * موجود لا يفتح مؤشراً في كل مرة. الحد بعدد العناصر وبحجم تقديري بالبايت،
+ * ويُطرد الأقل استخداماً أولاً عند تجاوز أي منهما.
+ */
+public class ReadThroughCache<K, V> {
+
+    /**
+     * تحميل القيمة من المصدر عند غيابها؛ قد تعيد null
+     */
+    public interface Loader<K, V> {
+        V load(K key);
+    }
+
+    /**
+     * الحجم التقديري لعنصر بالبايت
+     */
+    public interface Weigher<K, V> {
+        int weigh(K key, V value);
+    }
+
+    // كلفة المدخل نفسه في الخريطة (العقدة والمفتاح والمراجع)
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private static class Entry<V> {
+        final V value;
+        final int weight;
+
+        Entry(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final String name;
+    private final Weigher<K, V> weigher;
+
+    // ترتيب الوصول: الأقدم استخداماً في أول الخريطة
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int maxEntries;
+    private long maxBytes;
+    private long bytes = 0;
+
+    // يزداد مع كل كتابة؛ التحميل الذي تخطته كتابة لا يُخزَّن لأنه قد يكون قديماً
+    private long version = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    public ReadThroughCache(String name, int maxEntries, long maxBytes, Weigher<K, V> weigher) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+    }
+
+    // ===== القراءة =====
+
+    /**
+     * القيمة من الذاكرة، أو من المحمّل خارج القفل ثم تُخزَّن
+     */
+    public V get(K key, Loader<K, V> loader) {
+        long loadVersion;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.value;
+            }
+            misses++;
+            loadVersion = version;
+        }
+
+        V value = loader.load(key);
+
+        synchronized (this) {
+            if (version == loadVersion) store(key, value);
+        }
+        return value;
+    }
+
+    // ===== الكتابة والإبطال =====
+
+    /**
+     * تعديل القيمة المخزنة إن وُجدت دون المرور بالمصدر
+     */
+    public synchronized void update(K key, UnaryOperator<V> updater) {
+        version++;
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.value != null) store(key, updater.apply(entry.value));
+    }
+
+    public synchronized void invalidate(K key) {
+        version++;
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            bytes -= entry.weight;
+            invalidations++;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized void setLimits(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    private void store(K key, V value) {
+        int weight = ENTRY_OVERHEAD + (value != null ? weigher.weigh(key, value) : 0);
+        Entry<V> previous = entries.put(key, new Entry<>(value, weight));
+        if (previous != null) bytes -= previous.weight;
+        bytes += weight;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    // ===== التقدير =====
+
+    /**
+     * الحجم التقديري لنص في الذاكرة (حرفان لكل محرف مع رأس الكائن)
+     */
+    public static int stringBytes(String text) {
+        return text == null ? 0 : 40 + text.length() * 2;
+    }
+
+    // ===== الإحصائيات =====
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        String prefix = name + "_cache_";
+        long lookups = hits + misses;
+        stats.put(prefix + "entries", entries.size());
+        stats.put(prefix + "bytes", bytes);
+        stats.put(prefix + "hits", hits);
+        stats.put(prefix + "misses", misses);
+        stats.put(prefix + "evictions", evictions);
+        stats.put(prefix + "invalidations", invalidations);
+        stats.put(prefix + "hit_rate", lookups > 0 ? hits / (double) lookups : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,148 @@
+package com.neuralseed;
+
+import java.util.*;
+
+/**
+ * طابور الكلمات الواردة من السحابة - تطبيقها على المعجم دفعات خارج خيط الواجهة
+ *
+ * أحداث الاشتراك تصل على خيط الواجهة فتُضاف هنا فقط. خيط خلفي ينتظر قليلاً
+ * ليجمع الدفعة ثم يطبقها مرة واحدة، والتحديثات المتتالية للكلمة نفسها تُدمج.
+ */
+public class RemoteWordQueue {
+
+    private static final String TAG = "RemoteWordQueue";
+
+    public static final long DEFAULT_BATCH_DELAY_MS = 250;
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    public static class RemoteWord {
+        public final String word;
+        public final String meaning;
+        public final long updatedAt;
+
+        RemoteWord(String word, String meaning, long updatedAt) {
+            this.word = word;
+            this.meaning = meaning;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    /**
+     * تطبيق دفعة على خيط الطابور
+     */
+    public interface Applier {
+        void apply(List<RemoteWord> batch);
+    }
+
+    private final Applier applier;
+    private final long batchDelayMs;
+    private final int maxBatch;
+
+    private final LinkedHashMap<String, RemoteWord> pending = new LinkedHashMap<>();
+    private final Object lock = new Object();
+    private Thread worker;
+    private volatile boolean running = false;
+
+    private long received = 0;
+    private long coalesced = 0;
+    private long batches = 0;
+
+    public RemoteWordQueue(Applier applier) {
+        this(applier, DEFAULT_BATCH_DELAY_MS, DEFAULT_MAX_BATCH);
+    }
+
+    public RemoteWordQueue(Applier applier, long batchDelayMs, int maxBatch) {
+        this.applier = applier;
+        this.batchDelayMs = batchDelayMs;
+        this.maxBatch = maxBatch;
+    }
+
+    public void start() {
+        synchronized (lock) {
+            if (worker != null) return;
+            running = true;
+            worker = new Thread(this::drainLoop, "RemoteWordApplier");
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+        }
+    }
+
+    public void shutdown() {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * إضافة كلمة واردة؛ تحل محل نسخة معلقة من الكلمة نفسها
+     */
+    public void offer(String word, String meaning, long updatedAt) {
+        synchronized (lock) {
+            received++;
+            RemoteWord previous = pending.remove(word);
+            if (previous != null) coalesced++;
+            pending.put(word, new RemoteWord(word, meaning, updatedAt));
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * أقصى مؤشر سحب يمكن تأكيده بعد تطبيق كلمات حتى وقت معين: ما زال معلقاً
+     * لم يُطبق بعد، فلا يتجاوز المؤشر أقدمه (بداية السحب شاملة فيُقرأ مرة أخرى)
+     */
+    public long confirmableCursor(long appliedUpTo) {
+        synchronized (lock) {
+            long cursor = appliedUpTo;
+            for (RemoteWord remote : pending.values()) {
+                cursor = Math.min(cursor, remote.updatedAt);
+            }
+            return cursor;
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            List<RemoteWord> batch = new ArrayList<>();
+            synchronized (lock) {
+                try {
+                    while (running && pending.isEmpty()) lock.wait();
+                    if (!running) return;
+                    // مهلة قصيرة لتجميع الأحداث المتلاحقة في دفعة واحدة
+                    long deadline = System.currentTimeMillis() + batchDelayMs;
+                    long remaining = batchDelayMs;
+                    while (running && pending.size() < maxBatch && remaining > 0) {
+                        lock.wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                    if (!running) return;
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Iterator<RemoteWord> iterator = pending.values().iterator();
+                while (iterator.hasNext() && batch.size() < maxBatch) {
+                    batch.add(iterator.next());
+                    iterator.remove();
+                }
+                batches++;
+            }
+
+            try {
+                applier.apply(batch);
+            } catch (RuntimeException e) {
+                SeedLog.e(TAG, "Failed to apply remote words: " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (lock) {
+            stats.put("remote_words_pending", pending.size());
+            stats.put("remote_words_received", received);
+            stats.put("remote_words_coalesced", coalesced);
+            stats.put("remote_word_batches", batches);
+        }
+        return stats;
+    }
+}
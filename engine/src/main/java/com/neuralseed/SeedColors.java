@@ -0,0 +1,28 @@
+package com.neuralseed;
+
+/**
+ * ألوان المحرك - أعداد ARGB بصيغة android.graphics.Color نفسها دون الاعتماد عليها
+ */
+public final class SeedColors {
+
+    public static final int BLACK = 0xFF000000;
+    public static final int GRAY = 0xFF888888;
+
+    private SeedColors() {}
+
+    public static int rgb(int red, int green, int blue) {
+        return 0xFF000000 | (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * لون من نص #RRGGBB أو #AARRGGBB
+     */
+    public static int parse(String color) {
+        if (color.charAt(0) != '#' || (color.length() != 7 && color.length() != 9)) {
+            throw new IllegalArgumentException("Unknown color " + color);
+        }
+        long value = Long.parseLong(color.substring(1), 16);
+        if (color.length() == 7) value |= 0xFF000000L;
+        return (int) value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.neuralseed;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * سجل المحرك - بديل android.util.Log بالتوقيع نفسه فوق java.util.logging
+ *
+ * على أندرويد يصل java.util.logging إلى logcat بالوسم نفسه، وعلى الخادم إلى
+ * معالجات JVM المعتادة، فلا يحتاج المحرك أي مكتبة من أندرويد.
+ */
+public final class SeedLog {
+
+    private SeedLog() {}
+
+    public static void e(String tag, String message) {
+        Logger.getLogger(tag).log(Level.SEVERE, message);
+    }
+
+    public static void w(String tag, String message) {
+        Logger.getLogger(tag).log(Level.WARNING, message);
+    }
+
+    public static void i(String tag, String message) {
+        Logger.getLogger(tag).log(Level.INFO, message);
+    }
+
+    public static void d(String tag, String message) {
+        Logger.getLogger(tag).log(Level.FINE, message);
+    }
+}
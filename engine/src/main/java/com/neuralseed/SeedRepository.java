@@ -0,0 +1,135 @@
+package com.neuralseed;
+
+import java.util.*;
+
+/**
+ * مستودع البذرة - واجهة التخزين التي يعتمد عليها المحرك اللغوي
+ *
+ * الكلمات والمعاني والعواطف والتصحيحات والمحادثات والتجارب. التنفيذ على
+ * أندرويد هو LocalDatabase (SQLite)، وفي الذاكرة InMemorySeedRepository،
+ * وعلى JVM بملف سجل FileSeedRepository. السجلات المُرجعة خرائط بالمفاتيح
+ * نفسها في كل تنفيذ، والكائنات المُرجعة نسخ يملكها المستدعي.
+ */
+public interface SeedRepository {
+
+    // ===== الكلمات =====
+
+    /**
+     * حفظ الكلمة أو استبدالها؛ الاستبدال يمنحها معرّف صف أحدث من كل ما سبق
+     */
+    void saveWord(ArabicLexicon.Word word);
+
+    /**
+     * حفظ كلمة وصلت من السحابة: مثل saveWord لكنها لا تُرفع مرة أخرى، ما لم
+     * تكن الكلمة محفوظة محلياً من قبل (فقد يكون فيها ما لم يُرفع بعد)
+     */
+    void saveSyncedWord(ArabicLexicon.Word word);
+
+    ArabicLexicon.Word loadWord(String word);
+
+    List<ArabicLexicon.Word> loadAllWords();
+
+    /**
+     * الكلمات المحفوظة محلياً بعد معرّف صف معين، دون ما وصل من السحابة
+     */
+    List<ArabicLexicon.Word> loadLocalWordsAfter(long rowId);
+
+    long getMaxWordId();
+
+    /**
+     * الكلمات التي تغيرت بعد إصدار معين، بالحفظ أو بتحديث الاستخدام
+     */
+    List<ArabicLexicon.Word> loadWordsChangedAfter(long version);
+
+    /**
+     * إصدار آخر تغيير في الكلمات؛ يزداد مع كل حفظ وكل تحديث للاستخدام
+     */
+    long getWordVersion();
+
+    void updateWordUsage(String word);
+
+    List<String> findWordsByEmotion(String emotion, double minIntensity, int limit);
+
+    List<String> searchWords(String query);
+
+    // ===== الجمل =====
+
+    void saveSentence(String sentence, ArabicParser.SentenceType type,
+                      String structure, Map<String, Double> emotions,
+                      boolean isValid, double confidence);
+
+    List<String> getSimilarSentences(String pattern, int limit);
+
+    // ===== المعاني والعواطف =====
+
+    void saveMeaning(SemanticEmotionalEngine.Meaning meaning);
+
+    SemanticEmotionalEngine.Meaning loadMeaning(String concept);
+
+    void saveEmotionLink(String word, String emotion, double intensity, String context);
+
+    /**
+     * مجموع شدة كل عاطفة مرتبطة بالكلمة في كل السياقات
+     */
+    Map<String, Double> getWordEmotions(String word);
+
+    // ===== التعلم والتصحيحات =====
+
+    void recordLearning(String input, String output, String context,
+                        boolean success, String feedback);
+
+    /**
+     * سجلات (input, output, context, success, feedback, timestamp)، الأحدث أولاً
+     */
+    List<Map<String, Object>> getLearningHistory(String context, int limit);
+
+    void saveCorrection(String original, String corrected, String explanation);
+
+    void markCorrectionLearned(int id);
+
+    /**
+     * التصحيحات غير المتعلمة (id, original, corrected, explanation)، الأحدث أولاً
+     */
+    List<Map<String, Object>> getPendingCorrections();
+
+    /**
+     * التصحيح المتعلم لنص، أو null
+     */
+    String findCorrection(String text);
+
+    // ===== المحادثات والتجارب =====
+
+    void saveConversation(String userMessage, String aiResponse,
+                          Map<String, Double> emotions, String context);
+
+    /**
+     * سجلات (user_message, ai_response, context, timestamp, emotions)، الأحدث أولاً
+     */
+    List<Map<String, Object>> getConversationHistory(int limit);
+
+    /**
+     * المحادثات التي يحتوي نصها الاستعلام (id, user_message, ai_response, timestamp)
+     */
+    List<Map<String, Object>> searchConversations(String query, int limit);
+
+    void saveExperience(String description, Map<String, Double> emotions,
+                        String outcome, String lesson, double importance);
+
+    /**
+     * سجلات (description, outcome, lesson, importance, timestamp)، الأهم ثم الأحدث
+     */
+    List<Map<String, Object>> getImportantExperiences(double minImportance, int limit);
+
+    // ===== الإدارة =====
+
+    /**
+     * تثبيت الكتابات المؤجلة في التخزين الدائم
+     */
+    void flush();
+
+    void close();
+
+    void clearAll();
+
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,226 @@
+package com.neuralseed;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * ملف لقطة البذرة - أقسام ثنائية مستقلة، لكل قسم طوله ومجموعه الاختباري
+ *
+ * الرأس (20 بايت) يتبعه جدول الأقسام (20 بايت لكل قسم: المعرّف والموضع والطول
+ * والمجموع الاختباري) ثم محتوى الأقسام. الفتح يقرأ الرأس والجدول فقط، وكل قسم
+ * يُقرأ ويُتحقق منه عند طلبه، فقسم تالف لا يُسقط بقية اللقطة.
+ */
+public class SeedSnapshot implements Closeable {
+
+    public static final String FILE_NAME = "seed.snapshot";
+
+    static final int MAGIC = 0x4E535353; // "NSSS"
+    // 2: المدخل المحفوظ يحمل إيماءة اللمس وسرعتها ومدتها؛ لقطات 1 تُقرأ دونها
+    static final int FORMAT_VERSION = 2;
+    static final int MIN_FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 20;
+    private static final int ENTRY_SIZE = 20;
+    private static final int MAX_SECTIONS = 64;
+
+    private static class Entry {
+        final long offset;
+        final int length;
+        final int checksum;
+
+        Entry(long offset, int length, int checksum) {
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final int version;
+    private final long savedAt;
+    private final Map<Integer, Entry> entries;
+
+    private SeedSnapshot(RandomAccessFile file, int version, long savedAt, Map<Integer, Entry> entries) {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.version = version;
+        this.savedAt = savedAt;
+        this.entries = entries;
+    }
+
+    // ===== الفتح والقراءة =====
+
+    /**
+     * قراءة الرأس وجدول الأقسام فقط
+     */
+    public static SeedSnapshot open(File path) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(path, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE, size);
+            if (header.getInt() != MAGIC) throw new IOException("Not a seed snapshot: " + path);
+            int version = header.getInt();
+            if (version < MIN_FORMAT_VERSION || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            long savedAt = header.getLong();
+            int count = header.getInt();
+            if (count < 0 || count > MAX_SECTIONS) throw new IOException("Corrupt section table");
+
+            ByteBuffer table = readFully(channel, HEADER_SIZE, count * ENTRY_SIZE, size);
+            Map<Integer, Entry> entries = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                int id = table.getInt();
+                long offset = table.getLong();
+                int length = table.getInt();
+                int checksum = table.getInt();
+                // مدخل خارج الملف يُرفض عند قراءة قسمه وحده
+                entries.put(id, new Entry(offset, length, checksum));
+            }
+            return new SeedSnapshot(raf, version, savedAt, entries);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * صيغة الملف كما كُتب، يختار بها فك الترميز حقول كل قسم
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    public boolean hasSection(int id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * قراءة قسم والتحقق من مجموعه الاختباري
+     */
+    public ByteBuffer readSection(int id) throws IOException {
+        Entry entry = checkedEntry(id);
+        if (entry == null) return null;
+
+        ByteBuffer buffer = readFully(channel, entry.offset, entry.length, channel.size());
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, entry.length);
+        if ((int) crc.getValue() != entry.checksum) {
+            throw new IOException("Checksum mismatch in section " + id);
+        }
+        return buffer;
+    }
+
+    /**
+     * تعيين قسم كبير بالذاكرة دون نسخه إلى الكومة؛ يُتحقق من مجموعه الاختباري
+     * كما في readSection، فالقسم التالف لا يصل إلى البحث بعد الاستعادة
+     */
+    public ByteBuffer mapSection(int id) throws IOException {
+        Entry entry = checkedEntry(id);
+        if (entry == null) return null;
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length);
+        CRC32 crc = new CRC32();
+        crc.update(mapped.duplicate());
+        if ((int) crc.getValue() != entry.checksum) {
+            throw new IOException("Checksum mismatch in section " + id);
+        }
+        return mapped;
+    }
+
+    private Entry checkedEntry(int id) throws IOException {
+        Entry entry = entries.get(id);
+        if (entry == null) return null;
+        if (entry.offset < 0 || entry.length < 0 || entry.offset + entry.length > channel.size()) {
+            throw new IOException("Section " + id + " out of bounds");
+        }
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // التعيينات السابقة تبقى صالحة بعد الإغلاق
+        file.close();
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, long size)
+            throws IOException {
+        if (position + length > size) throw new IOException("Truncated snapshot");
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated snapshot");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    // ===== الكتابة =====
+
+    /**
+     * كتابة الأقسام دفعة واحدة بقناة الملف ثم مزامنتها وإعادة التسمية بشكل ذري.
+     * كل قسم مخزن مؤقت على الكومة يبدأ محتواه من الموضع صفر.
+     */
+    public static void write(File path, Map<Integer, ByteBuffer> sections) throws IOException {
+        int count = sections.size();
+        ByteBuffer[] buffers = new ByteBuffer[count + 1];
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + count * ENTRY_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.putLong(System.currentTimeMillis());
+        header.putInt(count);
+
+        long offset = HEADER_SIZE + (long) count * ENTRY_SIZE;
+        int index = 1;
+        for (Map.Entry<Integer, ByteBuffer> section : sections.entrySet()) {
+            ByteBuffer content = section.getValue().duplicate();
+            int length = content.remaining();
+
+            CRC32 crc = new CRC32();
+            crc.update(content.array(), content.arrayOffset() + content.position(), length);
+
+            header.putInt(section.getKey());
+            header.putLong(offset);
+            header.putInt(length);
+            header.putInt((int) crc.getValue());
+
+            buffers[index++] = content;
+            offset += length;
+        }
+        header.flip();
+        buffers[0] = header;
+
+        // ملف مؤقت لكل كتابة: كتابتان متزامنتان لا تتداخلان في ملف واحد
+        File temp = File.createTempFile(path.getName(), ".tmp", path.getAbsoluteFile().getParentFile());
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            FileChannel channel = out.getChannel();
+            long remaining = offset;
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        if (!temp.renameTo(path)) {
+            temp.delete();
+            throw new IOException("Cannot replace snapshot: " + path);
+        }
+    }
+}
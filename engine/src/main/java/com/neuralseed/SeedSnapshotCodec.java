@@ -0,0 +1,496 @@
+package com.neuralseed;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * ترميز حالة البذرة في أقسام اللقطة - قسم لكل مكون
+ *
+ * الذكريات والأهداف تشير إلى الأنا بموقعها في قائمة الأنوات، فتُفك الأنوات أولاً.
+ * المعجم يُحفظ بصيغة المعجم المضغوط ويُعيَّن بالذاكرة عند الاستعادة بعد التحقق
+ * من مجموعه الاختباري وبنيته.
+ */
+public class SeedSnapshotCodec {
+
+    public static final int SECTION_CORE = 1;
+    public static final int SECTION_EGOS = 2;
+    public static final int SECTION_GOALS = 3;
+    public static final int SECTION_IDENTITY = 4;
+    public static final int SECTION_NEURAL = 5;
+    public static final int SECTION_MEMORY = 6;
+    public static final int SECTION_RULES = 7;
+    public static final int SECTION_LEXICON = 8;
+
+    private SeedSnapshotCodec() {
+    }
+
+    // ===== الترميز =====
+
+    /**
+     * ترميز كل المكونات عدا المعجم؛ يُستدعى تحت قفل الحالة لأن الخيوط تعدّلها
+     */
+    public static Map<Integer, ByteBuffer> encode(NeuralSeed.InternalState state) throws IOException {
+        Map<Integer, ByteBuffer> sections = new LinkedHashMap<>();
+        List<NeuralSeed.EgoFragment> egos = state.egos;
+
+        SectionWriter core = new SectionWriter();
+        core.writeDouble(state.lorenzX);
+        core.writeDouble(state.lorenzY);
+        core.writeDouble(state.lorenzZ);
+        core.writeDouble(state.chaosIndex);
+        core.writeString(state.currentPhase.name());
+        core.writeLong(state.phaseTransitionTime);
+        core.writeLong(state.birthTime);
+        core.writeDouble(state.existentialFitness);
+        core.writeDouble(state.internalConflict);
+        core.writeInt(state.recentAudioLevels.size());
+        for (Float level : state.recentAudioLevels) {
+            core.writeFloat(level);
+        }
+        sections.put(SECTION_CORE, core.toBuffer());
+
+        SectionWriter egoSection = new SectionWriter();
+        egoSection.writeInt(egos.size());
+        for (NeuralSeed.EgoFragment ego : egos) {
+            egoSection.writeString(ego.name);
+            egoSection.writeString(ego.type.name());
+            egoSection.writeStrings(ego.traits);
+            egoSection.writeDouble(ego.strength);
+            egoSection.writeDouble(ego.goalInfluence);
+            egoSection.writeEmotion(ego.emotion);
+        }
+        egoSection.writeInt(indexOf(egos, state.dominantEgo));
+        sections.put(SECTION_EGOS, egoSection.toBuffer());
+
+        SectionWriter goals = new SectionWriter();
+        goals.writeInt(state.goals.size());
+        for (NeuralSeed.Goal goal : state.goals) {
+            goals.writeString(goal.description);
+            goals.writeString(goal.type.name());
+            goals.writeDouble(goal.priority);
+            goals.writeDouble(goal.progress);
+            goals.writeInt(indexOf(egos, goal.creator));
+            goals.writeLong(goal.creationTime);
+        }
+        goals.writeInt(indexOf(state.goals, state.currentGoal));
+        sections.put(SECTION_GOALS, goals.toBuffer());
+
+        SectionWriter identity = new SectionWriter();
+        identity.writeMap(state.identity.values);
+        identity.writeMap(state.identity.traits);
+        identity.writeString(state.identity.selfNarrative);
+        sections.put(SECTION_IDENTITY, identity.toBuffer());
+
+        SectionWriter neural = new SectionWriter();
+        neural.writeDouble(state.neural.plasticity);
+        neural.writeDouble(state.neural.basePlasticity);
+        neural.writeInt(state.neural.pathways.size());
+        for (NeuralSeed.NeuralPathway pathway : state.neural.pathways) {
+            neural.writeDouble(pathway.weight);
+            neural.writeDouble(pathway.activation);
+        }
+        sections.put(SECTION_NEURAL, neural.toBuffer());
+
+        SectionWriter memory = new SectionWriter();
+        memory.writeInt(state.memory.memories.size());
+        for (NeuralSeed.Memory m : state.memory.memories) {
+            memory.writeInput(m.input);
+            memory.writeEmotion(m.emotion);
+            memory.writeInt(indexOf(egos, m.activeEgo));
+            memory.writeString(m.phase != null ? m.phase.name() : null);
+            memory.writeLong(m.timestamp);
+            memory.writeDouble(m.significance);
+            memory.writeDouble(m.importance);
+            memory.writeLong(m.lastAccessed);
+        }
+        sections.put(SECTION_MEMORY, memory.toBuffer());
+
+        SectionWriter rules = new SectionWriter();
+        rules.writeInt(state.rules.rules.size());
+        for (NeuralSeed.Rule rule : state.rules.rules) {
+            rules.writeString(rule.condition);
+            rules.writeString(rule.action);
+            rules.writeDouble(rule.weight);
+            rules.writeLong(rule.creationTime);
+            rules.writeInt(rule.activationCount);
+        }
+        sections.put(SECTION_RULES, rules.toBuffer());
+
+        return sections;
+    }
+
+    /**
+     * ترميز المعجم (آمن خارج قفل الحالة لأن المعجم متزامن بذاته)
+     */
+    public static ByteBuffer encodeLexicon(ArabicLexicon lexicon) throws IOException {
+        CompactLexicon compact = lexicon.compact();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(compact.byteSize());
+        compact.writeTo(Channels.newChannel(out));
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static <T> int indexOf(List<T> list, T item) {
+        if (item == null) return -1;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == item) return i;
+        }
+        return -1;
+    }
+
+    // ===== فك الترميز =====
+
+    /**
+     * نتيجة الاستعادة: الأقسام التي طُبقت، والأقسام التالفة وسبب تلفها
+     */
+    public static class DecodeResult {
+        public final List<Integer> restored = new ArrayList<>();
+        public final Map<Integer, String> failed = new LinkedHashMap<>();
+
+        public boolean isComplete() {
+            return failed.isEmpty();
+        }
+
+        void fail(int section, Exception e) {
+            failed.put(section, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * يقرأ القسم كله إلى قيم محلية ويُرجع ما يطبقها على الحالة، فالقسم التالف
+     * لا يترك مكونه نصف مستعاد
+     */
+    private interface SectionDecoder {
+        Runnable decode(SectionReader in) throws IOException;
+    }
+
+    private static void decodeSection(SeedSnapshot snapshot, int id, DecodeResult result,
+                                      SectionDecoder decoder) {
+        try {
+            ByteBuffer section = snapshot.readSection(id);
+            if (section == null) return;
+            Runnable apply = decoder.decode(new SectionReader(section, snapshot.getVersion()));
+            apply.run();
+            result.restored.add(id);
+        } catch (IOException | RuntimeException e) {
+            // قراءة ما بعد نهاية القسم ترمي BufferUnderflowException
+            result.fail(id, e);
+        }
+    }
+
+    /**
+     * قراءة الأقسام الموجودة وتطبيقها على الحالة، كل قسم مستقلاً عن غيره. القسم
+     * الغائب أو التالف يترك مكونه كما هو، وبقية الأقسام تُستعاد.
+     */
+    public static DecodeResult decode(SeedSnapshot snapshot, NeuralSeed.InternalState state) {
+        DecodeResult result = new DecodeResult();
+
+        decodeSection(snapshot, SECTION_CORE, result, in -> {
+            double lorenzX = in.readDouble();
+            double lorenzY = in.readDouble();
+            double lorenzZ = in.readDouble();
+            double chaosIndex = in.readDouble();
+            NeuralSeed.Phase phase = in.readEnum(NeuralSeed.Phase.class, NeuralSeed.Phase.EMBRYONIC);
+            long phaseTransitionTime = in.readLong();
+            long birthTime = in.readLong();
+            double existentialFitness = in.readDouble();
+            double internalConflict = in.readDouble();
+            int count = in.readCount();
+            List<Float> levels = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                levels.add(in.readFloat());
+            }
+            return () -> {
+                state.lorenzX = lorenzX;
+                state.lorenzY = lorenzY;
+                state.lorenzZ = lorenzZ;
+                state.chaosIndex = chaosIndex;
+                state.currentPhase = phase;
+                state.phaseTransitionTime = phaseTransitionTime;
+                state.birthTime = birthTime;
+                state.existentialFitness = existentialFitness;
+                state.internalConflict = internalConflict;
+                state.recentAudioLevels.clear();
+                state.recentAudioLevels.addAll(levels);
+            };
+        });
+
+        decodeSection(snapshot, SECTION_EGOS, result, in -> {
+            int count = in.readCount();
+            List<NeuralSeed.EgoFragment> egos = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = in.readString();
+                NeuralSeed.EgoType type = in.readEnum(NeuralSeed.EgoType.class, NeuralSeed.EgoType.ADAPTIVE);
+                List<String> traits = in.readStrings();
+                double strength = in.readDouble();
+                NeuralSeed.EgoFragment ego = new NeuralSeed.EgoFragment(name, type, traits, in.readDouble());
+                ego.strength = strength;
+                in.readEmotion(ego.emotion);
+                egos.add(ego);
+            }
+            NeuralSeed.EgoFragment dominant = at(egos, in.readInt());
+            return () -> {
+                state.egos = egos;
+                state.dominantEgo = dominant;
+            };
+        });
+
+        // الأهداف والذكريات تشير إلى الأنوات المستعادة، أو الابتدائية إذا تلف قسمها
+        decodeSection(snapshot, SECTION_GOALS, result, in -> {
+            int count = in.readCount();
+            List<NeuralSeed.Goal> goals = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String description = in.readString();
+                NeuralSeed.GoalType type = in.readEnum(NeuralSeed.GoalType.class, NeuralSeed.GoalType.GROWTH);
+                double priority = in.readDouble();
+                double progress = in.readDouble();
+                NeuralSeed.Goal goal = new NeuralSeed.Goal(description, type, priority, at(state.egos, in.readInt()));
+                goal.progress = progress;
+                goal.creationTime = in.readLong();
+                goals.add(goal);
+            }
+            NeuralSeed.Goal current = at(goals, in.readInt());
+            return () -> {
+                state.goals = goals;
+                state.currentGoal = current;
+            };
+        });
+
+        decodeSection(snapshot, SECTION_IDENTITY, result, in -> {
+            Map<String, Double> values = new HashMap<>();
+            in.readMap(values);
+            Map<String, Double> traits = new HashMap<>();
+            in.readMap(traits);
+            String narrative = in.readString();
+            return () -> {
+                state.identity.values.clear();
+                state.identity.values.putAll(values);
+                state.identity.traits.clear();
+                state.identity.traits.putAll(traits);
+                state.identity.selfNarrative = narrative;
+            };
+        });
+
+        decodeSection(snapshot, SECTION_NEURAL, result, in -> {
+            double plasticity = in.readDouble();
+            double basePlasticity = in.readDouble();
+            int count = in.readCount();
+            List<NeuralSeed.NeuralPathway> pathways = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                NeuralSeed.NeuralPathway pathway = new NeuralSeed.NeuralPathway();
+                pathway.weight = in.readDouble();
+                pathway.activation = in.readDouble();
+                pathways.add(pathway);
+            }
+            return () -> {
+                state.neural.plasticity = plasticity;
+                state.neural.basePlasticity = basePlasticity;
+                state.neural.pathways = pathways;
+            };
+        });
+
+        decodeSection(snapshot, SECTION_MEMORY, result, in -> {
+            int count = in.readCount();
+            List<NeuralSeed.Memory> memories = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                NeuralSeed.Input input = in.readInput();
+                NeuralSeed.EmotionalVector emotion = new NeuralSeed.EmotionalVector();
+                in.readEmotion(emotion);
+                NeuralSeed.EgoFragment activeEgo = at(state.egos, in.readInt());
+                NeuralSeed.Phase phase = in.readEnum(NeuralSeed.Phase.class, null);
+                NeuralSeed.Memory memory = new NeuralSeed.Memory(input, emotion, activeEgo, phase);
+                memory.timestamp = in.readLong();
+                memory.significance = in.readDouble();
+                memory.importance = in.readDouble();
+                memory.lastAccessed = in.readLong();
+                memories.add(memory);
+            }
+            return () -> state.memory.memories = memories;
+        });
+
+        decodeSection(snapshot, SECTION_RULES, result, in -> {
+            int count = in.readCount();
+            List<NeuralSeed.Rule> rules = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                NeuralSeed.Rule rule = new NeuralSeed.Rule(in.readString(), in.readString(), in.readDouble());
+                rule.creationTime = in.readLong();
+                rule.activationCount = in.readInt();
+                rules.add(rule);
+            }
+            return () -> state.rules.rules = rules;
+        });
+
+        return result;
+    }
+
+    /**
+     * المعجم المحفوظ معيّناً بالذاكرة، أو null إذا لم يكن في اللقطة أو كان تالفاً
+     */
+    public static CompactLexicon decodeLexicon(SeedSnapshot snapshot, DecodeResult result) {
+        try {
+            ByteBuffer section = snapshot.mapSection(SECTION_LEXICON);
+            if (section == null) return null;
+            CompactLexicon lexicon = CompactLexicon.wrap(section);
+            result.restored.add(SECTION_LEXICON);
+            return lexicon;
+        } catch (IOException | IllegalArgumentException e) {
+            result.fail(SECTION_LEXICON, e);
+            return null;
+        }
+    }
+
+    private static <T> T at(List<T> list, int index) {
+        return index >= 0 && index < list.size() ? list.get(index) : null;
+    }
+
+    // ===== الكتابة والقراءة الأولية =====
+
+    private static class SectionWriter {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        void writeInt(int value) throws IOException { out.writeInt(value); }
+        void writeLong(long value) throws IOException { out.writeLong(value); }
+        void writeFloat(float value) throws IOException { out.writeFloat(value); }
+        void writeDouble(double value) throws IOException { out.writeDouble(value); }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+
+        void writeStrings(List<String> values) throws IOException {
+            out.writeInt(values.size());
+            for (String value : values) writeString(value);
+        }
+
+        void writeMap(Map<String, Double> map) throws IOException {
+            out.writeInt(map.size());
+            for (Map.Entry<String, Double> entry : map.entrySet()) {
+                writeString(entry.getKey());
+                out.writeDouble(entry.getValue());
+            }
+        }
+
+        void writeEmotion(NeuralSeed.EmotionalVector emotion) throws IOException {
+            out.writeDouble(emotion.joy);
+            out.writeDouble(emotion.fear);
+            out.writeDouble(emotion.curiosity);
+            out.writeDouble(emotion.anger);
+            out.writeDouble(emotion.sadness);
+            out.writeDouble(emotion.intensity);
+        }
+
+        void writeInput(NeuralSeed.Input input) throws IOException {
+            writeString(input.content);
+            writeString(input.type.name());
+            out.writeDouble(input.intensity);
+            out.writeBoolean(input.isTouch);
+            out.writeFloat(input.touchX);
+            out.writeFloat(input.touchY);
+            writeString(input.speechText);
+            writeString(input.gesture != null ? input.gesture.name() : null);
+            out.writeFloat(input.velocityX);
+            out.writeFloat(input.velocityY);
+            out.writeLong(input.durationMillis);
+        }
+
+        ByteBuffer toBuffer() throws IOException {
+            out.flush();
+            return ByteBuffer.wrap(bytes.toByteArray());
+        }
+    }
+
+    private static class SectionReader {
+        private final ByteBuffer in;
+        private final int version;
+
+        SectionReader(ByteBuffer in, int version) {
+            this.in = in;
+            this.version = version;
+        }
+
+        int readInt() { return in.getInt(); }
+        long readLong() { return in.getLong(); }
+        float readFloat() { return in.getFloat(); }
+        double readDouble() { return in.getDouble(); }
+
+        /**
+         * عدد عناصر لا يمكن أن يتجاوز ما تبقى من القسم (حماية من قسم تالف)
+         */
+        int readCount() throws IOException {
+            int count = in.getInt();
+            if (count < 0 || count > in.remaining()) throw new IOException("Corrupt count " + count);
+            return count;
+        }
+
+        String readString() throws IOException {
+            int length = in.getInt();
+            if (length < 0) return null;
+            if (length > in.remaining()) throw new IOException("Corrupt string length " + length);
+            byte[] utf8 = new byte[length];
+            in.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        List<String> readStrings() throws IOException {
+            int count = readCount();
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) values.add(readString());
+            return values;
+        }
+
+        void readMap(Map<String, Double> map) throws IOException {
+            int count = readCount();
+            for (int i = 0; i < count; i++) {
+                String key = readString();
+                map.put(key, in.getDouble());
+            }
+        }
+
+        <E extends Enum<E>> E readEnum(Class<E> type, E fallback) throws IOException {
+            String name = readString();
+            if (name == null) return fallback;
+            try {
+                return Enum.valueOf(type, name);
+            } catch (IllegalArgumentException e) {
+                return fallback;
+            }
+        }
+
+        void readEmotion(NeuralSeed.EmotionalVector emotion) {
+            emotion.joy = in.getDouble();
+            emotion.fear = in.getDouble();
+            emotion.curiosity = in.getDouble();
+            emotion.anger = in.getDouble();
+            emotion.sadness = in.getDouble();
+            emotion.intensity = in.getDouble();
+        }
+
+        NeuralSeed.Input readInput() throws IOException {
+            String content = readString();
+            NeuralSeed.InputType type = readEnum(NeuralSeed.InputType.class, NeuralSeed.InputType.NEUTRAL);
+            NeuralSeed.Input input = new NeuralSeed.Input(content, type, in.getDouble());
+            input.isTouch = in.get() != 0;
+            input.touchX = in.getFloat();
+            input.touchY = in.getFloat();
+            input.speechText = readString();
+            if (version >= 2) {
+                input.gesture = readEnum(NeuralSeed.Gesture.class, null);
+                input.velocityX = in.getFloat();
+                input.velocityY = in.getFloat();
+                input.durationMillis = in.getLong();
+            }
+            return input;
+        }
+    }
+}
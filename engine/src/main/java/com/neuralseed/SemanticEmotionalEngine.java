@@ -1,6 +1,5 @@
 package com.neuralseed;
 
-import android.graphics.Color;
 import java.util.*;
 
 /**
@@ -46,21 +45,21 @@ public class SemanticEmotionalEngine {
     
     private void initializeEmotions() {
         // العواطف الأساسية
-        emotions.put("joy", new Emotion("joy", "فرح", Color.parseColor("#FFD700")));
-        emotions.put("sadness", new Emotion("sadness", "حزن", Color.parseColor("#4682B4")));
-        emotions.put("anger", new Emotion("anger", "غضب", Color.parseColor("#FF4500")));
-        emotions.put("fear", new Emotion("fear", "خوف", Color.parseColor("#8B0000")));
-        emotions.put("love", new Emotion("love", "حب", Color.parseColor("#FF69B4")));
-        emotions.put("curiosity", new Emotion("curiosity", "فضول", Color.parseColor("#4169E1")));
-        emotions.put("hope", new Emotion("hope", "أمل", Color.parseColor("#00CED1")));
-        emotions.put("peace", new Emotion("peace", "سلام", Color.parseColor("#90EE90")));
-        emotions.put("wonder", new Emotion("wonder", "دهشة", Color.parseColor("#9370DB")));
-        emotions.put("empathy", new Emotion("empathy", "تعاطف", Color.parseColor("#DDA0DD")));
-        emotions.put("nostalgia", new Emotion("nostalgia", "حنين", Color.parseColor("#BC8F8F")));
-        emotions.put("excitement", new Emotion("excitement", "إثارة", Color.parseColor("#FF6347")));
-        emotions.put("anxiety", new Emotion("anxiety", "قلق", Color.parseColor("#708090")));
-        emotions.put("confidence", new Emotion("confidence", "ثقة", Color.parseColor("#32CD32")));
-        emotions.put("confusion", new Emotion("confusion", "ارتباك", Color.parseColor("#D3D3D3")));
+        emotions.put("joy", new Emotion("joy", "فرح", SeedColors.parse("#FFD700")));
+        emotions.put("sadness", new Emotion("sadness", "حزن", SeedColors.parse("#4682B4")));
+        emotions.put("anger", new Emotion("anger", "غضب", SeedColors.parse("#FF4500")));
+        emotions.put("fear", new Emotion("fear", "خوف", SeedColors.parse("#8B0000")));
+        emotions.put("love", new Emotion("love", "حب", SeedColors.parse("#FF69B4")));
+        emotions.put("curiosity", new Emotion("curiosity", "فضول", SeedColors.parse("#4169E1")));
+        emotions.put("hope", new Emotion("hope", "أمل", SeedColors.parse("#00CED1")));
+        emotions.put("peace", new Emotion("peace", "سلام", SeedColors.parse("#90EE90")));
+        emotions.put("wonder", new Emotion("wonder", "دهشة", SeedColors.parse("#9370DB")));
+        emotions.put("empathy", new Emotion("empathy", "تعاطف", SeedColors.parse("#DDA0DD")));
+        emotions.put("nostalgia", new Emotion("nostalgia", "حنين", SeedColors.parse("#BC8F8F")));
+        emotions.put("excitement", new Emotion("excitement", "إثارة", SeedColors.parse("#FF6347")));
+        emotions.put("anxiety", new Emotion("anxiety", "قلق", SeedColors.parse("#708090")));
+        emotions.put("confidence", new Emotion("confidence", "ثقة", SeedColors.parse("#32CD32")));
+        emotions.put("confusion", new Emotion("confusion", "ارتباك", SeedColors.parse("#D3D3D3")));
         
         // إضافة كلمات مرتبطة
         emotions.get("joy").relatedWords.addAll(Arrays.asList("سعيد", "فرح", "مبتهج", "مسرور", "رائع"));
@@ -160,7 +159,7 @@ public class SemanticEmotionalEngine {
      */
     public int getEmotionColor(String emotionName) {
         Emotion emotion = emotions.get(emotionName);
-        return emotion != null ? emotion.color : Color.GRAY;
+        return emotion != null ? emotion.color : SeedColors.GRAY;
     }
     
     /**
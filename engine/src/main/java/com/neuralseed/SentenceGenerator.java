@@ -10,7 +10,7 @@ public class SentenceGenerator {
     private ArabicLexicon lexicon;
     private ArabicParser parser;
     private SemanticEmotionalEngine emotionEngine;
-    private LocalDatabase database;
+    private SeedRepository database;
     
     private List<ResponseTemplate> templates = new ArrayList<>();
     private Random random = new Random();
@@ -37,7 +37,7 @@ public class SentenceGenerator {
     }
     
     public SentenceGenerator(ArabicLexicon lexicon, ArabicParser parser,
-                           SemanticEmotionalEngine emotionEngine, LocalDatabase database) {
+                           SemanticEmotionalEngine emotionEngine, SeedRepository database) {
         this.lexicon = lexicon;
         this.parser = parser;
         this.emotionEngine = emotionEngine;
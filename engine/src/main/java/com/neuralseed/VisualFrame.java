@@ -0,0 +1,33 @@
+package com.neuralseed;
+
+/**
+ * إطار التعبير البصري - وصف ما يُرسم دون الرسم نفسه
+ *
+ * المحرك يحسب الدوائر من الحالة، والواجهة (أو أي عارض آخر) ترسمها على لوحتها.
+ * الإحداثيات نسبية إلى لوحة مربعة بالحجم SIZE. الإطار غير قابل للتعديل.
+ */
+public final class VisualFrame {
+
+    public static final int SIZE = 500;
+
+    public final long timestamp;
+    public final int color;
+    public final float centerX;
+    public final float centerY;
+    public final float coreRadius;
+
+    // الحلقات من الداخل إلى الخارج
+    public final float[] ringRadii;
+    public final int[] ringAlphas;
+
+    public VisualFrame(long timestamp, int color, float centerX, float centerY, float coreRadius,
+                       float[] ringRadii, int[] ringAlphas) {
+        this.timestamp = timestamp;
+        this.color = color;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.coreRadius = coreRadius;
+        this.ringRadii = ringRadii;
+        this.ringAlphas = ringAlphas;
+    }
+}
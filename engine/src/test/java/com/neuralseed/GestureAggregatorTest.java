@@ -0,0 +1,122 @@
+package com.neuralseed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * تقطيع عينات اللمس إلى نقرة وضغط مطوّل وسحب بمقاطع النافذة الزمنية
+ */
+class GestureAggregatorTest {
+
+    private final List<NeuralSeed.Input> gestures = new ArrayList<>();
+    private final GestureAggregator aggregator = new GestureAggregator(gestures::add);
+
+    @Test
+    void shortStillTouchIsTap() {
+        aggregator.onDown(100, 100, 0);
+        aggregator.onUp(103, 101, 80);
+
+        assertEquals(1, gestures.size());
+        NeuralSeed.Input tap = gestures.get(0);
+        assertEquals(NeuralSeed.Gesture.TAP, tap.gesture);
+        assertEquals(80, tap.durationMillis);
+        assertEquals(103, tap.touchX);
+    }
+
+    @Test
+    void holdIsAnnouncedOnceAtThreshold() {
+        long hold = aggregator.getHoldMillis();
+        aggregator.onDown(200, 200, 0);
+        aggregator.checkHold(hold - 1);
+        assertTrue(gestures.isEmpty());
+
+        aggregator.checkHold(hold);
+        aggregator.checkHold(hold + 100);
+        aggregator.onUp(201, 200, hold + 300);
+
+        assertEquals(1, gestures.size());
+        assertEquals(NeuralSeed.Gesture.HOLD, gestures.get(0).gesture);
+        assertEquals(hold, gestures.get(0).durationMillis);
+    }
+
+    @Test
+    void longStillTouchWithoutCheckIsHoldOnUp() {
+        aggregator.onDown(50, 50, 0);
+        aggregator.onUp(50, 50, aggregator.getHoldMillis());
+
+        assertEquals(1, gestures.size());
+        assertEquals(NeuralSeed.Gesture.HOLD, gestures.get(0).gesture);
+    }
+
+    @Test
+    void dragShorterThanWindowIsOneSwipe() {
+        aggregator.onDown(0, 0, 0);
+        aggregator.onMove(30, 0, 50);
+        aggregator.onUp(60, 0, 100);
+
+        assertEquals(1, gestures.size());
+        NeuralSeed.Input swipe = gestures.get(0);
+        assertEquals(NeuralSeed.Gesture.SWIPE, swipe.gesture);
+        assertEquals(600f, swipe.velocityX, 0.01f);
+        assertEquals(0f, swipe.velocityY, 0.01f);
+        assertEquals(100, swipe.durationMillis);
+    }
+
+    @Test
+    void cancelledTouchEmitsNothing() {
+        aggregator.onDown(0, 0, 0);
+        aggregator.onMove(40, 0, 30);
+        aggregator.onCancel();
+        aggregator.onUp(80, 0, 60);
+        aggregator.checkHold(10_000);
+
+        assertTrue(gestures.isEmpty());
+    }
+
+    /**
+     * تسلسل اصطناعي من 66 عينة: نقرة، ثم ضغط مطوّل يرتجف داخل هامش الحركة،
+     * ثم سحب 600 ميليثانية بعينة كل 12 ميليثانية يُقطع إلى ثلاثة مقاطع
+     */
+    @Test
+    void syntheticSequenceFoldsIntoFiveGestures() {
+        // نقرة: عينتان
+        aggregator.onDown(100, 100, 0);
+        aggregator.onUp(102, 101, 80);
+
+        // ضغط مطوّل: 13 عينة
+        aggregator.onDown(200, 200, 1000);
+        for (int i = 1; i <= 11; i++) {
+            aggregator.onMove(200 + (i % 2 == 0 ? 3 : -3), 200, 1000 + i * 40);
+        }
+        aggregator.checkHold(1000 + aggregator.getHoldMillis());
+        aggregator.onUp(200, 200, 1700);
+
+        // سحب: 51 عينة بخمس بكسلات كل 12 ميليثانية
+        aggregator.onDown(300, 300, 3000);
+        for (int i = 1; i <= 49; i++) {
+            aggregator.onMove(300 + i * 5, 300, 3000 + i * 12);
+        }
+        aggregator.onUp(550, 300, 3600);
+
+        assertEquals(66, aggregator.getSampleCount());
+        assertEquals(5, aggregator.getGestureCount());
+        assertEquals(5, gestures.size());
+
+        assertEquals(NeuralSeed.Gesture.TAP, gestures.get(0).gesture);
+        assertEquals(NeuralSeed.Gesture.HOLD, gestures.get(1).gesture);
+        long previous = 0;
+        for (NeuralSeed.Input swipe : gestures.subList(2, 5)) {
+            assertEquals(NeuralSeed.Gesture.SWIPE, swipe.gesture);
+            assertEquals(416.7f, swipe.velocityX, 1f);
+            assertEquals(0f, swipe.velocityY, 0.01f);
+            assertTrue(swipe.durationMillis > previous);
+            previous = swipe.durationMillis;
+        }
+        assertEquals(600, previous);
+        assertEquals(550, gestures.get(4).touchX);
+    }
+}
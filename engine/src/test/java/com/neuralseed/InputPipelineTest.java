@@ -0,0 +1,105 @@
+package com.neuralseed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * سياسات الفيض الثلاث لخط المدخلات: إسقاط الأقدم ودمج اللمسات والانتظار
+ */
+class InputPipelineTest {
+
+    private static NeuralSeed.Input speech(String text) {
+        return NeuralSeed.Input.createSpeechInput(text);
+    }
+
+    private static long stat(InputPipeline pipeline, String name) {
+        Map<String, Object> stats = pipeline.getStatistics();
+        return ((Number) stats.get(name)).longValue();
+    }
+
+    @Test
+    void dropOldestKeepsNewestInputs() {
+        InputPipeline pipeline = new InputPipeline(2, InputPipeline.Overflow.DROP_OLDEST);
+        assertTrue(pipeline.offer(speech("أ")));
+        assertTrue(pipeline.offer(speech("ب")));
+        assertTrue(pipeline.offer(speech("ج")));
+
+        assertEquals(2, pipeline.size());
+        assertEquals("ب", pipeline.poll().speechText);
+        assertEquals("ج", pipeline.poll().speechText);
+        assertNull(pipeline.poll());
+        assertEquals(1, stat(pipeline, "input_dropped"));
+        assertEquals(2, stat(pipeline, "input_high_water"));
+    }
+
+    @Test
+    void coalesceMergesConsecutiveRawTouches() {
+        InputPipeline pipeline = new InputPipeline(4, InputPipeline.Overflow.COALESCE_TOUCHES);
+        NeuralSeed.Input strong = NeuralSeed.Input.createTouchInput(10, 10);
+        strong.intensity = 0.9;
+        pipeline.offer(strong);
+        pipeline.offer(NeuralSeed.Input.createTouchInput(20, 30));
+        pipeline.offer(NeuralSeed.Input.createTouchInput(40, 50));
+
+        assertEquals(1, pipeline.size());
+        assertEquals(2, stat(pipeline, "input_coalesced"));
+
+        // الإيماءة والكلام لا يندمجان، واللمسة بعدهما تبدأ مدخلاً جديداً
+        pipeline.offer(NeuralSeed.Input.createGestureInput(NeuralSeed.Gesture.TAP, 5, 5, 0, 0, 60));
+        pipeline.offer(speech("مرحبا"));
+        pipeline.offer(NeuralSeed.Input.createTouchInput(60, 70));
+        assertEquals(4, pipeline.size());
+
+        NeuralSeed.Input merged = pipeline.poll();
+        assertEquals(40, merged.touchX);
+        assertEquals(50, merged.touchY);
+        assertEquals(0.9, merged.intensity, 1e-9);
+        assertEquals(NeuralSeed.Gesture.TAP, pipeline.poll().gesture);
+    }
+
+    @Test
+    void coalesceDropsOldestWhenFull() {
+        InputPipeline pipeline = new InputPipeline(2, InputPipeline.Overflow.COALESCE_TOUCHES);
+        pipeline.offer(speech("أ"));
+        pipeline.offer(speech("ب"));
+        pipeline.offer(NeuralSeed.Input.createTouchInput(1, 1));
+
+        assertEquals(1, stat(pipeline, "input_dropped"));
+        assertEquals("ب", pipeline.poll().speechText);
+        assertTrue(pipeline.poll().isTouch);
+    }
+
+    @Test
+    void blockWaitsForRoomWithoutDropping() throws Exception {
+        InputPipeline pipeline = new InputPipeline(1, InputPipeline.Overflow.BLOCK);
+        pipeline.offer(speech("أ"));
+
+        CompletableFuture<Boolean> sender = CompletableFuture.supplyAsync(() -> pipeline.offer(speech("ب")));
+        assertThrows(TimeoutException.class, () -> sender.get(100, TimeUnit.MILLISECONDS));
+
+        assertEquals("أ", pipeline.poll().speechText);
+        assertTrue(sender.get(1, TimeUnit.SECONDS));
+        assertEquals("ب", pipeline.poll().speechText);
+        assertEquals(0, stat(pipeline, "input_dropped"));
+        assertEquals(1, stat(pipeline, "input_blocked"));
+    }
+
+    @Test
+    void closeReleasesBlockedSender() throws Exception {
+        InputPipeline pipeline = new InputPipeline(1, InputPipeline.Overflow.BLOCK);
+        pipeline.offer(speech("أ"));
+
+        CompletableFuture<Boolean> sender = CompletableFuture.supplyAsync(() -> pipeline.offer(speech("ب")));
+        assertThrows(TimeoutException.class, () -> sender.get(100, TimeUnit.MILLISECONDS));
+
+        pipeline.close();
+        assertFalse(sender.get(1, TimeUnit.SECONDS));
+        assertFalse(pipeline.offer(speech("ج")));
+    }
+}
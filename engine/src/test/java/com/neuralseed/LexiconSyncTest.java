@@ -0,0 +1,186 @@
+package com.neuralseed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * مزامنة المعجم بين جهازين عبر ناقل في الذاكرة: الرفع والسحب والصفحات والمؤشرات
+ */
+class LexiconSyncTest {
+
+    private static class Device implements LexiconSync.Listener {
+        final InMemorySeedRepository database = new InMemorySeedRepository();
+        final ArabicLexicon lexicon = new ArabicLexicon();
+        final LexiconSync sync;
+
+        int pushed = -1;
+        int pulled = -1;
+        String error;
+
+        Device(CloudTransport transport) {
+            sync = new LexiconSync(transport, 0, 0);
+        }
+
+        void learn(String word, String meaning) {
+            lexicon.addWord(word, meaning);
+            database.saveWord(lexicon.getWord(word));
+        }
+
+        void sync() {
+            pushed = -1;
+            pulled = -1;
+            error = null;
+            sync.sync(database, lexicon, this);
+        }
+
+        @Override
+        public void onWordSynced(String word, String meaning) {
+        }
+
+        @Override
+        public void onSyncComplete(int pushed, int pulled) {
+            this.pushed = pushed;
+            this.pulled = pulled;
+        }
+
+        @Override
+        public void onSyncError(String error) {
+            this.error = error;
+        }
+    }
+
+    private static long stat(InMemoryCloudTransport transport, String name) {
+        Map<String, Object> stats = transport.getStatistics();
+        return ((Number) stats.get(name)).longValue();
+    }
+
+    @Test
+    void pushesLocalWordsOnceAndAdvancesCursor() {
+        InMemoryCloudTransport cloud = new InMemoryCloudTransport();
+        Device device = new Device(cloud);
+        device.learn("مصطلح", "لفظ متفق عليه");
+        device.learn("تعبير", "طريقة القول");
+
+        device.sync();
+        assertNull(device.error);
+        assertEquals(2, device.pushed);
+        assertEquals(device.database.getMaxWordId(), device.sync.getPushCursor());
+        assertEquals("لفظ متفق عليه", cloud.get(LexiconSync.LEGACY_PATH + "/مصطلح"));
+        assertNotNull(cloud.get(LexiconSync.ENTRIES_PATH + "/تعبير/" + LexiconSync.UPDATED_AT));
+
+        long updates = stat(cloud, "updates");
+        device.sync();
+        assertEquals(0, device.pushed);
+        assertEquals(updates, stat(cloud, "updates"));
+    }
+
+    @Test
+    void pulledWordsAreNotPushedBack() {
+        InMemoryCloudTransport cloud = new InMemoryCloudTransport();
+        Device first = new Device(cloud);
+        Device second = new Device(cloud);
+        first.learn("لفظ", "ما يُنطق");
+        first.sync();
+
+        second.sync();
+        assertEquals(0, second.pushed);
+        assertEquals(1, second.pulled);
+        assertTrue(second.lexicon.getWord("لفظ").meanings.contains("ما يُنطق"));
+        assertNotNull(second.database.loadWord("لفظ"));
+
+        long updates = stat(cloud, "updates");
+        second.sync();
+        assertNull(second.error);
+        assertEquals(0, second.pushed);
+        assertEquals(updates, stat(cloud, "updates"));
+    }
+
+    @Test
+    void localEditOfPulledWordIsPushed() {
+        InMemoryCloudTransport cloud = new InMemoryCloudTransport();
+        Device first = new Device(cloud);
+        Device second = new Device(cloud);
+        first.learn("عبارة", "قول مفيد");
+        first.sync();
+        second.sync();
+
+        second.learn("عبارة", "جملة قصيرة");
+        second.sync();
+        assertEquals(1, second.pushed);
+
+        // السحب اللاحق لا يعيد الكلمة إلى السحابة ما دام لها تعديل محلي مرفوع
+        first.sync();
+        assertEquals(0, first.pushed);
+    }
+
+    @Test
+    void pullPagesThroughMoreThanOnePage() {
+        InMemoryCloudTransport cloud = new InMemoryCloudTransport();
+        Device first = new Device(cloud);
+        Device second = new Device(cloud);
+        for (int i = 0; i < 450; i++) {
+            first.learn("مصطلح" + i, "معنى " + i);
+        }
+
+        first.sync();
+        assertEquals(450, first.pushed);
+        assertEquals(3, stat(cloud, "updates"));
+
+        int known = second.lexicon.getWordCount();
+        second.sync();
+        assertNull(second.error);
+        assertEquals(450, second.pulled);
+        assertEquals(known + 450, second.lexicon.getWordCount());
+        assertTrue(stat(cloud, "queries") > 1);
+    }
+
+    @Test
+    void pullCursorSkipsSeenEntries() {
+        InMemoryCloudTransport cloud = new InMemoryCloudTransport();
+        Device first = new Device(cloud);
+        Device second = new Device(cloud);
+        for (int i = 0; i < 300; i++) {
+            first.learn("تعبير" + i, "معنى " + i);
+        }
+        first.sync();
+        second.sync();
+        assertEquals(300, second.pulled);
+        long cursor = second.sync.getPullCursor();
+        assertTrue(cursor > 0);
+
+        long read = stat(cloud, "children_read");
+        second.sync();
+        assertEquals(0, second.pulled);
+        assertEquals(cursor, second.sync.getPullCursor());
+        // البداية شاملة: لا يُعاد إلا ما كُتب في آخر عملية
+        assertTrue(stat(cloud, "children_read") - read <= 100);
+
+        first.learn("لفظ", "كلمة لم تُرفع بعد");
+        first.sync();
+        second.sync();
+        assertEquals(1, second.pulled);
+        assertTrue(second.sync.getPullCursor() > cursor);
+    }
+
+    @Test
+    void failedPushKeepsCursorUntilRetry() {
+        InMemoryCloudTransport cloud = new InMemoryCloudTransport();
+        Device device = new Device(cloud);
+        device.learn("صيغة", "بناء الكلمة");
+
+        cloud.setOnline(false);
+        device.sync();
+        assertNotNull(device.error);
+        assertEquals(0, device.sync.getPushCursor());
+        assertNull(cloud.get(LexiconSync.LEGACY_PATH + "/صيغة"));
+
+        cloud.setOnline(true);
+        device.sync();
+        assertNull(device.error);
+        assertEquals(1, device.pushed);
+        assertEquals("بناء الكلمة", cloud.get(LexiconSync.LEGACY_PATH + "/صيغة"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.neuralseed;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * قراءة لقطة بالصيغة 1 (مدخلات بلا إيماءة) وحفظ لقطة بالصيغة الحالية واستعادتها
+ */
+class SeedSnapshotTest {
+
+    @TempDir
+    File dir;
+
+    private static NeuralSeed.InternalState newState() {
+        LinguisticCortex linguistic = new LinguisticCortex();
+        linguistic.initializeRepository(new InMemorySeedRepository(), null);
+        return new NeuralSeed(linguistic).getCurrentState();
+    }
+
+    private static NeuralSeed.Input lastTouch(NeuralSeed.InternalState state) {
+        NeuralSeed.Input touch = null;
+        for (NeuralSeed.Memory memory : state.memory.memories) {
+            if (memory.input != null && memory.input.isTouch) touch = memory.input;
+        }
+        return touch;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    /**
+     * ملف بالصيغة 1 فيه قسم الذاكرة وحده، مكتوب بتخطيطه القديم حرفاً حرفاً
+     */
+    private static byte[] versionOneMemorySnapshot() throws IOException {
+        ByteArrayOutputStream section = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(section);
+        out.writeInt(1);
+        writeString(out, "touch");
+        writeString(out, "TOUCH");
+        out.writeDouble(0.5);
+        out.writeBoolean(true);
+        out.writeFloat(12f);
+        out.writeFloat(34f);
+        writeString(out, null);
+        for (int i = 0; i < 6; i++) out.writeDouble(0.1 * i);
+        out.writeInt(-1);
+        writeString(out, "STABLE");
+        out.writeLong(1_000L);
+        out.writeDouble(0.4);
+        out.writeDouble(0.6);
+        out.writeLong(2_000L);
+        out.flush();
+        byte[] content = section.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        ByteBuffer file = ByteBuffer.allocate(40 + content.length);
+        file.putInt(SeedSnapshot.MAGIC);
+        file.putInt(1);
+        file.putLong(System.currentTimeMillis());
+        file.putInt(1);
+        file.putInt(SeedSnapshotCodec.SECTION_MEMORY);
+        file.putLong(40);
+        file.putInt(content.length);
+        file.putInt((int) crc.getValue());
+        file.put(content);
+        return file.array();
+    }
+
+    @Test
+    void readsVersionOneInputsWithoutGesture() throws IOException {
+        File path = new File(dir, SeedSnapshot.FILE_NAME);
+        Files.write(path.toPath(), versionOneMemorySnapshot());
+
+        NeuralSeed.InternalState state = newState();
+        try (SeedSnapshot snapshot = SeedSnapshot.open(path)) {
+            assertEquals(1, snapshot.getVersion());
+            SeedSnapshotCodec.DecodeResult result = SeedSnapshotCodec.decode(snapshot, state);
+            assertTrue(result.isComplete(), result.failed.toString());
+            assertEquals(1, result.restored.size());
+        }
+
+        assertEquals(1, state.memory.memories.size());
+        NeuralSeed.Memory memory = state.memory.memories.get(0);
+        assertEquals(NeuralSeed.Phase.STABLE, memory.phase);
+        assertEquals(2_000L, memory.lastAccessed);
+        NeuralSeed.Input touch = memory.input;
+        assertEquals(12f, touch.touchX);
+        assertEquals(34f, touch.touchY);
+        assertNull(touch.gesture);
+        assertEquals(0, touch.durationMillis);
+    }
+
+    @Test
+    void roundTripsGestureInputs() throws IOException {
+        NeuralSeed.InternalState state = newState();
+        NeuralSeed.Input swipe = NeuralSeed.Input.createGestureInput(
+                NeuralSeed.Gesture.SWIPE, 10, 20, 300f, -40f, 180);
+        state.memory.store(new NeuralSeed.Memory(swipe, swipe.toEmotionalVector(),
+                state.dominantEgo, state.currentPhase));
+
+        File path = new File(dir, SeedSnapshot.FILE_NAME);
+        SeedSnapshot.write(path, SeedSnapshotCodec.encode(state));
+        assertArrayEquals(new String[] { SeedSnapshot.FILE_NAME }, dir.list());
+
+        NeuralSeed.InternalState restored = newState();
+        try (SeedSnapshot snapshot = SeedSnapshot.open(path)) {
+            assertEquals(SeedSnapshot.FORMAT_VERSION, snapshot.getVersion());
+            SeedSnapshotCodec.DecodeResult result = SeedSnapshotCodec.decode(snapshot, restored);
+            assertTrue(result.isComplete(), result.failed.toString());
+            assertTrue(result.restored.contains(SeedSnapshotCodec.SECTION_MEMORY));
+        }
+
+        assertEquals(state.memory.memories.size(), restored.memory.memories.size());
+        NeuralSeed.Input touch = lastTouch(restored);
+        assertNotNull(touch);
+        assertEquals(NeuralSeed.Gesture.SWIPE, touch.gesture);
+        assertEquals(300f, touch.velocityX);
+        assertEquals(-40f, touch.velocityY);
+        assertEquals(180, touch.durationMillis);
+        assertEquals(swipe.intensity, touch.intensity, 1e-9);
+    }
+
+    @Test
+    void corruptSectionFailsAloneAndOthersRestore() throws IOException {
+        NeuralSeed.InternalState state = newState();
+        File path = new File(dir, SeedSnapshot.FILE_NAME);
+        SeedSnapshot.write(path, SeedSnapshotCodec.encode(state));
+
+        // قلب بايت في آخر قسم مكتوب
+        byte[] bytes = Files.readAllBytes(path.toPath());
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(path.toPath(), bytes);
+
+        try (SeedSnapshot snapshot = SeedSnapshot.open(path)) {
+            SeedSnapshotCodec.DecodeResult result = SeedSnapshotCodec.decode(snapshot, newState());
+            assertEquals(1, result.failed.size());
+            assertFalse(result.restored.isEmpty());
+        }
+    }
+}
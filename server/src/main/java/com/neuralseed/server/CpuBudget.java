@@ -0,0 +1,86 @@
+package com.neuralseed.server;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * ميزانية المعالج لجلسة واحدة - دلو رموز بالنانوثانية
+ *
+ * يمتلئ الدلو بمعدل ثابت (نانوثانية من وقت المعالج لكل ثانية) حتى سعة ثانية واحدة،
+ * وكل طلب يُخصم منه ما استهلكه فعلاً بعد انتهائه. الجلسة المدينة تُرفض حتى يعود
+ * رصيدها موجباً، فلا تستطيع بذرة واحدة أن تحتكر المعالج على حساب آلاف الجلسات.
+ *
+ * وقت المعالج للخيط غير متاح للخيوط الافتراضية (يُرجع -1)، فيُقاس عندها
+ * الوقت المنقضي؛ المعالجة اللغوية لا تنتظر إدخالاً أو إخراجاً فالفرق صغير.
+ */
+final class CpuBudget {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long nanosPerSecond;
+    private final long capacity;
+    private long tokens;
+    private long lastRefill;
+    private long spent;
+
+    CpuBudget(long millisPerSecond) {
+        this.nanosPerSecond = millisPerSecond * 1_000_000L;
+        this.capacity = nanosPerSecond;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * هل في الرصيد ما يسمح بطلب جديد؟
+     */
+    synchronized boolean hasCredit() {
+        refill();
+        return tokens > 0;
+    }
+
+    /**
+     * خصم ما استهلكه طلب منتهٍ (قد يجعل الرصيد سالباً)
+     */
+    synchronized void charge(long nanos) {
+        refill();
+        tokens -= nanos;
+        spent += nanos;
+    }
+
+    /**
+     * الزمن حتى يعود الرصيد موجباً
+     */
+    synchronized long retryAfterMillis() {
+        refill();
+        if (tokens > 0 || nanosPerSecond == 0) return 0;
+        return (-tokens * 1000L) / nanosPerSecond + 1;
+    }
+
+    synchronized long getSpentNanos() {
+        return spent;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefill;
+        if (elapsed <= 0) return;
+        // elapsed × nanosPerSecond قد يتجاوز long بعد خمول طويل
+        double earned = (double) elapsed * nanosPerSecond / 1_000_000_000L;
+        tokens = (long) Math.min(capacity, tokens + earned);
+        lastRefill = now;
+    }
+
+    // ===== القياس =====
+
+    /**
+     * ساعة الخيط الحالي: وقت المعالج إن أمكن، وإلا الوقت المنقضي. الفرق بين
+     * قراءتين على الخيط نفسه هو الاستهلاك.
+     */
+    static long now() {
+        if (!Thread.currentThread().isVirtual()) {
+            long cpu = THREADS.getCurrentThreadCpuTime();
+            if (cpu >= 0) return cpu;
+        }
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,343 @@
+package com.neuralseed.server;
+
+import com.neuralseed.CompactLexicon;
+import com.neuralseed.LexiconImage;
+import com.neuralseed.LinguisticCortex;
+import com.neuralseed.NeuralSeed;
+import com.neuralseed.SeedLog;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * تشغيل المحرك بلا واجهة - واجهة HTTP محلية فوق مضيف البذور
+ *
+ * POST   /seeds/{id}/input   نص المدخل في جسم الطلب، ويُرجع الرد (يفتح البذرة إن لم تكن مفتوحة)
+ * GET    /seeds/{id}/state   الطور ومؤشر الفوضى واللياقة الوجودية (404 إن لم تكن مفتوحة)
+ * GET    /seeds/{id}/stream  بث الحالة (text/event-stream)، ?interval=ms
+ * DELETE /seeds/{id}         إيقاف البذرة وحفظها
+ * GET    /seeds              المعرّفات المفتوحة
+ * GET    /stats              الجلسات والرفض وتوزيع زمن الاستجابة
+ *
+ * كل طلب على خيط افتراضي خاص به، فالبث الطويل والعميل البطيء لا يحجزان خيطاً
+ * من النظام. ما يزيد على حد الطلبات المتزامنة يُرفض بـ 503، وما يتجاوز حدود
+ * الجلسة يُرفض بـ 429 مع Retry-After عندما يفيد الانتظار.
+ *
+ * الاستخدام: HeadlessRunner [--port 8080] [--data dir] [--base lexicon.img]
+ *            [--max-sessions 10000] [--max-requests 20000] [--cpu-ms 200]
+ *            [--threads virtual|platform]
+ */
+public class HeadlessRunner {
+
+    private static final String TAG = "HeadlessRunner";
+
+    private static final int MAX_INPUT_BYTES = 16 * 1024;
+    private static final int DEFAULT_MAX_REQUESTS = 20_000;
+    private static final long MIN_STREAM_INTERVAL_MS = 50;
+    private static final long DEFAULT_STREAM_INTERVAL_MS = 250;
+
+    private final SeedHost host;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int maxRequests;
+    private final Semaphore admission;
+
+    // الإحصاءات
+    private final LatencyStats inputLatency = new LatencyStats();
+    private final AtomicLong overloaded = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong activeStreams = new AtomicLong();
+
+    public HeadlessRunner(SeedHost host, int port, int maxRequests) throws IOException {
+        this.host = host;
+        this.maxRequests = maxRequests;
+        this.admission = new Semaphore(maxRequests);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/seeds", this::handle);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public void start() {
+        server.start();
+        SeedLog.i(TAG, "Listening on " + server.getAddress());
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        host.closeAll();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ===== التوجيه =====
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (!admission.tryAcquire()) {
+            overloaded.incrementAndGet();
+            try {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "server overloaded");
+            } finally {
+                exchange.close();
+            }
+            return;
+        }
+        try {
+            route(exchange);
+        } catch (SeedHost.RejectedException e) {
+            throttled.incrementAndGet();
+            if (e.retryAfterMillis > 0) {
+                exchange.getResponseHeaders().set("Retry-After",
+                        String.valueOf((e.retryAfterMillis + 999) / 1000));
+            }
+            sendError(exchange, 429, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            // العميل أغلق الاتصال
+        } catch (Exception e) {
+            SeedLog.e(TAG, "Request failed: " + e);
+            sendError(exchange, 500, "internal error");
+        } finally {
+            admission.release();
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, SeedHost.RejectedException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        // parts[0] فارغ، parts[1] = "seeds"
+        if (parts.length == 2 && method.equals("GET")) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("seeds", new ArrayList<>(host.ids()));
+            send(exchange, 200, body);
+            return;
+        }
+        if (parts.length < 3 || !SeedHost.isValidId(parts[2])) {
+            sendError(exchange, 404, "unknown route");
+            return;
+        }
+        String id = parts[2];
+        String action = parts.length > 3 ? parts[3] : "";
+
+        if (parts.length == 4 && action.equals("input") && method.equals("POST")) {
+            String text = readBody(exchange).trim();
+            if (text.isEmpty()) {
+                sendError(exchange, 400, "empty input");
+                return;
+            }
+            long started = System.nanoTime();
+            LinguisticCortex.GeneratedResponse response = host.open(id).respond(text);
+            inputLatency.record(System.nanoTime() - started);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("seed", id);
+            body.put("text", response.text);
+            body.put("confidence", response.confidence);
+            send(exchange, 200, body);
+        } else if (parts.length == 4 && action.equals("state") && method.equals("GET")) {
+            // القراءة لا توقظ بذرة ولا تنشئها
+            SeedHost.Session session = host.get(id);
+            if (session == null) {
+                sendError(exchange, 404, "seed not open");
+                return;
+            }
+            send(exchange, 200, describe(session));
+        } else if (parts.length == 4 && action.equals("stream") && method.equals("GET")) {
+            SeedHost.Session session = host.get(id);
+            if (session == null) {
+                sendError(exchange, 404, "seed not open");
+                return;
+            }
+            stream(exchange, session);
+        } else if (parts.length == 3 && method.equals("DELETE")) {
+            if (host.close(id)) {
+                send(exchange, 200, Collections.singletonMap("closed", id));
+            } else {
+                sendError(exchange, 404, "seed not open");
+            }
+        } else {
+            sendError(exchange, 405, "unsupported " + method + " " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("sessions", host.size());
+            body.put("in_flight", maxRequests - admission.availablePermits());
+            body.put("streams", activeStreams.get());
+            body.put("overloaded", overloaded.get());
+            body.put("throttled", throttled.get());
+            body.put("input_count", inputLatency.count());
+            body.put("input_p50_ms", inputLatency.percentileMillis(50));
+            body.put("input_p99_ms", inputLatency.percentileMillis(99));
+            body.put("base_lexicon_words", host.getBaseLexicon().size());
+            send(exchange, 200, body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ===== بث الحالة =====
+
+    /**
+     * أحداث SSE بالحالة على فترات حتى يغلق العميل الاتصال أو تُغلق الجلسة.
+     * الكتابة تحجب الخيط الافتراضي عند عميل بطيء فلا تتراكم الأحداث في الذاكرة.
+     */
+    private void stream(HttpExchange exchange, SeedHost.Session session)
+            throws IOException, SeedHost.RejectedException {
+        if (!session.tryOpenStream()) {
+            throw new SeedHost.RejectedException("too many streams", 0);
+        }
+        long interval = Math.max(MIN_STREAM_INTERVAL_MS,
+                queryLong(exchange, "interval", DEFAULT_STREAM_INTERVAL_MS));
+        activeStreams.incrementAndGet();
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            while (!session.isClosed()) {
+                String event = "data: " + Json.write(describe(session)) + "\n\n";
+                out.write(event.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            out.write("event: closed\ndata: {}\n\n".getBytes(StandardCharsets.UTF_8));
+            out.close();
+        } finally {
+            activeStreams.decrementAndGet();
+            session.releaseStream();
+        }
+    }
+
+    private static Map<String, Object> describe(SeedHost.Session session) {
+        NeuralSeed seed = session.seed;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("seed", session.id);
+        body.put("phase", seed.getCurrentPhase().name());
+        body.put("chaosIndex", seed.getChaosIndex());
+        body.put("existentialFitness", seed.getExistentialFitness());
+        body.put("linguistic", session.getLinguistic().getStatistics());
+        body.put("input", seed.getInputStatistics());
+        body.put("session", session.getStatistics());
+        return body;
+    }
+
+    // ===== الإدخال والإخراج =====
+
+    private static long queryLong(HttpExchange exchange, String name, long fallback) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return fallback;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                try {
+                    return Long.parseLong(pair.substring(eq + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("bad " + name);
+                }
+            }
+        }
+        return fallback;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                if (out.size() > MAX_INPUT_BYTES) {
+                    throw new IllegalArgumentException("input larger than " + MAX_INPUT_BYTES + " bytes");
+                }
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, Collections.singletonMap("error", message));
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // ===== نقطة الدخول =====
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        File data = null;
+        File base = null;
+        int maxSessions = SeedHost.DEFAULT_MAX_SESSIONS;
+        int maxRequests = DEFAULT_MAX_REQUESTS;
+        long cpuMillis = SeedHost.DEFAULT_CPU_MILLIS_PER_SECOND;
+        ThreadFactory seedThreads = SeedHost.VIRTUAL_THREADS;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (value == null ? "" : args[i]) {
+                case "--port": port = Integer.parseInt(value); break;
+                case "--data": data = new File(value); break;
+                case "--base": base = new File(value); break;
+                case "--max-sessions": maxSessions = Integer.parseInt(value); break;
+                case "--max-requests": maxRequests = Integer.parseInt(value); break;
+                case "--cpu-ms": cpuMillis = Long.parseLong(value); break;
+                case "--threads": seedThreads = SeedHost.threadsFor(value); break;
+                default:
+                    System.err.println("Usage: HeadlessRunner [--port 8080] [--data dir] [--base lexicon.img]"
+                            + " [--max-sessions 10000] [--max-requests 20000] [--cpu-ms 200]"
+                            + " [--threads virtual|platform]");
+                    System.exit(2);
+            }
+            i++;
+        }
+
+        CompactLexicon baseLexicon = null;
+        if (base != null) {
+            LexiconImage image = LexiconImage.open(base);
+            if (image == null) {
+                System.err.println("Unreadable lexicon image " + base);
+                System.exit(2);
+            }
+            baseLexicon = image.getLexicon();
+        }
+
+        SeedHost host = new SeedHost(data, baseLexicon, maxSessions, SeedHost.DEFAULT_PENDING_PER_SESSION,
+                SeedHost.DEFAULT_STREAMS_PER_SESSION, cpuMillis, seedThreads);
+        HeadlessRunner runner = new HeadlessRunner(host, port, maxRequests);
+        Runtime.getRuntime().addShutdownHook(new Thread(runner::stop, "HeadlessShutdown"));
+        runner.start();
+    }
+}
@@ -0,0 +1,63 @@
+package com.neuralseed.server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * توزيع زمن الاستجابة - مدرج لوغاريتمي بلا أقفال
+ *
+ * الخانات بالميكروثانية، كل قوة للعدد 2 مقسومة إلى أربع خانات (خطأ أقصاه نحو 19%)
+ * حتى نحو 70 ثانية. التسجيل زيادة ذرية واحدة، فيمكن لآلاف الخيوط التسجيل معاً.
+ */
+final class LatencyStats {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int MAX_POWER = 26;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(MAX_POWER * SUB_BUCKETS + 1);
+
+    void record(long nanos) {
+        buckets.incrementAndGet(bucketOf(Math.max(1, nanos / 1000)));
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) total += buckets.get(i);
+        return total;
+    }
+
+    /**
+     * الحد الأعلى للخانة التي تقع فيها النسبة المئوية المطلوبة، بالميليثانية
+     */
+    double percentileMillis(double percentile) {
+        long[] snapshot = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return upperBoundMicros(i) / 1000.0;
+        }
+        return upperBoundMicros(snapshot.length - 1) / 1000.0;
+    }
+
+    private static int bucketOf(long micros) {
+        int power = 63 - Long.numberOfLeadingZeros(micros);
+        if (power >= MAX_POWER) return MAX_POWER * SUB_BUCKETS;
+        // الخانة الفرعية من البتّين التاليين للبت الأعلى
+        int sub = power >= 2 ? (int) ((micros >> (power - 2)) & 3) : (int) ((micros << (2 - power)) & 3);
+        return power * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        int power = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        long base = 1L << power;
+        return base + (base * (sub + 1)) / SUB_BUCKETS;
+    }
+}
@@ -0,0 +1,189 @@
+package com.neuralseed.server;
+
+import com.neuralseed.ArabicLexicon;
+import com.neuralseed.CompactLexicon;
+import com.neuralseed.InMemorySeedRepository;
+import com.neuralseed.LinguisticCortex;
+import com.neuralseed.NeuralSeed;
+import com.neuralseed.VisualFrame;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * مقارنة تشغيل دورات البذور على خيوط النظام وعلى الخيوط الافتراضية
+ *
+ * لكل نمط وعدد بذور: زمن الإيقاظ، وخيوط النظام الحية، والذاكرة المستعملة،
+ * ومعدل الإطارات البصرية المحقق من أصل 10 في الثانية لكل بذرة (مقياس تأخر
+ * الجدولة)، وزمن الرد على مدخلات تُرسل إلى بذور عشوائية أثناء التشغيل.
+ *
+ * الاستخدام: SeedBenchmark [--seeds 1,100,10000] [--modes platform,virtual] [--seconds 5] [--rate 500]
+ */
+public class SeedBenchmark {
+
+    private static final double TARGET_FPS = 10.0;
+    private static final String[] INPUTS = {
+        "مرحبا", "أنا أحب القراءة", "الكتاب هو صديق", "كيف حالك اليوم", "أشعر بالفرح"
+    };
+
+    private static class Result {
+        final String mode;
+        final int seeds;
+        String error;
+        long awakenMillis;
+        int platformThreads;
+        long heapMb;
+        double fpsPerSeed;
+        long responses;
+        double p50, p99;
+
+        Result(String mode, int seeds) {
+            this.mode = mode;
+            this.seeds = seeds;
+        }
+    }
+
+    private static Result run(String mode, int count, int seconds, int rate, CompactLexicon base)
+            throws InterruptedException {
+        Result result = new Result(mode, count);
+        ThreadFactory threads = SeedHost.threadsFor(mode);
+        AtomicLong frames = new AtomicLong();
+        List<NeuralSeed> seeds = new ArrayList<>(count);
+
+        try {
+            long started = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                LinguisticCortex cortex = new LinguisticCortex(base);
+                cortex.initializeRepository(new InMemorySeedRepository(), null);
+                NeuralSeed seed = new NeuralSeed(cortex, threads);
+                seed.addListener(new FrameCounter(frames));
+                seeds.add(seed);
+                seed.awaken();
+            }
+            result.awakenMillis = (System.nanoTime() - started) / 1_000_000;
+        } catch (OutOfMemoryError e) {
+            // خيوط النظام تنفد قبل الذاكرة عادة: "unable to create native thread"
+            result.error = "failed after " + seeds.size() + " seeds: " + e.getMessage();
+            stopAll(seeds);
+            return result;
+        }
+
+        Thread.sleep(1000);
+        result.platformThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        // المدخلات بمعدل ثابت من خيط نظام، كما تصل من الشبكة. خيط افتراضي لا يتوقف
+        // كان سيحتكر حامله ويجوّع دورات البذور، فلا يقيس إلا نفسه.
+        LatencyStats latency = new LatencyStats();
+        long framesBefore = frames.get();
+        long window = System.nanoTime();
+        long deadline = window + seconds * 1_000_000_000L;
+        long period = 1_000_000_000L / Math.max(1, rate);
+        Thread driver = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long next = System.nanoTime();
+            // المعالج المشبع قد يتأخر عن الجدول، فالنافذة تنتهي بالساعة أيضاً
+            while (next < deadline && System.nanoTime() < deadline) {
+                NeuralSeed seed = seeds.get(random.nextInt(seeds.size()));
+                String text = INPUTS[random.nextInt(INPUTS.length)];
+                seed.receiveInput(NeuralSeed.Input.createSpeechInput(text));
+                seed.getLinguistic().generateResponse(text, seed.getCurrentState(false));
+                // الزمن من موعد الطلب المقرر، فالتأخر المتراكم يظهر في الذيل
+                latency.record(System.nanoTime() - next);
+                next += period;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }, "BenchmarkDriver");
+        driver.start();
+        driver.join();
+        double elapsed = (System.nanoTime() - window) / 1e9;
+
+        result.fpsPerSeed = (frames.get() - framesBefore) / elapsed / count;
+        result.responses = latency.count();
+        result.p50 = latency.percentileMillis(50);
+        result.p99 = latency.percentileMillis(99);
+        System.gc();
+        result.heapMb = usedHeapMb();
+
+        stopAll(seeds);
+        return result;
+    }
+
+    private static void stopAll(List<NeuralSeed> seeds) throws InterruptedException {
+        for (NeuralSeed seed : seeds) {
+            seed.sleep();
+        }
+        seeds.clear();
+        // مهلة لتخرج الدورات من نومها قبل القياس التالي
+        Thread.sleep(1500);
+        System.gc();
+    }
+
+    private static long usedHeapMb() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+
+    private static class FrameCounter implements NeuralSeed.ConsciousnessListener {
+        private final AtomicLong frames;
+
+        FrameCounter(AtomicLong frames) {
+            this.frames = frames;
+        }
+
+        @Override public void onVisualExpression(VisualFrame frame) { frames.incrementAndGet(); }
+        @Override public void onPhaseTransition(NeuralSeed.Phase oldPhase, NeuralSeed.Phase newPhase, String reason) {}
+        @Override public void onEgoShift(NeuralSeed.EgoFragment oldDominant, NeuralSeed.EgoFragment newDominant) {}
+        @Override public void onGoalAchieved(NeuralSeed.Goal goal) {}
+        @Override public void onIdentityEvolution(NeuralSeed.IdentityCore oldIdentity, NeuralSeed.IdentityCore newIdentity) {}
+        @Override public void onMemoryFormed(NeuralSeed.Memory memory) {}
+        @Override public void onRuleRewritten(NeuralSeed.Rule oldRule, NeuralSeed.Rule newRule) {}
+    }
+
+    // ===== نقطة الدخول =====
+
+    public static void main(String[] args) throws InterruptedException {
+        String[] counts = {"1", "100", "10000"};
+        String[] modes = {"platform", "virtual"};
+        int seconds = 5;
+        int rate = 500;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seeds": counts = args[i + 1].split(","); break;
+                case "--modes": modes = args[i + 1].split(","); break;
+                case "--seconds": seconds = Integer.parseInt(args[i + 1]); break;
+                case "--rate": rate = Integer.parseInt(args[i + 1]); break;
+                default:
+                    System.err.println("Usage: SeedBenchmark [--seeds 1,100,10000]"
+                            + " [--modes platform,virtual] [--seconds 5] [--rate 500]");
+                    System.exit(2);
+            }
+        }
+
+        CompactLexicon base = CompactLexicon.of(ArabicLexicon.getDefaultWords());
+        System.out.printf("%-9s %7s %10s %8s %8s %9s %9s %9s %9s%n",
+                "mode", "seeds", "awaken_ms", "threads", "heap_mb", "fps/seed", "responses", "p50_ms", "p99_ms");
+        for (String count : counts) {
+            for (String mode : modes) {
+                Result r = run(mode, Integer.parseInt(count.trim()), seconds, rate, base);
+                if (r.error != null) {
+                    System.out.printf("%-9s %7d  %s%n", r.mode, r.seeds, r.error);
+                } else {
+                    System.out.printf("%-9s %7d %10d %8d %8d %9.2f %9d %9.3f %9.3f%n",
+                            r.mode, r.seeds, r.awakenMillis, r.platformThreads, r.heapMb,
+                            r.fpsPerSeed, r.responses, r.p50, r.p99);
+                }
+            }
+        }
+        System.out.printf("(fps/seed target %.0f)%n", TARGET_FPS);
+        System.exit(0);
+    }
+}
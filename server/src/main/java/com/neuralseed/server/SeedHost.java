@@ -0,0 +1,324 @@
+package com.neuralseed.server;
+
+import com.neuralseed.ArabicLexicon;
+import com.neuralseed.CompactLexicon;
+import com.neuralseed.FileSeedRepository;
+import com.neuralseed.InMemorySeedRepository;
+import com.neuralseed.LinguisticCortex;
+import com.neuralseed.NeuralSeed;
+import com.neuralseed.SeedLog;
+import com.neuralseed.SeedRepository;
+import com.neuralseed.SeedSnapshot;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * مضيف البذور - جلسات مستقلة على JVM واحد، كل جلسة ببذرتها وقشرتها ومستودعها
+ *
+ * المعجم الأساسي واحد للقراءة فقط تتشاركه كل الجلسات، وما تتعلمه الجلسة يبقى
+ * في طبقتها ومستودعها. مع مجلد بيانات تُحفظ كل جلسة في ملفاتها (سجل المستودع
+ * واللقطة) وتُستعاد عند فتحها مرة أخرى؛ بدونه تعيش الجلسات في الذاكرة فقط.
+ *
+ * الضغط الخلفي على ثلاث طبقات: حد لعدد الجلسات، وحد للطلبات المنتظرة على
+ * الجلسة الواحدة، وميزانية معالج لكل جلسة. ما يتجاوزها يُرفض فوراً ولا يُصف.
+ */
+public class SeedHost {
+
+    private static final String TAG = "SeedHost";
+
+    private static final Pattern SEED_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+    public static final int DEFAULT_PENDING_PER_SESSION = 4;
+    public static final int DEFAULT_STREAMS_PER_SESSION = 4;
+    public static final long DEFAULT_CPU_MILLIS_PER_SECOND = 200;
+
+    /**
+     * دورات البذرة خيوط افتراضية: ثمانية خيوط نظام لكل بذرة لا تتسع لآلاف الجلسات
+     */
+    public static final ThreadFactory VIRTUAL_THREADS = Thread.ofVirtual().factory();
+
+    /**
+     * رفض طلب لتجاوز حد؛ retryAfterMillis صفر عندما لا يفيد الانتظار
+     */
+    public static class RejectedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public final long retryAfterMillis;
+
+        RejectedException(String message, long retryAfterMillis) {
+            super(message);
+            this.retryAfterMillis = retryAfterMillis;
+        }
+    }
+
+    public static class Session {
+        public final String id;
+        public final NeuralSeed seed;
+        public final SeedRepository repository;
+        private final File snapshotFile;
+
+        // قفل لا مزامنة: الانتظار على synchronized يثبّت الخيط الافتراضي على حامله
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Semaphore pending;
+        private final Semaphore streams;
+        private final CpuBudget budget;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile boolean closed = false;
+
+        Session(String id, NeuralSeed seed, SeedRepository repository, File snapshotFile,
+                int maxPending, int maxStreams, long cpuMillisPerSecond) {
+            this.id = id;
+            this.seed = seed;
+            this.repository = repository;
+            this.snapshotFile = snapshotFile;
+            this.pending = new Semaphore(maxPending);
+            this.streams = new Semaphore(maxStreams);
+            this.budget = new CpuBudget(cpuMillisPerSecond);
+        }
+
+        public LinguisticCortex getLinguistic() {
+            return seed.getLinguistic();
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * مدخل نصي: يصل إلى البذرة ويُولَّد الرد عليه. الطلبات على الجلسة الواحدة متتالية،
+         * وما يزيد على حد الانتظار أو يتجاوز ميزانية المعالج يُرفض.
+         */
+        public LinguisticCortex.GeneratedResponse respond(String text) throws RejectedException {
+            if (!pending.tryAcquire()) {
+                rejected.incrementAndGet();
+                throw new RejectedException("session busy", 0);
+            }
+            try {
+                if (!budget.hasCredit()) {
+                    rejected.incrementAndGet();
+                    throw new RejectedException("cpu budget exhausted", budget.retryAfterMillis());
+                }
+                lock.lock();
+                try {
+                    if (closed) throw new RejectedException("session closed", 0);
+                    long start = CpuBudget.now();
+                    try {
+                        seed.receiveInput(NeuralSeed.Input.createSpeechInput(text));
+                        return getLinguistic().generateResponse(text, seed.getCurrentState(false));
+                    } finally {
+                        budget.charge(CpuBudget.now() - start);
+                        requests.incrementAndGet();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                pending.release();
+            }
+        }
+
+        /**
+         * حجز مكان لمتابع بث الحالة؛ يُحرر بـ releaseStream
+         */
+        public boolean tryOpenStream() {
+            return !closed && streams.tryAcquire();
+        }
+
+        public void releaseStream() {
+            streams.release();
+        }
+
+        public Map<String, Object> getStatistics() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", requests.get());
+            stats.put("rejected", rejected.get());
+            stats.put("cpu_ms", budget.getSpentNanos() / 1_000_000.0);
+            stats.put("cpu_retry_after_ms", budget.retryAfterMillis());
+            return stats;
+        }
+    }
+
+    private final File dataDir;
+    private final CompactLexicon baseLexicon;
+    private final int maxSessions;
+    private final int pendingPerSession;
+    private final int streamsPerSession;
+    private final long cpuMillisPerSecond;
+    private final ThreadFactory seedThreads;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // الجلسات قيد الفتح: من يطلب المعرّف نفسه ينتظر مستقبله بدل أن يفتحها مرة ثانية
+    private final Map<String, CompletableFuture<Session>> opening = new ConcurrentHashMap<>();
+    // يحرس حجز مكان في حد الجلسات فقط؛ القراءة من القرص والإيقاظ تجري خارجه
+    private final ReentrantLock openLock = new ReentrantLock();
+
+    public SeedHost(File dataDir) {
+        this(dataDir, null, DEFAULT_MAX_SESSIONS, DEFAULT_PENDING_PER_SESSION,
+                DEFAULT_STREAMS_PER_SESSION, DEFAULT_CPU_MILLIS_PER_SECOND, VIRTUAL_THREADS);
+    }
+
+    /**
+     * @param baseLexicon المعجم الأساسي المشترك؛ null للكلمات الافتراضية وحدها
+     * @param seedThreads مصنع خيوط دورات البذور (VIRTUAL_THREADS أو NeuralSeed.PLATFORM_THREADS)
+     */
+    public SeedHost(File dataDir, CompactLexicon baseLexicon, int maxSessions,
+                    int pendingPerSession, int streamsPerSession, long cpuMillisPerSecond,
+                    ThreadFactory seedThreads) {
+        this.dataDir = dataDir;
+        this.baseLexicon = baseLexicon != null ? baseLexicon : CompactLexicon.of(ArabicLexicon.getDefaultWords());
+        this.maxSessions = maxSessions;
+        this.pendingPerSession = pendingPerSession;
+        this.streamsPerSession = streamsPerSession;
+        this.cpuMillisPerSecond = cpuMillisPerSecond;
+        this.seedThreads = seedThreads;
+        if (dataDir != null && !dataDir.isDirectory() && !dataDir.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create data directory " + dataDir);
+        }
+    }
+
+    /**
+     * مصنع الخيوط بالاسم: virtual أو platform
+     */
+    public static ThreadFactory threadsFor(String mode) {
+        switch (mode) {
+            case "virtual": return VIRTUAL_THREADS;
+            case "platform": return NeuralSeed.PLATFORM_THREADS;
+            default: throw new IllegalArgumentException("Unknown thread mode " + mode);
+        }
+    }
+
+    public static boolean isValidId(String id) {
+        return id != null && SEED_ID.matcher(id).matches();
+    }
+
+    /**
+     * الجلسة المفتوحة بالمعرّف، أو جلسة تُنشأ (أو تُستعاد من ملفاتها) وتُوقظ.
+     * فتح بذرة لا يعطّل فتح غيرها: يُحجز المعرّف تحت القفل ثم تُستعاد خارجه.
+     */
+    public Session open(String id) throws IOException, RejectedException {
+        if (!isValidId(id)) throw new IllegalArgumentException("Invalid seed id " + id);
+        Session session = sessions.get(id);
+        if (session != null) return session;
+
+        boolean[] reserved = {false};
+        CompletableFuture<Session> pending;
+        openLock.lock();
+        try {
+            session = sessions.get(id);
+            if (session != null) return session;
+            if (!opening.containsKey(id) && sessions.size() + opening.size() >= maxSessions) {
+                throw new RejectedException("session limit " + maxSessions + " reached", 0);
+            }
+            pending = opening.computeIfAbsent(id, key -> {
+                reserved[0] = true;
+                return new CompletableFuture<>();
+            });
+        } finally {
+            openLock.unlock();
+        }
+
+        if (!reserved[0]) return await(pending);
+
+        try {
+            session = restore(id);
+            sessions.put(id, session);
+            pending.complete(session);
+            SeedLog.i(TAG, "Seed " + id + " awakened (" + sessions.size() + " hosted)");
+            return session;
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            opening.remove(id, pending);
+        }
+    }
+
+    private Session restore(String id) throws IOException {
+        SeedRepository repository = dataDir != null
+            ? new FileSeedRepository(new File(dataDir, id + ".journal"))
+            : new InMemorySeedRepository();
+        File snapshot = dataDir != null ? new File(dataDir, id + "." + SeedSnapshot.FILE_NAME) : null;
+
+        NeuralSeed seed = new NeuralSeed(new LinguisticCortex(baseLexicon), seedThreads);
+        seed.getLinguistic().initializeRepository(repository, null);
+        if (snapshot != null) seed.restoreSnapshot(snapshot);
+        seed.awaken();
+
+        return new Session(id, seed, repository, snapshot,
+                pendingPerSession, streamsPerSession, cpuMillisPerSecond);
+    }
+
+    /**
+     * انتظار جلسة يفتحها طلب آخر، مع إعادة رمي خطئه كما هو
+     */
+    private static Session await(CompletableFuture<Session> pending) throws IOException {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw e;
+        }
+    }
+
+    public Session get(String id) {
+        return sessions.get(id);
+    }
+
+    public Set<String> ids() {
+        return new TreeSet<>(sessions.keySet());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public CompactLexicon getBaseLexicon() {
+        return baseLexicon;
+    }
+
+    /**
+     * إيقاف البذرة وحفظ لقطتها وتثبيت مستودعها
+     */
+    public boolean close(String id) {
+        Session session = sessions.remove(id);
+        if (session == null) return false;
+
+        session.lock.lock();
+        try {
+            session.closed = true;
+        } finally {
+            session.lock.unlock();
+        }
+
+        session.seed.sleep();
+        if (session.snapshotFile != null) {
+            try {
+                session.seed.saveSnapshot(session.snapshotFile);
+            } catch (IOException e) {
+                SeedLog.w(TAG, "Snapshot save failed for " + id + ": " + e.getMessage());
+            }
+        }
+        session.getLinguistic().shutdown();
+        session.repository.flush();
+        session.repository.close();
+        return true;
+    }
+
+    public void closeAll() {
+        for (String id : ids()) {
+            close(id);
+        }
+    }
+}